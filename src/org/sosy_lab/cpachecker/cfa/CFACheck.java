@@ -18,6 +18,7 @@ import static org.sosy_lab.cpachecker.util.CFAUtils.enteringEdges;
 import static org.sosy_lab.cpachecker.util.CFAUtils.leavingEdges;
 
 import com.google.common.base.Function;
+import com.google.common.base.Optional;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 
@@ -38,6 +39,8 @@ import java.util.Deque;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 public class CFACheck {
 
   /**
@@ -50,6 +53,23 @@ public class CFACheck {
   public static boolean check(
       FunctionEntryNode cfa, Collection<CFANode> nodes,
       boolean pruned) {
+    Optional<String> violation = findViolation(cfa, nodes, pruned);
+    if (violation.isPresent()) {
+      throw new AssertionError(violation.get());
+    }
+    return true;
+  }
+
+  /**
+   * Run the same checks as {@link #check(FunctionEntryNode, Collection, boolean)}, regardless of
+   * whether assertions are enabled. This is used for CFAs that are not built from the source
+   * code in this run, such as cached CFAs.
+   *
+   * @return the description of the first violation found, or absent if the CFA is consistent
+   */
+  public static Optional<String> findViolation(
+      FunctionEntryNode cfa, @Nullable Collection<CFANode> nodes,
+      boolean pruned) {
 
     Set<CFANode> visitedNodes = new HashSet<>();
     Deque<CFANode> waitingNodeList = new ArrayDeque<>();
@@ -64,20 +84,25 @@ public class CFACheck {
             CFAUtils.predecessorsOf(node)); // just to be sure to get ALL nodes.
 
         // The actual checks
-        isConsistent(node);
-        checkEdgeCount(node, pruned);
+        String violation = isConsistent(node);
+        if (violation == null) {
+          violation = checkEdgeCount(node, pruned);
+        }
+        if (violation != null) {
+          return Optional.of(violation);
+        }
       }
     }
 
     if (nodes != null) {
       if (!visitedNodes.equals(nodes)) {
-        assert false : "\nNodes in CFA but not reachable through traversal: " + Iterables
+        return Optional.of("\nNodes in CFA but not reachable through traversal: " + Iterables
             .transform(Sets.difference(new HashSet<>(nodes), visitedNodes), DEBUG_FORMAT)
             + "\nNodes reached that are not in CFA: " + Iterables
-            .transform(Sets.difference(visitedNodes, new HashSet<>(nodes)), DEBUG_FORMAT);
+            .transform(Sets.difference(visitedNodes, new HashSet<>(nodes)), DEBUG_FORMAT));
       }
     }
-    return true;
+    return Optional.absent();
   }
 
   private static final Function<CFANode, String> DEBUG_FORMAT = new Function<CFANode, String>() {
@@ -102,13 +127,15 @@ public class CFACheck {
    * Verify that the number of edges and their types match.
    *
    * @param pNode Node to be checked
+   * @return the description of the violation, or null if there is no one
    */
-  private static void checkEdgeCount(CFANode pNode, boolean pruned) {
+  @Nullable
+  private static String checkEdgeCount(CFANode pNode, boolean pruned) {
 
     // check entering edges
     int entering = pNode.getNumEnteringEdges();
-    if (entering == 0) {
-      assert (pNode instanceof FunctionEntryNode) : "Dead code: node " + DEBUG_FORMAT.apply(pNode)
+    if (entering == 0 && !(pNode instanceof FunctionEntryNode)) {
+      return "Dead code: node " + DEBUG_FORMAT.apply(pNode)
           + " has no incoming edges (successors are " + CFAUtils.successorsOf(pNode)
           .transform(DEBUG_FORMAT) + ")";
     }
@@ -117,23 +144,22 @@ public class CFACheck {
     if (!(pNode instanceof FunctionExitNode)) {
       switch (pNode.getNumLeavingEdges()) {
         case 0:
-          if (!pruned) {
-            // not possible to check this when CFA was pruned
-            assert pNode instanceof CFATerminationNode : "Dead end at node " + DEBUG_FORMAT
-                .apply(pNode);
+          // not possible to check this when CFA was pruned
+          if (!pruned && !(pNode instanceof CFATerminationNode)) {
+            return "Dead end at node " + DEBUG_FORMAT.apply(pNode);
           }
           break;
 
         case 1:
           CFAEdge edge = pNode.getLeavingEdge(0);
-          if (!pruned) {
-            // not possible to check this when CFA was pruned
-            assert !(edge instanceof AssumeEdge) : "AssumeEdge does not appear in pair at node "
+          // not possible to check this when CFA was pruned
+          if (!pruned && edge instanceof AssumeEdge) {
+            return "AssumeEdge does not appear in pair at node " + DEBUG_FORMAT.apply(pNode);
+          }
+          if (edge instanceof CFunctionSummaryStatementEdge) {
+            return "CFunctionSummaryStatementEdge is not paired with CFunctionCallEdge at node "
                 + DEBUG_FORMAT.apply(pNode);
           }
-          assert !(edge instanceof CFunctionSummaryStatementEdge) :
-              "CFunctionSummaryStatementEdge is not paired with CFunctionCallEdge at node "
-                  + DEBUG_FORMAT.apply(pNode);
           break;
 
         case 2:
@@ -141,29 +167,34 @@ public class CFACheck {
           CFAEdge edge2 = pNode.getLeavingEdge(1);
           //relax this assumption for summary edges
           if (edge1 instanceof CFunctionSummaryStatementEdge) {
-            assert edge2 instanceof CFunctionCallEdge :
-                "CFunctionSummaryStatementEdge is not paired with CFunctionCallEdge at node "
-                    + DEBUG_FORMAT.apply(pNode);
+            if (!(edge2 instanceof CFunctionCallEdge)) {
+              return "CFunctionSummaryStatementEdge is not paired with CFunctionCallEdge at node "
+                  + DEBUG_FORMAT.apply(pNode);
+            }
           } else if (edge2 instanceof CFunctionSummaryStatementEdge) {
-            assert edge1 instanceof CFunctionCallEdge :
-                "CFunctionSummaryStatementEdge is not paired with CFunctionCallEdge at node "
-                    + DEBUG_FORMAT.apply(pNode);
+            if (!(edge1 instanceof CFunctionCallEdge)) {
+              return "CFunctionSummaryStatementEdge is not paired with CFunctionCallEdge at node "
+                  + DEBUG_FORMAT.apply(pNode);
+            }
           } else {
-            assert (edge1 instanceof AssumeEdge) && (edge2 instanceof AssumeEdge) :
-                "Branching without conditions at node " + DEBUG_FORMAT
-                    .apply(pNode);  // TODO Ask for permission
+            if (!(edge1 instanceof AssumeEdge) || !(edge2 instanceof AssumeEdge)) {
+              return "Branching without conditions at node " + DEBUG_FORMAT
+                  .apply(pNode);  // TODO Ask for permission
+            }
 
             AssumeEdge ae1 = (AssumeEdge) edge1;
             AssumeEdge ae2 = (AssumeEdge) edge2;
-            assert ae1.getTruthAssumption() != ae2.getTruthAssumption() :
-                "Inconsistent branching at node " + DEBUG_FORMAT.apply(pNode);
+            if (ae1.getTruthAssumption() == ae2.getTruthAssumption()) {
+              return "Inconsistent branching at node " + DEBUG_FORMAT.apply(pNode);
+            }
           }
           break;
 
         default:
-          assert false : "Too much branching at node " + DEBUG_FORMAT.apply(pNode);
+          return "Too much branching at node " + DEBUG_FORMAT.apply(pNode);
       }
     }
+    return null;
   }
 
   /**
@@ -171,26 +202,30 @@ public class CFACheck {
    * at predecessor/successor nodes, and that there are no duplicates
    *
    * @param pNode Node to be checked
+   * @return the description of the violation, or null if there is no one
    */
-  private static void isConsistent(CFANode pNode) {
+  @Nullable
+  private static String isConsistent(CFANode pNode) {
     Set<CFAEdge> seenEdges = new HashSet<>();
     Set<CFANode> seenNodes = new HashSet<>();
 
     for (CFAEdge edge : leavingEdges(pNode)) {
       if (!seenEdges.add(edge)) {
-        assert false : "Duplicate leaving edge " + edge + " on node " + DEBUG_FORMAT.apply(pNode);
+        return "Duplicate leaving edge " + edge + " on node " + DEBUG_FORMAT.apply(pNode);
       }
 
       CFANode successor = edge.getSuccessor();
       if (!seenNodes.add(successor)) {
-        assert false : "Duplicate successor " + successor + " for node " + DEBUG_FORMAT
+        return "Duplicate successor " + successor + " for node " + DEBUG_FORMAT
             .apply(pNode);
       }
 
       boolean hasEdge = enteringEdges(successor).contains(edge);
-      assert hasEdge : "Node " + DEBUG_FORMAT.apply(pNode) + " has leaving edge " + edge
-          + ", but pNode " + DEBUG_FORMAT.apply(successor)
-          + " does not have this edge as entering edge!";
+      if (!hasEdge) {
+        return "Node " + DEBUG_FORMAT.apply(pNode) + " has leaving edge " + edge
+            + ", but pNode " + DEBUG_FORMAT.apply(successor)
+            + " does not have this edge as entering edge!";
+      }
     }
 
     seenEdges.clear();
@@ -198,19 +233,22 @@ public class CFACheck {
 
     for (CFAEdge edge : enteringEdges(pNode)) {
       if (!seenEdges.add(edge)) {
-        assert false : "Duplicate entering edge " + edge + " on node " + DEBUG_FORMAT.apply(pNode);
+        return "Duplicate entering edge " + edge + " on node " + DEBUG_FORMAT.apply(pNode);
       }
 
       CFANode predecessor = edge.getPredecessor();
       if (!seenNodes.add(predecessor)) {
-        assert false : "Duplicate predecessor " + predecessor + " for node " + DEBUG_FORMAT
+        return "Duplicate predecessor " + predecessor + " for node " + DEBUG_FORMAT
             .apply(pNode);
       }
 
       boolean hasEdge = leavingEdges(predecessor).contains(edge);
-      assert hasEdge : "Node " + DEBUG_FORMAT.apply(pNode) + " has entering edge " + edge
-          + ", but pNode " + DEBUG_FORMAT.apply(pNode)
-          + " does not have this edge as leaving edge!";
+      if (!hasEdge) {
+        return "Node " + DEBUG_FORMAT.apply(pNode) + " has entering edge " + edge
+            + ", but pNode " + DEBUG_FORMAT.apply(pNode)
+            + " does not have this edge as leaving edge!";
+      }
     }
+    return null;
   }
 }
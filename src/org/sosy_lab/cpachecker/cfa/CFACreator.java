@@ -20,6 +20,7 @@ import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 import com.google.common.collect.SortedSetMultimap;
 
@@ -34,7 +35,9 @@ import org.sosy_lab.common.io.Files;
 import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.CFASnapshotCache.Snapshot;
 import org.sosy_lab.cpachecker.cfa.CParser.FileToParse;
 import org.sosy_lab.cpachecker.cfa.ast.ADeclaration;
 import org.sosy_lab.cpachecker.cfa.ast.AExpression;
@@ -90,6 +93,9 @@ import org.sosy_lab.cpachecker.util.LiveVariables;
 import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.VariableClassification;
+import org.sosy_lab.cpachecker.util.callgraph.CallGraph;
+import org.sosy_lab.cpachecker.util.callgraph.CallGraphBuilder;
+import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -97,14 +103,17 @@ import java.io.PrintStream;
 import java.io.Writer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Queue;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
@@ -244,18 +253,33 @@ public class CFACreator {
   private final Parser parser;
   private final CFAReduction cfaReduction;
   private final ShutdownNotifier shutdownNotifier;
+  private final CFASnapshotCache snapshotCache;
+
+  // the call graph loaded from or stored into the CFA snapshot
+  private CallGraph callGraph = null;
 
   private static class CFACreatorStatistics implements Statistics {
 
     private final Timer parserInstantiationTime = new Timer();
     private final Timer totalTime = new Timer();
     private Timer parsingTime;
+    private Map<String, TimeSpan> parsingTimePerFile = Collections.emptyMap();
     private Timer conversionTime;
     private final Timer checkTime = new Timer();
     private final Timer processingTime = new Timer();
     private final Timer pruningTime = new Timer();
     private final Timer variableClassificationTime = new Timer();
     private final Timer exportTime = new Timer();
+    private final Timer snapshotTime = new Timer();
+
+    private static final int MAX_REPORTED_FILES = 5;
+    private static final Ordering<Entry<String, TimeSpan>> SLOWEST_FIRST =
+        new Ordering<Entry<String, TimeSpan>>() {
+          @Override
+          public int compare(Entry<String, TimeSpan> pEntry1, Entry<String, TimeSpan> pEntry2) {
+            return pEntry2.getValue().compareTo(pEntry1.getValue());
+          }
+        };
 
     @Override
     public String getName() {
@@ -267,6 +291,15 @@ public class CFACreator {
       out.println("  Time for loading parser:    " + parserInstantiationTime);
       out.println("  Time for CFA construction:  " + totalTime);
       out.println("    Time for parsing file(s): " + parsingTime);
+      if (parsingTimePerFile.size() > 1) {
+        List<Entry<String, TimeSpan>> slowest = SLOWEST_FIRST.leastOf(
+            parsingTimePerFile.entrySet(), MAX_REPORTED_FILES);
+        out.println("      Slowest files:");
+        for (Entry<String, TimeSpan> entry : slowest) {
+          out.println("        " + entry.getValue().formatAs(TimeUnit.SECONDS) + " "
+              + entry.getKey());
+        }
+      }
       out.println("    Time for AST to CFA:      " + conversionTime);
       out.println("    Time for CFA sanity check:" + checkTime);
       out.println("    Time for post-processing: " + processingTime);
@@ -279,6 +312,9 @@ public class CFACreator {
       if (exportTime.getNumberOfIntervals() > 0) {
         out.println("    Time for CFA export:      " + exportTime);
       }
+      if (snapshotTime.getNumberOfIntervals() > 0) {
+        out.println("    Time for CFA snapshot:    " + snapshotTime);
+      }
     }
   }
 
@@ -313,6 +349,7 @@ public class CFACreator {
         }
 
         parser = outerParser;
+        stats.parsingTimePerFile = outerParser.getParseTimePerFile();
 
         break;
       default:
@@ -328,6 +365,8 @@ public class CFACreator {
       cfaReduction = null;
     }
 
+    snapshotCache = new CFASnapshotCache(config, logger);
+
     stats.parserInstantiationTime.stop();
   }
 
@@ -377,6 +416,35 @@ public class CFACreator {
 
     stats.totalTime.start();
     try {
+      callGraph = null;
+      String snapshotKey = null;
+      if (useSnapshot()) {
+        stats.snapshotTime.start();
+        try {
+          snapshotKey = snapshotCache.computeKey(sourceFiles);
+          Optional<Snapshot> snapshot = snapshotCache.load(snapshotKey);
+          if (snapshot.isPresent()) {
+            ImmutableCFA cfa = snapshot.get().getCFA();
+            // the snapshot is not built in this run, thus it is checked even without assertions
+            stats.checkTime.start();
+            Optional<String> violation =
+                CFACheck.findViolation(cfa.getMainFunction(), null, false);
+            stats.checkTime.stop();
+            if (violation.isPresent()) {
+              logger.log(Level.WARNING, "Ignoring inconsistent CFA snapshot:", violation.get());
+            } else {
+              logger.log(Level.INFO, "CFA loaded from snapshot, skipping parsing");
+              GlobalInfo.getInstance().addPreprocessInfo(snapshot.get().getPreprocessInfo());
+              callGraph = snapshot.get().getCallGraph();
+              exportIfRequested(cfa);
+              return cfa;
+            }
+          }
+        } finally {
+          stats.snapshotTime.stop();
+        }
+      }
+
       // FIRST, parse file(s) and create CFAs for each function
       logger.log(Level.FINE, "Starting parsing of file(s)");
 
@@ -397,7 +465,19 @@ public class CFACreator {
           throw new AssertionError();
       }
 
-      return createCFA(c, mainFunction);
+      ImmutableCFA cfa = createCFA(c, mainFunction);
+
+      if (snapshotKey != null && !cfa.isEmpty()) {
+        stats.snapshotTime.start();
+        try {
+          callGraph = CallGraphBuilder.getInstance().buildCallGraph(cfa);
+          snapshotCache.store(snapshotKey, new Snapshot(cfa, callGraph,
+              GlobalInfo.getInstance().getPreInfoManager()));
+        } finally {
+          stats.snapshotTime.stop();
+        }
+      }
+      return cfa;
 
     } catch (Exception e) {
       e.printStackTrace();
@@ -407,7 +487,25 @@ public class CFACreator {
     }
   }
 
-  private CFA createCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction)
+  /**
+   * Snapshots are not used if the CFA depends on more than the input files and the options,
+   * or if it contains information that cannot be stored.
+   */
+  private boolean useSnapshot() {
+    // included files, the specification and live variables are not part of the snapshot
+    return snapshotCache.isEnabled() && !usePreprocessor && cfaReduction == null
+        && !findLiveVariables;
+  }
+
+  /**
+   * Return the call graph of the CFA created by the last call of
+   * {@link #parseFileAndCreateCFA(List)}, if it was loaded from or stored into a snapshot.
+   */
+  public Optional<CallGraph> getCallGraph() {
+    return Optional.fromNullable(callGraph);
+  }
+
+  private ImmutableCFA createCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction)
       throws InvalidConfigurationException, InterruptedException, ParserException {
 
     FunctionEntryNode mainFunction = pMainFunction;
@@ -538,10 +636,7 @@ public class CFACreator {
     assert CFACheck.check(mainFunction, null, cfaReduction != null);
     stats.checkTime.stop();
 
-    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
-        || ((exportFunctionCallsFile != null) && exportFunctionCalls)) {
-      exportCFAAsync(immutableCFA);
-    }
+    exportIfRequested(immutableCFA);
 
     logger.log(Level.FINE, "DONE, CFA for", immutableCFA.getNumberOfFunctions(),
         "functions created.");
@@ -1072,6 +1167,13 @@ public class CFACreator {
     }
   }
 
+  private void exportIfRequested(CFA cfa) {
+    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
+        || ((exportFunctionCallsFile != null) && exportFunctionCalls)) {
+      exportCFAAsync(cfa);
+    }
+  }
+
   private void exportCFAAsync(final CFA cfa) {
     // execute asynchronously, this may take several seconds for large programs on slow disks
     Threads.newThread(new Runnable() {
@@ -0,0 +1,272 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
+import org.sosy_lab.cpachecker.cfa.model.MultiEdge;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Helper methods for persisting (parts of) CFAs with Java serialization.
+ *
+ * Nodes do not store their edges, thus all nodes are written first as a flat array, followed by
+ * the edges of each node, which are linked again when reading. This keeps the recursion of
+ * serialization shallow, and all nodes are complete before any hash-based collection containing
+ * nodes or edges is read.
+ */
+public final class CFASerialization {
+
+  private static final String[] KEY_OPTION_PREFIXES = {"analysis.", "cfa.", "parser."};
+
+  // options of the caches themselves, they do not affect the cached CFA
+  private static final String[] CACHE_OPTION_PREFIXES = {"cfa.snapshot.", "cfa.unitCache."};
+
+  private CFASerialization() {
+  }
+
+  /**
+   * Interface for writing the content of a file.
+   */
+  public interface ContentWriter {
+
+    void writeTo(OutputStream pOut) throws IOException;
+  }
+
+  /**
+   * Keep the options of the given properties string that affect the CFA (prefixes {@code
+   * analysis.}, {@code cfa.} and {@code parser.}, except those for exporting and caching), in the
+   * order of the properties string (which is sorted).
+   */
+  public static String filterConfiguration(String pProperties) {
+    StringBuilder sb = new StringBuilder();
+    for (String line : pProperties.split("\n")) {
+      int separator = line.indexOf('=');
+      if (separator < 0) {
+        continue;
+      }
+      String key = line.substring(0, separator).trim();
+      if (isKeyOption(key)) {
+        sb.append(line.trim()).append('\n');
+      }
+    }
+    return sb.toString();
+  }
+
+  private static boolean isKeyOption(String pKey) {
+    if (pKey.contains("export") || pKey.endsWith(".file")) {
+      return false;
+    }
+    for (String prefix : CACHE_OPTION_PREFIXES) {
+      if (pKey.startsWith(prefix)) {
+        return false;
+      }
+    }
+    if (pKey.equals("language")) {
+      return true;
+    }
+    for (String prefix : KEY_OPTION_PREFIXES) {
+      if (pKey.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Write the given nodes together with all nodes connected to them by edges (including the inner
+   * edges of multi-edges), and the edges of all these nodes.
+   */
+  public static void writeNodes(ObjectOutputStream out, Collection<CFANode> pNodes)
+      throws IOException {
+    CFANode[] nodes = collectNodes(pNodes);
+    out.writeObject(nodes);
+    for (CFANode node : nodes) {
+      out.writeObject(CFAUtils.leavingEdges(node).toArray(CFAEdge.class));
+      out.writeObject(CFAUtils.enteringEdges(node).toArray(CFAEdge.class));
+      out.writeObject(node.getLeavingSummaryEdge());
+      out.writeObject(node.getEnteringSummaryEdge());
+    }
+  }
+
+  /**
+   * Read nodes written by {@link #writeNodes(ObjectOutputStream, Collection)} and link their
+   * edges.
+   *
+   * @return all read nodes
+   */
+  public static CFANode[] readNodes(ObjectInputStream in)
+      throws IOException, ClassNotFoundException {
+    CFANode[] nodes = (CFANode[]) in.readObject();
+    for (CFANode node : nodes) {
+      for (CFAEdge edge : (CFAEdge[]) in.readObject()) {
+        node.addLeavingEdge(edge);
+      }
+      for (CFAEdge edge : (CFAEdge[]) in.readObject()) {
+        node.addEnteringEdge(edge);
+      }
+      FunctionSummaryEdge leavingSummaryEdge = (FunctionSummaryEdge) in.readObject();
+      if (leavingSummaryEdge != null) {
+        node.addLeavingSummaryEdge(leavingSummaryEdge);
+      }
+      FunctionSummaryEdge enteringSummaryEdge = (FunctionSummaryEdge) in.readObject();
+      if (enteringSummaryEdge != null) {
+        node.addEnteringSummaryEdge(enteringSummaryEdge);
+      }
+    }
+    return nodes;
+  }
+
+  private static CFANode[] collectNodes(Collection<CFANode> pNodes) {
+    Set<CFANode> nodes = new LinkedHashSet<>(pNodes);
+    Deque<CFANode> waitlist = new ArrayDeque<>(nodes);
+    while (!waitlist.isEmpty()) {
+      CFANode node = waitlist.pop();
+      List<CFAEdge> edges = new ArrayList<>();
+      CFAUtils.allLeavingEdges(node).copyInto(edges);
+      CFAUtils.allEnteringEdges(node).copyInto(edges);
+      for (int i = 0; i < edges.size(); i++) {
+        CFAEdge edge = edges.get(i);
+        if (edge instanceof MultiEdge) {
+          edges.addAll(((MultiEdge) edge).getEdges());
+        }
+        if (nodes.add(edge.getPredecessor())) {
+          waitlist.push(edge.getPredecessor());
+        }
+        if (nodes.add(edge.getSuccessor())) {
+          waitlist.push(edge.getSuccessor());
+        }
+      }
+    }
+    return nodes.toArray(new CFANode[nodes.size()]);
+  }
+
+  /**
+   * Map the given file into memory for reading, which avoids copying it through a buffer.
+   */
+  public static ByteBuffer map(File pFile) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(pFile, "r");
+         FileChannel channel = raf.getChannel()) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("File " + pFile + " is too large for reading");
+      }
+      return channel.map(MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  /**
+   * Create an input stream reading the remaining content of a (memory-mapped) buffer.
+   */
+  public static InputStream newInputStream(ByteBuffer pBuffer) {
+    return new ByteBufferInputStream(pBuffer);
+  }
+
+  /**
+   * Write a file by writing a temporary file first that replaces the file atomically, thus a
+   * concurrent reader never sees a partial file. Each writer has its own temporary file, such that
+   * concurrent writers (e.g., processes sharing a cache file) do not interfere, and the last one
+   * wins. The temporary file is removed if writing fails.
+   */
+  public static void writeAtomically(File pFile, ContentWriter pWriter) throws IOException {
+    File parent = pFile.getAbsoluteFile().getParentFile();
+    // the directory may be created by a concurrent writer in the meantime
+    if (parent != null && !parent.mkdirs() && !parent.isDirectory()) {
+      throw new IOException("Could not create directory " + parent);
+    }
+    File tmpFile = File.createTempFile("." + pFile.getName() + ".", ".tmp", parent);
+    try {
+      try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmpFile))) {
+        pWriter.writeTo(out);
+      }
+      Files.move(tmpFile.toPath(), pFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmpFile.toPath());
+    }
+  }
+
+  /**
+   * Write a text file atomically as {@link #writeAtomically(File, ContentWriter)} in UTF-8.
+   */
+  public static void writeAtomically(File pFile, final CharSequence pContent)
+      throws IOException {
+    writeAtomically(pFile, new ContentWriter() {
+      @Override
+      public void writeTo(OutputStream pOut) throws IOException {
+        pOut.write(pContent.toString().getBytes(StandardCharsets.UTF_8));
+      }
+    });
+  }
+
+  /**
+   * An input stream reading a (memory-mapped) buffer.
+   */
+  private static final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(ByteBuffer pBuffer) {
+      buffer = pBuffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(byte[] pBytes, int pOffset, int pLength) {
+      if (pLength == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int length = Math.min(pLength, buffer.remaining());
+      buffer.get(pBytes, pOffset, length);
+      return length;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
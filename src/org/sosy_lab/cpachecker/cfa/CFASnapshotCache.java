@@ -0,0 +1,194 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import com.google.common.base.Optional;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cpa.constraints.checker.PreprocessInfoManager;
+import org.sosy_lab.cpachecker.util.callgraph.CallGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * A persistent snapshot of the post-processed CFA, such that an unchanged program is not parsed
+ * again in the next run.
+ *
+ * A snapshot contains the {@link ImmutableCFA} (including the loop structure), the call graph and
+ * the information collected by the parser for the {@link PreprocessInfoManager}. It is identified
+ * by a hash of the names and contents of the input files and of the options affecting parsing and
+ * post-processing (prefixes {@code analysis.}, {@code cfa.} and {@code parser.}, except those for
+ * exporting). Only the snapshot of the last run is kept, a snapshot with a different key is
+ * replaced.
+ *
+ * The snapshot is written with Java serialization as described in {@link CFASerialization}. The
+ * file is memory-mapped for reading, which avoids copying it through a buffer, but the object
+ * graph is still deserialized.
+ */
+@Options(prefix = "cfa.snapshot")
+public final class CFASnapshotCache {
+
+  // should be updated whenever the layout of the snapshot changes
+  private static final String VERSION = "intpti-cfa-snapshot-2";
+
+  // the snapshot is read and written, it is resolved like an input file to be independent of the
+  // output directory
+  @Option(secure = true, name = "file", description = "file for caching the post-processed CFA "
+      + "and the call graph across runs, such that an unchanged program is not parsed again "
+      + "(no caching if not specified). A relative path is resolved against rootDirectory "
+      + "instead of output.path, thus the snapshot is shared by runs with different output "
+      + "directories, such as the tasks of TsmartAnalyze --jobs.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private Path snapshotFile = null;
+
+  private final LogManager logger;
+  private final String configuration;
+
+  /**
+   * The content of a snapshot.
+   */
+  public static final class Snapshot {
+
+    private final ImmutableCFA cfa;
+    private final CallGraph callGraph;
+    private final PreprocessInfoManager preprocessInfo;
+
+    public Snapshot(
+        ImmutableCFA pCfa, CallGraph pCallGraph,
+        PreprocessInfoManager pPreprocessInfo) {
+      cfa = pCfa;
+      callGraph = pCallGraph;
+      preprocessInfo = pPreprocessInfo;
+    }
+
+    public ImmutableCFA getCFA() {
+      return cfa;
+    }
+
+    public CallGraph getCallGraph() {
+      return callGraph;
+    }
+
+    public PreprocessInfoManager getPreprocessInfo() {
+      return preprocessInfo;
+    }
+  }
+
+  public CFASnapshotCache(Configuration pConfig, LogManager pLogger)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = pLogger;
+    configuration = CFASerialization.filterConfiguration(pConfig.asPropertiesString());
+  }
+
+  public boolean isEnabled() {
+    return snapshotFile != null;
+  }
+
+  /**
+   * Compute the key of a snapshot for the given input files.
+   */
+  public String computeKey(List<String> pSourceFiles) throws IOException {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(VERSION, StandardCharsets.UTF_8).putChar('\n');
+    hasher.putString(configuration, StandardCharsets.UTF_8);
+    for (String sourceFile : pSourceFiles) {
+      byte[] content = Files.readAllBytes(new File(sourceFile).toPath());
+      hasher.putString(sourceFile, StandardCharsets.UTF_8).putChar('\n');
+      hasher.putInt(content.length).putBytes(content);
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Load the snapshot of the given key. Any failure is logged and treated as a missing snapshot.
+   *
+   * @return the snapshot, or absent if there is no (valid) snapshot of the given key
+   */
+  public Optional<Snapshot> load(String pKey) {
+    File file = snapshotFile.toFile();
+    if (!file.isFile()) {
+      return Optional.absent();
+    }
+    try {
+      ObjectInputStream in =
+          new ObjectInputStream(CFASerialization.newInputStream(CFASerialization.map(file)));
+      if (!VERSION.equals(in.readUTF()) || !pKey.equals(in.readUTF())) {
+        logger.log(Level.FINE, "CFA snapshot", snapshotFile, "is outdated");
+        return Optional.absent();
+      }
+      return Optional.of(readSnapshot(in));
+    } catch (IOException | ClassNotFoundException | ClassCastException
+        | IllegalArgumentException | IllegalStateException e) {
+      logger.logUserException(Level.INFO, e, "Could not read CFA snapshot, parsing program");
+      return Optional.absent();
+    }
+  }
+
+  private static Snapshot readSnapshot(ObjectInputStream in)
+      throws IOException, ClassNotFoundException {
+    CFASerialization.readNodes(in);
+    ImmutableCFA cfa = (ImmutableCFA) in.readObject();
+    CallGraph callGraph = (CallGraph) in.readObject();
+    PreprocessInfoManager preprocessInfo = (PreprocessInfoManager) in.readObject();
+    return new Snapshot(cfa, callGraph, preprocessInfo);
+  }
+
+  /**
+   * Store the snapshot under the given key. The file is replaced atomically, thus a concurrent
+   * run never reads a partial snapshot. Failures are logged.
+   */
+  public void store(final String pKey, final Snapshot pSnapshot) {
+    try {
+      CFASerialization.writeAtomically(snapshotFile.toFile(),
+          new CFASerialization.ContentWriter() {
+            @Override
+            public void writeTo(OutputStream pOut) throws IOException {
+              ObjectOutputStream out = new ObjectOutputStream(pOut);
+              out.writeUTF(VERSION);
+              out.writeUTF(pKey);
+              writeSnapshot(out, pSnapshot);
+              out.flush();
+            }
+          });
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write CFA snapshot");
+    }
+  }
+
+  private static void writeSnapshot(ObjectOutputStream out, Snapshot pSnapshot)
+      throws IOException {
+    CFASerialization.writeNodes(out, pSnapshot.cfa.getAllNodes());
+    out.writeObject(pSnapshot.cfa);
+    out.writeObject(pSnapshot.callGraph);
+    out.writeObject(pSnapshot.preprocessInfo);
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.CFASnapshotCache.Snapshot;
+import org.sosy_lab.cpachecker.cfa.ast.c.CExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CIntegerLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.c.CDeclarationEdge;
+import org.sosy_lab.cpachecker.cfa.types.c.CArrayType;
+import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.cpa.constraints.checker.PreprocessInfoManager;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.LoopStructure;
+import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
+import org.sosy_lab.cpachecker.util.callgraph.CallGraph;
+import org.sosy_lab.cpachecker.util.callgraph.CallGraphBuilder;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CFASnapshotCacheTest {
+
+  private static final String PROGRAM = ""
+      + "int a[10];\n"
+      + "int f(int x) { return x + 1; }\n"
+      + "int main() {\n"
+      + "  int i;\n"
+      + "  for (i = 0; i < 10; i++) {\n"
+      + "    a[i] = f(i);\n"
+      + "  }\n"
+      + "  return 0;\n"
+      + "}\n";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private CFASnapshotCache cache;
+
+  @Before
+  public void setUp() throws Exception {
+    Configuration config = Configuration.builder()
+        .setOption("cfa.snapshot.file", folder.newFile("cfa.snapshot").getAbsolutePath())
+        .addConverter(FileOption.class,
+            FileTypeConverter.create(Configuration.defaultConfiguration()))
+        .build();
+    cache = new CFASnapshotCache(config, TestLogManager.getInstance());
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    ImmutableCFA cfa = (ImmutableCFA) TestDataTools.makeCFA(PROGRAM);
+    CallGraph callGraph = CallGraphBuilder.getInstance().buildCallGraph(cfa);
+    PreprocessInfoManager preprocessInfo = new PreprocessInfoManager();
+    preprocessInfo.addStopFunction("fatal");
+    cache.store("key", new Snapshot(cfa, callGraph, preprocessInfo));
+
+    Optional<Snapshot> snapshot = loadAsFreshRun("key");
+    assertTrue(snapshot.isPresent());
+    ImmutableCFA loaded = snapshot.get().getCFA();
+    assertNotSame(cfa, loaded);
+    assertSameGraph(cfa, loaded);
+    assertSameLoops(cfa.getLoopStructure().get(), loaded.getLoopStructure().get());
+    assertEquals(ImmutableList.of("f"),
+        ImmutableList.copyOf(snapshot.get().getCallGraph().getCallee("main")));
+    assertTrue(snapshot.get().getPreprocessInfo().getStopFunctions().contains("fatal"));
+
+    // the array length is kept by the serialization proxy of array types
+    CExpression length = findArrayType(loaded, "a").getLength();
+    assertTrue(length instanceof CIntegerLiteralExpression);
+    assertEquals(10, ((CIntegerLiteralExpression) length).asLong());
+  }
+
+  @Test
+  public void testOutdatedKey() throws Exception {
+    ImmutableCFA cfa = (ImmutableCFA) TestDataTools.makeCFA(PROGRAM);
+    cache.store("key", new Snapshot(cfa, CallGraphBuilder.getInstance().buildCallGraph(cfa),
+        new PreprocessInfoManager()));
+    assertFalse(cache.load("other").isPresent());
+  }
+
+  /**
+   * Load the snapshot as if no node was created before in this JVM, and check that the nodes
+   * created afterwards do not reuse the numbers of the loaded nodes.
+   */
+  private Optional<Snapshot> loadAsFreshRun(String pKey) throws Exception {
+    Field field = CFANode.class.getDeclaredField("idGenerator");
+    field.setAccessible(true);
+    AtomicInteger idGenerator = (AtomicInteger) field.get(null);
+    int next = idGenerator.getAndSet(0);
+    try {
+      Optional<Snapshot> snapshot = cache.load(pKey);
+      if (snapshot.isPresent()) {
+        int fresh = new CFANode("main").getNodeNumber();
+        assertTrue(fresh > snapshot.get().getCFA().getAllNodes().last().getNodeNumber());
+      }
+      return snapshot;
+    } finally {
+      // nodes of other tests must not be numbered twice either
+      if (idGenerator.get() < next) {
+        idGenerator.set(next);
+      }
+    }
+  }
+
+  private static void assertSameGraph(ImmutableCFA pExpected, ImmutableCFA pActual) {
+    assertEquals(pExpected.getAllFunctionNames(), pActual.getAllFunctionNames());
+    assertEquals(pExpected.getMainFunction().getNodeNumber(),
+        pActual.getMainFunction().getNodeNumber());
+    List<CFANode> expectedNodes = ImmutableList.copyOf(pExpected.getAllNodes());
+    List<CFANode> actualNodes = ImmutableList.copyOf(pActual.getAllNodes());
+    assertEquals(expectedNodes.size(), actualNodes.size());
+    for (int i = 0; i < expectedNodes.size(); i++) {
+      CFANode expected = expectedNodes.get(i);
+      CFANode actual = actualNodes.get(i);
+      assertEquals(expected.getNodeNumber(), actual.getNodeNumber());
+      assertEquals(expected.getClass(), actual.getClass());
+      assertEquals(expected.getFunctionName(), actual.getFunctionName());
+      assertSameEdges(CFAUtils.leavingEdges(expected).toList(),
+          CFAUtils.leavingEdges(actual).toList());
+      assertSameEdges(CFAUtils.enteringEdges(expected).toList(),
+          CFAUtils.enteringEdges(actual).toList());
+      assertEquals(expected.getLeavingSummaryEdge() == null,
+          actual.getLeavingSummaryEdge() == null);
+      assertEquals(expected.getEnteringSummaryEdge() == null,
+          actual.getEnteringSummaryEdge() == null);
+    }
+  }
+
+  private static void assertSameEdges(List<CFAEdge> pExpected, List<CFAEdge> pActual) {
+    assertEquals(pExpected.size(), pActual.size());
+    for (int i = 0; i < pExpected.size(); i++) {
+      CFAEdge expected = pExpected.get(i);
+      CFAEdge actual = pActual.get(i);
+      assertEquals(expected.getEdgeType(), actual.getEdgeType());
+      assertEquals(expected.getDescription(), actual.getDescription());
+      assertEquals(expected.getPredecessor().getNodeNumber(),
+          actual.getPredecessor().getNodeNumber());
+      assertEquals(expected.getSuccessor().getNodeNumber(),
+          actual.getSuccessor().getNodeNumber());
+      // the edge should be linked to the loaded nodes
+      assertTrue(CFAUtils.leavingEdges(actual.getPredecessor()).contains(actual));
+    }
+  }
+
+  private static void assertSameLoops(LoopStructure pExpected, LoopStructure pActual) {
+    assertEquals(1, pExpected.getCount());
+    assertEquals(pExpected.getCount(), pActual.getCount());
+    assertEquals(nodeNumbers(pExpected.getAllLoopHeads()),
+        nodeNumbers(pActual.getAllLoopHeads()));
+    List<Loop> expectedLoops = ImmutableList.copyOf(pExpected.getAllLoops());
+    List<Loop> actualLoops = ImmutableList.copyOf(pActual.getAllLoops());
+    for (int i = 0; i < expectedLoops.size(); i++) {
+      assertEquals(nodeNumbers(expectedLoops.get(i).getLoopNodes()),
+          nodeNumbers(actualLoops.get(i).getLoopNodes()));
+      assertEquals(nodeNumbers(expectedLoops.get(i).getLoopHeads()),
+          nodeNumbers(actualLoops.get(i).getLoopHeads()));
+    }
+  }
+
+  private static List<Integer> nodeNumbers(Iterable<CFANode> pNodes) {
+    List<Integer> numbers = new ArrayList<>();
+    for (CFANode node : pNodes) {
+      numbers.add(node.getNodeNumber());
+    }
+    Collections.sort(numbers);
+    return numbers;
+  }
+
+  private static CArrayType findArrayType(ImmutableCFA pCfa, String pName) {
+    for (CFANode node : pCfa.getAllNodes()) {
+      for (CFAEdge edge : CFAUtils.leavingEdges(node)) {
+        if (edge instanceof CDeclarationEdge
+            && pName.equals(((CDeclarationEdge) edge).getDeclaration().getName())) {
+          CType type = ((CDeclarationEdge) edge).getDeclaration().getType().getCanonicalType();
+          assertTrue(type instanceof CArrayType);
+          return (CArrayType) type;
+        }
+      }
+    }
+    throw new AssertionError("No declaration of " + pName);
+  }
+}
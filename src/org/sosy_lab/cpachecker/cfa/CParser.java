@@ -15,10 +15,12 @@
 package org.sosy_lab.cpachecker.cfa;
 
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
 import org.sosy_lab.cpachecker.cfa.parser.Scope;
 import org.sosy_lab.cpachecker.cfa.parser.eclipse.EclipseParsers;
@@ -27,6 +29,7 @@ import org.sosy_lab.cpachecker.exceptions.CParserException;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Abstraction of a C parser that creates CFAs from C code.
@@ -145,6 +148,13 @@ public interface CParser extends Parser {
   List<CAstNode> parseStatements(String code, Scope scope)
       throws CParserException, InvalidConfigurationException;
 
+  /**
+   * Return the time needed for parsing each file of the program, in the order of parsing. Single
+   * strings and code fragments are not recorded.
+   * Optional method: may return an empty map.
+   */
+  Map<String, TimeSpan> getParseTimePerFile();
+
   /**
    * Enum for clients of this class to choose the C dialect the parser uses.
    */
@@ -159,6 +169,11 @@ public interface CParser extends Parser {
     @Option(secure = true, description = "C dialect for parser")
     private Dialect dialect = Dialect.GNUC;
 
+    @Option(secure = true, description = "the number of files parsed concurrently, 0 for the "
+        + "number of available processors")
+    @IntegerOption(min = 0)
+    private int threads = 1;
+
     private ParserOptions() {
     }
   }
@@ -185,8 +200,8 @@ public interface CParser extends Parser {
         Configuration config,
         LogManager logger,
         ParserOptions options,
-        MachineModel machine) {
-      return EclipseParsers.getCParser(config, logger, options.dialect, machine);
+        MachineModel machine) throws InvalidConfigurationException {
+      return EclipseParsers.getCParser(config, logger, options.dialect, options.threads, machine);
     }
   }
 }
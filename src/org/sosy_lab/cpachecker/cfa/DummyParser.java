@@ -14,7 +14,10 @@
  */
 package org.sosy_lab.cpachecker.cfa;
 
+import com.google.common.collect.ImmutableMap;
+
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
 import org.sosy_lab.cpachecker.cfa.parser.Scope;
@@ -24,6 +27,7 @@ import org.sosy_lab.cpachecker.exceptions.ParserException;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * For all languages, where parsing of single or blocks of statements is not yet implemented,
@@ -73,6 +77,11 @@ public class DummyParser implements CParser {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public Map<String, TimeSpan> getParseTimePerFile() {
+    return ImmutableMap.of();
+  }
+
   @Override
   public ParseResult parseFile(
       List<FileToParse> pFilenames,
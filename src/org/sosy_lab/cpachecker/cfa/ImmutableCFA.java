@@ -31,13 +31,16 @@ import org.sosy_lab.cpachecker.util.LiveVariables;
 import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.VariableClassification;
 
+import java.io.Serializable;
 import java.util.Map;
 
 /**
  * This class represents a CFA after it has been fully created (parsing, linking
  * of functions, etc.).
  */
-public class ImmutableCFA implements CFA {
+public class ImmutableCFA implements CFA, Serializable {
+
+  private static final long serialVersionUID = 8704886131889909522L;
 
   private final MachineModel machineModel;
   private final ImmutableSortedMap<String, FunctionEntryNode> functions;
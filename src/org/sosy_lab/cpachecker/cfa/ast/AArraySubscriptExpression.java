@@ -21,6 +21,8 @@ import java.util.Objects;
 
 public abstract class AArraySubscriptExpression extends AbstractLeftHandSide {
 
+  private static final long serialVersionUID = 5688444962851787614L;
+
 
   private final AExpression arrayExpression;
   private final AExpression subscriptExpression;
@@ -16,8 +16,9 @@ package org.sosy_lab.cpachecker.cfa.ast;
 
 import com.google.common.base.Function;
 
+import java.io.Serializable;
 
-public interface AAstNode {
+public interface AAstNode extends Serializable {
 
   public static final Function<AAstNode, String> TO_AST_STRING = new Function<AAstNode, String>() {
 
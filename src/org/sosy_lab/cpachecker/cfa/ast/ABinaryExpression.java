@@ -25,6 +25,8 @@ import java.util.Objects;
  */
 public abstract class ABinaryExpression extends AbstractExpression {
 
+  private static final long serialVersionUID = -2328322343833610810L;
+
 
   private final AExpression operand1;
   private final AExpression operand2;
@@ -23,6 +23,8 @@ import java.util.Objects;
  */
 public abstract class ACastExpression extends AbstractLeftHandSide {
 
+  private static final long serialVersionUID = 162550024592364565L;
+
   private final AExpression operand;
   private final Type castType;
 
@@ -21,6 +21,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
  */
 public abstract class ACharLiteralExpression extends ALiteralExpression {
 
+  private static final long serialVersionUID = -4370932882038755479L;
+
 
   private final char character;
 
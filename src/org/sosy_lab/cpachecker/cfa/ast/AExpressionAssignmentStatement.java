@@ -22,6 +22,8 @@ import java.util.Objects;
 public abstract class AExpressionAssignmentStatement extends AbstractStatement
     implements AAssignment {
 
+  private static final long serialVersionUID = 9220070506239022292L;
+
   private final ALeftHandSide leftHandSide;
   private final AExpression rightHandSide;
 
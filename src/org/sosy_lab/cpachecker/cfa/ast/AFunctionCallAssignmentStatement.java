@@ -20,6 +20,8 @@ import java.util.Objects;
 public abstract class AFunctionCallAssignmentStatement extends AbstractStatement
     implements AAssignment, AFunctionCall {
 
+  private static final long serialVersionUID = -6835217448306986382L;
+
 
   private final ALeftHandSide leftHandSide;
   private final AFunctionCallExpression rightHandSide;
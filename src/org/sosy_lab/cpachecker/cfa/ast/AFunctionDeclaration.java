@@ -24,6 +24,8 @@ import java.util.Objects;
 
 public abstract class AFunctionDeclaration extends AbstractDeclaration {
 
+  private static final long serialVersionUID = 6638719233977747047L;
+
   private final List<AParameterDeclaration> parameters;
 
   public AFunctionDeclaration(
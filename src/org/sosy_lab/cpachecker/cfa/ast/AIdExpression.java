@@ -22,6 +22,8 @@ import java.util.Objects;
 
 public abstract class AIdExpression extends AbstractLeftHandSide {
 
+  private static final long serialVersionUID = -5704555551036465600L;
+
   private final String name;
   private final ASimpleDeclaration declaration;
 
@@ -20,6 +20,8 @@ import java.util.Objects;
 
 public abstract class AUnaryExpression extends AbstractExpression {
 
+  private static final long serialVersionUID = -5020134547802174953L;
+
   private final AExpression operand;
   private final AUnaryOperator operator;
 
@@ -23,6 +23,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class AVariableDeclaration extends AbstractDeclaration {
 
+  private static final long serialVersionUID = 8719363628834612939L;
+
   private final String qualifiedName;
   private AInitializer initializer;
 
@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 public abstract class AbstractDeclaration extends AbstractSimpleDeclaration
     implements ADeclaration {
 
+  private static final long serialVersionUID = -268620259125249249L;
+
   private final boolean isGlobal;
 
   public AbstractDeclaration(
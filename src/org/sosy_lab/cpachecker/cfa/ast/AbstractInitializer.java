@@ -17,6 +17,8 @@ package org.sosy_lab.cpachecker.cfa.ast;
 
 public abstract class AbstractInitializer extends AbstractAstNode implements AInitializer {
 
+  private static final long serialVersionUID = -6757098959594113669L;
+
   public AbstractInitializer(final FileLocation pFileLocation) {
     super(pFileLocation);
   }
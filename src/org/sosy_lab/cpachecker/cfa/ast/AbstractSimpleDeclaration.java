@@ -32,6 +32,8 @@ import java.util.Objects;
 public abstract class AbstractSimpleDeclaration extends AbstractAstNode
     implements ASimpleDeclaration {
 
+  private static final long serialVersionUID = -4742693765431142069L;
+
   private Type type;
   private final String name;
   private final String origName;
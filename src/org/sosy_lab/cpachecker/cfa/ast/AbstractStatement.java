@@ -17,6 +17,8 @@ package org.sosy_lab.cpachecker.cfa.ast;
 
 public abstract class AbstractStatement extends AbstractAstNode implements AStatement {
 
+  private static final long serialVersionUID = 318088365014332432L;
+
   public AbstractStatement(FileLocation pFileLocation) {
     super(pFileLocation);
   }
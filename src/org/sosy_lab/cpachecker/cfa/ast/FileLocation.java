@@ -19,10 +19,13 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.Iterables;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Objects;
 
-public class FileLocation {
+public class FileLocation implements Serializable {
+
+  private static final long serialVersionUID = 5883377362228532510L;
 
   private final int endingLine;
   private final String fileName;
@@ -22,6 +22,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CAddressOfLabelExpression extends AbstractExpression implements CExpression {
 
+  private static final long serialVersionUID = -5734520323779034570L;
+
   private final String label;
 
   public CAddressOfLabelExpression(
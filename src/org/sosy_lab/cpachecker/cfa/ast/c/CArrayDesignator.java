@@ -22,6 +22,8 @@ import java.util.Objects;
 
 public class CArrayDesignator extends CDesignator {
 
+  private static final long serialVersionUID = -2364984115159822066L;
+
   private final AExpression subscriptExpression;
 
   public CArrayDesignator(
@@ -22,6 +22,8 @@ import java.util.Objects;
 
 public class CArrayRangeDesignator extends CDesignator {
 
+  private static final long serialVersionUID = 7036084138500333839L;
+
   private final AExpression rangeFloor;
   private final AExpression rangeCeiling;
 
@@ -21,6 +21,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 public final class CArraySubscriptExpression extends AArraySubscriptExpression
     implements CLeftHandSide {
 
+  private static final long serialVersionUID = 6349029425728880389L;
+
 
   public CArraySubscriptExpression(
       final FileLocation pFileLocation,
@@ -22,6 +22,8 @@ import java.util.Objects;
 
 public class CBinaryExpression extends ABinaryExpression implements CExpression {
 
+  private static final long serialVersionUID = 3248464345063982127L;
+
   private final CType calculationType;
 
   public CBinaryExpression(
@@ -20,6 +20,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CCharLiteralExpression extends ACharLiteralExpression implements CLiteralExpression {
 
+  private static final long serialVersionUID = 1968866637730082102L;
+
   public CCharLiteralExpression(
       FileLocation pFileLocation,
       CType pType,
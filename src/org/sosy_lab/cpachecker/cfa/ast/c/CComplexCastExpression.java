@@ -22,6 +22,8 @@ import java.util.Objects;
 
 public final class CComplexCastExpression extends AbstractExpression implements CLeftHandSide {
 
+  private static final long serialVersionUID = -1522725257830048624L;
+
   private final CExpression operand;
   private final CType type;
   /**
@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CComplexType;
  */
 public final class CComplexTypeDeclaration extends CTypeDeclaration {
 
+  private static final long serialVersionUID = -8625295940199694183L;
+
   public CComplexTypeDeclaration(
       FileLocation pFileLocation,
       boolean pIsGlobal, CComplexType pType) {
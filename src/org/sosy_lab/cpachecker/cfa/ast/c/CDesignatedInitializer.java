@@ -28,6 +28,8 @@ import java.util.Objects;
 
 public class CDesignatedInitializer extends AbstractInitializer implements CInitializer {
 
+  private static final long serialVersionUID = 6247747053853602430L;
+
 
   private final List<CDesignator> designators;
   private final CInitializer right;
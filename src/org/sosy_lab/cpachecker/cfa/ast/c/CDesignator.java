@@ -20,6 +20,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public abstract class CDesignator extends AbstractAstNode implements CAstNode {
 
+  private static final long serialVersionUID = 32301495176625790L;
+
   public CDesignator(FileLocation pFileLoc) {
     super(pFileLoc);
   }
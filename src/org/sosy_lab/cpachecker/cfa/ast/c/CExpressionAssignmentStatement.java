@@ -24,6 +24,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 public class CExpressionAssignmentStatement extends AExpressionAssignmentStatement
     implements CAssignment, CStatement {
 
+  private static final long serialVersionUID = 7825867398319648704L;
+
   public CExpressionAssignmentStatement(
       FileLocation pFileLocation,
       CLeftHandSide pLeftHandSide,
@@ -20,6 +20,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public class CExpressionStatement extends AExpressionStatement implements CStatement {
 
+  private static final long serialVersionUID = -3495560989486647088L;
+
   public CExpressionStatement(
       final FileLocation pFileLocation,
       final CExpression pExpression) {
@@ -21,6 +21,8 @@ import java.util.Objects;
 
 public class CFieldDesignator extends CDesignator {
 
+  private static final long serialVersionUID = 3607749581417111779L;
+
   private final String name;
 
   public CFieldDesignator(
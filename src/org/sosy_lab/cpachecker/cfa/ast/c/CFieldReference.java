@@ -24,6 +24,8 @@ import java.util.Objects;
 
 public final class CFieldReference extends AbstractExpression implements CLeftHandSide {
 
+  private static final long serialVersionUID = 6234545384433698748L;
+
   private final String name;
   private final CExpression owner;
   private final boolean isPointerDereference;
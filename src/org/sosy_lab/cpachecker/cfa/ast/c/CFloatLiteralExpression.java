@@ -23,6 +23,8 @@ import java.math.BigDecimal;
 public final class CFloatLiteralExpression extends AFloatLiteralExpression
     implements CLiteralExpression {
 
+  private static final long serialVersionUID = 2477265682262829607L;
+
   public CFloatLiteralExpression(
       FileLocation pFileLocation,
       CType pType,
@@ -21,6 +21,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 public final class CFunctionCallAssignmentStatement extends AFunctionCallAssignmentStatement
     implements CStatement, CAssignment, CFunctionCall {
 
+  private static final long serialVersionUID = 1008387458346555556L;
+
   public CFunctionCallAssignmentStatement(
       FileLocation pFileLocation,
       CLeftHandSide pLeftHandSide,
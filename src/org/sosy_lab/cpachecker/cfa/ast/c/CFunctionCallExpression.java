@@ -22,6 +22,8 @@ import java.util.List;
 
 public class CFunctionCallExpression extends AFunctionCallExpression implements CRightHandSide {
 
+  private static final long serialVersionUID = 3291517934799300337L;
+
 
   public CFunctionCallExpression(
       final FileLocation pFileLocation,
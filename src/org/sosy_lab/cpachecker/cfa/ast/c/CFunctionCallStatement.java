@@ -20,6 +20,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 public final class CFunctionCallStatement extends AFunctionCallStatement
     implements CStatement, CFunctionCall {
 
+  private static final long serialVersionUID = -953200039074261669L;
+
 
   public CFunctionCallStatement(
       FileLocation pFileLocation,
@@ -30,6 +30,8 @@ import java.util.List;
  */
 public final class CFunctionDeclaration extends AFunctionDeclaration implements CDeclaration {
 
+  private static final long serialVersionUID = -2335595573260238453L;
+
   public CFunctionDeclaration(
       FileLocation pFileLocation,
       CFunctionType pType, String pName,
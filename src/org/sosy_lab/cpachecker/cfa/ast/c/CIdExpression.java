@@ -22,6 +22,8 @@ import java.util.Objects;
 
 public final class CIdExpression extends AIdExpression implements CLeftHandSide {
 
+  private static final long serialVersionUID = -1747207710279547711L;
+
 
   public CIdExpression(
       final FileLocation pFileLocation,
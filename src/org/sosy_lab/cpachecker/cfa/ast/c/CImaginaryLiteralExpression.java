@@ -23,6 +23,8 @@ import java.util.Objects;
 public final class CImaginaryLiteralExpression extends ALiteralExpression
     implements CLiteralExpression {
 
+  private static final long serialVersionUID = 197858710101110139L;
+
   private final CLiteralExpression value;
 
   public CImaginaryLiteralExpression(
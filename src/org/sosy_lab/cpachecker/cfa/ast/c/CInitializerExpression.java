@@ -20,6 +20,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public final class CInitializerExpression extends AInitializerExpression implements CInitializer {
 
+  private static final long serialVersionUID = 4772727992839629213L;
+
 
   public CInitializerExpression(
       final FileLocation pFileLocation,
@@ -28,6 +28,8 @@ import java.util.Objects;
 
 public class CInitializerList extends AbstractInitializer implements CInitializer, CAstNode {
 
+  private static final long serialVersionUID = 2680662073151364992L;
+
   private final List<CInitializer> initializerList;
 
   public CInitializerList(
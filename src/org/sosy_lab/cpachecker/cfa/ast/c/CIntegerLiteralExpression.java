@@ -25,6 +25,8 @@ import java.math.BigInteger;
 public class CIntegerLiteralExpression extends AIntegerLiteralExpression
     implements CLiteralExpression {
 
+  private static final long serialVersionUID = 893818886091425939L;
+
   public static final CIntegerLiteralExpression ONE = createDummyLiteral(1L, CNumericTypes.INT);
   public static final CIntegerLiteralExpression ZERO = createDummyLiteral(0L, CNumericTypes.INT);
 
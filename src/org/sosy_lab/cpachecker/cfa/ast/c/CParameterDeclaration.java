@@ -31,6 +31,8 @@ import java.util.Objects;
 public final class CParameterDeclaration extends AParameterDeclaration
     implements CSimpleDeclaration {
 
+  private static final long serialVersionUID = -5050718377836999069L;
+
   private String qualifiedName;
 
   public CParameterDeclaration(
@@ -20,6 +20,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CPointerExpression extends APointerExpression implements CLeftHandSide {
 
+  private static final long serialVersionUID = 7757594570611396119L;
+
 
   public CPointerExpression(
       final FileLocation pFileLocation,
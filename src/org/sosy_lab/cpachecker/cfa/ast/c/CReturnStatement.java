@@ -21,6 +21,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public class CReturnStatement extends AbstractReturnStatement implements CAstNode {
 
+  private static final long serialVersionUID = -8339514763191607564L;
+
   public CReturnStatement(
       final FileLocation pFileLocation,
       final Optional<CExpression> pExpression,
@@ -21,6 +21,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 public final class CStringLiteralExpression extends AStringLiteralExpression
     implements CLiteralExpression {
 
+  private static final long serialVersionUID = 5437004486044183974L;
+
   public CStringLiteralExpression(
       FileLocation pFileLocation,
       CType pType,
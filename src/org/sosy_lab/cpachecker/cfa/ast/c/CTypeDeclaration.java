@@ -27,6 +27,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
  */
 public abstract class CTypeDeclaration extends AbstractDeclaration implements CDeclaration {
 
+  private static final long serialVersionUID = -2501745401757260206L;
+
   private final String qualifiedName;
 
   public CTypeDeclaration(
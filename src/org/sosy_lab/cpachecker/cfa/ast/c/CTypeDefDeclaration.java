@@ -27,6 +27,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
  */
 public final class CTypeDefDeclaration extends CTypeDeclaration {
 
+  private static final long serialVersionUID = 330506165097705574L;
+
   public CTypeDefDeclaration(
       FileLocation pFileLocation, boolean pIsGlobal,
       CType pType, String pName, String pQualifiedName) {
@@ -22,6 +22,8 @@ import java.util.Objects;
 
 public final class CTypeIdExpression extends AbstractExpression implements CExpression {
 
+  private static final long serialVersionUID = 52011070412835340L;
+
   private final TypeIdOperator operator;
   private final CType type;
 
@@ -20,6 +20,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CUnaryExpression extends AUnaryExpression implements CExpression {
 
+  private static final long serialVersionUID = -2176591881365241243L;
+
 
   public CUnaryExpression(
       final FileLocation pFileLocation,
@@ -33,6 +33,8 @@ import java.util.Objects;
  */
 public final class CVariableDeclaration extends AVariableDeclaration implements CDeclaration {
 
+  private static final long serialVersionUID = 1440608101763649590L;
+
   private final CStorageClass cStorageClass;
 
   public CVariableDeclaration(
@@ -33,6 +33,8 @@ import java.util.Objects;
 public class JArrayInitializer extends AbstractExpression
     implements JAstNode, JInitializer, JExpression {
 
+  private static final long serialVersionUID = 3311690030110141097L;
+
   private final List<JExpression> initializerExpressions;
 
   public JArrayInitializer(
@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JSimpleType;
 public abstract class JArrayLengthExpression extends AbstractExpression
     implements JExpression, JAstNode, JRightHandSide {
 
+  private static final long serialVersionUID = -8390646721089028859L;
+
   private JArrayLengthExpression(FileLocation pFileLocation) {
     super(pFileLocation, JSimpleType.getInt());
   }
@@ -65,6 +67,9 @@ public abstract class JArrayLengthExpression extends AbstractExpression
   }
 
   private static class JSubArrayLengthExpression extends JArrayLengthExpression {
+
+    private static final long serialVersionUID = -6723127458830834023L;
+
     private final JArraySubscriptExpression qualifier;
 
     public JSubArrayLengthExpression(
@@ -88,6 +93,8 @@ public abstract class JArrayLengthExpression extends AbstractExpression
 
   private static class JTopArrayLengthExpression extends JArrayLengthExpression {
 
+    private static final long serialVersionUID = 4936369777847152680L;
+
     private final JIdExpression qualifier;
 
     private JTopArrayLengthExpression(FileLocation pFileLocation, JIdExpression pQualifier) {
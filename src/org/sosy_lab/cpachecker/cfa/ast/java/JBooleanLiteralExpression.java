@@ -31,6 +31,8 @@ import java.util.Objects;
  */
 public class JBooleanLiteralExpression extends ALiteralExpression implements JLiteralExpression {
 
+  private static final long serialVersionUID = 2893323960247581826L;
+
 
   final Boolean value;
 
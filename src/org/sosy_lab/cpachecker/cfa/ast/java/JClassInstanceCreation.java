@@ -37,6 +37,8 @@ import javax.annotation.Nullable;
  */
 public class JClassInstanceCreation extends JMethodInvocationExpression implements JRightHandSide {
 
+  private static final long serialVersionUID = -5718526420381434922L;
+
   //TODO Type Variables , AnonymousClassDeclaration
 
   public JClassInstanceCreation(
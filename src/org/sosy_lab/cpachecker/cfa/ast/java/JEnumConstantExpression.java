@@ -25,6 +25,8 @@ import java.util.Objects;
  */
 public class JEnumConstantExpression extends AbstractExpression implements JExpression {
 
+  private static final long serialVersionUID = -9140082444679641403L;
+
   // TODO Change the representation of the constantName from String to JIdExpression
 
   private final String constantName;
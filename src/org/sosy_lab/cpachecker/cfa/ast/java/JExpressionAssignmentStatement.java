@@ -32,6 +32,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 public class JExpressionAssignmentStatement extends AExpressionAssignmentStatement
     implements JAssignment, JStatement {
 
+  private static final long serialVersionUID = 8606722127476226119L;
+
   public JExpressionAssignmentStatement(
       FileLocation pFileLocation, JLeftHandSide pLeftHandSide,
       JExpression pRightHandSide) {
@@ -28,6 +28,8 @@ import java.util.Objects;
  */
 public class JFieldAccess extends JIdExpression {
 
+  private static final long serialVersionUID = 1392749448715562099L;
+
   //TODO Investigate if this should be refactored.
 
   private final JIdExpression qualifier;
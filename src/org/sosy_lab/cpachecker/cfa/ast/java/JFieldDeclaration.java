@@ -34,6 +34,8 @@ import java.util.Objects;
  */
 public class JFieldDeclaration extends JVariableDeclaration {
 
+  private static final long serialVersionUID = -7621500702389466711L;
+
   //TODO Annotation,
 
   private static final boolean IS_FIELD = true;
@@ -28,6 +28,8 @@ import javax.annotation.Nullable;
  */
 public class JIdExpression extends AIdExpression implements JLeftHandSide {
 
+  private static final long serialVersionUID = -4794921091262265958L;
+
   public JIdExpression(
       FileLocation pFileLocation,
       JType pType,
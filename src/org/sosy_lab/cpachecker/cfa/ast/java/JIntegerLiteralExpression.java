@@ -27,6 +27,8 @@ import java.math.BigInteger;
 public class JIntegerLiteralExpression extends AIntegerLiteralExpression
     implements JLiteralExpression {
 
+  private static final long serialVersionUID = -1962241768410997602L;
+
   public JIntegerLiteralExpression(FileLocation pFileLocation, BigInteger pValue) {
     super(pFileLocation, JSimpleType.getInt(), pValue);
   }
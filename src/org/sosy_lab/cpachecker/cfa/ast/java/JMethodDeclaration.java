@@ -43,6 +43,8 @@ import java.util.Objects;
  */
 public class JMethodDeclaration extends AFunctionDeclaration implements JDeclaration {
 
+  private static final long serialVersionUID = -4304331986220200282L;
+
   // TODO Type Variables, Exceptions, Annotations
 
   private final boolean isFinal;
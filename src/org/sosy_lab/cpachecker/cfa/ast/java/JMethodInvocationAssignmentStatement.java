@@ -25,6 +25,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 public class JMethodInvocationAssignmentStatement extends AFunctionCallAssignmentStatement
     implements JAssignment, JStatement, JMethodOrConstructorInvocation {
 
+  private static final long serialVersionUID = 3710397150549194319L;
+
   public JMethodInvocationAssignmentStatement(
       FileLocation pFileLocation, JLeftHandSide pLeftHandSide,
       JMethodInvocationExpression pRightHandSide) {
@@ -28,6 +28,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 public class JMethodInvocationStatement extends AFunctionCallStatement
     implements JStatement, JMethodOrConstructorInvocation {
 
+  private static final long serialVersionUID = 5708056468162390892L;
+
   public JMethodInvocationStatement(
       FileLocation pFileLocation,
       JMethodInvocationExpression pFunctionCall) {
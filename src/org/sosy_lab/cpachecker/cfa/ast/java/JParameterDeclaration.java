@@ -26,6 +26,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JParameterDeclaration extends AParameterDeclaration implements JSimpleDeclaration {
 
+  private static final long serialVersionUID = -8884436119994460223L;
+
   private final String qualifiedName;
   private final boolean isFinal;
 
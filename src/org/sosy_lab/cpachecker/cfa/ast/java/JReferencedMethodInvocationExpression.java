@@ -34,6 +34,8 @@ import java.util.Objects;
  */
 public class JReferencedMethodInvocationExpression extends JMethodInvocationExpression {
 
+  private static final long serialVersionUID = -1485284043380494236L;
+
   private final JIdExpression qualifier;
 
   public JReferencedMethodInvocationExpression(
@@ -24,6 +24,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
 public class JStringLiteralExpression extends AStringLiteralExpression
     implements JLiteralExpression {
 
+  private static final long serialVersionUID = 1921244157389464989L;
+
   public JStringLiteralExpression(FileLocation pFileLocation, JType pType, String pValue) {
     super(pFileLocation, pType, pValue);
   }
@@ -29,6 +29,8 @@ import java.util.List;
  */
 public class JSuperConstructorInvocation extends JClassInstanceCreation {
 
+  private static final long serialVersionUID = 939717958243099170L;
+
   public JSuperConstructorInvocation(
       FileLocation pFileLocation, JClassType pType, JExpression pFunctionName,
       List<? extends JExpression> pParameters, JConstructorDeclaration pDeclaration) {
@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JUnaryExpression extends AUnaryExpression implements JExpression {
 
+  private static final long serialVersionUID = 8327936213688761557L;
+
   public JUnaryExpression(
       FileLocation pFileLocation,
       JType pType,
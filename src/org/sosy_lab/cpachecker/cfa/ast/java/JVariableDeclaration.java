@@ -26,6 +26,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JVariableDeclaration extends AVariableDeclaration implements JDeclaration {
 
+  private static final long serialVersionUID = -7820135555298570715L;
+
 
   private static final boolean IS_LOCAL = false;
   private final boolean isFinal;
@@ -22,6 +22,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public class ADeclarationEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = 1585022513724190507L;
+
   protected final ADeclaration declaration;
 
   protected ADeclarationEdge(
@@ -24,6 +24,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public class AReturnStatementEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = -1043989809307453304L;
+
   protected final AReturnStatement rawAST;
 
   protected AReturnStatementEdge(
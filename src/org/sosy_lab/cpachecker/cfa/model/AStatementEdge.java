@@ -22,6 +22,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public class AStatementEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = -4997437922911399780L;
+
   protected final AStatement statement;
 
   protected AStatementEdge(
@@ -25,6 +25,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public abstract class AbstractCFAEdge implements CFAEdge {
 
+  private static final long serialVersionUID = 4234877693125160859L;
+
   private final CFANode predecessor;
   private final CFANode successor;
   private final String rawStatement;
@@ -22,6 +22,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public class AssumeEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = -7893518731349485654L;
+
   private final boolean truthAssumption;
   protected final AExpression expression;
 
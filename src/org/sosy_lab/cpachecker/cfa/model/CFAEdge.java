@@ -20,7 +20,9 @@ import com.google.common.base.Optional;
 import org.sosy_lab.cpachecker.cfa.ast.AAstNode;
 import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
-public interface CFAEdge {
+import java.io.Serializable;
+
+public interface CFAEdge extends Serializable {
 
   public CFAEdgeType getEdgeType();
 
@@ -19,6 +19,8 @@ package org.sosy_lab.cpachecker.cfa.model;
  */
 public class CFATerminationNode extends CFANode {
 
+  private static final long serialVersionUID = -8888747182144054091L;
+
   public CFATerminationNode(String pFunctionName) {
     super(pFunctionName);
   }
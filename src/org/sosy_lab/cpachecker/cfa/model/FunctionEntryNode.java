@@ -30,6 +30,8 @@ import java.util.List;
 
 public abstract class FunctionEntryNode extends CFANode {
 
+  private static final long serialVersionUID = -189243649729879574L;
+
   private final FileLocation location;
   private final AFunctionDeclaration functionDefinition;
   private final List<String> parameterNames;
@@ -20,6 +20,8 @@ import static com.google.common.base.Preconditions.checkState;
 
 public class FunctionExitNode extends CFANode {
 
+  private static final long serialVersionUID = 6188079281981116350L;
+
   private FunctionEntryNode entryNode;
 
   public FunctionExitNode(String pFunctionName) {
@@ -19,6 +19,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public class FunctionReturnEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = 5730196273795946470L;
+
   private final FunctionSummaryEdge summaryEdge;
 
   protected FunctionReturnEdge(
@@ -22,6 +22,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public class FunctionSummaryEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = 6419084630526623591L;
+
   private final AFunctionCall expression;
   private final FunctionEntryNode functionEntry;
 
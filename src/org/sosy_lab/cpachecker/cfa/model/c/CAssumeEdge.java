@@ -24,6 +24,8 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 
 public class CAssumeEdge extends AssumeEdge {
 
+  private static final long serialVersionUID = -3076841206342186670L;
+
 
   public CAssumeEdge(
       String pRawStatement, FileLocation pFileLocation, CFANode pPredecessor,
@@ -23,6 +23,8 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 
 public class CDeclarationEdge extends ADeclarationEdge {
 
+  private static final long serialVersionUID = 5038197241413900575L;
+
 
   public CDeclarationEdge(
       final String pRawSignature, final FileLocation pFileLocation,
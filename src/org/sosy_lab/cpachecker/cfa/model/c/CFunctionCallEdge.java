@@ -27,6 +27,8 @@ import java.util.List;
 
 public class CFunctionCallEdge extends FunctionCallEdge {
 
+  private static final long serialVersionUID = 3625113597886119457L;
+
 
   public CFunctionCallEdge(
       String pRawStatement,
@@ -27,6 +27,8 @@ import java.util.List;
 
 public class CFunctionEntryNode extends FunctionEntryNode {
 
+  private static final long serialVersionUID = 2941383930740441477L;
+
   public CFunctionEntryNode(
       final FileLocation pFileLocation,
       final CFunctionDeclaration pFunctionDefinition,
@@ -21,6 +21,8 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionReturnEdge;
 
 public class CFunctionReturnEdge extends FunctionReturnEdge {
 
+  private static final long serialVersionUID = 7576868435916206331L;
+
 
   public CFunctionReturnEdge(
       FileLocation pFileLocation,
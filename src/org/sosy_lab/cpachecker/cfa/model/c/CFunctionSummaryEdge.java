@@ -21,6 +21,8 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
 
 public class CFunctionSummaryEdge extends FunctionSummaryEdge {
 
+  private static final long serialVersionUID = 3414356520847749632L;
+
 
   public CFunctionSummaryEdge(
       String pRawStatement, FileLocation pFileLocation,
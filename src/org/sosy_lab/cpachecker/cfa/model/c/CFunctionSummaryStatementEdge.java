@@ -22,6 +22,9 @@ import org.sosy_lab.cpachecker.cfa.ast.c.CStatement;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 
 public class CFunctionSummaryStatementEdge extends CStatementEdge {
+
+  private static final long serialVersionUID = 2927067126902585905L;
+
   private final String functionName;
   private final CFunctionCall fcall;
 
@@ -20,6 +20,8 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 
 public class CLabelNode extends CFANode {
 
+  private static final long serialVersionUID = -4985624442364348427L;
+
   private final String label;
 
   public CLabelNode(String pFunctionName, String pLabel) {
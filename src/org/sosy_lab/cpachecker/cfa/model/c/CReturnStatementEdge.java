@@ -27,6 +27,8 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
 
 public class CReturnStatementEdge extends AReturnStatementEdge {
 
+  private static final long serialVersionUID = 2369891077201158063L;
+
 
   public CReturnStatementEdge(
       String pRawStatement, CReturnStatement pRawAST,
@@ -23,6 +23,8 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 
 public class CStatementEdge extends AStatementEdge {
 
+  private static final long serialVersionUID = 4449194754346789762L;
+
 
   public CStatementEdge(
       String pRawStatement, CStatement pStatement,
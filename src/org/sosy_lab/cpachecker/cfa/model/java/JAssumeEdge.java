@@ -24,6 +24,8 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 
 public class JAssumeEdge extends AssumeEdge {
 
+  private static final long serialVersionUID = 6361868166741029676L;
+
   public JAssumeEdge(
       String pRawStatement, FileLocation pFileLocation, CFANode pPredecessor,
       CFANode pSuccessor, JExpression pExpression, boolean pTruthAssumption) {
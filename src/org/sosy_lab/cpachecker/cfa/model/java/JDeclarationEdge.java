@@ -24,6 +24,8 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 
 public class JDeclarationEdge extends ADeclarationEdge {
 
+  private static final long serialVersionUID = -4863199069362060301L;
+
 
   public JDeclarationEdge(
       final String pRawSignature, final FileLocation pFileLocation,
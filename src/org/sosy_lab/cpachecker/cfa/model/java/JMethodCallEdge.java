@@ -27,6 +27,8 @@ import java.util.List;
 
 public class JMethodCallEdge extends FunctionCallEdge {
 
+  private static final long serialVersionUID = -3164412798261232146L;
+
 
   public JMethodCallEdge(
       String pRawStatement,
@@ -27,6 +27,8 @@ import java.util.List;
 
 public class JMethodEntryNode extends FunctionEntryNode {
 
+  private static final long serialVersionUID = -3855749407382298484L;
+
   public JMethodEntryNode(
       final FileLocation pFileLocation,
       final JMethodDeclaration pMethodDefinition,
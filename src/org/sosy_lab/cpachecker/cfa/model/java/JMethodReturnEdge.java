@@ -21,6 +21,8 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionReturnEdge;
 
 public class JMethodReturnEdge extends FunctionReturnEdge {
 
+  private static final long serialVersionUID = -1212808123334864480L;
+
 
   public JMethodReturnEdge(
       FileLocation pFileLocation,
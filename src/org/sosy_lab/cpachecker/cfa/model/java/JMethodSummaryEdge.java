@@ -21,6 +21,8 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
 
 public class JMethodSummaryEdge extends FunctionSummaryEdge {
 
+  private static final long serialVersionUID = -7588082546348306631L;
+
 
   public JMethodSummaryEdge(
       String pRawStatement, FileLocation pFileLocation,
@@ -27,6 +27,8 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
 
 public class JReturnStatementEdge extends AReturnStatementEdge {
 
+  private static final long serialVersionUID = 5142694559636368867L;
+
 
   public JReturnStatementEdge(
       String pRawStatement, JReturnStatement pRawAST,
@@ -23,6 +23,8 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 
 public class JStatementEdge extends AStatementEdge {
 
+  private static final long serialVersionUID = 2098662037281068443L;
+
 
   public JStatementEdge(
       String pRawStatement, JStatement pStatement,
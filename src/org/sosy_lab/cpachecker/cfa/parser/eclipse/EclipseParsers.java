@@ -85,7 +85,8 @@ public class EclipseParsers {
       Configuration config,
       LogManager logger,
       CParser.Dialect dialect,
-      MachineModel machine) {
+      int parseThreads,
+      MachineModel machine) throws InvalidConfigurationException {
 
     try {
       Constructor<? extends CParser> parserConstructor = loadedCParser.get();
@@ -97,12 +98,20 @@ public class EclipseParsers {
         Class<? extends CParser> parserClass =
             (Class<? extends CParser>) classLoader.loadClass(C_PARSER_CLASS);
         parserConstructor = parserClass.getConstructor(
-            new Class<?>[]{Configuration.class, LogManager.class, Dialect.class, MachineModel.class});
+            new Class<?>[]{Configuration.class, LogManager.class, Dialect.class, int.class,
+                MachineModel.class});
         parserConstructor.setAccessible(true);
         loadedCParser = new WeakReference<Constructor<? extends CParser>>(parserConstructor);
       }
 
-      return parserConstructor.newInstance(config, logger, dialect, machine);
+      try {
+        return parserConstructor.newInstance(config, logger, dialect, parseThreads, machine);
+      } catch (InvocationTargetException e) {
+        if (e.getCause() instanceof InvalidConfigurationException) {
+          throw (InvalidConfigurationException) e.getCause();
+        }
+        throw e;
+      }
     } catch (ReflectiveOperationException e) {
       throw new Classes.UnexpectedCheckedException("Failed to create Eclipse CDT parser", e);
     }
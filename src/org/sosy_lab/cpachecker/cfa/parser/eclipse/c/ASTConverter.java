@@ -1650,6 +1650,7 @@ class ASTConverter {
               // we add no-return functions into the stop function list
               String stopName = c.getName().toString();
               GlobalInfo.getInstance().addStopFunction(stopName);
+              GlobalInfo.getInstance().getPreInfoManager().addStopFunction(stopName);
               break;
             }
             case "__mode__": {
@@ -14,6 +14,7 @@
  */
 package org.sosy_lab.cpachecker.cfa.parser.eclipse.c;
 
+import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.FluentIterable.from;
 
 import com.google.common.base.Function;
@@ -54,13 +55,16 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
 import org.sosy_lab.cpachecker.cfa.parser.Scope;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cpa.constraints.checker.PreprocessInfoManager;
 import org.sosy_lab.cpachecker.exceptions.CParserException;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.Triple;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -75,6 +79,10 @@ import javax.annotation.Nullable;
  * call {@link #analyzeTranslationUnit(IASTTranslationUnit, String, Scope)}
  * once for each translation unit that should be used
  * and finally call {@link #createCFA()}.
+ * Alternatively, call {@link #analyzeTranslationUnit(IASTTranslationUnit, String, Scope)}
+ * for a single translation unit and then
+ * {@link #createTranslationUnitCFA(PreprocessInfoManager)},
+ * such that the unit can be linked with other units by {@link TranslationUnitLinker}.
  */
 class CFABuilder extends ASTVisitor {
 
@@ -93,6 +101,11 @@ class CFABuilder extends ASTVisitor {
   // Data structure for checking amount of initializations per global variable
   private final Set<String> globalInitializedVariables = Sets.newHashSet();
 
+  // Data structures for linking translation units built separately
+  private final Map<String, List<Pair<ADeclaration, String>>> functionGlobalDecls =
+      new LinkedHashMap<>();
+  private final Set<String> inlineFunctions = Sets.newHashSet();
+
 
   private GlobalScope fileScope = new GlobalScope();
   private Scope artificialScope;
@@ -310,6 +323,47 @@ class CFABuilder extends ASTVisitor {
   }
 
   public ParseResult createCFA() throws CParserException {
+    convertFunctionDefinitions();
+
+    if (encounteredAsm) {
+      logger.log(Level.WARNING, "Inline assembler ignored, analysis is probably unsound!");
+    }
+
+    if (checkBinding.foundUndefinedIdentifiers()) {
+      throw new CParserException(
+          "Invalid C code because of undefined identifiers mentioned above.");
+    }
+
+    ParseResult result = new ParseResult(cfas,
+        cfaNodes,
+        globalDecls,
+        Language.C);
+
+    return result;
+  }
+
+  /**
+   * Create the CFA of the single translation unit analyzed by this builder.
+   *
+   * @param pPreprocessInfo the information collected by the parser for this unit
+   */
+  TranslationUnitCFA createTranslationUnitCFA(PreprocessInfoManager pPreprocessInfo)
+      throws CParserException {
+    checkState(functionDeclarations.size() == 1, "Expected a single translation unit");
+    // the declarations of functions are appended to the declarations of the unit
+    List<Pair<ADeclaration, String>> unitDecls = new ArrayList<>(globalDecls);
+    convertFunctionDefinitions();
+
+    if (checkBinding.foundUndefinedIdentifiers()) {
+      throw new CParserException(
+          "Invalid C code because of undefined identifiers mentioned above.");
+    }
+
+    return new TranslationUnitCFA(cfas, cfaNodes, unitDecls, functionGlobalDecls,
+        inlineFunctions, globalInitializedVariables, encounteredAsm, pPreprocessInfo);
+  }
+
+  private void convertFunctionDefinitions() {
     // in case we
     if (functionDeclarations.size() > 1) {
       programDeclarations.completeUncompletedElaboratedTypes();
@@ -341,22 +395,6 @@ class CFABuilder extends ASTVisitor {
             actVars);
       }
     }
-
-    if (encounteredAsm) {
-      logger.log(Level.WARNING, "Inline assembler ignored, analysis is probably unsound!");
-    }
-
-    if (checkBinding.foundUndefinedIdentifiers()) {
-      throw new CParserException(
-          "Invalid C code because of undefined identifiers mentioned above.");
-    }
-
-    ParseResult result = new ParseResult(cfas,
-        cfaNodes,
-        globalDecls,
-        Language.C);
-
-    return result;
   }
 
   private void handleFunctionDefinition(
@@ -400,6 +438,10 @@ class CFABuilder extends ASTVisitor {
     }
     cfas.put(functionName, startNode);
     cfaNodes.putAll(functionName, functionBuilder.getCfaNodes());
+    functionGlobalDecls.put(functionName, functionBuilder.getGlobalDeclarations());
+    if (declaration.getDeclSpecifier().isInline()) {
+      inlineFunctions.add(functionName);
+    }
     globalDeclarations.addAll(from(functionBuilder.getGlobalDeclarations()).transform(
         new Function<Pair<ADeclaration, String>, Triple<ADeclaration, String, GlobalScope>>() {
 
@@ -18,8 +18,10 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
@@ -45,31 +47,49 @@ import org.eclipse.cdt.internal.core.parser.InternalParserUtil;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContentProvider;
 import org.eclipse.core.runtime.CoreException;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.CFACheck;
 import org.sosy_lab.cpachecker.cfa.CParser;
 import org.sosy_lab.cpachecker.cfa.CProgramScope;
 import org.sosy_lab.cpachecker.cfa.CSourceOriginMapping;
 import org.sosy_lab.cpachecker.cfa.ParseResult;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
 import org.sosy_lab.cpachecker.cfa.parser.Scope;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cpa.constraints.checker.PreprocessInfoManager;
 import org.sosy_lab.cpachecker.exceptions.CParserException;
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
 
 /**
  * Wrapper for Eclipse CDT 7.0 and 8.* (internal version number since 5.2.*)
@@ -85,16 +105,26 @@ class EclipseCParser implements CParser {
   private final LogManager logger;
   private final Configuration config;
 
+  // the number of files parsed concurrently, 0 for the number of available processors
+  private final int parseThreads;
+
   private final Timer parseTimer = new Timer();
   private final Timer cfaTimer = new Timer();
+  // file name -> time for parsing the file
+  private final Map<String, TimeSpan> parseTimePerFile = new LinkedHashMap<>();
+
+  private final TranslationUnitCache unitCache;
 
   public EclipseCParser(
       Configuration pConfig, LogManager pLogger,
-      Dialect pDialect, MachineModel pMachine) {
+      Dialect pDialect, int pParseThreads, MachineModel pMachine)
+      throws InvalidConfigurationException {
 
     this.logger = pLogger;
     this.machine = pMachine;
     this.config = pConfig;
+    this.parseThreads = pParseThreads;
+    this.unitCache = new TranslationUnitCache(pConfig, pLogger);
 
     switch (pDialect) {
       case C99:
@@ -130,10 +160,26 @@ class EclipseCParser implements CParser {
     return wrapCode(pFileName, code);
   }
 
+  private static final Function<IASTTranslationUnit, String> GET_FILE_PATH =
+      new Function<IASTTranslationUnit, String>() {
+        @Override
+        public String apply(IASTTranslationUnit pInput) {
+          return pInput.getFilePath();
+        }
+      };
+
   private static interface FileParseWrapper {
     public FileContent wrap(String pFileName, FileToParse pContent) throws IOException;
   }
 
+  private final FileParseWrapper codeWrapper = new FileParseWrapper() {
+    @Override
+    public FileContent wrap(String pFileName, FileToParse pContent) throws IOException {
+      Preconditions.checkArgument(pContent instanceof FileContentToParse);
+      return wrapCode(pFileName, ((FileContentToParse) pContent).getFileContent());
+    }
+  };
+
   private ParseResult parseSomething(
       List<? extends FileToParse> pInput,
       CSourceOriginMapping pSourceOriginMapping,
@@ -145,23 +191,225 @@ class EclipseCParser implements CParser {
     Preconditions.checkNotNull(pWrapperFunction);
 
     Map<String, String> fileNameMapping = new HashMap<>();
-    List<IASTTranslationUnit> astUnits = new ArrayList<>();
-
+    List<String> fileNames = new ArrayList<>(pInput.size());
     for (FileToParse f : pInput) {
       final String fileName = fixPath(f.getFileName());
       fileNameMapping.put(fileName, f.getFileName());
+      fileNames.add(fileName);
+    }
+
+    CSourceOriginMapping sourceOriginMapping =
+        new FixedPathSourceOriginMapping(pSourceOriginMapping, fileNameMapping);
+    if (unitCache.isEnabled() && pInput.size() > 1) {
+      return parseIncrementally(pInput, fileNames, sourceOriginMapping);
+    }
+
+    return buildCFA(
+        parseUnits(pInput, fileNames, pWrapperFunction),
+        sourceOriginMapping,
+        CProgramScope.empty());
+  }
 
+  /**
+   * Parse the given files, concurrently if several threads are configured. The translation units
+   * are returned in the order of input.
+   */
+  private List<IASTTranslationUnit> parseUnits(
+      List<? extends FileToParse> pInput, List<String> pFileNames,
+      FileParseWrapper pWrapperFunction) throws CParserException {
+    int threads = (parseThreads == 0) ? Runtime.getRuntime().availableProcessors() : parseThreads;
+    threads = Math.min(threads, pInput.size());
+    if (threads > 1) {
+      return parseConcurrently(pInput, pFileNames, pWrapperFunction, threads);
+    }
+    List<IASTTranslationUnit> astUnits = new ArrayList<>(pInput.size());
+    for (int i = 0; i < pInput.size(); i++) {
       try {
-        astUnits.add(parse(pWrapperFunction.wrap(fileName, f)));
+        astUnits.add(parse(pWrapperFunction.wrap(pFileNames.get(i), pInput.get(i))));
       } catch (IOException e) {
         throw new CParserException("IO failed!", e);
       }
+      // only files of the program are recorded, not code fragments parsed by other methods
+      parseTimePerFile.put(pFileNames.get(i), parseTimer.getLengthOfLastInterval());
     }
+    return astUnits;
+  }
 
-    return buildCFA(
-        astUnits,
-        new FixedPathSourceOriginMapping(pSourceOriginMapping, fileNameMapping),
-        CProgramScope.empty());
+  /**
+   * Build the CFA of several files, where the CFA of each unchanged translation unit is taken from
+   * the {@link TranslationUnitCache}, and only the other units are parsed and built separately.
+   * All units are linked by {@link TranslationUnitLinker} afterwards. If the units cannot be
+   * linked separately, they are built together as usual.
+   */
+  private ParseResult parseIncrementally(
+      List<? extends FileToParse> pInput, List<String> pFileNames,
+      CSourceOriginMapping pSourceOriginMapping)
+      throws CParserException, InvalidConfigurationException {
+
+    Function<String, String> niceFileNameFunction = createNiceFileNameFunction(pFileNames);
+    String commonPathPrefix = getCommonPathPrefix(pFileNames);
+    int count = pInput.size();
+    List<FileContentToParse> units = new ArrayList<>(count);
+    List<String> keys = new ArrayList<>(count);
+    List<TranslationUnitCFA> unitCFAs = new ArrayList<>(count);
+    List<Integer> missingUnits = new ArrayList<>();
+
+    // load all cached units first, such that newly created nodes get numbers not used by them
+    cfaTimer.start();
+    try {
+      unitCache.load();
+      Set<Integer> nodeNumbers = new HashSet<>();
+      for (int i = 0; i < count; i++) {
+        String fileName = pFileNames.get(i);
+        String code;
+        try {
+          code = readCode(fileName, pInput.get(i));
+        } catch (IOException e) {
+          throw new CParserException("IO failed!", e);
+        }
+        units.add(new FileContentToParse(fileName, code));
+        keys.add(unitCache.computeKey(fileName,
+            getStaticVariablePrefix(niceFileNameFunction, fileName), commonPathPrefix, code));
+
+        Optional<TranslationUnitCFA> unitCFA = unitCache.lookup(keys.get(i));
+        // units cached in different runs may have nodes with the same numbers
+        if (unitCFA.isPresent() && addNodeNumbers(nodeNumbers, unitCFA.get())) {
+          unitCFAs.add(unitCFA.get());
+        } else {
+          unitCFAs.add(null);
+          missingUnits.add(i);
+        }
+      }
+    } finally {
+      cfaTimer.stop();
+    }
+    logger.log(Level.INFO, "CFAs of", count - missingUnits.size(), "of", count,
+        "translation units loaded from cache");
+
+    List<IASTTranslationUnit> astUnits =
+        new ArrayList<>(Collections.<IASTTranslationUnit>nCopies(count, null));
+    List<FileContentToParse> changedUnits = new ArrayList<>(missingUnits.size());
+    List<String> changedFileNames = new ArrayList<>(missingUnits.size());
+    for (int i : missingUnits) {
+      changedUnits.add(units.get(i));
+      changedFileNames.add(pFileNames.get(i));
+    }
+    List<IASTTranslationUnit> parsedUnits = parseUnits(changedUnits, changedFileNames, codeWrapper);
+
+    cfaTimer.start();
+    try {
+      for (int j = 0; j < missingUnits.size(); j++) {
+        int i = missingUnits.get(j);
+        IASTTranslationUnit ast = parsedUnits.get(j);
+        astUnits.set(i, ast);
+        TranslationUnitCFA unitCFA = buildTranslationUnitCFA(ast,
+            getStaticVariablePrefix(niceFileNameFunction, pFileNames.get(i)),
+            niceFileNameFunction, pSourceOriginMapping);
+        // the unit is serialized before linking modifies its types
+        unitCache.put(keys.get(i), unitCFA, getIncludedFiles(ast));
+        unitCFAs.set(i, unitCFA);
+      }
+      unitCache.save();
+
+      Optional<ParseResult> result = new TranslationUnitLinker(logger).link(unitCFAs);
+      if (result.isPresent() && isConsistent(result.get())) {
+        for (TranslationUnitCFA unitCFA : unitCFAs) {
+          GlobalInfo.getInstance().addPreprocessInfo(unitCFA.getPreprocessInfo());
+        }
+        return result.get();
+      }
+
+    } catch (CFAGenerationRuntimeException e) {
+      throw new CParserException(e);
+    } finally {
+      cfaTimer.stop();
+    }
+
+    logger.log(Level.INFO,
+        "Translation units cannot be linked separately, building them together");
+    for (int i = 0; i < count; i++) {
+      if (astUnits.get(i) == null) {
+        try {
+          astUnits.set(i, parse(codeWrapper.wrap(pFileNames.get(i), units.get(i))));
+        } catch (IOException e) {
+          throw new CParserException("IO failed!", e);
+        }
+      }
+    }
+    return buildCFA(astUnits, pSourceOriginMapping, CProgramScope.empty());
+  }
+
+  /**
+   * Check the CFA of each function linked from cached units, regardless of whether assertions are
+   * enabled, since a stale or corrupted cache entry would otherwise go unnoticed.
+   */
+  private boolean isConsistent(ParseResult pLinked) {
+    for (Entry<String, FunctionEntryNode> function : pLinked.getFunctions().entrySet()) {
+      Optional<String> violation = CFACheck.findViolation(function.getValue(),
+          pLinked.getCFANodes().get(function.getKey()), false);
+      if (violation.isPresent()) {
+        logger.log(Level.WARNING, "Linked CFA of function", function.getKey(),
+            "is inconsistent:", violation.get());
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String readCode(String pFileName, FileToParse pInput) throws IOException {
+    if (pInput instanceof FileContentToParse) {
+      return ((FileContentToParse) pInput).getFileContent();
+    }
+    return Paths.get(pFileName).asCharSource(Charset.defaultCharset()).read();
+  }
+
+  /**
+   * Add the numbers of the nodes of the unit to the given set.
+   *
+   * @return false, if one of the numbers is already in the set (then the set is not modified)
+   */
+  private static boolean addNodeNumbers(Set<Integer> pNodeNumbers, TranslationUnitCFA pUnit) {
+    List<Integer> unitNodeNumbers = new ArrayList<>();
+    for (CFANode node : pUnit.getCFANodes().values()) {
+      if (pNodeNumbers.contains(node.getNodeNumber())) {
+        return false;
+      }
+      unitNodeNumbers.add(node.getNodeNumber());
+    }
+    pNodeNumbers.addAll(unitNodeNumbers);
+    return true;
+  }
+
+  private static List<String> getIncludedFiles(IASTTranslationUnit pAst) {
+    List<String> includedFiles = new ArrayList<>();
+    for (IASTPreprocessorIncludeStatement include : pAst.getIncludeDirectives()) {
+      if (include.isResolved()) {
+        includedFiles.add(include.getPath());
+      }
+    }
+    return includedFiles;
+  }
+
+  /**
+   * Build the CFA of a single translation unit, collecting the information of the parser for
+   * this unit separately.
+   */
+  private TranslationUnitCFA buildTranslationUnitCFA(
+      IASTTranslationUnit pAst, String pStaticVariablePrefix,
+      Function<String, String> pNiceFileNameFunction,
+      CSourceOriginMapping pSourceOriginMapping)
+      throws CParserException, InvalidConfigurationException {
+    GlobalInfo globalInfo = GlobalInfo.getInstance();
+    PreprocessInfoManager preprocessInfo = new PreprocessInfoManager();
+    PreprocessInfoManager previousPreprocessInfo = globalInfo.setPreInfoManager(preprocessInfo);
+    try {
+      CFABuilder builder = new CFABuilder(config, logger, pNiceFileNameFunction,
+          pSourceOriginMapping, machine);
+      builder.analyzeTranslationUnit(pAst, pStaticVariablePrefix, CProgramScope.empty());
+      return builder.createTranslationUnitCFA(preprocessInfo);
+    } finally {
+      globalInfo.setPreInfoManager(previousPreprocessInfo);
+    }
   }
 
   @Override
@@ -184,14 +432,7 @@ class EclipseCParser implements CParser {
       CSourceOriginMapping sourceOriginMapping)
       throws CParserException, InvalidConfigurationException {
 
-    return parseSomething(pCodeFragments, sourceOriginMapping, new FileParseWrapper() {
-      @Override
-      public FileContent wrap(String pFileName, FileToParse pContent) throws IOException {
-        Preconditions.checkArgument(pContent instanceof FileContentToParse);
-        return wrapCode(pFileName, ((FileContentToParse) pContent).getFileContent());
-      }
-    });
-
+    return parseSomething(pCodeFragments, sourceOriginMapping, codeWrapper);
   }
 
   /**
@@ -315,8 +556,73 @@ class EclipseCParser implements CParser {
       // we don't use IASTName#getImageLocation(), so the parse doesn't need to create them
       ;
 
+  /**
+   * Parse files concurrently with CDT. The translation units are returned in the order of input,
+   * and if parsing fails, the exception of the first failed file in this order is thrown.
+   */
+  private List<IASTTranslationUnit> parseConcurrently(
+      List<? extends FileToParse> pInput, List<String> pFileNames,
+      final FileParseWrapper pWrapperFunction, int pThreads) throws CParserException {
+    ExecutorService executor = Executors.newFixedThreadPool(pThreads,
+        Threads.threadFactoryBuilder().setNameFormat("parser-%d").setDaemon(true).build());
+    parseTimer.start();
+    try {
+      List<Future<Pair<IASTTranslationUnit, TimeSpan>>> futures = new ArrayList<>(pInput.size());
+      for (int i = 0; i < pInput.size(); i++) {
+        final FileToParse f = pInput.get(i);
+        final String fileName = pFileNames.get(i);
+        futures.add(executor.submit(new Callable<Pair<IASTTranslationUnit, TimeSpan>>() {
+          @Override
+          public Pair<IASTTranslationUnit, TimeSpan> call() throws CParserException, IOException {
+            long start = System.nanoTime();
+            IASTTranslationUnit unit = parseUnit(pWrapperFunction.wrap(fileName, f));
+            return Pair.of(unit, TimeSpan.ofNanos(System.nanoTime() - start));
+          }
+        }));
+      }
+      List<IASTTranslationUnit> astUnits = new ArrayList<>(pInput.size());
+      for (int i = 0; i < futures.size(); i++) {
+        Pair<IASTTranslationUnit, TimeSpan> result = getParseResult(futures.get(i));
+        astUnits.add(result.getFirst());
+        parseTimePerFile.put(pFileNames.get(i), result.getSecond());
+      }
+      return astUnits;
+    } finally {
+      executor.shutdownNow();
+      parseTimer.stop();
+    }
+  }
+
+  private static <T> T getParseResult(Future<T> pFuture) throws CParserException {
+    try {
+      return pFuture.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CParserException("Parsing interrupted", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.propagateIfPossible(cause, CParserException.class);
+      if (cause instanceof IOException) {
+        throw new CParserException("IO failed!", cause);
+      }
+      throw new CParserException(cause);
+    }
+  }
+
   private IASTTranslationUnit parse(FileContent codeReader) throws CParserException {
     parseTimer.start();
+    try {
+      return parseUnit(codeReader);
+    } finally {
+      parseTimer.stop();
+    }
+  }
+
+  /**
+   * Parse a single translation unit. This method does not access mutable fields, thus it can be
+   * called concurrently.
+   */
+  private IASTTranslationUnit parseUnit(FileContent codeReader) throws CParserException {
     try {
       IASTTranslationUnit result = getASTTranslationUnit(codeReader);
 
@@ -348,8 +654,6 @@ class EclipseCParser implements CParser {
       throw new CParserException(e);
     } catch (CoreException e) {
       throw new CParserException(e);
-    } finally {
-      parseTimer.stop();
     }
   }
 
@@ -378,7 +682,8 @@ class EclipseCParser implements CParser {
     checkArgument(!asts.isEmpty());
     cfaTimer.start();
 
-    Function<String, String> niceFileNameFunction = createNiceFileNameFunction(asts);
+    Function<String, String> niceFileNameFunction =
+        createNiceFileNameFunction(Lists.transform(asts, GET_FILE_PATH));
     try {
       CFABuilder builder =
           new CFABuilder(config, logger, niceFileNameFunction, sourceOriginMapping, machine);
@@ -395,10 +700,7 @@ class EclipseCParser implements CParser {
         for (IASTTranslationUnit ast : asts) {
           builder.analyzeTranslationUnit(
               ast,
-              niceFileNameFunction
-                  .apply(ast.getFilePath())
-                  .replace("/", "_")
-                  .replaceAll("\\W", "_"),
+              getStaticVariablePrefix(niceFileNameFunction, ast.getFilePath()),
               pScope);
         }
       }
@@ -419,16 +721,9 @@ class EclipseCParser implements CParser {
    * The result may be the empty string, if for example CPAchecker only uses
    * one file (we expect the user to know its name in this case).
    */
-  private Function<String, String> createNiceFileNameFunction(List<IASTTranslationUnit> asts) {
-    Iterator<String> fileNames = Lists.transform(asts, new Function<IASTTranslationUnit, String>() {
-      @Override
-      public String apply(IASTTranslationUnit pInput) {
-        return pInput.getFilePath();
-      }
-    }).iterator();
-
-    if (asts.size() == 1) {
-      final String mainFileName = fileNames.next();
+  private Function<String, String> createNiceFileNameFunction(List<String> pFileNames) {
+    if (pFileNames.size() == 1) {
+      final String mainFileName = pFileNames.get(0);
       return new Function<String, String>() {
         @Override
         public String apply(String pInput) {
@@ -439,18 +734,7 @@ class EclipseCParser implements CParser {
       };
 
     } else {
-      String commonStringPrefix = fileNames.next();
-      while (fileNames.hasNext()) {
-        commonStringPrefix = Strings.commonPrefix(commonStringPrefix, fileNames.next());
-      }
-
-      final String commonPathPrefix;
-      int pos = commonStringPrefix.lastIndexOf(File.separator);
-      if (pos < 0) {
-        commonPathPrefix = commonStringPrefix;
-      } else {
-        commonPathPrefix = commonStringPrefix.substring(0, pos + 1);
-      }
+      final String commonPathPrefix = getCommonPathPrefix(pFileNames);
 
       return new Function<String, String>() {
         @Override
@@ -471,6 +755,34 @@ class EclipseCParser implements CParser {
     }
   }
 
+  /**
+   * Return the longest common prefix of the given file names that ends with a path separator.
+   */
+  private static String getCommonPathPrefix(List<String> pFileNames) {
+    Iterator<String> fileNames = pFileNames.iterator();
+    String commonStringPrefix = fileNames.next();
+    while (fileNames.hasNext()) {
+      commonStringPrefix = Strings.commonPrefix(commonStringPrefix, fileNames.next());
+    }
+
+    int pos = commonStringPrefix.lastIndexOf(File.separator);
+    if (pos < 0) {
+      return commonStringPrefix;
+    } else {
+      return commonStringPrefix.substring(0, pos + 1);
+    }
+  }
+
+  /**
+   * Return the prefix for static variables of a file if there are several files, which contains
+   * not only the file name but also the path, as there could be several equally named files in
+   * different directories.
+   */
+  private static String getStaticVariablePrefix(
+      Function<String, String> pNiceFileNameFunction, String pFileName) {
+    return pNiceFileNameFunction.apply(pFileName).replace("/", "_").replaceAll("\\W", "_");
+  }
+
 
   @Override
   public Timer getParseTime() {
@@ -482,6 +794,11 @@ class EclipseCParser implements CParser {
     return cfaTimer;
   }
 
+  @Override
+  public Map<String, TimeSpan> getParseTimePerFile() {
+    return Collections.unmodifiableMap(parseTimePerFile);
+  }
+
 
   /**
    * Private class extending the Eclipse CDT class that is the starting point
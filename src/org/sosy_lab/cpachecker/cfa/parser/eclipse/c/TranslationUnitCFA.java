@@ -0,0 +1,150 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cfa.parser.eclipse.c;
+
+import com.google.common.collect.SortedSetMultimap;
+import com.google.common.collect.TreeMultimap;
+
+import org.sosy_lab.cpachecker.cfa.CFASerialization;
+import org.sosy_lab.cpachecker.cfa.ast.ADeclaration;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cpa.constraints.checker.PreprocessInfoManager;
+import org.sosy_lab.cpachecker.util.Pair;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The CFA of a single translation unit that was built separately from the other units of the
+ * program, together with the information that is necessary for linking it with the other units
+ * by {@link TranslationUnitLinker}.
+ */
+final class TranslationUnitCFA {
+
+  private final SortedMap<String, FunctionEntryNode> functions;
+  private final SortedSetMultimap<String, CFANode> cfaNodes;
+
+  // the global declarations of the unit itself, without those of the functions
+  private final List<Pair<ADeclaration, String>> unitDeclarations;
+  // function name -> global declarations created for the function, in the order of definition
+  private final LinkedHashMap<String, List<Pair<ADeclaration, String>>> functionDeclarations;
+
+  private final Set<String> inlineFunctions;
+  private final Set<String> initializedVariables;
+  private final boolean encounteredAsm;
+  private final PreprocessInfoManager preprocessInfo;
+
+  TranslationUnitCFA(
+      SortedMap<String, FunctionEntryNode> pFunctions,
+      SortedSetMultimap<String, CFANode> pCfaNodes,
+      List<Pair<ADeclaration, String>> pUnitDeclarations,
+      Map<String, List<Pair<ADeclaration, String>>> pFunctionDeclarations,
+      Set<String> pInlineFunctions,
+      Set<String> pInitializedVariables,
+      boolean pEncounteredAsm,
+      PreprocessInfoManager pPreprocessInfo) {
+    functions = new TreeMap<>(pFunctions);
+    cfaNodes = TreeMultimap.create(pCfaNodes);
+    unitDeclarations = new ArrayList<>(pUnitDeclarations);
+    functionDeclarations = new LinkedHashMap<>();
+    for (Map.Entry<String, List<Pair<ADeclaration, String>>> entry
+        : pFunctionDeclarations.entrySet()) {
+      functionDeclarations.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+    }
+    inlineFunctions = new HashSet<>(pInlineFunctions);
+    initializedVariables = new HashSet<>(pInitializedVariables);
+    encounteredAsm = pEncounteredAsm;
+    preprocessInfo = pPreprocessInfo;
+  }
+
+  SortedMap<String, FunctionEntryNode> getFunctions() {
+    return functions;
+  }
+
+  SortedSetMultimap<String, CFANode> getCFANodes() {
+    return cfaNodes;
+  }
+
+  List<Pair<ADeclaration, String>> getUnitDeclarations() {
+    return unitDeclarations;
+  }
+
+  /**
+   * Return the names of the functions defined in this unit, in the order of their definition.
+   */
+  Set<String> getFunctionNames() {
+    return functionDeclarations.keySet();
+  }
+
+  List<Pair<ADeclaration, String>> getFunctionDeclarations(String pFunctionName) {
+    return functionDeclarations.get(pFunctionName);
+  }
+
+  boolean isInline(String pFunctionName) {
+    return inlineFunctions.contains(pFunctionName);
+  }
+
+  Set<String> getInitializedVariables() {
+    return initializedVariables;
+  }
+
+  boolean encounteredAsm() {
+    return encounteredAsm;
+  }
+
+  PreprocessInfoManager getPreprocessInfo() {
+    return preprocessInfo;
+  }
+
+  /**
+   * Write this unit as described in {@link CFASerialization}.
+   */
+  void writeTo(ObjectOutputStream out) throws IOException {
+    CFASerialization.writeNodes(out, cfaNodes.values());
+    out.writeObject(functions);
+    out.writeObject(cfaNodes);
+    out.writeObject(unitDeclarations);
+    out.writeObject(functionDeclarations);
+    out.writeObject(inlineFunctions);
+    out.writeObject(initializedVariables);
+    out.writeBoolean(encounteredAsm);
+    out.writeObject(preprocessInfo);
+  }
+
+  @SuppressWarnings("unchecked")
+  static TranslationUnitCFA readFrom(ObjectInputStream in)
+      throws IOException, ClassNotFoundException {
+    CFASerialization.readNodes(in);
+    return new TranslationUnitCFA(
+        (SortedMap<String, FunctionEntryNode>) in.readObject(),
+        (SortedSetMultimap<String, CFANode>) in.readObject(),
+        (List<Pair<ADeclaration, String>>) in.readObject(),
+        (Map<String, List<Pair<ADeclaration, String>>>) in.readObject(),
+        (Set<String>) in.readObject(),
+        (Set<String>) in.readObject(),
+        in.readBoolean(),
+        (PreprocessInfoManager) in.readObject());
+  }
+}
@@ -0,0 +1,279 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cfa.parser.eclipse.c;
+
+import com.google.common.base.Optional;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFASerialization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * A persistent cache of the CFAs of single translation units, such that only the changed units of
+ * a program consisting of several files are parsed again in the next run.
+ *
+ * A unit is identified by a hash of its file name and content, of the prefixes used for naming
+ * its static variables and locations, and of the options affecting parsing. For each unit, the
+ * files included by it are stored together with hashes of their contents, and the unit is
+ * outdated if one of them has changed. Only the units used in the last run are kept.
+ *
+ * All units are stored in a single file, which starts with an index of the units. The file is
+ * memory-mapped for reading, and each unit is deserialized only if it is used.
+ */
+@Options(prefix = "cfa.unitCache")
+final class TranslationUnitCache {
+
+  // should be updated whenever the layout of the file or of a unit changes
+  private static final String VERSION = "intpti-cfa-units-1";
+
+  // the cache is read and written, it is resolved like an input file to be independent of the
+  // output directory
+  @Option(secure = true, name = "file", description = "file for caching the CFAs of the single "
+      + "translation units across runs, such that only changed files are parsed again if the "
+      + "program consists of several files (no caching if not specified). A relative path is "
+      + "resolved against rootDirectory instead of output.path, thus the cache is shared by runs "
+      + "with different output directories, such as the tasks of TsmartAnalyze --jobs.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private Path cacheFile = null;
+
+  private final LogManager logger;
+  private final String configuration;
+
+  // the units of the cache file
+  private Map<String, Entry> storedUnits = Collections.emptyMap();
+
+  // the units used in the current run, which are written to the cache file
+  private final Map<String, Entry> usedUnits = new LinkedHashMap<>();
+
+  /**
+   * A serialized unit together with the included files and the hashes of their contents.
+   */
+  private static final class Entry {
+
+    private final Map<String, String> dependencies;
+    private final ByteBuffer data;
+
+    private Entry(Map<String, String> pDependencies, ByteBuffer pData) {
+      dependencies = pDependencies;
+      data = pData;
+    }
+
+    /**
+     * Copy the data of a unit read from the cache file, such that the entry no longer refers to
+     * the mapped file.
+     */
+    private Entry detach() {
+      if (!data.isDirect()) {
+        return this;
+      }
+      ByteBuffer mapped = data.duplicate();
+      byte[] content = new byte[mapped.remaining()];
+      mapped.get(content);
+      return new Entry(dependencies, ByteBuffer.wrap(content));
+    }
+  }
+
+  TranslationUnitCache(Configuration pConfig, LogManager pLogger)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = pLogger;
+    configuration = CFASerialization.filterConfiguration(pConfig.asPropertiesString());
+  }
+
+  boolean isEnabled() {
+    return cacheFile != null;
+  }
+
+  /**
+   * Compute the key of a unit.
+   *
+   * @param pFileName             the name of the file of the unit
+   * @param pStaticVariablePrefix the prefix for static variables of the unit
+   * @param pCommonPathPrefix     the prefix removed from file names in locations
+   * @param pCode                 the content of the file
+   */
+  String computeKey(
+      String pFileName, String pStaticVariablePrefix, String pCommonPathPrefix, String pCode) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(VERSION, StandardCharsets.UTF_8).putChar('\n');
+    hasher.putString(configuration, StandardCharsets.UTF_8);
+    hasher.putString(pFileName, StandardCharsets.UTF_8).putChar('\n');
+    hasher.putString(pStaticVariablePrefix, StandardCharsets.UTF_8).putChar('\n');
+    hasher.putString(pCommonPathPrefix, StandardCharsets.UTF_8).putChar('\n');
+    hasher.putString(pCode, StandardCharsets.UTF_8);
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Read the index of the cache file. Any failure is logged and treated as an empty cache.
+   */
+  void load() {
+    File file = cacheFile.toFile();
+    if (!file.isFile()) {
+      return;
+    }
+    try {
+      ByteBuffer buffer = CFASerialization.map(file);
+      DataInputStream in = new DataInputStream(CFASerialization.newInputStream(buffer));
+      if (!VERSION.equals(in.readUTF())) {
+        logger.log(Level.FINE, "Cache of translation units", cacheFile, "is outdated");
+        return;
+      }
+      Map<String, Entry> units = new HashMap<>();
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        String key = in.readUTF();
+        Map<String, String> dependencies = new HashMap<>();
+        int dependencyCount = in.readInt();
+        for (int j = 0; j < dependencyCount; j++) {
+          dependencies.put(in.readUTF(), in.readUTF());
+        }
+        int length = in.readInt();
+        // the stream reads the buffer directly, thus the unit starts at the current position
+        ByteBuffer data = buffer.slice();
+        data.limit(length);
+        buffer.position(buffer.position() + length);
+        units.put(key, new Entry(dependencies, data));
+      }
+      storedUnits = units;
+    } catch (IOException | IllegalArgumentException e) {
+      logger.logUserException(Level.INFO, e, "Could not read cache of translation units");
+    }
+  }
+
+  /**
+   * Load the unit of the given key. Any failure is logged and treated as a missing unit.
+   *
+   * @return the unit, or absent if there is no (valid) unit of the given key
+   */
+  Optional<TranslationUnitCFA> lookup(String pKey) {
+    Entry entry = storedUnits.get(pKey);
+    if (entry == null) {
+      return Optional.absent();
+    }
+    for (Map.Entry<String, String> dependency : entry.dependencies.entrySet()) {
+      File file = new File(dependency.getKey());
+      try {
+        if (!file.isFile() || !hash(file).equals(dependency.getValue())) {
+          logger.log(Level.FINE, "Included file", file, "has changed");
+          return Optional.absent();
+        }
+      } catch (IOException e) {
+        logger.logDebugException(e);
+        return Optional.absent();
+      }
+    }
+    try {
+      ObjectInputStream in =
+          new ObjectInputStream(CFASerialization.newInputStream(entry.data.duplicate()));
+      TranslationUnitCFA unit = TranslationUnitCFA.readFrom(in);
+      usedUnits.put(pKey, entry);
+      return Optional.of(unit);
+    } catch (IOException | ClassNotFoundException | ClassCastException
+        | IllegalArgumentException | IllegalStateException e) {
+      logger.logUserException(Level.INFO, e, "Could not read translation unit from cache");
+      return Optional.absent();
+    }
+  }
+
+  /**
+   * Add a unit under the given key. The unit is serialized immediately, thus it may be modified
+   * afterwards, e.g., when linking it with other units.
+   *
+   * @param pIncludedFiles the files included by the unit
+   */
+  void put(String pKey, TranslationUnitCFA pUnit, Collection<String> pIncludedFiles) {
+    try {
+      Map<String, String> dependencies = new HashMap<>();
+      for (String includedFile : pIncludedFiles) {
+        dependencies.put(includedFile, hash(new File(includedFile)));
+      }
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+        pUnit.writeTo(out);
+      }
+      usedUnits.put(pKey, new Entry(dependencies, ByteBuffer.wrap(bytes.toByteArray())));
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not cache translation unit");
+    }
+  }
+
+  /**
+   * Write the units used in the current run to the cache file. The file is replaced atomically,
+   * thus a concurrent run never reads a partial file. Failures are logged.
+   */
+  void save() {
+    // a file cannot be replaced while it is mapped on some platforms (e.g., Windows), thus the
+    // used units are copied and the mapping is no longer referenced
+    for (Map.Entry<String, Entry> unit : usedUnits.entrySet()) {
+      unit.setValue(unit.getValue().detach());
+    }
+    storedUnits = Collections.emptyMap();
+    try {
+      CFASerialization.writeAtomically(cacheFile.toFile(), new CFASerialization.ContentWriter() {
+        @Override
+        public void writeTo(OutputStream pOut) throws IOException {
+          DataOutputStream out = new DataOutputStream(pOut);
+          out.writeUTF(VERSION);
+          out.writeInt(usedUnits.size());
+          for (Map.Entry<String, Entry> unit : usedUnits.entrySet()) {
+            out.writeUTF(unit.getKey());
+            Map<String, String> dependencies = unit.getValue().dependencies;
+            out.writeInt(dependencies.size());
+            for (Map.Entry<String, String> dependency : dependencies.entrySet()) {
+              out.writeUTF(dependency.getKey());
+              out.writeUTF(dependency.getValue());
+            }
+            ByteBuffer data = unit.getValue().data;
+            out.writeInt(data.remaining());
+            out.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+          }
+          out.flush();
+        }
+      });
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write cache of translation units");
+    }
+  }
+
+  private static String hash(File pFile) throws IOException {
+    return Hashing.sha256().hashBytes(Files.readAllBytes(pFile.toPath())).toString();
+  }
+}
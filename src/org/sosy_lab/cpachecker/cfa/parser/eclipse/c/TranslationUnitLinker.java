@@ -0,0 +1,161 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cfa.parser.eclipse.c;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.SortedSetMultimap;
+import com.google.common.collect.TreeMultimap;
+
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CProgramScope;
+import org.sosy_lab.cpachecker.cfa.Language;
+import org.sosy_lab.cpachecker.cfa.ParseResult;
+import org.sosy_lab.cpachecker.cfa.ast.ADeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CComplexTypeDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.types.c.CComplexType;
+import org.sosy_lab.cpachecker.cfa.types.c.CElaboratedType;
+import org.sosy_lab.cpachecker.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.logging.Level;
+
+/**
+ * Links the CFAs of translation units that were built separately into the CFA of the program.
+ *
+ * The function bodies of a unit only refer to the declarations of the unit itself, thus the units
+ * are coupled only by the types they declare. Linking completes the elaborated types of each unit
+ * with the types declared by other units, and merges the declarations and functions in the same
+ * order as {@link CFABuilder} does when building all units together. If two units declare
+ * different types with the same name, the units cannot be linked, because building them together
+ * would rename one of the types.
+ */
+final class TranslationUnitLinker {
+
+  private final LogManager logger;
+
+  TranslationUnitLinker(LogManager pLogger) {
+    logger = pLogger;
+  }
+
+  /**
+   * Link the given units in the given order.
+   *
+   * @return the CFA of the program, or absent if the units declare conflicting types or
+   * initialize the same global variable and thus have to be built together
+   */
+  Optional<ParseResult> link(List<TranslationUnitCFA> pUnits) {
+    ProgramDeclarations programDeclarations = new ProgramDeclarations();
+    Set<String> initializedVariables = new HashSet<>();
+    try {
+      for (TranslationUnitCFA unit : pUnits) {
+        if (!Collections.disjoint(initializedVariables, unit.getInitializedVariables())) {
+          logger.log(Level.FINE, "Translation units initialize the same global variable");
+          return Optional.absent();
+        }
+        initializedVariables.addAll(unit.getInitializedVariables());
+
+        for (Pair<ADeclaration, String> decl : unit.getUnitDeclarations()) {
+          if (decl.getFirst() instanceof CComplexTypeDeclaration
+              && !registerType(programDeclarations, (CComplexTypeDeclaration) decl.getFirst())) {
+            logger.log(Level.FINE, "Translation units declare different types named",
+                ((CComplexTypeDeclaration) decl.getFirst()).getType().getQualifiedName());
+            return Optional.absent();
+          }
+        }
+      }
+    } catch (CFAGenerationRuntimeException e) {
+      logger.logDebugException(e, "Could not link translation units");
+      return Optional.absent();
+    }
+
+    programDeclarations.completeUncompletedElaboratedTypes();
+    // the scope of each unit was already used when building the unit
+    FillInAllBindingsVisitor fillInAllBindingsVisitor =
+        new FillInAllBindingsVisitor(CProgramScope.empty(), programDeclarations);
+
+    SortedMap<String, FunctionEntryNode> functions = new TreeMap<>();
+    SortedSetMultimap<String, CFANode> cfaNodes = TreeMultimap.create();
+    List<Pair<ADeclaration, String>> globalDecls = new ArrayList<>();
+    Set<String> eliminateableDuplicates = new HashSet<>();
+    boolean encounteredAsm = false;
+
+    for (TranslationUnitCFA unit : pUnits) {
+      for (Pair<ADeclaration, String> decl : unit.getUnitDeclarations()) {
+        ((CDeclaration) decl.getFirst()).getType().accept(fillInAllBindingsVisitor);
+        if (eliminateableDuplicates.add(decl.getFirst().toASTString())) {
+          globalDecls.add(decl);
+        }
+      }
+      encounteredAsm |= unit.encounteredAsm();
+    }
+
+    for (TranslationUnitCFA unit : pUnits) {
+      for (String functionName : unit.getFunctionNames()) {
+        FunctionEntryNode startNode = unit.getFunctions().get(functionName);
+        if (functions.containsKey(functionName)) {
+          //one inline function may be included several times
+          if (!unit.isInline(functionName)) {
+            logger.log(Level.WARNING, "Duplicate function " + functionName
+                + " in " + startNode.getFileLocation() + " and " + functions.get(functionName)
+                .getFileLocation());
+          }
+          continue;
+        }
+        functions.put(functionName, startNode);
+        cfaNodes.putAll(functionName, unit.getCFANodes().get(functionName));
+        for (Pair<ADeclaration, String> decl : unit.getFunctionDeclarations(functionName)) {
+          ((CDeclaration) decl.getFirst()).getType().accept(fillInAllBindingsVisitor);
+          globalDecls.add(decl);
+        }
+      }
+    }
+
+    if (encounteredAsm) {
+      logger.log(Level.WARNING, "Inline assembler ignored, analysis is probably unsound!");
+    }
+
+    return Optional.of(new ParseResult(functions, cfaNodes, globalDecls, Language.C));
+  }
+
+  /**
+   * Register a type declared by a unit in the program-wide declarations, which completes the
+   * elaborated types of this name.
+   *
+   * @return false if a different type with the same name was already declared by another unit
+   */
+  private static boolean registerType(
+      ProgramDeclarations pProgramDeclarations, CComplexTypeDeclaration pDeclaration) {
+    CComplexType type = pDeclaration.getType();
+    if (type.getName().isEmpty()) {
+      // unnamed types are not visible outside of their unit
+      return true;
+    }
+    if (!(type.getCanonicalType() instanceof CElaboratedType)
+        && pProgramDeclarations.containsTypeWithExactName(type.getQualifiedName())) {
+      return pProgramDeclarations.containsEqualType(pDeclaration);
+    }
+    pProgramDeclarations.registerTypeDeclaration(pDeclaration);
+    return true;
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cfa.parser.eclipse.c;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.CParser.Dialect;
+import org.sosy_lab.cpachecker.cfa.CParser.FileContentToParse;
+import org.sosy_lab.cpachecker.cfa.CSourceOriginMapping;
+import org.sosy_lab.cpachecker.cfa.ParseResult;
+import org.sosy_lab.cpachecker.cfa.ast.ADeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CComplexTypeDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CElaboratedType;
+import org.sosy_lab.cpachecker.cfa.types.c.CPointerType;
+import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.exceptions.CParserException;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compare the CFA linked from separately built translation units with the CFA built from all
+ * units together.
+ */
+public class TranslationUnitLinkerTest {
+
+  // a.c only sees the elaborated type of struct s, which is completed by b.c
+  private static final String UNIT_A = ""
+      + "struct s;\n"
+      + "struct s *p;\n"
+      + "extern int counter;\n"
+      + "inline int twice(int x) { return 2 * x; }\n"
+      + "int helper(int x);\n"
+      + "int main(void) {\n"
+      + "  counter = twice(helper(1));\n"
+      + "  return p != 0;\n"
+      + "}\n";
+
+  private static final String UNIT_B = ""
+      + "struct s { int a; };\n"
+      + "struct s q;\n"
+      + "extern int counter;\n"
+      + "int counter;\n"
+      + "inline int twice(int x) { return 2 * x; }\n"
+      + "int helper(int x) { return q.a + twice(x); }\n";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private EclipseCParser jointParser;
+  private EclipseCParser cachingParser;
+
+  @Before
+  public void setUp() throws Exception {
+    FileTypeConverter converter = FileTypeConverter.create(Configuration.defaultConfiguration());
+    Configuration jointConfig = Configuration.builder()
+        .addConverter(FileOption.class, converter)
+        .build();
+    Configuration cachingConfig = Configuration.builder()
+        .setOption("cfa.unitCache.file", folder.newFile("units.cache").getAbsolutePath())
+        .addConverter(FileOption.class, converter)
+        .build();
+    jointParser = new EclipseCParser(jointConfig, TestLogManager.getInstance(), Dialect.GNUC, 1,
+        MachineModel.LINUX32);
+    cachingParser = new EclipseCParser(cachingConfig, TestLogManager.getInstance(),
+        Dialect.GNUC, 1, MachineModel.LINUX32);
+  }
+
+  @Test
+  public void testLinkedEqualsJoint() throws Exception {
+    ParseResult joint = parse(jointParser, UNIT_A, UNIT_B);
+    // the first run builds the units separately, the second run loads them from the cache
+    ParseResult built = parse(cachingParser, UNIT_A, UNIT_B);
+    ParseResult cached = parse(cachingParser, UNIT_A, UNIT_B);
+
+    for (ParseResult linked : ImmutableList.of(built, cached)) {
+      assertSameProgram(joint, linked);
+      // the duplicate inline function is kept once
+      assertEquals(ImmutableList.of("helper", "main", "twice"),
+          ImmutableList.copyOf(linked.getFunctions().keySet()));
+      CType pointerType = findDeclaration(linked, "p").getType();
+      assertTrue(pointerType instanceof CPointerType);
+      CType pointedType = ((CPointerType) pointerType).getType();
+      assertTrue(pointedType instanceof CElaboratedType);
+      assertNotNull(((CElaboratedType) pointedType).getRealType());
+    }
+  }
+
+  @Test
+  public void testConflictingTypesFallBack() throws Exception {
+    String unitA = "struct s { int a; };\nstruct s x;\nint main(void) { return x.a; }\n";
+    String unitB = "struct s { long b; };\nstruct s y;\nlong get(void) { return y.b; }\n";
+    ParseResult joint = parse(jointParser, unitA, unitB);
+    // building the units together renames one of the types, which linking cannot do
+    assertEquals(declaredTypeNames(joint).toString(),
+        1, Collections.frequency(declaredTypeNames(joint), "s"));
+    assertSameProgram(joint, parse(cachingParser, unitA, unitB));
+    assertSameProgram(joint, parse(cachingParser, unitA, unitB));
+  }
+
+  @Test(expected = CParserException.class)
+  public void testSharedInitializedGlobalFallsBack() throws Exception {
+    // each unit alone is fine, the program initializes g twice
+    String unitA = "int g = 1;\nint main(void) { return g; }\n";
+    String unitB = "int g = 1;\nint get(void) { return g; }\n";
+    parse(cachingParser, unitA, unitB);
+  }
+
+  private static ParseResult parse(EclipseCParser pParser, String pUnitA, String pUnitB)
+      throws Exception {
+    return pParser.parseString(
+        ImmutableList.of(new FileContentToParse("a.c", pUnitA),
+            new FileContentToParse("b.c", pUnitB)),
+        new CSourceOriginMapping());
+  }
+
+  private static void assertSameProgram(ParseResult pExpected, ParseResult pActual) {
+    assertEquals(declarationStrings(pExpected), declarationStrings(pActual));
+    assertEquals(pExpected.getFunctions().keySet(), pActual.getFunctions().keySet());
+    for (String function : pExpected.getFunctions().keySet()) {
+      assertEquals(function, edgeDescriptions(pExpected.getCFANodes().get(function)),
+          edgeDescriptions(pActual.getCFANodes().get(function)));
+    }
+  }
+
+  private static List<String> declarationStrings(ParseResult pResult) {
+    List<String> result = new ArrayList<>();
+    for (Pair<ADeclaration, String> decl : pResult.getGlobalDeclarations()) {
+      result.add(decl.getFirst().toASTString() + " " + decl.getSecond());
+    }
+    return result;
+  }
+
+  private static List<String> declaredTypeNames(ParseResult pResult) {
+    List<String> result = new ArrayList<>();
+    for (Pair<ADeclaration, String> decl : pResult.getGlobalDeclarations()) {
+      if (decl.getFirst() instanceof CComplexTypeDeclaration) {
+        result.add(((CComplexTypeDeclaration) decl.getFirst()).getType().getName());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The descriptions of the edges of the given nodes, which do not depend on the node numbers.
+   */
+  private static List<String> edgeDescriptions(Iterable<CFANode> pNodes) {
+    List<String> result = new ArrayList<>();
+    for (CFANode node : pNodes) {
+      for (CFAEdge edge : CFAUtils.leavingEdges(node)) {
+        result.add(edge.getEdgeType() + " " + edge.getDescription());
+      }
+    }
+    Collections.sort(result);
+    return result;
+  }
+
+  private static CDeclaration findDeclaration(ParseResult pResult, String pName) {
+    for (Pair<ADeclaration, String> decl : pResult.getGlobalDeclarations()) {
+      if (pName.equals(decl.getFirst().getName())) {
+        return (CDeclaration) decl.getFirst();
+      }
+    }
+    throw new AssertionError("No declaration of " + pName);
+  }
+}
@@ -33,6 +33,8 @@ import java.math.BigInteger;
 class CProgramCounterValueAssignmentEdge extends CStatementEdge
     implements ProgramCounterValueAssignmentEdge {
 
+  private static final long serialVersionUID = 5593974909625880415L;
+
   /**
    * The program counter value.
    */
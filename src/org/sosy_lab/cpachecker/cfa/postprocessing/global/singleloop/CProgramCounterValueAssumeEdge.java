@@ -34,6 +34,8 @@ import java.math.BigInteger;
  */
 class CProgramCounterValueAssumeEdge extends CAssumeEdge implements ProgramCounterValueAssumeEdge {
 
+  private static final long serialVersionUID = -342139480065505325L;
+
   /**
    * The program counter value assumed.
    */
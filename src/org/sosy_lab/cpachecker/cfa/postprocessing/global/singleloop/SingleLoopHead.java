@@ -20,6 +20,8 @@ import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.util.CFAUtils;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
@@ -38,11 +40,13 @@ import javax.annotation.Nullable;
  */
 public class SingleLoopHead extends CFANode {
 
+  private static final long serialVersionUID = 5769706225530319610L;
+
   /**
    * The program counter value assignment edges leading to the loop head.
    */
-  private final Map<Integer, ProgramCounterValueAssignmentEdge> enteringPCValueAssignmentEdges =
-      new HashMap<>();
+  private transient Map<Integer, ProgramCounterValueAssignmentEdge>
+      enteringPCValueAssignmentEdges = new HashMap<>();
 
   /**
    * Creates a new loop head with line number 0 and an artificial function name.
@@ -51,6 +55,12 @@ public class SingleLoopHead extends CFANode {
     super(CFASingleLoopTransformation.ARTIFICIAL_PROGRAM_COUNTER_FUNCTION_NAME);
   }
 
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    // filled again when the entering edges are re-linked
+    enteringPCValueAssignmentEdges = new HashMap<>();
+  }
+
   @Override
   public void addEnteringEdge(CFAEdge pEnteringEdge) {
     if (pEnteringEdge instanceof ProgramCounterValueAssignmentEdge) {
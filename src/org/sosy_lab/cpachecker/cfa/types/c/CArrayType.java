@@ -171,15 +171,17 @@ public final class CArrayType extends AArrayType implements CType {
     private final boolean isConst;
     private final boolean isVolatile;
     private final CType type;
+    private final CExpression length;
 
     public SerializationProxy(CArrayType arrayType) {
       isConst = arrayType.isConst;
       isVolatile = arrayType.isVolatile;
       type = arrayType.getType();
+      length = arrayType.length;
     }
 
     private Object readResolve() {
-      return new CArrayType(isConst, isVolatile, type, null);
+      return new CArrayType(isConst, isVolatile, type, length);
     }
   }
 }
@@ -119,6 +119,8 @@ public final class CEnumType implements CComplexType {
   public static final class CEnumerator extends AbstractSimpleDeclaration
       implements CSimpleDeclaration {
 
+    private static final long serialVersionUID = -1869352706147524503L;
+
     private final
     @Nullable
     Long value;
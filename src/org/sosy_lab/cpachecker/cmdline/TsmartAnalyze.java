@@ -19,10 +19,12 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
 import com.google.common.io.Files;
 
+import org.sosy_lab.cpachecker.util.globalinfo.AnalysisContext;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.nio.charset.Charset;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Path;
@@ -30,7 +32,17 @@ import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
 
 import cn.harry.captor.MakefileCapture;
 import cn.harry.captor.Task;
@@ -42,6 +54,13 @@ public class TsmartAnalyze {
   // FIXME: we fixed the top configuration here
   private static final String BASE_TOP_CONFIG_FILE = "config/fix_top/top.properties";
   private static final String TEMP_TOP_CONFIG_FILE = "config/fix_top/top-runtime.properties";
+  // runtime configuration of each task in concurrent mode, indexed by the task number
+  private static final String TASK_TOP_CONFIG_FILE = "config/fix_top/top-runtime-%d.properties";
+  private static final String TASK_OUTPUT_DIR = "output-%d";
+  // JVM arguments that are not passed on to child processes
+  private static final String[] CHILD_EXCLUDED_ARGUMENT_PREFIXES = {
+      "-agentlib", "-agentpath", "-javaagent", "-Xdebug", "-Xrunjdwp"
+  };
 
   /**
    * Non-option arguments:
@@ -57,6 +76,9 @@ public class TsmartAnalyze {
    * --root            root directory of configuration files
    * --task [Integer]  task number
    * --taskName        task name
+   * --jobs [Integer]  number of tasks analyzed concurrently (each child JVM inherits -Xmx, thus
+   *                   the total heap may reach jobs * Xmx)
+   * --prepared        run a prepared runtime configuration (used internally by --jobs)
    */
   public static void main(String[] args) throws Exception {
     OptionParser tsmartOptions = new OptionParser();
@@ -85,6 +107,11 @@ public class TsmartAnalyze {
           .withRequiredArg().ofType(Integer.class);
       tsmartOptions.accepts("taskName", "task name")
           .withRequiredArg().ofType(String.class);
+      tsmartOptions.accepts("jobs", "number of tasks analyzed concurrently, each task runs in a "
+          + "child JVM with the heap limit (-Xmx) of this JVM")
+          .withRequiredArg().ofType(Integer.class).defaultsTo(1);
+      tsmartOptions.accepts("prepared", "run a prepared runtime configuration")
+          .withRequiredArg().ofType(String.class);
       tsmartOptions.nonOptions().describedAs("manully specified input files.");
       OptionSet option = tsmartOptions.parse(args);
 
@@ -94,7 +121,9 @@ public class TsmartAnalyze {
 //       outputLocation = set.valueOf("output").toString();
 //     }
 
-      if (option.has("build")) {
+      if (option.has("prepared")) {
+        analyzePrepared(option);
+      } else if (option.has("build")) {
         buildAndAnalyze(option);
       } else if (option.has("captured")) {
         analyzeCaptured(option);
@@ -197,7 +226,14 @@ public class TsmartAnalyze {
     analyze(option, Tasks.fromTask(Task.of(inputFiles)));
   }
 
-  private static void analyze(OptionSet option, Tasks tasks) throws Exception {
+  private static void analyzePrepared(OptionSet option) throws Exception {
+    String configFile = option.valueOf("prepared").toString();
+    // setup tool directory
+    GlobalInfo.getInstance().setUpToolDirectory(getRootDirectory(option));
+    CPAMain.main(new String[]{"-config", configFile});
+  }
+
+  private static String getRootDirectory(OptionSet option) {
     String rootDir;
     if (option.has("root")) {
       rootDir = option.valueOf("root").toString();
@@ -207,6 +243,11 @@ public class TsmartAnalyze {
     if (rootDir == null) {
       throw new IllegalArgumentException("Root directory required for running the tool");
     }
+    return rootDir;
+  }
+
+  private static void analyze(OptionSet option, Tasks tasks) throws Exception {
+    String rootDir = getRootDirectory(option);
     // setup tool directory
     GlobalInfo.getInstance().setUpToolDirectory(rootDir);
 
@@ -215,7 +256,15 @@ public class TsmartAnalyze {
       cweIds = Lists.transform(option.valuesOf("cwe"), Functions.toStringFunction());
     }
 
-    processTasks(tasks, rootDir, cweIds);
+    int jobs = (Integer) option.valueOf("jobs");
+    if (jobs < 1) {
+      throw new IllegalArgumentException("Invalid number of jobs " + jobs + ", should be positive");
+    }
+    if (jobs > 1 && tasks.size() > 1) {
+      processTasksConcurrently(tasks, rootDir, cweIds, jobs);
+    } else {
+      processTasks(tasks, rootDir, cweIds);
+    }
   }
 
   private static void processTasks(
@@ -227,15 +276,190 @@ public class TsmartAnalyze {
       // TODO: debugging
       System.out.println("Proceeding task " + (i + 1) + " : " + task.getTaskName());
       try {
-        String[] arguments = prepare(task, pRootDir, pCweIds);
-        CPAMain.main(arguments);
-        restoreOutputDir(CPAMain.getOutputDir(), "" + (i + 1));
+        final String[] arguments = prepare(task, pRootDir, pCweIds, TEMP_TOP_CONFIG_FILE,
+            Collections.<String>emptyList());
+        // each task runs in a fresh analysis context, thus no information leaks between tasks
+        String outputDir = AnalysisContext.create().callIn(new Callable<String>() {
+          @Override
+          public String call() throws Exception {
+            CPAMain.main(arguments);
+            return CPAMain.getOutputDir();
+          }
+        });
+        restoreOutputDir(outputDir, "" + (i + 1));
       } catch (Exception e) {
         e.printStackTrace();
       }
     }
   }
 
+  /**
+   * Analyze tasks on a pool of child processes. Each task has its own runtime configuration and
+   * output directory, thus tasks do not interfere with each other. We use child processes instead
+   * of analysis contexts in one JVM, because the analysis may terminate the whole process on
+   * invalid configuration and changes process-wide settings such as file type converters.
+   */
+  private static void processTasksConcurrently(
+      final Tasks pTasks,
+      final String pRootDir,
+      final List<String> pCweIds,
+      int pJobs) throws InterruptedException {
+    final int total = pTasks.size();
+    final AtomicInteger finished = new AtomicInteger(0);
+    final List<String> javaCommand = getJavaCommand();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(pJobs, total));
+    List<Future<TaskOutcome>> futures = new ArrayList<>(total);
+    for (int i = 0; i < total; i++) {
+      final int taskNumber = i + 1;
+      final Task task = pTasks.getTask(i);
+      futures.add(executor.submit(new Callable<TaskOutcome>() {
+        @Override
+        public TaskOutcome call() throws Exception {
+          TaskOutcome outcome = runTaskProcess(taskNumber, task, pRootDir, pCweIds, javaCommand);
+          synchronized (System.out) {
+            System.out.println(String.format("Finished task %d/%d : %s (%s, %.3f seconds)",
+                finished.incrementAndGet(), total, task.getTaskName(),
+                outcome.succeeded() ? "done" : "failed", outcome.seconds()));
+          }
+          return outcome;
+        }
+      }));
+    }
+    executor.shutdown();
+
+    List<TaskOutcome> outcomes = new ArrayList<>(total);
+    for (int i = 0; i < total; i++) {
+      try {
+        outcomes.add(futures.get(i).get());
+      } catch (ExecutionException e) {
+        e.getCause().printStackTrace();
+        outcomes.add(new TaskOutcome(i + 1, pTasks.getTask(i).getTaskName(), -1, 0, null));
+      }
+    }
+    printSummary(outcomes);
+  }
+
+  private static TaskOutcome runTaskProcess(
+      int pTaskNumber, Task pTask, String pRootDir, List<String> pCweIds,
+      List<String> pJavaCommand) throws IOException, InterruptedException {
+    String outputDir = String.format(TASK_OUTPUT_DIR, pTaskNumber);
+    String[] arguments = prepare(pTask, pRootDir, pCweIds,
+        String.format(TASK_TOP_CONFIG_FILE, pTaskNumber),
+        Collections.singletonList("output.path = " + outputDir));
+    // the runtime configuration is only read by the child, thus it is removed once the child exits
+    File taskConfig = new File(arguments[1]);
+    try {
+      return runChild(pTaskNumber, pTask, outputDir, arguments[1], pRootDir, pJavaCommand);
+    } finally {
+      if (taskConfig.exists() && !taskConfig.delete()) {
+        System.err.println("Failed to delete runtime configuration " + taskConfig);
+      }
+    }
+  }
+
+  private static TaskOutcome runChild(
+      int pTaskNumber, Task pTask, String pOutputDir, String pConfigFile, String pRootDir,
+      List<String> pJavaCommand) throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>(pJavaCommand);
+    command.add(TsmartAnalyze.class.getName());
+    command.add("--prepared");
+    command.add(pConfigFile);
+    command.add("--root");
+    command.add(pRootDir);
+    // the console output of the task is written to a log file besides its output directory
+    File logFile = new File(pOutputDir + ".log");
+    ProcessBuilder builder = new ProcessBuilder(command);
+    builder.redirectErrorStream(true);
+    builder.redirectOutput(logFile);
+    long start = System.nanoTime();
+    Process process = builder.start();
+    int exitCode;
+    try {
+      exitCode = process.waitFor();
+    } finally {
+      process.destroy();
+    }
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    return new TaskOutcome(pTaskNumber, pTask.getTaskName(), exitCode, elapsed, logFile);
+  }
+
+  /**
+   * Derive the command for launching a child JVM with the same class path and JVM arguments.
+   *
+   * Agent and debugging arguments are not passed on, because several children cannot listen on
+   * the same debugging port or write to the same agent output. Memory settings such as -Xmx are
+   * passed on unchanged, thus each child has the heap limit of this JVM and up to jobs * Xmx heap
+   * may be used in total.
+   */
+  private static List<String> getJavaCommand() {
+    List<String> command = new ArrayList<>();
+    command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+      if (!isAgentOrDebugArgument(argument)) {
+        command.add(argument);
+      }
+    }
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    return command;
+  }
+
+  private static boolean isAgentOrDebugArgument(String pArgument) {
+    for (String prefix : CHILD_EXCLUDED_ARGUMENT_PREFIXES) {
+      if (pArgument.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return pArgument.contains("jdwp");
+  }
+
+  private static void printSummary(List<TaskOutcome> pOutcomes) {
+    int failed = 0;
+    long totalTime = 0;
+    System.out.println();
+    System.out.println("Summary of tasks:");
+    for (TaskOutcome outcome : pOutcomes) {
+      if (!outcome.succeeded()) {
+        failed++;
+      }
+      totalTime += outcome.time;
+      System.out.println(String.format("  [%d] %s: %s, %.3f seconds%s", outcome.taskNumber,
+          outcome.taskName, outcome.succeeded() ? "done" : "failed (exit code " + outcome
+              .exitCode + ")", outcome.seconds(), outcome.logFile == null ? "" : ", log: " +
+              outcome.logFile.getPath()));
+    }
+    System.out.println(String.format("Tasks: %d, failed: %d, accumulated time: %.3f seconds",
+        pOutcomes.size(), failed, totalTime / 1000.0));
+  }
+
+  private static final class TaskOutcome {
+
+    private final int taskNumber;
+    private final String taskName;
+    private final int exitCode;
+    private final long time;
+    @Nullable
+    private final File logFile;
+
+    private TaskOutcome(
+        int pTaskNumber, String pTaskName, int pExitCode, long pTime,
+        @Nullable File pLogFile) {
+      taskNumber = pTaskNumber;
+      taskName = pTaskName;
+      exitCode = pExitCode;
+      time = pTime;
+      logFile = pLogFile;
+    }
+
+    private boolean succeeded() {
+      return exitCode == 0;
+    }
+
+    private double seconds() {
+      return time / 1000.0;
+    }
+  }
+
   private static void restoreOutputDir(String outputDirectory, String name) {
     File output = new File(outputDirectory);
     output.renameTo(new File(outputDirectory + "-" + name));
@@ -244,18 +468,20 @@ public class TsmartAnalyze {
   /**
    * Create configuration files and generate arguments to CPAMain
    */
-  private static String[] prepare(Task pTask, String pRootDir, List<String> pCweIds)
-      throws IOException {
+  private static String[] prepare(
+      Task pTask, String pRootDir, List<String> pCweIds, String pTempTopConfig,
+      List<String> pExtraOptions) throws IOException {
     // create configuration file
     String actualBaseTopConfig = BASE_TOP_CONFIG_FILE;
-    String actualTempTopConfig = TEMP_TOP_CONFIG_FILE;
+    String actualTempTopConfig = pTempTopConfig;
     if (pRootDir != null) {
       actualBaseTopConfig = Paths.get(pRootDir, BASE_TOP_CONFIG_FILE).toString();
-      actualTempTopConfig = Paths.get(pRootDir, TEMP_TOP_CONFIG_FILE).toString();
+      actualTempTopConfig = Paths.get(pRootDir, pTempTopConfig).toString();
     }
     List<String> contents =
         Files.readLines(new File(actualBaseTopConfig), Charset.defaultCharset());
     contents.add("input.programs = " + Joiner.on(", ").join(pTask.getFiles()));
+    contents.addAll(pExtraOptions);
     Files.write(Joiner.on("\n").join(contents),
         new File(actualTempTopConfig), Charset.defaultCharset());
     // TODO: currently ignore the CWE id, check all defects
@@ -14,8 +14,11 @@
  */
 package org.sosy_lab.cpachecker.core.algorithm.multientry;
 
+import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.cpachecker.core.algorithm.Algorithm;
 
+import javax.annotation.Nullable;
+
 /**
  * The algorithm that supports bounded analysis. This is required in multi-entry analysis.
  */
@@ -26,4 +29,12 @@ public interface BoundedAlgorithm extends Algorithm {
    */
   void resetStatus();
 
+  /**
+   * Bound the following runs by an additional shutdown notifier, which is triggered when the
+   * budget of the current entry is used up. The run is then stopped as on a global shutdown.
+   *
+   * @param pNotifier the shutdown notifier of the current entry, or null for no budget
+   */
+  void setEntryShutdownNotifier(@Nullable ShutdownNotifier pNotifier);
+
 }
@@ -237,6 +237,10 @@ public class BoundedCPAAlgorithm implements BoundedAlgorithm, StatisticsProvider
   private final AlgorithmIterationListener iterationListener;
   private final AlgorithmStatus status;
 
+  // the shutdown notifier for the budget of the current entry
+  @Nullable
+  private ShutdownNotifier entryShutdownNotifier = null;
+
   private final DynamicEntryStrategy entryStrategy;
 
   private BoundedCPAAlgorithm(
@@ -284,7 +288,7 @@ public class BoundedCPAAlgorithm implements BoundedAlgorithm, StatisticsProvider
   private AlgorithmStatus run0(final HierarchicalReachedSet reached) throws CPAException,
                                                                             InterruptedException {
     while (reached.hasWaitingState()) {
-      shutdownNotifier.shutdownIfNecessary();
+      checkShutdown();
       stats.countIterations++;
       int size = reached.getWaitlist().size();
       if (size >= stats.maxWaitlistSize) {
@@ -311,6 +315,18 @@ public class BoundedCPAAlgorithm implements BoundedAlgorithm, StatisticsProvider
     return status;
   }
 
+  /**
+   * Stop the run on a global shutdown or when the budget of the current entry is used up. Besides
+   * once per iteration, this is checked before each call into the CPA operators, because a single
+   * iteration may take long, e.g., when a state has many successors or summaries are applied.
+   */
+  private void checkShutdown() throws InterruptedException {
+    shutdownNotifier.shutdownIfNecessary();
+    if (entryShutdownNotifier != null) {
+      entryShutdownNotifier.shutdownIfNecessary();
+    }
+  }
+
   private boolean handleState(
       final AbstractState state, final Precision precision,
       final HierarchicalReachedSet reached)
@@ -342,6 +358,7 @@ public class BoundedCPAAlgorithm implements BoundedAlgorithm, StatisticsProvider
     Set<AbstractState> newSuccessors = new HashSet<>();
     CFANode oldLocation = AbstractStates.extractLocation(state);
     for (AbstractState successor : successors) {
+      checkShutdown();
       // STEP 1: try to derive a new entry
       CFANode newEntry = entryStrategy.getEntry(successor);
       if (newEntry != null) {
@@ -442,6 +459,7 @@ public class BoundedCPAAlgorithm implements BoundedAlgorithm, StatisticsProvider
     stats.maxSuccessors = Math.max(numSuccessors, stats.maxSuccessors);
 
     for (AbstractState successor : Iterables.consumingIterable(newSuccessors)) {
+      checkShutdown();
       stats.precisionTimer.start();
       PrecisionAdjustmentResult precisionAdjustmentResult;
       try {
@@ -490,6 +508,7 @@ public class BoundedCPAAlgorithm implements BoundedAlgorithm, StatisticsProvider
           List<AbstractState> toRemove = new ArrayList<>();
           List<Pair<AbstractState, Precision>> toAdd = new ArrayList<>();
           for (AbstractState reachedState : matchedReached) {
+            checkShutdown();
             // use successor state to update reached state
             AbstractState mergedState = mergeOperator.merge(successor, reachedState,
                 successorPrecision);
@@ -539,4 +558,9 @@ public class BoundedCPAAlgorithm implements BoundedAlgorithm, StatisticsProvider
   public void resetStatus() {
     stats.reset();
   }
+
+  @Override
+  public void setEntryShutdownNotifier(@Nullable ShutdownNotifier pNotifier) {
+    entryShutdownNotifier = pNotifier;
+  }
 }
@@ -81,6 +81,19 @@ abstract public class CPABasedSummaryComputer extends DependencyBasedSummaryComp
     stopOperator = cpa == null ? null : cpa.getStopOperator();
   }
 
+  /**
+   * Create a computer that shares the summary of the given computer, but computes with a new CPA.
+   */
+  protected CPABasedSummaryComputer(CPABasedSummaryComputer pOrigin)
+      throws InvalidConfigurationException {
+    super(pOrigin);
+    cpa = createCPA(config, logger, shutdownNotifier);
+    transferRelation = cpa == null ? null : cpa.getTransferRelation();
+    precisionAdjustment = cpa == null ? null : cpa.getPrecisionAdjustment();
+    mergeOperator = cpa == null ? null : cpa.getMergeOperator();
+    stopOperator = cpa == null ? null : cpa.getStopOperator();
+  }
+
   /**
    * Create CPA
    */
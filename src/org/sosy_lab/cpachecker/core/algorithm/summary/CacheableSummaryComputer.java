@@ -0,0 +1,41 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.algorithm.summary;
+
+import javax.annotation.Nullable;
+
+/**
+ * A summary computer whose summaries can be stored in a {@link SummaryCache} and loaded in later
+ * runs, such that the subjects unchanged since then are not computed again.
+ */
+public interface CacheableSummaryComputer extends SummaryComputer {
+
+  /**
+   * Encode the current summary of the given subject.
+   *
+   * @return the encoded summary, or {@code null} if the summary cannot be cached, e.g., the
+   * computation of the subject derives other summaries which are not encoded
+   */
+  @Nullable
+  String encodeSummary(SummarySubject subject);
+
+  /**
+   * Restore the summary of the given subject from its encoding.
+   *
+   * @return whether the summary is restored, which fails if the encoding is malformed
+   */
+  boolean decodeSummary(SummarySubject subject, String encoded);
+
+}
@@ -0,0 +1,35 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.algorithm.summary;
+
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+
+/**
+ * A summary computer that can be forked for concurrent computation.
+ *
+ * Subjects in different components of the dependency graph are computed on different threads,
+ * while the dependees of a subject are always completed before. Each thread computes with its own
+ * fork, thus the analysis state of a computation is never shared, while all forks read and
+ * update the same summaries.
+ */
+public interface ConcurrentSummaryComputer extends SummaryComputer {
+
+  /**
+   * Create a computer sharing the summaries and dependencies of this computer, but with its own
+   * analysis instance. A fork is only used on a single thread.
+   */
+  SummaryComputer fork() throws InvalidConfigurationException;
+
+}
@@ -69,7 +69,8 @@ abstract public class DependencyBasedSummaryComputer implements SummaryComputer
     // initial local variables
     dependers = Maps.newHashMap();
     dependees = Maps.newHashMap();
-    summary = Maps.newHashMap();
+    // forks of a concurrent computer update the summary on different threads
+    summary = Collections.synchronizedMap(Maps.<SummarySubject, SummaryInstance>newHashMap());
     // initialize CFA
     CFAInfo info = GlobalInfo.getInstance().getCFAInfo().orNull();
     if (info == null) {
@@ -81,6 +82,19 @@ abstract public class DependencyBasedSummaryComputer implements SummaryComputer
     initDependency();
   }
 
+  /**
+   * Create a computer that shares the dependencies and the summary of the given computer.
+   */
+  protected DependencyBasedSummaryComputer(DependencyBasedSummaryComputer pOrigin) {
+    config = pOrigin.config;
+    logger = pOrigin.logger;
+    shutdownNotifier = pOrigin.shutdownNotifier;
+    cfaInfo = pOrigin.cfaInfo;
+    dependers = pOrigin.dependers;
+    dependees = pOrigin.dependees;
+    summary = pOrigin.summary;
+  }
+
   /**
    * Defines that 'depender' depends 'dependee'
    * Summary of 'dependee' should be re-computed when summary of 'dependee' is changed
@@ -0,0 +1,363 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.algorithm.summary;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.CFASerialization;
+import org.sosy_lab.cpachecker.cfa.model.ADeclarationEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.core.algorithm.summary.subjects.FunctionSubject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+
+import javax.annotation.Nullable;
+
+/**
+ * A persistent cache of summaries computed by {@link CacheableSummaryComputer}s.
+ *
+ * The summary of a function is identified by a hash of the CFA of the function, the hashes of
+ * the functions it calls (transitively), the hash of global declarations and the configuration of
+ * the computer. Thus a summary is loaded only if neither the function nor any of its callees has
+ * changed. Functions in the same strongly connected component of the call graph share the hash of
+ * the component.
+ *
+ * The cache is stored in a text file. The first line is the version of the cache format, and a
+ * file of a different version is ignored. Each following line stores one summary:
+ * {@code <computer> <key> <encoded summary>} (separated by tabs). Several computers share one
+ * file, and when the cache is saved by a computer, only its summaries accessed in the current run
+ * are kept.
+ */
+public final class SummaryCache {
+
+  // should be updated whenever the hashing of CFA or the encoding of summaries changes
+  private static final String VERSION = "intpti-summary-cache-1";
+
+  private static final char SEPARATOR = '\t';
+
+  // options that do not affect the computed summaries, e.g., where and what to output
+  private static final String[] IGNORED_OPTION_PREFIXES = {
+      "cfa.snapshot.", "cfa.unitCache.", "input.", "log.", "output.", "statistics.",
+      "summary.algorithm.cacheFile"
+  };
+
+  private final Path cacheFile;
+  private final String computerName;
+
+  // the summaries of this computer loaded from the cache file
+  private final Map<String, String> loaded = new HashMap<>();
+  // the lines of other computers, which are kept as they are
+  private final List<String> otherLines = new ArrayList<>();
+  // the summaries used or computed in the current run
+  private final Map<String, String> touched = new LinkedHashMap<>();
+
+  public SummaryCache(Path pCacheFile, String pComputerName) {
+    cacheFile = pCacheFile;
+    computerName = pComputerName;
+  }
+
+  /**
+   * Load summaries from the cache file. Malformed entries are ignored.
+   *
+   * @return the number of loaded summaries of this computer
+   */
+  public int load() throws IOException {
+    loaded.clear();
+    otherLines.clear();
+    if (!cacheFile.toFile().exists()) {
+      return 0;
+    }
+    try (BufferedReader br = cacheFile.asCharSource(StandardCharsets.UTF_8)
+        .openBufferedStream()) {
+      String line = br.readLine();
+      if (!VERSION.equals(line)) {
+        // summaries of other versions are dropped when the cache is saved
+        return 0;
+      }
+      while ((line = br.readLine()) != null) {
+        int first = line.indexOf(SEPARATOR);
+        int second = (first < 0) ? -1 : line.indexOf(SEPARATOR, first + 1);
+        if (second < 0) {
+          continue;
+        }
+        if (line.substring(0, first).equals(computerName)) {
+          loaded.put(line.substring(first + 1, second), unescape(line.substring(second + 1)));
+        } else {
+          otherLines.add(line);
+        }
+      }
+    }
+    return loaded.size();
+  }
+
+  /**
+   * Write the summaries accessed in the current run, together with the summaries of other
+   * computers, to the cache file.
+   */
+  public void save() throws IOException {
+    StringBuilder content = new StringBuilder();
+    content.append(VERSION).append('\n');
+    for (String line : otherLines) {
+      content.append(line).append('\n');
+    }
+    for (Entry<String, String> entry : touched.entrySet()) {
+      content.append(computerName).append(SEPARATOR).append(entry.getKey()).append(SEPARATOR)
+          .append(escape(entry.getValue())).append('\n');
+    }
+    // runs sharing the cache file never read a partial file
+    CFASerialization.writeAtomically(cacheFile.toFile(), content);
+  }
+
+  /**
+   * Look up the encoded summary of the given key.
+   *
+   * @return the encoded summary, or {@code null} if it has not been computed before
+   */
+  @Nullable
+  public String lookup(String pKey) {
+    String encoded = loaded.get(pKey);
+    if (encoded != null) {
+      touched.put(pKey, encoded);
+    }
+    return encoded;
+  }
+
+  public void store(String pKey, String pEncoded) {
+    touched.put(pKey, pEncoded);
+  }
+
+  /**
+   * Keep the options of the given properties string that may affect summaries, in the order of
+   * the properties string. Similar to {@link CFASerialization#filterConfiguration(String)}, options
+   * for exporting, output files and caching are dropped, as well as input programs (the CFA is
+   * hashed instead) and logging and statistics options.
+   */
+  static String filterConfiguration(String pProperties) {
+    StringBuilder sb = new StringBuilder();
+    for (String line : pProperties.split("\n")) {
+      int separator = line.indexOf('=');
+      if (separator < 0) {
+        continue;
+      }
+      String key = line.substring(0, separator).trim();
+      if (isKeyOption(key)) {
+        sb.append(line.trim()).append('\n');
+      }
+    }
+    return sb.toString();
+  }
+
+  private static boolean isKeyOption(String pKey) {
+    if (pKey.contains("export") || pKey.endsWith(".file")) {
+      return false;
+    }
+    for (String prefix : IGNORED_OPTION_PREFIXES) {
+      if (pKey.startsWith(prefix)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compute the keys of function subjects. Subjects depending on other kinds of subjects, directly
+   * or transitively, have no key since their summaries cannot be identified by the CFA.
+   *
+   * @param pConfiguration the properties string of the configuration, which is filtered by {@link
+   *                       #filterConfiguration(String)}
+   */
+  static Map<SummarySubject, String> computeKeys(
+      SummarySubjectComponents pComponents, CFA pCFA,
+      String pConfiguration) {
+    String globalHash = hashGlobalDeclarations(pCFA, filterConfiguration(pConfiguration));
+    int size = pComponents.getNumberOfComponents();
+    // null if the component is not cacheable
+    String[] componentHashes = new String[size];
+    Map<SummarySubject, String> keys = new HashMap<>();
+    for (int c = 0; c < size; c++) {
+      List<String> parts = new ArrayList<>();
+      boolean cacheable = true;
+      for (SummarySubject member : pComponents.getMembers(c)) {
+        if (!(member instanceof FunctionSubject)) {
+          cacheable = false;
+          break;
+        }
+        FunctionSubject subject = (FunctionSubject) member;
+        parts.add(subject.getFunctionName() + SEPARATOR +
+            hashFunction(subject.getFunctionEntry()));
+      }
+      List<String> dependeeHashes = new ArrayList<>();
+      for (int dependee : pComponents.getDependees(c)) {
+        if (componentHashes[dependee] == null) {
+          cacheable = false;
+          break;
+        }
+        dependeeHashes.add(componentHashes[dependee]);
+      }
+      if (!cacheable) {
+        continue;
+      }
+      // the hash should not depend on the numbering of components
+      Collections.sort(parts);
+      Collections.sort(dependeeHashes);
+      Hasher hasher = Hashing.sha256().newHasher();
+      hasher.putString(globalHash, StandardCharsets.UTF_8);
+      for (String part : parts) {
+        hasher.putString(part, StandardCharsets.UTF_8).putChar('\n');
+      }
+      for (String dependeeHash : dependeeHashes) {
+        hasher.putString(dependeeHash, StandardCharsets.UTF_8).putChar('\n');
+      }
+      componentHashes[c] = hasher.hash().toString();
+      for (SummarySubject member : pComponents.getMembers(c)) {
+        keys.put(member, Hashing.sha256().newHasher()
+            .putString(componentHashes[c], StandardCharsets.UTF_8)
+            .putString(((FunctionSubject) member).getFunctionName(), StandardCharsets.UTF_8)
+            .hash().toString());
+      }
+    }
+    return keys;
+  }
+
+  /**
+   * Hash the edges of a function in breadth-first order. Nodes are numbered in the order of
+   * visiting, thus the hash does not depend on the node numbers assigned to the whole program.
+   * Function calls are represented by their summary edges.
+   */
+  private static String hashFunction(FunctionEntryNode pEntry) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    Map<CFANode, Integer> localIds = new HashMap<>();
+    Queue<CFANode> waitlist = new ArrayDeque<>();
+    localIds.put(pEntry, 0);
+    waitlist.add(pEntry);
+    while (!waitlist.isEmpty()) {
+      CFANode node = waitlist.poll();
+      hasher.putInt(localIds.get(node));
+      for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+        CFAEdge edge = node.getLeavingEdge(i);
+        if (edge.getEdgeType() == CFAEdgeType.FunctionReturnEdge) {
+          continue;
+        }
+        if (edge.getEdgeType() == CFAEdgeType.FunctionCallEdge) {
+          edge = node.getLeavingSummaryEdge();
+        }
+        CFANode successor = edge.getSuccessor();
+        Integer successorId = localIds.get(successor);
+        if (successorId == null) {
+          successorId = localIds.size();
+          localIds.put(successor, successorId);
+          waitlist.add(successor);
+        }
+        hasher.putString(edge.getEdgeType().name(), StandardCharsets.UTF_8);
+        hasher.putString(edge.getDescription(), StandardCharsets.UTF_8);
+        hasher.putInt(successorId);
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Hash the global declarations (including type declarations), the machine model and the
+   * configuration, which affect the summaries of all functions.
+   */
+  private static String hashGlobalDeclarations(CFA pCFA, String pConfiguration) {
+    List<String> declarations = new ArrayList<>();
+    for (CFANode node : pCFA.getAllNodes()) {
+      for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+        CFAEdge edge = node.getLeavingEdge(i);
+        if (edge instanceof ADeclarationEdge &&
+            ((ADeclarationEdge) edge).getDeclaration().isGlobal()) {
+          declarations.add(edge.getCode());
+        }
+      }
+    }
+    Collections.sort(declarations);
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(pCFA.getMachineModel().name(), StandardCharsets.UTF_8);
+    hasher.putString(pConfiguration, StandardCharsets.UTF_8);
+    for (String declaration : declarations) {
+      hasher.putString(declaration, StandardCharsets.UTF_8).putChar('\n');
+    }
+    return hasher.hash().toString();
+  }
+
+  private static String escape(String pEncoded) {
+    StringBuilder sb = new StringBuilder(pEncoded.length());
+    for (int i = 0; i < pEncoded.length(); i++) {
+      char c = pEncoded.charAt(i);
+      switch (c) {
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        default:
+          sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+
+  private static String unescape(String pEscaped) {
+    StringBuilder sb = new StringBuilder(pEscaped.length());
+    for (int i = 0; i < pEscaped.length(); i++) {
+      char c = pEscaped.charAt(i);
+      if (c == '\\' && i + 1 < pEscaped.length()) {
+        char next = pEscaped.charAt(++i);
+        switch (next) {
+          case 't':
+            sb.append('\t');
+            break;
+          case 'n':
+            sb.append('\n');
+            break;
+          case 'r':
+            sb.append('\r');
+            break;
+          default:
+            sb.append(next);
+        }
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.algorithm.summary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+import org.sosy_lab.cpachecker.core.summary.instance.access.AccessFunctionInstance;
+import org.sosy_lab.cpachecker.util.collections.preliminary.Presence;
+import org.sosy_lab.cpachecker.util.collections.tree.PathCopyingPersistentTree;
+
+import java.util.List;
+
+public class SummaryCacheTest {
+
+  private static final String COMPUTER = "computer";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path cacheFile;
+
+  @Before
+  public void setUp() throws Exception {
+    cacheFile = Paths.get(folder.newFile("summaries.txt").getAbsolutePath());
+  }
+
+  @Test
+  public void testAccessSummaryRoundTrip() throws Exception {
+    List<String> global = ImmutableList.of("g");
+    List<String> field = ImmutableList.of("p", "*", "next");
+    List<String> nested = ImmutableList.of("p", "*", "next", "*");
+    PathCopyingPersistentTree<String, Presence> read = new PathCopyingPersistentTree<>();
+    read = read.setElementAndCopy(global, Presence.INSTANCE);
+    read = read.setElementAndCopy(field, Presence.INSTANCE);
+    read = read.setElementAndCopy(nested, Presence.INSTANCE);
+    PathCopyingPersistentTree<String, Presence> write = new PathCopyingPersistentTree<>();
+    write = write.setElementAndCopy(field, Presence.INSTANCE);
+    String encoded = new AccessFunctionInstance("f", read, write).encode();
+
+    SummaryCache cache = new SummaryCache(cacheFile, COMPUTER);
+    assertEquals(0, cache.load());
+    cache.store("key", encoded);
+    cache.save();
+
+    SummaryCache loaded = new SummaryCache(cacheFile, COMPUTER);
+    assertEquals(1, loaded.load());
+    String restored = loaded.lookup("key");
+    assertEquals(encoded, restored);
+    AccessFunctionInstance instance = AccessFunctionInstance.decode("f", restored);
+    assertNotNull(instance);
+    assertEquals(encoded, instance.encode());
+    assertEquals(Presence.INSTANCE, instance.getReadTree().get(global));
+    assertEquals(Presence.INSTANCE, instance.getReadTree().get(nested));
+    assertEquals(Presence.INSTANCE, instance.getWriteTree().get(field));
+    assertNull(instance.getWriteTree().get(global));
+  }
+
+  @Test
+  public void testMalformedAccessSummary() {
+    assertNull(AccessFunctionInstance.decode("f", "X\u001fg\n"));
+  }
+
+  @Test
+  public void testEscapingAndOtherComputers() throws Exception {
+    String encoded = "a\tb\nc\\d\re\\";
+    SummaryCache other = new SummaryCache(cacheFile, "other");
+    other.load();
+    other.store("key", "other summary");
+    other.save();
+
+    SummaryCache cache = new SummaryCache(cacheFile, COMPUTER);
+    assertEquals(0, cache.load());
+    cache.store("key", encoded);
+    cache.save();
+
+    SummaryCache loaded = new SummaryCache(cacheFile, COMPUTER);
+    assertEquals(1, loaded.load());
+    assertEquals(encoded, loaded.lookup("key"));
+    assertNull(loaded.lookup("missing"));
+    SummaryCache otherLoaded = new SummaryCache(cacheFile, "other");
+    assertEquals(1, otherLoaded.load());
+    assertEquals("other summary", otherLoaded.lookup("key"));
+  }
+
+  @Test
+  public void testUntouchedSummariesAreDropped() throws Exception {
+    SummaryCache cache = new SummaryCache(cacheFile, COMPUTER);
+    cache.load();
+    cache.store("used", "1");
+    cache.store("unused", "2");
+    cache.save();
+
+    SummaryCache second = new SummaryCache(cacheFile, COMPUTER);
+    assertEquals(2, second.load());
+    assertEquals("1", second.lookup("used"));
+    second.save();
+
+    SummaryCache third = new SummaryCache(cacheFile, COMPUTER);
+    assertEquals(1, third.load());
+    assertNull(third.lookup("unused"));
+  }
+
+  @Test
+  public void testFilterConfiguration() {
+    String base = "cpa.range.precision = 3\n"
+        + "summary.algorithm.cacheFile = summaries.txt\n"
+        + "output.path = output\n"
+        + "log.level = INFO\n"
+        + "statistics.memory = true\n"
+        + "cfa.export = true\n"
+        + "cfa.snapshot.file = cfa.snapshot\n"
+        + "input.programs = test.c\n";
+    String unrelated = "cpa.range.precision = 3\n"
+        + "summary.algorithm.cacheFile = other.txt\n"
+        + "output.path = output-2\n"
+        + "log.level = ALL\n"
+        + "statistics.memory = false\n"
+        + "cfa.export = false\n"
+        + "cfa.snapshot.file = other.snapshot\n"
+        + "input.programs = other.c\n";
+    String changed = base.replace("precision = 3", "precision = 4");
+    assertEquals("cpa.range.precision = 3\n", SummaryCache.filterConfiguration(base));
+    assertEquals(SummaryCache.filterConfiguration(base),
+        SummaryCache.filterConfiguration(unrelated));
+    assertNotEquals(SummaryCache.filterConfiguration(base),
+        SummaryCache.filterConfiguration(changed));
+  }
+
+}
@@ -14,13 +14,21 @@
  */
 package org.sosy_lab.cpachecker.core.algorithm.summary;
 
-import com.google.common.collect.Lists;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.FileOption.Type;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.core.algorithm.Algorithm;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
@@ -29,49 +37,101 @@ import org.sosy_lab.cpachecker.core.summary.manage.SummaryProvider.SummaryName;
 import org.sosy_lab.cpachecker.core.summary.manage.SummaryStore;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.globalinfo.CFAInfo;
+import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
 
 /**
  * Compute summary
+ *
+ * Subjects are grouped into strongly connected components of the dependency graph, and
+ * components are computed bottom-up, thus only the subjects of one component iterate until
+ * saturation. If the computer supports concurrent computation, the components which do not
+ * depend on each other are computed in parallel waves, each thread using its own fork of the
+ * computer.
+ *
+ * If the computer supports caching and a cache file is specified, the summaries of functions
+ * unchanged since the last run are loaded from the cache instead of being computed.
  */
 @Options(prefix = "summary.algorithm")
 public class SummaryComputationAlgorithm implements Algorithm {
 
+  @Option(secure = true, name = "threads", description = "the number of threads computing "
+      + "independent components of summary subjects, only for computers supporting concurrent "
+      + "computation, 0 for the number of available processors")
+  @IntegerOption(min = 0)
+  private int threads = 1;
+
+  // the cache is read and written, it is resolved like an input file to be independent of the
+  // output directory
+  @Option(secure = true, name = "cacheFile", description = "file for caching summaries across "
+      + "runs, such that the summaries of functions unchanged together with their callees are not "
+      + "computed again (no caching if not specified). A relative path is resolved against "
+      + "rootDirectory instead of output.path, thus the cache is shared by runs with different "
+      + "output directories, such as the tasks of TsmartAnalyze --jobs.")
+  @FileOption(Type.OPTIONAL_INPUT_FILE)
+  private Path cacheFile = null;
+
+  private final Configuration config;
   protected LogManager logger;
   protected SummaryComputer computer;
 
   /**
    * A wait list that satisfies:
-   * 1. first push first pop
-   * 2. when an element is touched, it is moved to the back
+   * 1. elements of lower priority are popped first
+   * 2. first push first pop among elements of the same priority
+   * 3. when an element is touched, it is moved to the back
    */
   public static class WaitList<T> implements Comparator<T> {
     private int maxDelay;
     private Map<T, Integer> rank;
-    private PriorityQueue<T> elements;
+    private Map<T, Integer> priority;
+    private TreeSet<T> elements;
 
     WaitList() {
+      this(ImmutableMap.<T, Integer>of());
+    }
+
+    /**
+     * @param pPriority the priority of elements, elements not in the map are popped last
+     */
+    WaitList(Map<T, Integer> pPriority) {
       this.maxDelay = 0;
       this.rank = Maps.newHashMap();
-      this.elements = new PriorityQueue<>(1, this);
+      this.priority = pPriority;
+      this.elements = new TreeSet<>(this);
     }
 
     public void push(T e) {
-      rank.put(e, ++maxDelay);
-      elements.add(e);
+      touch(e);
     }
 
     public T pop() {
-      return elements.poll();
+      return elements.pollFirst();
     }
 
     void touch(T e) {
-      elements.remove(e);
+      if (rank.containsKey(e)) {
+        // the rank is part of the order, thus the element should be removed before re-ranking
+        elements.remove(e);
+      }
       rank.put(e, ++maxDelay);
       elements.add(e);
     }
@@ -82,10 +142,16 @@ public class SummaryComputationAlgorithm implements Algorithm {
 
     @Override
     public int compare(T a, T b) {
-      return rank.get(a) - rank.get(b);
+      int result = Integer.compare(priorityOf(a), priorityOf(b));
+      return result != 0 ? result : Integer.compare(rank.get(a), rank.get(b));
     }
 
-    void pushAll(List<T> es) {
+    private int priorityOf(T e) {
+      Integer p = priority.get(e);
+      return p == null ? Integer.MAX_VALUE : p;
+    }
+
+    void pushAll(Collection<T> es) {
       for (T e : es) {
         push(e);
       }
@@ -96,17 +162,39 @@ public class SummaryComputationAlgorithm implements Algorithm {
       Configuration config,
       SummaryComputer computer,
       LogManager logger) throws InvalidConfigurationException {
+    this.config = config;
     this.computer = computer;
     this.logger = logger;
     config.inject(this);
   }
 
-  public AlgorithmStatus run0() throws CPAException {
+  public AlgorithmStatus run0() throws CPAException, InterruptedException {
     // initialization
-    WaitList<SummarySubject> waitList = new WaitList<>();
     computer.preAction();
     // 1. decide computation order
-    waitList.pushAll(dumpAndDecideOrder(computer));
+    SummarySubjectComponents components = SummarySubjectComponents.of(computer);
+    SummaryCache cache = null;
+    Map<SummarySubject, String> cacheKeys = ImmutableMap.of();
+    Set<SummarySubject> restored = ImmutableSet.of();
+    CFAInfo cfaInfo = GlobalInfo.getInstance().getCFAInfo().orNull();
+    if (cacheFile != null && computer instanceof CacheableSummaryComputer && cfaInfo != null) {
+      cache = new SummaryCache(cacheFile, computer.getClass().getName());
+      cacheKeys = SummaryCache.computeKeys(components, cfaInfo.getCFA(),
+          config.asPropertiesString());
+      restored = restoreFromCache(cache, cacheKeys);
+    }
+    WaitList<SummarySubject> waitList = new WaitList<>(components.getComponentIndex());
+    int numOfThreads = threads == 0 ? Runtime.getRuntime().availableProcessors() : threads;
+    if (numOfThreads > 1 && computer instanceof ConcurrentSummaryComputer) {
+      // only the subjects notified across concurrent components remain
+      waitList.pushAll(computeInWaves(components, restored, numOfThreads));
+    } else {
+      for (SummarySubject subject : components.getSubjectsInOrder()) {
+        if (!restored.contains(subject)) {
+          waitList.push(subject);
+        }
+      }
+    }
     // 2. compute until saturation
     while (!waitList.isEmpty()) {
       SummarySubject subject = waitList.pop();
@@ -117,10 +205,12 @@ public class SummaryComputationAlgorithm implements Algorithm {
           waitList.touch(x);
         }
       } catch (Exception e) {
-        e.printStackTrace();
-        throw new CPAException(e.getMessage());
+        throw new CPAException(e.getMessage(), e);
       }
     }
+    if (cache != null) {
+      storeToCache(cache, cacheKeys);
+    }
     // 3. post-process
     List<Triple<SummaryType, SummaryName, ? extends SummaryStore>> summaries = computer.build();
     // 4. store summary
@@ -139,40 +229,136 @@ public class SummaryComputationAlgorithm implements Algorithm {
     return run0();
   }
 
-  private List<SummarySubject> dumpAndDecideOrder(SummaryComputer computer) {
-    // use a simplified algorithm: always pick the current element with minimal out degree
-    // maintain a min-heap of summary computer
-    final Map<SummarySubject, Integer> outDegree = Maps.newHashMap();
-    // 1. init
-    for (SummarySubject subject : computer.getSubjects()) {
-      outDegree.put(subject, computer.getDependee(subject).size());
-    }
-    PriorityQueue<SummarySubject> remains = new PriorityQueue<>(
-        Math.max(1, outDegree.size()),
-        new Comparator<SummarySubject>() {
-          @Override
-          public int compare(SummarySubject a, SummarySubject b) {
-            return outDegree.get(a) - outDegree.get(b);
+  /**
+   * Load the summaries of subjects from the cache.
+   *
+   * @return the subjects whose summaries are restored
+   */
+  private Set<SummarySubject> restoreFromCache(
+      SummaryCache pCache,
+      Map<SummarySubject, String> pKeys) {
+    try {
+      pCache.load();
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Failed to load cached summaries");
+    }
+    CacheableSummaryComputer cacheable = (CacheableSummaryComputer) computer;
+    Set<SummarySubject> restored = Sets.newHashSet();
+    for (Entry<SummarySubject, String> entry : pKeys.entrySet()) {
+      String encoded = pCache.lookup(entry.getValue());
+      if (encoded != null && cacheable.decodeSummary(entry.getKey(), encoded)) {
+        restored.add(entry.getKey());
+      }
+    }
+    logger.log(Level.INFO, "Restored", restored.size(), "of", pKeys.size(),
+        "cacheable summaries from", cacheFile);
+    return restored;
+  }
+
+  private void storeToCache(SummaryCache pCache, Map<SummarySubject, String> pKeys) {
+    CacheableSummaryComputer cacheable = (CacheableSummaryComputer) computer;
+    for (Entry<SummarySubject, String> entry : pKeys.entrySet()) {
+      String encoded = cacheable.encodeSummary(entry.getKey());
+      if (encoded != null) {
+        pCache.store(entry.getValue(), encoded);
+      }
+    }
+    try {
+      pCache.save();
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Failed to save cached summaries");
+    }
+  }
+
+  /**
+   * Compute the components wave by wave, the components of a wave are saturated in parallel.
+   *
+   * @return the subjects notified by a component other than their own, which have been computed
+   * before or concurrently and thus should be re-computed
+   */
+  private Set<SummarySubject> computeInWaves(
+      final SummarySubjectComponents pComponents,
+      final Set<SummarySubject> pRestored,
+      int pThreads) throws CPAException, InterruptedException {
+    // forks are created on this thread, and each one is used by one task at a time
+    final BlockingQueue<SummaryComputer> forks = new ArrayBlockingQueue<>(pThreads);
+    try {
+      for (int i = 0; i < pThreads; i++) {
+        forks.add(((ConcurrentSummaryComputer) computer).fork());
+      }
+    } catch (InvalidConfigurationException e) {
+      throw new CPAException("Failed to fork the summary computer: " + e.getMessage(), e);
+    }
+    Set<SummarySubject> remains = Sets.newHashSet();
+    ExecutorService executor = Executors.newFixedThreadPool(pThreads,
+        Threads.threadFactoryBuilder().setNameFormat("summary-worker-%d").setDaemon(true).build());
+    try {
+      ImmutableList<ImmutableList<Integer>> waves = pComponents.getWaves();
+      for (int i = 0; i < waves.size(); i++) {
+        logger.log(Level.FINE, "Computing", waves.get(i).size(), "components in wave", i);
+        List<Future<Set<SummarySubject>>> futures = new ArrayList<>(waves.get(i).size());
+        for (final int component : waves.get(i)) {
+          futures.add(executor.submit(new Callable<Set<SummarySubject>>() {
+            @Override
+            public Set<SummarySubject> call() throws Exception {
+              SummaryComputer fork = forks.take();
+              try {
+                return computeComponent(fork, pComponents, pRestored, component);
+              } finally {
+                forks.put(fork);
+              }
+            }
+          }));
+        }
+        for (Future<Set<SummarySubject>> future : futures) {
+          try {
+            remains.addAll(future.get());
+          } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof InterruptedException) {
+              throw (InterruptedException) cause;
+            }
+            throw new CPAException(cause.getMessage(), cause);
           }
-        });
-    remains.addAll(outDegree.keySet());
-    // 2. pick
-    List<SummarySubject> result = Lists.newArrayList();
-    Set<SummarySubject> added = Sets.newHashSet();
-    while (!remains.isEmpty()) {
-      SummarySubject s = remains.poll();
-      result.add(s);
-      added.add(s);
-      for (SummarySubject t : computer.getDepender(s)) {
-        // reduce out-degree of t by 1
-        remains.remove(t);
-        outDegree.put(t, outDegree.get(t) - 1);
-        if (!added.contains(t)) {
-          remains.add(t);
         }
       }
+    } finally {
+      executor.shutdownNow();
+    }
+    return remains;
+  }
+
+  /**
+   * Compute the subjects of a component until saturation.
+   *
+   * @return the notified subjects of other components which are not computed afterwards
+   */
+  private static Set<SummarySubject> computeComponent(
+      SummaryComputer pComputer,
+      SummarySubjectComponents pComponents,
+      Set<SummarySubject> pRestored,
+      int pComponent) throws Exception {
+    int wave = pComponents.getWave(pComponent);
+    Set<SummarySubject> remains = Sets.newHashSet();
+    WaitList<SummarySubject> waitList = new WaitList<>();
+    for (SummarySubject member : pComponents.getMembers(pComponent)) {
+      if (!pRestored.contains(member)) {
+        waitList.push(member);
+      }
+    }
+    while (!waitList.isEmpty()) {
+      for (SummarySubject x : pComputer.computeFor(waitList.pop())) {
+        int component = pComponents.getComponent(x);
+        if (component == pComponent) {
+          waitList.touch(x);
+        } else if (component < 0 || pComponents.getWave(component) <= wave
+            || pRestored.contains(x)) {
+          remains.add(x);
+        }
+        // otherwise, the subject is computed in a later wave
+      }
     }
-    return result;
+    return remains;
   }
 
 }
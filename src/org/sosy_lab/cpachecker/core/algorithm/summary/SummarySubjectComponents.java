@@ -0,0 +1,251 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.algorithm.summary;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strongly connected components of the dependency graph of summary subjects.
+ *
+ * Components are numbered bottom-up: each component has a greater index than the components it
+ * depends on. Components are also grouped into waves, where the wave of a component is one more
+ * than the maximal wave of its dependee components. Components in the same wave do not depend on
+ * each other.
+ */
+final class SummarySubjectComponents {
+
+  // subject -> index of its component
+  private final ImmutableMap<SummarySubject, Integer> componentOf;
+  // component -> members
+  private final ImmutableList<ImmutableList<SummarySubject>> members;
+  // component -> the components it depends on
+  private final ImmutableList<ImmutableSet<Integer>> dependees;
+  // component -> wave
+  private final int[] waveOf;
+  // wave -> components
+  private final ImmutableList<ImmutableList<Integer>> waves;
+
+  private SummarySubjectComponents(
+      ImmutableMap<SummarySubject, Integer> pComponentOf,
+      ImmutableList<ImmutableList<SummarySubject>> pMembers,
+      ImmutableList<ImmutableSet<Integer>> pDependees,
+      int[] pWaveOf,
+      ImmutableList<ImmutableList<Integer>> pWaves) {
+    componentOf = pComponentOf;
+    members = pMembers;
+    dependees = pDependees;
+    waveOf = pWaveOf;
+    waves = pWaves;
+  }
+
+  /**
+   * Compute the components of subjects and their dependees using Tarjan's algorithm. The search
+   * is iterative, thus a deep call chain does not overflow the stack.
+   */
+  static SummarySubjectComponents of(SummaryComputer pComputer) {
+    // number the subjects and their (transitive) dependees
+    Map<SummarySubject, Integer> ids = new HashMap<>();
+    List<SummarySubject> subjects = new ArrayList<>();
+    List<int[]> successors = new ArrayList<>();
+    for (SummarySubject subject : pComputer.getSubjects()) {
+      idOf(subject, ids, subjects);
+    }
+    for (int i = 0; i < subjects.size(); i++) {
+      List<Integer> dependees = new ArrayList<>();
+      for (SummarySubject dependee : pComputer.getDependee(subjects.get(i))) {
+        dependees.add(idOf(dependee, ids, subjects));
+      }
+      int[] succ = new int[dependees.size()];
+      for (int j = 0; j < succ.length; j++) {
+        succ[j] = dependees.get(j);
+      }
+      successors.add(succ);
+    }
+
+    int n = subjects.size();
+    int[] index = new int[n];
+    int[] lowLink = new int[n];
+    int[] component = new int[n];
+    int[] nextSuccessor = new int[n];
+    boolean[] onStack = new boolean[n];
+    Arrays.fill(index, -1);
+    Deque<Integer> stack = new ArrayDeque<>();
+    Deque<Integer> callStack = new ArrayDeque<>();
+    List<List<Integer>> components = new ArrayList<>();
+    int counter = 0;
+
+    for (int root = 0; root < n; root++) {
+      if (index[root] >= 0) {
+        continue;
+      }
+      index[root] = lowLink[root] = counter++;
+      stack.push(root);
+      onStack[root] = true;
+      callStack.push(root);
+      while (!callStack.isEmpty()) {
+        int v = callStack.peek();
+        int[] succ = successors.get(v);
+        if (nextSuccessor[v] < succ.length) {
+          int w = succ[nextSuccessor[v]++];
+          if (index[w] < 0) {
+            index[w] = lowLink[w] = counter++;
+            stack.push(w);
+            onStack[w] = true;
+            callStack.push(w);
+          } else if (onStack[w]) {
+            lowLink[v] = Math.min(lowLink[v], index[w]);
+          }
+          continue;
+        }
+        callStack.pop();
+        if (!callStack.isEmpty()) {
+          int parent = callStack.peek();
+          lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+        }
+        if (lowLink[v] == index[v]) {
+          // v is the root of a component, which depends only on the components found before
+          List<Integer> newComponent = new ArrayList<>();
+          int w;
+          do {
+            w = stack.pop();
+            onStack[w] = false;
+            component[w] = components.size();
+            newComponent.add(w);
+          } while (w != v);
+          components.add(newComponent);
+        }
+      }
+    }
+
+    // assign waves bottom-up
+    int[] waveOf = new int[components.size()];
+    int numOfWaves = 0;
+    ImmutableList.Builder<ImmutableSet<Integer>> dependees = ImmutableList.builder();
+    for (int c = 0; c < components.size(); c++) {
+      int wave = 0;
+      ImmutableSet.Builder<Integer> dependeeComponents = ImmutableSet.builder();
+      for (int v : components.get(c)) {
+        for (int w : successors.get(v)) {
+          if (component[w] != c) {
+            wave = Math.max(wave, waveOf[component[w]] + 1);
+            dependeeComponents.add(component[w]);
+          }
+        }
+      }
+      dependees.add(dependeeComponents.build());
+      waveOf[c] = wave;
+      numOfWaves = Math.max(numOfWaves, wave + 1);
+    }
+
+    ImmutableMap.Builder<SummarySubject, Integer> componentOf = ImmutableMap.builder();
+    for (int v = 0; v < n; v++) {
+      componentOf.put(subjects.get(v), component[v]);
+    }
+    ImmutableList.Builder<ImmutableList<SummarySubject>> members = ImmutableList.builder();
+    for (List<Integer> c : components) {
+      ImmutableList.Builder<SummarySubject> builder = ImmutableList.builder();
+      // members are popped in reverse order of discovery
+      for (int i = c.size() - 1; i >= 0; i--) {
+        builder.add(subjects.get(c.get(i)));
+      }
+      members.add(builder.build());
+    }
+    List<ImmutableList.Builder<Integer>> waveBuilders = new ArrayList<>(numOfWaves);
+    for (int i = 0; i < numOfWaves; i++) {
+      waveBuilders.add(ImmutableList.<Integer>builder());
+    }
+    for (int c = 0; c < components.size(); c++) {
+      waveBuilders.get(waveOf[c]).add(c);
+    }
+    ImmutableList.Builder<ImmutableList<Integer>> waves = ImmutableList.builder();
+    for (ImmutableList.Builder<Integer> builder : waveBuilders) {
+      waves.add(builder.build());
+    }
+    return new SummarySubjectComponents(componentOf.build(), members.build(), dependees.build(),
+        waveOf, waves.build());
+  }
+
+  private static int idOf(
+      SummarySubject pSubject, Map<SummarySubject, Integer> pIds,
+      List<SummarySubject> pSubjects) {
+    Integer id = pIds.get(pSubject);
+    if (id == null) {
+      id = pSubjects.size();
+      pIds.put(pSubject, id);
+      pSubjects.add(pSubject);
+    }
+    return id;
+  }
+
+  /**
+   * The component index of each subject, which is a valid bottom-up priority.
+   */
+  ImmutableMap<SummarySubject, Integer> getComponentIndex() {
+    return componentOf;
+  }
+
+  /**
+   * Get the component of the given subject, or -1 if the subject is unknown.
+   */
+  int getComponent(SummarySubject pSubject) {
+    Integer c = componentOf.get(pSubject);
+    return (c == null) ? -1 : c;
+  }
+
+  ImmutableList<SummarySubject> getMembers(int pComponent) {
+    return members.get(pComponent);
+  }
+
+  /**
+   * Get the components that the given component depends on, which have smaller indexes.
+   */
+  ImmutableSet<Integer> getDependees(int pComponent) {
+    return dependees.get(pComponent);
+  }
+
+  int getNumberOfComponents() {
+    return members.size();
+  }
+
+  int getWave(int pComponent) {
+    return waveOf[pComponent];
+  }
+
+  ImmutableList<ImmutableList<Integer>> getWaves() {
+    return waves;
+  }
+
+  /**
+   * All subjects, the members of dependee components come first.
+   */
+  List<SummarySubject> getSubjectsInOrder() {
+    List<SummarySubject> result = new ArrayList<>(componentOf.size());
+    for (ImmutableList<SummarySubject> component : members) {
+      result.addAll(component);
+    }
+    return result;
+  }
+
+}
@@ -14,6 +14,7 @@
  */
 package org.sosy_lab.cpachecker.core.algorithm.summary.computer;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
 
@@ -27,6 +28,9 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
 import org.sosy_lab.cpachecker.core.CoreComponentsFactory;
 import org.sosy_lab.cpachecker.core.CoreComponentsFactory.SpecAutomatonCompositionType;
 import org.sosy_lab.cpachecker.core.algorithm.summary.CPABasedSummaryComputer;
+import org.sosy_lab.cpachecker.core.algorithm.summary.CacheableSummaryComputer;
+import org.sosy_lab.cpachecker.core.algorithm.summary.ConcurrentSummaryComputer;
+import org.sosy_lab.cpachecker.core.algorithm.summary.SummaryComputer;
 import org.sosy_lab.cpachecker.core.algorithm.summary.SummarySubject;
 import org.sosy_lab.cpachecker.core.algorithm.summary.SummaryType;
 import org.sosy_lab.cpachecker.core.algorithm.summary.subjects.FunctionSubject;
@@ -51,6 +55,7 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
 import org.sosy_lab.cpachecker.util.Triple;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
@@ -59,6 +64,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Created by tomgu on 2/7/17.
@@ -68,8 +75,11 @@ import java.util.Set;
  * all the loop summaries will be added into result in summarize();
  * 2. For recursive function call we can use the depth to control analysis process.
  * Currently, we do not use it.
+ * 3. A fork computes with its own CPA, whose transfer relation keeps the state of one
+ * computation, and shares the summaries, the depths and the counter with the original computer.
  */
-public class AccessSummaryComputer extends CPABasedSummaryComputer {
+public class AccessSummaryComputer extends CPABasedSummaryComputer
+    implements CacheableSummaryComputer, ConcurrentSummaryComputer {
 
   private final String DEBUG_SWITCHER_PREFIX = "summary.access.debug";
 
@@ -82,7 +92,7 @@ public class AccessSummaryComputer extends CPABasedSummaryComputer {
 
   // for debug
   private boolean debug = false;
-  private long count = 0;
+  private final AtomicLong count;
 
   public AccessSummaryComputer(
       Configuration pConfig,
@@ -92,7 +102,8 @@ public class AccessSummaryComputer extends CPABasedSummaryComputer {
 
     initSummary();
 
-    depthMap = Maps.newHashMap();
+    depthMap = new ConcurrentHashMap<>();
+    count = new AtomicLong();
 
     // build debug info
     if (config.getProperty(DEBUG_SWITCHER_PREFIX) != null) {
@@ -107,6 +118,20 @@ public class AccessSummaryComputer extends CPABasedSummaryComputer {
     }
   }
 
+  private AccessSummaryComputer(AccessSummaryComputer pOrigin)
+      throws InvalidConfigurationException {
+    super(pOrigin);
+    depthMap = pOrigin.depthMap;
+    count = pOrigin.count;
+    debug = pOrigin.debug;
+    depth = pOrigin.depth;
+  }
+
+  @Override
+  public SummaryComputer fork() throws InvalidConfigurationException {
+    return new AccessSummaryComputer(this);
+  }
+
   @Override
   public void initSummary() {
     CFA cfa = cfaInfo.getCFA();
@@ -190,7 +215,7 @@ public class AccessSummaryComputer extends CPABasedSummaryComputer {
       return null;
     }
     depthMap.put(fSub, depthMap.get(fSub) + 1);
-    count++;
+    count.incrementAndGet();
 
     // we have to get the accessAnalysisState
     // we should get the loop summary from state
@@ -315,6 +340,40 @@ public class AccessSummaryComputer extends CPABasedSummaryComputer {
     return reached;
   }
 
+  /**
+   * Only the summaries of functions without loops are cached, since loop summaries are derived
+   * together with the function summary and they are not encoded.
+   */
+  @Override
+  public String encodeSummary(SummarySubject subject) {
+    if (!(subject instanceof FunctionSubject)) {
+      return null;
+    }
+    Optional<LoopStructure> loopStructure = cfaInfo.getCFA().getLoopStructure();
+    String function = ((FunctionSubject) subject).getFunctionName();
+    if (!loopStructure.isPresent() ||
+        !loopStructure.get().getLoopsForFunction(function).isEmpty()) {
+      return null;
+    }
+    SummaryInstance instance = summary.get(subject);
+    return (instance instanceof AccessFunctionInstance) ?
+           ((AccessFunctionInstance) instance).encode() : null;
+  }
+
+  @Override
+  public boolean decodeSummary(SummarySubject subject, String encoded) {
+    if (!(subject instanceof FunctionSubject)) {
+      return false;
+    }
+    AccessFunctionInstance instance =
+        AccessFunctionInstance.decode(((FunctionSubject) subject).getFunctionName(), encoded);
+    if (instance == null) {
+      return false;
+    }
+    update(subject, instance);
+    return true;
+  }
+
   public void initializeSummaryForCPA(String fName, Map<String, AccessAnalysisState> pSummary) {
     // for this function, it must have definition
     Preconditions.checkArgument(GlobalInfo.getInstance().getCFAInfo().isPresent());
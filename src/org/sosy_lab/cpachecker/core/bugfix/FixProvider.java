@@ -17,6 +17,7 @@ package org.sosy_lab.cpachecker.core.bugfix;
 import com.google.common.collect.Maps;
 
 import org.sosy_lab.cpachecker.core.phase.CPAPhase;
+import org.sosy_lab.cpachecker.util.globalinfo.AnalysisContext;
 
 import java.util.Map;
 
@@ -35,24 +36,48 @@ public final class FixProvider {
     INTEGER,    // integer error, including integer overflow/underflow, unexpected cast, etc.
   }
 
-  private static Map<BugCategory, FixInformation> fixInfo = Maps.newHashMap();
+  /**
+   * Fix information of one analysis. Each {@link AnalysisContext} owns a registry.
+   */
+  public static final class FixRegistry {
+
+    private final Map<BugCategory, FixInformation> fixInfo = Maps.newHashMap();
 
-  private static Map<BugCategory, Class<? extends CPAPhase>> fixGen = Maps.newHashMap();
-  private static Map<BugCategory, Class<? extends CPAPhase>> fixApp = Maps.newHashMap();
-  private static Map<BugCategory, Class<? extends CPAPhase>> interactApp = Maps.newHashMap();
+    private final Map<BugCategory, Class<? extends CPAPhase>> fixGen = Maps.newHashMap();
+    private final Map<BugCategory, Class<? extends CPAPhase>> fixApp = Maps.newHashMap();
+    private final Map<BugCategory, Class<? extends CPAPhase>> interactApp = Maps.newHashMap();
+
+    private FixRegistry() {
+    }
+
+  }
+
+  private FixProvider() {
+  }
+
+  public static FixRegistry createRegistry() {
+    return new FixRegistry();
+  }
+
+  private static FixRegistry registry() {
+    return AnalysisContext.current().getFixRegistry();
+  }
 
   public static void register(
       BugCategory pCategory, FixInformation pInfo, Class<? extends
       CPAPhase> pFixGenClass, Class<? extends CPAPhase> pFixAppClass, @Nullable Class<? extends
       CPAPhase> pIntAppClass) {
-    // sanity check: fix information and bug category have strict matching relation
-    if (pInfo.getCategory() == pCategory) {
-      fixInfo.put(pCategory, pInfo);
-      fixGen.put(pCategory, pFixGenClass);
-      fixApp.put(pCategory, pFixAppClass);
-      // not all bug categories have interactive fix application mode
-      if (pIntAppClass != null) {
-        interactApp.put(pCategory, pIntAppClass);
+    FixRegistry registry = registry();
+    synchronized (registry) {
+      // sanity check: fix information and bug category have strict matching relation
+      if (pInfo.getCategory() == pCategory) {
+        registry.fixInfo.put(pCategory, pInfo);
+        registry.fixGen.put(pCategory, pFixGenClass);
+        registry.fixApp.put(pCategory, pFixAppClass);
+        // not all bug categories have interactive fix application mode
+        if (pIntAppClass != null) {
+          registry.interactApp.put(pCategory, pIntAppClass);
+        }
       }
     }
   }
@@ -60,7 +85,10 @@ public final class FixProvider {
   @Nullable
   public static FixInformation getFixInfo(BugCategory pCategory) {
     if (pCategory != null) {
-      return fixInfo.get(pCategory);
+      FixRegistry registry = registry();
+      synchronized (registry) {
+        return registry.fixInfo.get(pCategory);
+      }
     }
     return null;
   }
@@ -68,7 +96,10 @@ public final class FixProvider {
   @Nullable
   public static Class<? extends CPAPhase> getFixGenClass(BugCategory pCategory) {
     if (pCategory != null) {
-      return fixGen.get(pCategory);
+      FixRegistry registry = registry();
+      synchronized (registry) {
+        return registry.fixGen.get(pCategory);
+      }
     }
     return null;
   }
@@ -76,7 +107,10 @@ public final class FixProvider {
   @Nullable
   public static Class<? extends CPAPhase> getFixAppClass(BugCategory pCategory) {
     if (pCategory != null) {
-      return fixApp.get(pCategory);
+      FixRegistry registry = registry();
+      synchronized (registry) {
+        return registry.fixApp.get(pCategory);
+      }
     }
     return null;
   }
@@ -84,13 +118,16 @@ public final class FixProvider {
   @Nullable
   public static Class<? extends CPAPhase> getInteractiveAppPhase(BugCategory pCategory) {
     if (pCategory != null) {
-      return interactApp.get(pCategory);
+      FixRegistry registry = registry();
+      synchronized (registry) {
+        return registry.interactApp.get(pCategory);
+      }
     }
     return null;
   }
 
   public static void clearStatus(BugCategory pCategory) {
-    FixInformation info = fixInfo.get(pCategory);
+    FixInformation info = getFixInfo(pCategory);
     if (info != null) {
       info.reset();
     }
@@ -32,6 +32,8 @@ import org.sosy_lab.cpachecker.core.bugfix.instance.integer.IntegerTypeConstrain
 import org.sosy_lab.cpachecker.core.phase.fix.util.CastFixMetaInfo;
 import org.sosy_lab.cpachecker.util.access.AccessPath;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -219,11 +221,47 @@ public class IntegerFixInfo implements FixInformation {
   public void generateTypeConstraint(
       String fileName, int coverWeight,
       int equalWeight, MachineModel machineModel) {
-    TypeConstraintWriter writer = new TypeConstraintWriter(fileName, constraint, coverWeight,
+    generateTypeConstraint(fileName, constraint, coverWeight, equalWeight, machineModel);
+  }
+
+  /**
+   * Generate SMTLIB2 file for a subset of type constraints, such as a connected component.
+   */
+  public static void generateTypeConstraint(
+      String fileName, Set<IntegerTypeConstraint> pConstraints,
+      int coverWeight, int equalWeight, MachineModel machineModel) {
+    TypeConstraintWriter writer = new TypeConstraintWriter(fileName, pConstraints, coverWeight,
         equalWeight, machineModel);
     writer.output();
   }
 
+  /**
+   * Write a subset of type constraints to a solver which has received the prelude written by
+   * {@link #writeTypeConstraintPrelude}. Solver commands are not written.
+   */
+  public static void writeTypeConstraint(
+      Writer out, Set<IntegerTypeConstraint> pConstraints,
+      int coverWeight, int equalWeight, MachineModel machineModel) throws IOException {
+    TypeConstraintWriter writer = new TypeConstraintWriter(null, pConstraints, coverWeight,
+        equalWeight, machineModel);
+    writer.write(out, false);
+  }
+
+  /**
+   * Write the declarations shared by all the MAX-SMT instances of type constraints.
+   */
+  public static void writeTypeConstraintPrelude(Writer out, MachineModel machineModel)
+      throws IOException {
+    TypeConstraintWriter.writePrelude(out, machineModel);
+  }
+
+  /**
+   * Split the type constraints into independent components.
+   */
+  public List<Set<IntegerTypeConstraint>> partitionTypeConstraint() {
+    return TypeConstraintComponents.partition(constraint);
+  }
+
   public Multimap<FileLocation, IntegerFix> getLoc2Fix() {
     return loc2Fix;
   }
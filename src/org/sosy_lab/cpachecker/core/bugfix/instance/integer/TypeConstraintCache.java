@@ -0,0 +1,291 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.bugfix.instance.integer;
+
+import com.google.common.base.Splitter;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.cpachecker.cfa.CFASerialization;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CSimpleType;
+import org.sosy_lab.cpachecker.core.bugfix.instance.integer.IntegerTypeConstraint.IntegerTypePredicate;
+import org.sosy_lab.cpachecker.util.Types;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * A persistent cache of solutions of type constraint components (see {@link
+ * TypeConstraintComponents}). A component is identified by a canonical hash of its constraints,
+ * which is independent of the order of constraints. The weights of relations and the machine model
+ * are part of the hash as well, since they affect the optimal solution.
+ *
+ * Only satisfiable components are cached. The objective of a component is derived from its
+ * valuation, thus components solved together in one MAX-SMT instance could be cached separately.
+ *
+ * The cache is stored in a text file, one component per line:
+ * {@code <hash> <objective> <variable>=<type> ...} (separated by tabs). When the cache is saved,
+ * only the components accessed in the current run are kept, thus the cache does not grow with
+ * obsolete components.
+ */
+public final class TypeConstraintCache {
+
+  private static final char SEPARATOR = '\t';
+  private static final Splitter fieldSplitter = Splitter.on(SEPARATOR).omitEmptyStrings();
+
+  private final Path cacheFile;
+  private final int coverWeight;
+  private final int equalWeight;
+  private final MachineModel machineModel;
+
+  // the solutions loaded from the cache file
+  private final Map<String, Solution> loaded = new HashMap<>();
+  // the solutions used or derived in the current run
+  private final Map<String, Solution> touched = new LinkedHashMap<>();
+
+  public TypeConstraintCache(
+      Path pCacheFile, int pCoverWeight, int pEqualWeight,
+      MachineModel pMachineModel) {
+    cacheFile = pCacheFile;
+    coverWeight = pCoverWeight;
+    equalWeight = pEqualWeight;
+    machineModel = pMachineModel;
+  }
+
+  /**
+   * Load solutions from the cache file. Malformed entries are ignored.
+   *
+   * @return the number of loaded solutions
+   */
+  public int load() throws IOException {
+    loaded.clear();
+    if (!cacheFile.toFile().exists()) {
+      return 0;
+    }
+    try (BufferedReader br = cacheFile.asCharSource(StandardCharsets.UTF_8)
+        .openBufferedStream()) {
+      String line;
+      while ((line = br.readLine()) != null) {
+        Iterator<String> fields = fieldSplitter.split(line).iterator();
+        if (!fields.hasNext()) {
+          continue;
+        }
+        String key = fields.next();
+        Solution solution = parseSolution(fields);
+        if (solution != null) {
+          loaded.put(key, solution);
+        }
+      }
+    }
+    return loaded.size();
+  }
+
+  /**
+   * Write the solutions accessed in the current run to the cache file.
+   */
+  public void save() throws IOException {
+    StringBuilder content = new StringBuilder();
+    for (Entry<String, Solution> entry : touched.entrySet()) {
+      Solution solution = entry.getValue();
+      content.append(entry.getKey()).append(SEPARATOR).append(solution.objective);
+      for (Entry<String, CSimpleType> valuation : solution.valuation.entrySet()) {
+        content.append(SEPARATOR).append(valuation.getKey()).append('=')
+            .append(IntegerTypeConstraint.toTypeString(valuation.getValue()));
+      }
+      content.append('\n');
+    }
+    // runs sharing the cache file never read a partial file
+    CFASerialization.writeAtomically(cacheFile.toFile(), content);
+  }
+
+  /**
+   * Look up the solution of the given component.
+   *
+   * @return the cached solution, or {@code null} if the component has not been solved before
+   */
+  @Nullable
+  public Solution lookup(Set<IntegerTypeConstraint> pComponent) {
+    String key = computeKey(pComponent);
+    Solution solution = loaded.get(key);
+    if (solution != null) {
+      touched.put(key, solution);
+    }
+    return solution;
+  }
+
+  /**
+   * Store the solution of the given component, which is projected from the valuation of a
+   * MAX-SMT instance containing the component.
+   *
+   * @return whether the solution is stored, which fails if some variables of the component have
+   * no valid valuation
+   */
+  public boolean store(
+      Set<IntegerTypeConstraint> pComponent,
+      Map<String, CSimpleType> pValuation) {
+    Map<String, CSimpleType> projection = new HashMap<>();
+    for (IntegerTypeConstraint constraint : pComponent) {
+      for (String name : new String[]{constraint.getName1(), constraint.getName2()}) {
+        if (isVariable(name) && !projection.containsKey(name)) {
+          CSimpleType type = pValuation.get(name);
+          if (type == null || IntegerTypeConstraint.toTypeString(type) == null) {
+            return false;
+          }
+          projection.put(name, type);
+        }
+      }
+    }
+    long objective = 0;
+    for (IntegerTypeConstraint constraint : pComponent) {
+      if (!constraint.getSoftness()) {
+        continue;
+      }
+      CSimpleType type1 = valueOf(constraint.getName1(), projection);
+      CSimpleType type2 = valueOf(constraint.getName2(), projection);
+      if (type1 == null || type2 == null) {
+        return false;
+      }
+      IntegerTypePredicate predicate = constraint.getPredicate();
+      switch (predicate) {
+        case COVER:
+          if (!covers(type1, type2)) {
+            objective += coverWeight;
+          }
+          break;
+        case EQUAL:
+          if (!isSameType(type1, type2)) {
+            objective += equalWeight;
+          }
+          break;
+        default:
+          // soft COVER_DECLARE is asserted as a hard constraint
+      }
+    }
+    touched.put(computeKey(pComponent), new Solution(objective, projection));
+    return true;
+  }
+
+  /**
+   * Compute the canonical hash of a component. The hash does not depend on the iteration order
+   * of constraints.
+   */
+  private String computeKey(Set<IntegerTypeConstraint> pComponent) {
+    List<String> constraints = new ArrayList<>(pComponent.size());
+    for (IntegerTypeConstraint constraint : pComponent) {
+      constraints.add(constraint.getPredicate().name() + SEPARATOR + constraint.getName1() +
+          SEPARATOR + constraint.getName2() + SEPARATOR + constraint.getSoftness());
+    }
+    Collections.sort(constraints);
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(machineModel.name(), StandardCharsets.UTF_8);
+    hasher.putInt(coverWeight);
+    hasher.putInt(equalWeight);
+    for (String constraint : constraints) {
+      hasher.putString(constraint, StandardCharsets.UTF_8);
+      hasher.putChar('\n');
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * The semantics of the predicate `P` in {@link TypeConstraintWriter}.
+   */
+  private boolean covers(CSimpleType pHoldingType, CSimpleType pInnerType) {
+    return isSameType(pHoldingType, pInnerType) || Types.canHoldAllValues(pHoldingType,
+        pInnerType, machineModel);
+  }
+
+  private static boolean isSameType(CSimpleType pType1, CSimpleType pType2) {
+    String typeStr1 = IntegerTypeConstraint.toTypeString(pType1);
+    return typeStr1 != null && typeStr1.equals(IntegerTypeConstraint.toTypeString(pType2));
+  }
+
+  @Nullable
+  private static CSimpleType valueOf(String pName, Map<String, CSimpleType> pValuation) {
+    if (isVariable(pName)) {
+      return pValuation.get(pName);
+    }
+    return IntegerTypeConstraint.fromTypeString(pName);
+  }
+
+  private static boolean isVariable(String pName) {
+    // type constants start with '!'
+    return !pName.startsWith("!");
+  }
+
+  @Nullable
+  private static Solution parseSolution(Iterator<String> pFields) {
+    if (!pFields.hasNext()) {
+      return null;
+    }
+    long objective;
+    try {
+      objective = Long.parseLong(pFields.next());
+    } catch (NumberFormatException ex) {
+      return null;
+    }
+    Map<String, CSimpleType> valuation = new HashMap<>();
+    while (pFields.hasNext()) {
+      String field = pFields.next();
+      int index = field.lastIndexOf('=');
+      if (index <= 0) {
+        return null;
+      }
+      CSimpleType type = IntegerTypeConstraint.fromTypeString(field.substring(index + 1));
+      if (type == null) {
+        return null;
+      }
+      valuation.put(field.substring(0, index), type);
+    }
+    return new Solution(objective, valuation);
+  }
+
+  /**
+   * The optimal solution of a type constraint component.
+   */
+  public static final class Solution {
+
+    private final long objective;
+    private final Map<String, CSimpleType> valuation;
+
+    private Solution(long pObjective, Map<String, CSimpleType> pValuation) {
+      objective = pObjective;
+      valuation = Collections.unmodifiableMap(pValuation);
+    }
+
+    public long getObjective() {
+      return objective;
+    }
+
+    public Map<String, CSimpleType> getValuation() {
+      return valuation;
+    }
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.bugfix.instance.integer;
+
+import com.google.common.collect.Sets;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Split type constraints into connected components. Two constraints are connected if they share a
+ * type variable. Type constants (such as `!INT!`) do not connect constraints, since their values
+ * are fixed. Components are independent MAX-SMT instances: the optimal model of the whole
+ * constraint system is the union of optimal models of components, and the objective is the sum of
+ * objectives of components.
+ */
+public final class TypeConstraintComponents {
+
+  private TypeConstraintComponents() {
+  }
+
+  /**
+   * Partition the given constraints into connected components.
+   *
+   * @return components sorted by the number of constraints in descending order
+   */
+  public static List<Set<IntegerTypeConstraint>> partition(
+      Collection<IntegerTypeConstraint> pConstraints) {
+    // STEP 1: union-find over type variables
+    Map<String, String> parent = new HashMap<>();
+    for (IntegerTypeConstraint constraint : pConstraints) {
+      String var1 = constraint.getName1();
+      String var2 = constraint.getName2();
+      String root1 = isVariable(var1) ? find(parent, var1) : null;
+      String root2 = isVariable(var2) ? find(parent, var2) : null;
+      if (root1 != null && root2 != null && !root1.equals(root2)) {
+        parent.put(root2, root1);
+      }
+    }
+    // STEP 2: group constraints by the representative of their variables
+    Map<String, Set<IntegerTypeConstraint>> groups = new LinkedHashMap<>();
+    List<Set<IntegerTypeConstraint>> components = new ArrayList<>();
+    for (IntegerTypeConstraint constraint : pConstraints) {
+      String var;
+      if (isVariable(constraint.getName1())) {
+        var = constraint.getName1();
+      } else if (isVariable(constraint.getName2())) {
+        var = constraint.getName2();
+      } else {
+        // a constraint on two constants forms a component by itself
+        components.add(Collections.singleton(constraint));
+        continue;
+      }
+      String root = find(parent, var);
+      Set<IntegerTypeConstraint> group = groups.get(root);
+      if (group == null) {
+        group = Sets.newLinkedHashSet();
+        groups.put(root, group);
+      }
+      group.add(constraint);
+    }
+    components.addAll(groups.values());
+    Collections.sort(components, new Comparator<Set<IntegerTypeConstraint>>() {
+      @Override
+      public int compare(Set<IntegerTypeConstraint> s1, Set<IntegerTypeConstraint> s2) {
+        return Integer.compare(s2.size(), s1.size());
+      }
+    });
+    return components;
+  }
+
+  /**
+   * Pack components into batches, each of which contains at least the specified number of
+   * constraints (except the last one). Small components are packed together in order to amortize
+   * the cost of launching solver processes.
+   */
+  public static List<Set<IntegerTypeConstraint>> batch(
+      List<Set<IntegerTypeConstraint>> pComponents, int pMinBatchSize) {
+    List<Set<IntegerTypeConstraint>> batches = new ArrayList<>();
+    Set<IntegerTypeConstraint> current = null;
+    for (Set<IntegerTypeConstraint> component : pComponents) {
+      if (component.size() >= pMinBatchSize) {
+        batches.add(component);
+        continue;
+      }
+      if (current == null) {
+        current = Sets.newLinkedHashSet();
+      }
+      current.addAll(component);
+      if (current.size() >= pMinBatchSize) {
+        batches.add(current);
+        current = null;
+      }
+    }
+    if (current != null) {
+      batches.add(current);
+    }
+    return batches;
+  }
+
+  private static boolean isVariable(String pName) {
+    // type constants start with '!'
+    return !pName.startsWith("!");
+  }
+
+  private static String find(Map<String, String> pParent, String pVar) {
+    String root = pVar;
+    String next;
+    while ((next = pParent.get(root)) != null) {
+      root = next;
+    }
+    // path compression
+    String current = pVar;
+    while (!current.equals(root)) {
+      next = pParent.get(current);
+      pParent.put(current, root);
+      current = next;
+    }
+    return root;
+  }
+
+}
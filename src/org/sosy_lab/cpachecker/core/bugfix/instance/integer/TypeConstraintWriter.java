@@ -26,12 +26,15 @@ import org.sosy_lab.cpachecker.util.Types;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 /**
  * Output type constraint as SMTLIB2 format.
  */
@@ -46,21 +49,19 @@ public final class TypeConstraintWriter {
   private final MachineModel machineModel;
 
   TypeConstraintWriter(
-      String pFileName, Set<IntegerTypeConstraint> pConstraints, int
+      @Nullable String pFileName, Set<IntegerTypeConstraint> pConstraints, int
       pCoverWeight, int pEqualWeight, MachineModel pModel) {
     fileName = pFileName;
     constraints = pConstraints;
     coverWeight = pCoverWeight;
     equalWeight = pEqualWeight;
 
-    // generate type relations on-the-fly according to the specified machine model
-    if (typeRelation == null) {
-      generateTypeRelation(pModel);
-    }
+    // type relations are generated on-the-fly according to the specified machine model when
+    // the prelude is written
     machineModel = pModel;
   }
 
-  private void generateTypeRelation(MachineModel pMachineModel) {
+  private static void generateTypeRelation(MachineModel pMachineModel) {
     String pTemplate = "(define-fun P ((x!1 I) (x!2 I)) Bool %s)";
     String qTemplate = "(define-fun Q ((x!1 I) (x!2 I)) Bool %s)";
     String relationTemplate = "(ite (and (= x!1 %s) (= x!2 %s)) true %s)";
@@ -181,6 +182,72 @@ public final class TypeConstraintWriter {
   private List<String> restrictions = new ArrayList<>();
 
   public void output() {
+    // output constraint text into the specified file
+    try (BufferedWriter bout = new BufferedWriter(new FileWriter(fileName))) {
+      write(bout, true);
+    } catch (IOException e) {
+      // error in handling IO operation
+      System.err.println("invalid I/O operation in 7generating MAXSMT");
+    }
+  }
+
+  /**
+   * Write the type constraints to the given writer.
+   *
+   * @param standalone whether the output is a self-contained SMTLIB2 script. If not, the
+   *                   prelude (see {@link #writePrelude}) and the solver commands are omitted,
+   *                   which is used for a solver process that handles multiple instances.
+   */
+  void write(Writer bout, boolean standalone) throws IOException {
+    prepare();
+    if (standalone) {
+      writePrelude(bout, machineModel);
+    }
+    for (String declaration : declarations) {
+      bout.write(declaration);
+      bout.write('\n');
+    }
+    bout.flush();
+    for (String assertion : assertions) {
+      bout.write(assertion);
+      bout.write('\n');
+    }
+    bout.flush();
+    for (String restriction : restrictions) {
+      bout.write(restriction);
+      bout.write('\n');
+    }
+    if (standalone) {
+      bout.write(checkSat);
+      bout.write('\n');
+      bout.write(getModel);
+      bout.write('\n');
+      bout.write(exit);
+    }
+    bout.flush();
+  }
+
+  /**
+   * Write the declaration of integer types and type relations, which are shared by all
+   * instances.
+   */
+  static void writePrelude(Writer bout, MachineModel pModel) throws IOException {
+    synchronized (TypeConstraintWriter.class) {
+      if (typeRelation == null) {
+        generateTypeRelation(pModel);
+      }
+    }
+    bout.write(dataType);
+    bout.write('\n');
+    bout.write(typeRelation);
+    bout.write('\n');
+  }
+
+  private void prepare() {
+    if (!assertions.isEmpty() || !declarations.isEmpty()) {
+      // the constraints have been prepared
+      return;
+    }
     for (IntegerTypeConstraint assertion : constraints) {
       IntegerTypePredicate predicate = assertion.getPredicate();
       String relationStr;
@@ -222,41 +289,6 @@ public final class TypeConstraintWriter {
       declarations.add(String.format(declareTemplate, var));
       restrictions.add(String.format(assertHard, String.format(notOverlong, var)));
     }
-
-    // output constraint text into the specified file
-    try {
-      BufferedWriter bout = new BufferedWriter(new FileWriter(fileName));
-      bout.write(dataType);
-      bout.newLine();
-      bout.write(typeRelation);
-      bout.newLine();
-      for (String declaration : declarations) {
-        bout.write(declaration);
-        bout.newLine();
-      }
-      bout.flush();
-      for (String assertion : assertions) {
-        bout.write(assertion);
-        bout.newLine();
-      }
-      bout.flush();
-      for (String restriction : restrictions) {
-        bout.write(restriction);
-        bout.newLine();
-      }
-      bout.flush();
-      bout.write(checkSat);
-      bout.newLine();
-      bout.write(getModel);
-      bout.newLine();
-      bout.write(exit);
-      bout.flush();
-      bout.close();
-    } catch (IOException e) {
-      // error in handling IO operation
-      System.err.println("invalid I/O operation in 7generating MAXSMT");
-    }
-
   }
 
   private String preProcess(final String name) {
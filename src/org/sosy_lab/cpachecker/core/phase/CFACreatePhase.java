@@ -14,6 +14,7 @@
  */
 package org.sosy_lab.cpachecker.core.phase;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Splitter;
 import com.google.common.base.Stopwatch;
 
@@ -29,6 +30,7 @@ import org.sosy_lab.cpachecker.core.MainStatistics;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.phase.result.CPAPhaseStatus;
+import org.sosy_lab.cpachecker.util.callgraph.CallGraph;
 import org.sosy_lab.cpachecker.util.globalinfo.BasicIOManager;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 
@@ -81,19 +83,24 @@ public class CFACreatePhase extends CPAPhase implements StatisticsProvider {
     Stopwatch watch = Stopwatch.createStarted();
     System.out.println("Parsing files and creating CFA...");
 
-    CFA cfa = parse(programDenotation, stats);
-    GlobalInfo.getInstance().storeCFA(cfa);
+    // in configuration of {@link CFACreationPhase}, it is necessary to specify parameters for
+    // CFA creator
+    CFACreator creator = new CFACreator(config, logger, shutdownNotifier);
+    CFA cfa = parse(creator, programDenotation, stats);
+    Optional<CallGraph> callGraph = creator.getCallGraph();
+    if (callGraph.isPresent()) {
+      GlobalInfo.getInstance().storeCFA(cfa, callGraph.get());
+    } else {
+      GlobalInfo.getInstance().storeCFA(cfa);
+    }
 
     System.out.println(
         String.format("PARSE: %.3f", watch.elapsed(TimeUnit.MILLISECONDS) / 1000.0));
     return CPAPhaseStatus.SUCCESS;
   }
 
-  private CFA parse(String pProgramFiles, MainStatistics pStats)
+  private CFA parse(CFACreator creator, String pProgramFiles, MainStatistics pStats)
       throws Exception {
-    // in configuration of {@link CFACreationPhase}, it is necessary to specify parameters for
-    // CFA creator
-    CFACreator creator = new CFACreator(config, logger, shutdownNotifier);
     pStats.setCFACreator(creator);
     Splitter commaSplitter = Splitter.on(',').omitEmptyStrings().trimResults();
     CFA cfa = creator.parseFileAndCreateCFA(commaSplitter.splitToList(pProgramFiles));
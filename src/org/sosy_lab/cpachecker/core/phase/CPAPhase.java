@@ -22,6 +22,7 @@ import org.sosy_lab.cpachecker.core.MainStatistics;
 import org.sosy_lab.cpachecker.core.phase.result.CPAPhaseEmptyResult;
 import org.sosy_lab.cpachecker.core.phase.result.CPAPhaseResult;
 import org.sosy_lab.cpachecker.core.phase.result.CPAPhaseStatus;
+import org.sosy_lab.cpachecker.util.globalinfo.AnalysisContext;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -48,11 +49,16 @@ public abstract class CPAPhase {
   protected final ShutdownManager shutdownManager;
   protected final ShutdownNotifier shutdownNotifier;
   protected final MainStatistics stats;
+  /**
+   * The analysis context in which this phase is created. The phase always runs in this context
+   * even if it is executed by another thread.
+   */
+  protected final AnalysisContext context;
 
   /**
    * A flag that indicates whether current CPAPhase is processed
    */
-  private boolean isProcessed;
+  private volatile boolean isProcessed;
 
   public CPAPhase(
       String pID, Configuration pConfig, LogManager pLogger, ShutdownManager
@@ -70,6 +76,7 @@ public abstract class CPAPhase {
     shutdownManager = pShutdownManager;
     shutdownNotifier = pShutdownNotifier;
     stats = pStats;
+    context = AnalysisContext.current();
   }
 
   public List<CPAPhase> getAncestors() {
@@ -145,7 +152,12 @@ public abstract class CPAPhase {
       }
     }
     CPAPhaseStatus fr;
-    fr = CPAPhaseStatus.mergeResult3(prevAction(), runPhase(), postAction());
+    AnalysisContext previous = AnalysisContext.bind(context);
+    try {
+      fr = CPAPhaseStatus.mergeResult3(prevAction(), runPhase(), postAction());
+    } finally {
+      AnalysisContext.bind(previous);
+    }
     this.isProcessed = true;
 
     return fr;
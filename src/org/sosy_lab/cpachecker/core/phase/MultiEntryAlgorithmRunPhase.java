@@ -23,17 +23,21 @@ import com.google.common.io.Closer;
 
 import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.FileOption.Type;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
 import org.sosy_lab.common.io.Files;
 import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult;
@@ -51,6 +55,7 @@ import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisMultiI
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Property;
 import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
+import org.sosy_lab.cpachecker.core.phase.entry.EntryCostModel;
 import org.sosy_lab.cpachecker.core.phase.entry.StaticEntryFactory;
 import org.sosy_lab.cpachecker.core.phase.entry.StaticEntryStrategy;
 import org.sosy_lab.cpachecker.core.phase.result.AlgorithmPhaseResult;
@@ -61,20 +66,37 @@ import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.summary.manage.SummaryProvider;
 import org.sosy_lab.cpachecker.cpa.arg.ARGPathCounter;
 import org.sosy_lab.cpachecker.cpa.boundary.BoundaryCPA;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.CPAs;
+import org.sosy_lab.cpachecker.util.globalinfo.AnalysisContext;
 import org.sosy_lab.cpachecker.util.globalinfo.BasicIOManager;
 import org.sosy_lab.cpachecker.util.globalinfo.CFAInfo;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
+import org.sosy_lab.cpachecker.util.resources.HeapUsageLimit;
+import org.sosy_lab.cpachecker.util.resources.ResourceLimit;
+import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
+import org.sosy_lab.cpachecker.util.resources.ThreadCpuTimeLimit;
+import org.sosy_lab.cpachecker.util.resources.WalltimeLimit;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+import javax.management.JMException;
+
 /**
  * A phase for multi-entry analysis.
  */
@@ -96,6 +118,64 @@ public class MultiEntryAlgorithmRunPhase extends CPAPhase {
   @FileOption(Type.REQUIRED_INPUT_FILE)
   private Path mainAnalyisisConfigFile = Paths.get("config/valueAnalysis-symbolic.properties");
 
+  @Option(secure = true, name = "threads", description = "the number of entries analyzed "
+      + "concurrently, 0 for the number of available processors")
+  @IntegerOption(min = 0)
+  private int numThreads = 1;
+
+  public enum EntryOrder {
+    // the order derived by the entry strategy
+    STRATEGY,
+    // the most expensive entry first, according to the estimated cost
+    LONGEST_FIRST
+  }
+
+  @Option(secure = true, name = "order", description = "the order of analyzing entries, "
+      + "LONGEST_FIRST analyzes the entry with the highest estimated cost first")
+  private EntryOrder entryOrder = EntryOrder.STRATEGY;
+
+  // the history is read and written, it is resolved like an input file to be independent of the
+  // output directory
+  @Option(secure = true, name = "costHistory", description = "file for recording the analysis "
+      + "time of each entry, which is used for estimating the cost of entries in later runs (no "
+      + "recording if not specified). A relative path is resolved against rootDirectory instead "
+      + "of output.path, thus the history is shared by runs with different output directories, "
+      + "such as the tasks of TsmartAnalyze --jobs.")
+  @FileOption(Type.OPTIONAL_INPUT_FILE)
+  private Path costHistoryFile = null;
+
+  @Option(secure = true, name = "budget.walltime", description = "the wall time for analyzing "
+      + "one entry, an entry exceeding its budget is stopped and reported as UNKNOWN (use seconds "
+      + "or specify a unit; 0 for infinite)")
+  @TimeSpanOption(codeUnit = TimeUnit.NANOSECONDS, defaultUserUnit = TimeUnit.SECONDS, min = 0)
+  private TimeSpan entryWalltime = TimeSpan.ofNanos(0);
+
+  @Option(secure = true, name = "budget.cpuTime", description = "the CPU time of the analyzing "
+      + "thread for analyzing one entry, an entry exceeding its budget is stopped and reported as "
+      + "UNKNOWN (use seconds or specify a unit; 0 for infinite)")
+  @TimeSpanOption(codeUnit = TimeUnit.NANOSECONDS, defaultUserUnit = TimeUnit.SECONDS, min = 0)
+  private TimeSpan entryCpuTime = TimeSpan.ofNanos(0);
+
+  @Option(secure = true, name = "budget.heap", description = "the heap usage in megabytes after "
+      + "garbage collection up to which entries are analyzed, the entries being analyzed when the "
+      + "heap usage exceeds it are stopped and reported as UNKNOWN (0 for infinite). The heap is "
+      + "shared by all entries, thus this budget is process-wide rather than per entry")
+  @IntegerOption(min = 0)
+  private int entryHeapLimit = 0;
+
+  /**
+   * The cost model for ordering entries and predicting the remaining time, which is null if
+   * neither cost-based ordering nor cost history is required.
+   */
+  @Nullable
+  private EntryCostModel costModel = null;
+
+  /**
+   * Analysis workers for concurrent multi-entry analysis. Each worker has its own reached set,
+   * CPA and algorithm instance. This list is empty if entries are analyzed sequentially.
+   */
+  private final List<EntryWorker> workers = new ArrayList<>();
+
   public MultiEntryAlgorithmRunPhase(
       String pIdentifier,
       Configuration pConfig,
@@ -158,18 +238,101 @@ public class MultiEntryAlgorithmRunPhase extends CPAPhase {
       reached.pushEntries(entries);
     }
 
+    if (entryOrder == EntryOrder.LONGEST_FIRST || costHistoryFile != null) {
+      costModel = new EntryCostModel(cfa, cfaInfo.getCallGraph(),
+          entryFactory.guessCallDepthLimit());
+      if (costHistoryFile != null) {
+        try {
+          int loaded = costModel.loadHistory(costHistoryFile);
+          logger.log(Level.FINE, "Loaded the cost history of", loaded, "entries");
+        } catch (IOException e) {
+          logger.logUserException(Level.WARNING, e, "Could not read the cost history of entries");
+        }
+      }
+      if (entryOrder == EntryOrder.LONGEST_FIRST) {
+        reached.orderEntries(costModel.longestFirst());
+      }
+    }
+
+    if (!entryCpuTime.isEmpty()) {
+      try {
+        ThreadCpuTimeLimit.fromNowOn(entryCpuTime, Thread.currentThread());
+      } catch (JMException e) {
+        logger.logDebugException(e, "Querying thread cpu time failed");
+        logger.log(Level.WARNING, "Your Java VM does not support measuring the cpu time of "
+            + "threads, cpu time budget of entries disabled.");
+        entryCpuTime = TimeSpan.ofNanos(0);
+      }
+    }
+
     SummaryProvider.initialize(subConfig);
 
+    int threads = numThreads == 0 ? Runtime.getRuntime().availableProcessors() : numThreads;
+    if (threads > 1) {
+      // The first worker reuses the CPA and algorithm created above. The reached set of this
+      // phase serves as the shared pool of entries, thus each worker requires its own one.
+      workers.add(new EntryWorker(0, (HierarchicalReachedSet) factory.createReachedSet(), subCpa,
+          algorithm, stats, context.createWorkerContext()));
+      Configuration workerStatsConfig = Configuration.builder().copyFrom(subConfig)
+          .setOption("statistics.memory", "false").build();
+      for (int i = 1; i < threads; i++) {
+        ReachedSet workerReached = factory.createReachedSet();
+        HierarchicalCPAStatistics workerStats = new HierarchicalCPAStatistics(workerStatsConfig,
+            subLogger);
+        workerStats.transferCFAStatistics(stats);
+        ConfigurableProgramAnalysis workerCpa = factory.createCPA(cfa, workerStats,
+            SpecAutomatonCompositionType.TARGET_SPEC);
+        Algorithm workerAlgorithm = factory.createAlgorithm(workerCpa, programDenotation, cfa,
+            workerStats);
+        workers.add(new EntryWorker(i, (HierarchicalReachedSet) workerReached, workerCpa,
+            workerAlgorithm, workerStats, context.createWorkerContext()));
+      }
+    }
+
     return CPAPhaseStatus.SUCCESS;
   }
 
   @Override
   protected CPAPhaseStatus postAction() throws Exception {
+    if (costModel != null && costHistoryFile != null) {
+      try {
+        costModel.saveHistory(costHistoryFile);
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write the cost history of entries");
+      }
+    }
     return CPAPhaseStatus.SUCCESS;
   }
 
+  /**
+   * Record the analysis time of an entry.
+   */
+  private void recordCost(CFANode pEntry, Stopwatch pWatch) {
+    if (costModel != null) {
+      costModel.record(pEntry, pWatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+  }
+
+  /**
+   * Describe the predicted remaining time of the given entries analyzed by the given number of
+   * workers, or an empty string if the time cannot be predicted.
+   */
+  private String describeRemainingTime(Collection<CFANode> pEntries, int pWorkers) {
+    if (costModel == null) {
+      return "";
+    }
+    long remaining = costModel.predictMillis(pEntries);
+    if (remaining < 0) {
+      return "";
+    }
+    return String.format(", %.1f seconds remaining", remaining / 1000.0 / pWorkers);
+  }
+
   @Override
   protected CPAPhaseStatus runPhase() throws Exception {
+    if (!workers.isEmpty()) {
+      return runPhaseInParallel();
+    }
     AlgorithmStatus runStat = AlgorithmStatus.SOUND_AND_PRECISE;
 
     BasicIOManager ioManager = GlobalInfo.getInstance().getIoManager();
@@ -177,7 +340,6 @@ public class MultiEntryAlgorithmRunPhase extends CPAPhase {
     stats.startAnalysisTimer();
     try {
       while (reached.hasWaitingEntry()) {
-        AlgorithmStatus subRunStat = AlgorithmStatus.SOUND_AND_PRECISE;
         Stopwatch watch = Stopwatch.createStarted();
         CFANode entry = reached.peekEntry();
         // we change the output directory for current analysis entry
@@ -195,19 +357,13 @@ public class MultiEntryAlgorithmRunPhase extends CPAPhase {
         boolean popResult = popEntryAndInitReachedSet();
         assert popResult;
 
-        do {
-          subRunStat = subRunStat.update(algorithm.run(reached));
-        } while (!stopAfterError && reached.hasWaitingState());
-        // If the "stop-after-error" flag is set and an error is encountered. In this case, we
-        // clear the waitlist first.
-        if (reached.hasWaitingState()) {
-          reached.dropWaitingStates();
-        }
+        AlgorithmStatus subRunStat = runEntry(entry, (BoundedAlgorithm) algorithm, reached);
 
         watch.stop();
+        recordCost(entry, watch);
 
-        System.out.println(String.format(", used %.3f seconds", watch.elapsed(TimeUnit
-            .MILLISECONDS) / 1000.0));
+        System.out.println(String.format(", used %.3f seconds%s", watch.elapsed(TimeUnit
+            .MILLISECONDS) / 1000.0, describeRemainingTime(reached.getWaitingEntries(), 1)));
 
         // UPDATE: here we collect the statistics for this entry once the analysis finishes.
         // Thus, it is unnecessary to keep the history reached set any more, which improves the
@@ -241,6 +397,73 @@ public class MultiEntryAlgorithmRunPhase extends CPAPhase {
     return CPAPhaseStatus.SUCCESS;
   }
 
+  /**
+   * Analyze from the given entry, whose initial states have been put into the reached set, within
+   * the budget of one entry. If the budget is exceeded, the analysis of this entry stops and the
+   * returned status is unsound, thus the entry is reported as UNKNOWN while the errors found so far
+   * are kept.
+   */
+  private AlgorithmStatus runEntry(
+      CFANode pEntry, BoundedAlgorithm pAlgorithm,
+      HierarchicalReachedSet pReached) throws CPAException, InterruptedException {
+    AlgorithmStatus status = AlgorithmStatus.SOUND_AND_PRECISE;
+    ShutdownManager entryShutdownManager = null;
+    ResourceLimitChecker limitChecker = null;
+    List<ResourceLimit> limits = createEntryLimits();
+    if (!limits.isEmpty()) {
+      entryShutdownManager = ShutdownManager.createWithParent(subShutdownManager.getNotifier());
+      limitChecker = new ResourceLimitChecker(entryShutdownManager, limits);
+      pAlgorithm.setEntryShutdownNotifier(entryShutdownManager.getNotifier());
+      limitChecker.start();
+    }
+    try {
+      do {
+        status = status.update(pAlgorithm.run(pReached));
+      } while (!stopAfterError && pReached.hasWaitingState());
+    } catch (InterruptedException e) {
+      // a global shutdown request is propagated, while an exceeded budget only stops this entry
+      if (entryShutdownManager == null || subShutdownManager.getNotifier().shouldShutdown()
+          || !entryShutdownManager.getNotifier().shouldShutdown()) {
+        throw e;
+      }
+      logger.log(Level.WARNING, "Analysis of entry", pEntry.getFunctionName(), "stopped:",
+          entryShutdownManager.getNotifier().getReason());
+      status = status.withSound(false);
+    } finally {
+      if (limitChecker != null) {
+        limitChecker.cancel();
+        pAlgorithm.setEntryShutdownNotifier(null);
+      }
+    }
+    // If the "stop-after-error" flag is set and an error is encountered, or the budget is
+    // exceeded. In this case, we clear the waitlist first.
+    if (pReached.hasWaitingState()) {
+      pReached.dropWaitingStates();
+    }
+    return status;
+  }
+
+  /**
+   * Create the resource limits for analyzing one entry in the current thread.
+   */
+  private List<ResourceLimit> createEntryLimits() {
+    List<ResourceLimit> limits = new ArrayList<>(3);
+    if (!entryWalltime.isEmpty()) {
+      limits.add(WalltimeLimit.fromNowOn(entryWalltime));
+    }
+    if (!entryCpuTime.isEmpty()) {
+      try {
+        limits.add(ThreadCpuTimeLimit.fromNowOn(entryCpuTime, Thread.currentThread()));
+      } catch (JMException e) {
+        logger.logDebugException(e, "Querying thread cpu time failed");
+      }
+    }
+    if (entryHeapLimit > 0) {
+      limits.add(HeapUsageLimit.ofMegabytes(entryHeapLimit));
+    }
+    return limits;
+  }
+
   /**
    * Reinitialize hierarchical reached set by extracting a new CFA node for the next analysis entry.
    *
@@ -252,21 +475,29 @@ public class MultiEntryAlgorithmRunPhase extends CPAPhase {
     }
 
     CFANode entry = reached.popEntry();
+    Preconditions.checkState(entry != null);
+    initReachedSet(entry, reached, subCpa);
+    return true;
+  }
+
+  /**
+   * Reinitialize the given reached set with the initial states of the specified entry.
+   */
+  private void initReachedSet(
+      CFANode entry, HierarchicalReachedSet pReached,
+      ConfigurableProgramAnalysis pCpa) {
     // reset the path counter for each new entry
     ARGPathCounter.reset();
 
-    Preconditions.checkState(entry != null);
-
     Collection<AbstractState> initialStates = getInitialStates(
-        subCpa,
+        pCpa,
         entry,
         StateSpacePartition.getDefaultPartition()
     );
 
     Precision initialPrecision =
-        subCpa.getInitialPrecision(entry, StateSpacePartition.getDefaultPartition());
-    reached.reInitialize(initialStates, initialPrecision);
-    return true;
+        pCpa.getInitialPrecision(entry, StateSpacePartition.getDefaultPartition());
+    pReached.reInitialize(initialStates, initialPrecision);
   }
 
   /**
@@ -287,6 +518,12 @@ public class MultiEntryAlgorithmRunPhase extends CPAPhase {
    * Compute the CPA checker result for the analysis starting from the chosen entry.
    */
   private CPAcheckerResult summarizeSubResult(AlgorithmStatus pStatus, ReachedSet pReached) {
+    return summarizeSubResult(pStatus, pReached, stats);
+  }
+
+  private CPAcheckerResult summarizeSubResult(
+      AlgorithmStatus pStatus, ReachedSet pReached,
+      MainStatistics pStats) {
     String violatedPropertyDescription = "";
     Result result;
     Set<Property> violated = AnalyzingResultPhase.findViolatedProperties(pReached);
@@ -304,12 +541,18 @@ public class MultiEntryAlgorithmRunPhase extends CPAPhase {
         result = Result.TRUE;
       }
     }
-    return new CPAcheckerResult(result, violatedPropertyDescription, pReached, stats);
+    return new CPAcheckerResult(result, violatedPropertyDescription, pReached, pStats);
   }
 
   private void printStatistics(CPAcheckerResult pResult) throws IOException,
                                                                 InvalidConfigurationException {
-    StatisticsOptions options = new StatisticsOptions(config);
+    printStatistics(pResult, config, stats);
+  }
+
+  private void printStatistics(
+      CPAcheckerResult pResult, Configuration pConfig,
+      MainStatistics pStats) throws IOException, InvalidConfigurationException {
+    StatisticsOptions options = new StatisticsOptions(pConfig);
     PrintStream console = options.getPrintStatistics() ? System.out : null;
     OutputStream file = null;
     Closer closer = Closer.create();
@@ -324,7 +567,7 @@ public class MultiEntryAlgorithmRunPhase extends CPAPhase {
     }
     PrintStream stream = BasicAnalysisPhase.makePrintStream(mergeStreams(console, file));
     try {
-      ((HierarchicalCPAStatistics) stats).printEntryStatistics(stream, pResult, config);
+      ((HierarchicalCPAStatistics) pStats).printEntryStatistics(stream, pResult, pConfig);
       stream.println();
       stream.flush();
       options.outputErrorReport();
@@ -335,4 +578,211 @@ public class MultiEntryAlgorithmRunPhase extends CPAPhase {
     }
   }
 
+
+  /* ******************************* */
+  /* concurrent multi-entry analysis */
+  /* ******************************* */
+
+  /**
+   * Analyze entries concurrently. Workers take entries from the shared hierarchical reached set
+   * until no entry remains and no worker could derive a new one. Per-entry results and error
+   * reports are merged after all workers finish.
+   */
+  private CPAPhaseStatus runPhaseInParallel() throws Exception {
+    BasicIOManager ioManager = GlobalInfo.getInstance().getIoManager();
+    final String originalDir = BasicIOManager.getCurrentOutputPath(config);
+    final boolean secureMode = ioManager.getSecureMode();
+    final EntryPool pool = new EntryPool(reached);
+    AlgorithmStatus runStat = AlgorithmStatus.SOUND_AND_PRECISE;
+
+    stats.startAnalysisTimer();
+    ExecutorService executor = Executors.newFixedThreadPool(workers.size(),
+        Threads.threadFactoryBuilder().setNameFormat("entry-worker-%d").setDaemon(true).build());
+    try {
+      List<Future<AlgorithmStatus>> futures = new ArrayList<>(workers.size());
+      for (final EntryWorker worker : workers) {
+        futures.add(executor.submit(new Callable<AlgorithmStatus>() {
+          @Override
+          public AlgorithmStatus call() throws Exception {
+            try {
+              return worker.run(pool, originalDir, secureMode);
+            } catch (Exception e) {
+              // stop other workers as early as possible
+              pool.abort();
+              throw e;
+            }
+          }
+        }));
+      }
+      Exception failure = null;
+      for (Future<AlgorithmStatus> future : futures) {
+        try {
+          runStat = runStat.update(future.get());
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (failure == null) {
+            failure = cause instanceof Exception ? (Exception) cause : new Exception(cause);
+          }
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    } finally {
+      executor.shutdownNow();
+      subShutdownManager.requestShutdown("MultiEntryAlgorithmRunPhase terminated");
+      // merge error reports of workers in the order of worker index
+      for (EntryWorker worker : workers) {
+        GlobalInfo.getInstance().mergeBugCollector(worker.workerContext.getGlobalInfo());
+        worker.workerReached.summarize();
+      }
+      config = BasicIOManager.setupPaths(originalDir, config, secureMode);
+      reached.summarize();
+      currResult = new AlgorithmPhaseResult(runStat, null);
+    }
+    stats.stopAnalysisTimer();
+    return CPAPhaseStatus.SUCCESS;
+  }
+
+  /**
+   * The shared pool of analysis entries. New entries derived by workers are pushed back into the
+   * shared hierarchical reached set, which prevents an entry from being analyzed twice.
+   */
+  private static final class EntryPool {
+
+    private final HierarchicalReachedSet entries;
+    private int busyWorkers = 0;
+    private int finishedEntries = 0;
+    private boolean aborted = false;
+
+    private EntryPool(HierarchicalReachedSet pEntries) {
+      entries = pEntries;
+    }
+
+    /**
+     * Take the next entry for analysis. If no entry is available but some worker is still
+     * running, we wait because the running worker may derive new entries.
+     *
+     * @return the next entry, or {@code null} if the analysis finishes
+     */
+    @Nullable
+    synchronized CFANode take() throws InterruptedException {
+      while (!aborted && !entries.hasWaitingEntry() && busyWorkers > 0) {
+        wait();
+      }
+      if (aborted || !entries.hasWaitingEntry()) {
+        notifyAll();
+        return null;
+      }
+      busyWorkers++;
+      return entries.popEntry();
+    }
+
+    /**
+     * Mark the current entry of a worker as finished, and push the entries derived from it.
+     *
+     * @return the number of finished entries
+     */
+    synchronized int finish(HierarchicalReachedSet pWorkerReached) {
+      CFANode newEntry;
+      while ((newEntry = pWorkerReached.popEntry()) != null) {
+        entries.pushEntry(newEntry);
+      }
+      busyWorkers--;
+      finishedEntries++;
+      notifyAll();
+      return finishedEntries;
+    }
+
+    synchronized Collection<CFANode> waitingEntries() {
+      return new ArrayList<>(entries.getWaitingEntries());
+    }
+
+    synchronized int totalEntries() {
+      return entries.sizeUsedEntry() + entries.sizeWaitEntry();
+    }
+
+    synchronized void abort() {
+      aborted = true;
+      notifyAll();
+    }
+  }
+
+  /**
+   * An analysis worker that owns its reached set, CPA and algorithm instance. The worker runs in
+   * its own analysis context, which holds the CPA information, the error reports and the I/O
+   * manager of the worker.
+   */
+  private final class EntryWorker {
+
+    private final int index;
+    private final HierarchicalReachedSet workerReached;
+    private final ConfigurableProgramAnalysis workerCpa;
+    private final Algorithm workerAlgorithm;
+    private final MainStatistics workerStats;
+    private final AnalysisContext workerContext;
+
+    private EntryWorker(
+        int pIndex, HierarchicalReachedSet pReached, ConfigurableProgramAnalysis pCpa,
+        Algorithm pAlgorithm, MainStatistics pStats, AnalysisContext pContext) {
+      index = pIndex;
+      workerReached = pReached;
+      workerCpa = pCpa;
+      workerAlgorithm = pAlgorithm;
+      workerStats = pStats;
+      workerContext = pContext;
+      workerContext.getGlobalInfo().setUpInfoFromCPA(workerCpa);
+    }
+
+    private AlgorithmStatus run(EntryPool pool, String originalDir, boolean secureMode)
+        throws Exception {
+      AlgorithmStatus runStat = AlgorithmStatus.SOUND_AND_PRECISE;
+      AnalysisContext previousContext = AnalysisContext.bind(workerContext);
+      GlobalInfo workerInfo = workerContext.getGlobalInfo();
+      try {
+        CFANode entry;
+        while ((entry = pool.take()) != null) {
+          int finished;
+          AlgorithmStatus subRunStat = AlgorithmStatus.SOUND_AND_PRECISE;
+          Stopwatch watch = Stopwatch.createStarted();
+          try {
+            String subOutputDir = BasicIOManager.concatPath(originalDir, entry.getFunctionName());
+            Configuration entryConfig = BasicIOManager.createPathConfiguration(subOutputDir,
+                config, secureMode);
+            workerInfo.setUpBasicInfo(subOutputDir, secureMode);
+            initReachedSet(entry, workerReached, workerCpa);
+            subRunStat = runEntry(entry, (BoundedAlgorithm) workerAlgorithm, workerReached);
+            watch.stop();
+
+            CPAcheckerResult subResult = summarizeSubResult(subRunStat, workerReached,
+                workerStats);
+            try {
+              printStatistics(subResult, entryConfig, workerStats);
+            } catch (IOException e) {
+              logger.logUserException(Level.WARNING, e, "Could not write statistics to file");
+            }
+            runStat = runStat.update(subRunStat);
+            ((BoundedAlgorithm) workerAlgorithm).resetStatus();
+            workerReached.clear();
+          } finally {
+            finished = pool.finish(workerReached);
+          }
+          recordCost(entry, watch);
+          System.out.println(String.format("> [%d/%d] entry: %s (%s), used %.3f seconds "
+                  + "(worker %d)%s",
+              finished,
+              pool.totalEntries(),
+              entry.getFunctionName(),
+              entry.describeFileLocation(),
+              watch.elapsed(TimeUnit.MILLISECONDS) / 1000.0,
+              index,
+              describeRemainingTime(pool.waitingEntries(), workers.size())));
+        }
+      } finally {
+        AnalysisContext.bind(previousContext);
+      }
+      return runStat;
+    }
+  }
+
 }
@@ -82,9 +82,9 @@ public class CheapCoverStrategy implements StaticEntryStrategy {
       while (!waitList.isEmpty()) {
         FunctionEntryNode nextEntry = waitList.poll().entry;
         entries.add(nextEntry);
-        Set<FunctionEntryNode> reachable = Sets.newHashSet();
         Set<FunctionEntryNode> almostReachable = Sets.newHashSet();
-        collectReachable(nextEntry, depth, reachable, almostReachable);
+        Set<FunctionEntryNode> reachable =
+            callGraph.getReachable(nextEntry, depth, almostReachable);
         for (FunctionEntryNode r : reachable) {
           remainEntrySet.remove(wrappers.get(r));
         }
@@ -102,37 +102,6 @@ public class CheapCoverStrategy implements StaticEntryStrategy {
     }
   }
 
-  /**
-   * Collect reachable functions with respect to the specified call depth.
-   * @param pEntry the starting function
-   * @param pDepth maximum call chain length
-   * @param pReachable reachable functions
-   * @param pAlmostReachable unreachable functions adjacent to the furthest reachable functions
-   */
-  private void collectReachable(FunctionEntryNode pEntry, int pDepth,
-                                Set<FunctionEntryNode> pReachable,
-                                Set<FunctionEntryNode> pAlmostReachable) {
-    if (!pReachable.contains(pEntry)) {
-      pReachable.add(pEntry);
-      if (pDepth > 1) {
-        for (FunctionEntryNode next : callGraph.getCallee(pEntry)) {
-          collectReachable(next, pDepth - 1, pReachable, pAlmostReachable);
-        }
-      } else if (pDepth <= 0) {
-        for (FunctionEntryNode next : callGraph.getCallee(pEntry)) {
-          collectReachable(next, pDepth, pReachable, pAlmostReachable);
-        }
-      } else {
-        // depth equals to 1
-        for (FunctionEntryNode next : callGraph.getCallee(pEntry)) {
-          if (!pReachable.contains(next)) {
-            pAlmostReachable.add(next);
-          }
-        }
-      }
-    }
-  }
-
   private class FunctionEntryWrapper implements Comparable<FunctionEntryWrapper> {
 
     private final FunctionEntryNode entry;
@@ -0,0 +1,262 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.phase.entry;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.CFASerialization;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.util.LoopStructure;
+import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
+import org.sosy_lab.cpachecker.util.callgraph.CallGraph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * Estimate the cost of analyzing from each entry, such that expensive entries can be analyzed
+ * first and the remaining time of multi-entry analysis can be predicted.
+ *
+ * The static cost of a function is the number of its CFA edges, scaled by the nesting depth of its
+ * loops. The static cost of an entry sums up the costs of functions reachable from the entry within
+ * the call depth of boundary analysis. Static costs are converted to time by the ratio of measured
+ * time to static cost of the entries analyzed before.
+ *
+ * The measured time of each entry can be stored in a history file, which is one entry per line:
+ * {@code <function> <milliseconds>} (separated by a tab). Entries with history are predicted by
+ * their measured time in previous runs.
+ */
+public final class EntryCostModel {
+
+  private static final char SEPARATOR = '\t';
+  private static final Splitter fieldSplitter = Splitter.on(SEPARATOR).omitEmptyStrings();
+
+  private final CFA cfa;
+  private final CallGraph callGraph;
+  private final int callDepth;
+
+  // function -> static cost of the function itself
+  private final Map<String, Long> functionCosts = new HashMap<>();
+  // entry -> static cost of the entry, fixed once computed
+  private final Map<CFANode, Long> entryCosts = new HashMap<>();
+  // entry -> predicted time, fixed once computed such that the order of entries is stable
+  private final Map<CFANode, Double> priorities = new HashMap<>();
+
+  // function -> measured time in previous runs
+  private final Map<String, Long> history = new HashMap<>();
+  // function -> measured time in the current run
+  private final Map<String, Long> measured = new TreeMap<>();
+
+  // sums over entries with both static costs and measured time, for calibration
+  private long calibrationCost = 0;
+  private long calibrationTime = 0;
+
+  public EntryCostModel(CFA pCFA, CallGraph pCallGraph, int pCallDepth) {
+    cfa = pCFA;
+    callGraph = pCallGraph;
+    callDepth = pCallDepth;
+    computeFunctionCosts();
+  }
+
+  private void computeFunctionCosts() {
+    Map<String, Long> edges = new HashMap<>();
+    for (CFANode node : cfa.getAllNodes()) {
+      Long count = edges.get(node.getFunctionName());
+      edges.put(node.getFunctionName(), (count == null ? 0 : count) + node.getNumLeavingEdges());
+    }
+    Optional<LoopStructure> loopStructure = cfa.getLoopStructure();
+    for (Entry<String, Long> entry : edges.entrySet()) {
+      int nesting = 0;
+      if (loopStructure.isPresent()) {
+        nesting = getMaxLoopNesting(loopStructure.get().getLoopsForFunction(entry.getKey()));
+      }
+      functionCosts.put(entry.getKey(), entry.getValue() * (1 + nesting));
+    }
+  }
+
+  private static int getMaxLoopNesting(Collection<Loop> pLoops) {
+    int max = 0;
+    for (Loop loop : pLoops) {
+      int depth = 1;
+      for (Loop other : pLoops) {
+        if (other != loop && other.isOuterLoopOf(loop)) {
+          depth++;
+        }
+      }
+      max = Math.max(max, depth);
+    }
+    return max;
+  }
+
+  /**
+   * Load the measured time of entries in previous runs. Malformed lines are ignored.
+   *
+   * @return the number of loaded entries
+   */
+  public synchronized int loadHistory(Path pHistoryFile) throws IOException {
+    history.clear();
+    if (!pHistoryFile.toFile().exists()) {
+      return 0;
+    }
+    try (BufferedReader br = pHistoryFile.asCharSource(StandardCharsets.UTF_8)
+        .openBufferedStream()) {
+      String line;
+      while ((line = br.readLine()) != null) {
+        Iterator<String> fields = fieldSplitter.split(line).iterator();
+        if (!fields.hasNext()) {
+          continue;
+        }
+        String function = fields.next();
+        if (!fields.hasNext()) {
+          continue;
+        }
+        try {
+          history.put(function, Long.parseLong(fields.next()));
+        } catch (NumberFormatException ex) {
+          // ignore this line
+        }
+      }
+    }
+    for (Entry<String, Long> entry : history.entrySet()) {
+      FunctionEntryNode function = cfa.getFunctionHead(entry.getKey());
+      if (function != null) {
+        calibrate(function, entry.getValue());
+      }
+    }
+    return history.size();
+  }
+
+  /**
+   * Write the measured time of entries to the history file. Entries not analyzed in the current
+   * run keep their previous time.
+   */
+  public synchronized void saveHistory(Path pHistoryFile) throws IOException {
+    Map<String, Long> merged = new TreeMap<>(history);
+    merged.putAll(measured);
+    StringBuilder content = new StringBuilder();
+    for (Entry<String, Long> entry : merged.entrySet()) {
+      content.append(entry.getKey()).append(SEPARATOR).append(entry.getValue()).append('\n');
+    }
+    // runs sharing the history file never read a partial file
+    CFASerialization.writeAtomically(pHistoryFile.toFile(), content);
+  }
+
+  /**
+   * Record the measured time of analyzing from the given entry.
+   */
+  public synchronized void record(CFANode pEntry, long pMillis) {
+    measured.put(pEntry.getFunctionName(), pMillis);
+    if (!history.containsKey(pEntry.getFunctionName())) {
+      // entries with history have been used for calibration
+      calibrate(pEntry, pMillis);
+    }
+  }
+
+  private void calibrate(CFANode pEntry, long pMillis) {
+    calibrationCost += getStaticCost(pEntry);
+    calibrationTime += pMillis;
+  }
+
+  /**
+   * Get the static cost of the given entry, which is only comparable to the costs of other
+   * entries.
+   */
+  public synchronized long getStaticCost(CFANode pEntry) {
+    Long cost = entryCosts.get(pEntry);
+    if (cost == null) {
+      cost = 0L;
+      FunctionEntryNode function = cfa.getFunctionHead(pEntry.getFunctionName());
+      if (function != null) {
+        for (FunctionEntryNode reachable : callGraph.getReachable(function, callDepth, null)) {
+          Long functionCost = functionCosts.get(reachable.getFunctionName());
+          cost += (functionCost == null) ? 0 : functionCost;
+        }
+      }
+      entryCosts.put(pEntry, cost);
+    }
+    return cost;
+  }
+
+  /**
+   * Predict the time of analyzing from the given entry in milliseconds, or -1 if the time is
+   * unknown since no entry has been measured yet.
+   */
+  public synchronized long predictMillis(CFANode pEntry) {
+    Long time = measured.get(pEntry.getFunctionName());
+    if (time == null) {
+      time = history.get(pEntry.getFunctionName());
+    }
+    if (time != null) {
+      return time;
+    }
+    if (calibrationCost == 0) {
+      return -1;
+    }
+    return (long) (getStaticCost(pEntry) * ((double) calibrationTime / calibrationCost));
+  }
+
+  /**
+   * Predict the time of analyzing from all the given entries in milliseconds, or -1 if unknown.
+   */
+  public synchronized long predictMillis(Collection<CFANode> pEntries) {
+    long total = 0;
+    for (CFANode entry : pEntries) {
+      long time = predictMillis(entry);
+      if (time < 0) {
+        return -1;
+      }
+      total += time;
+    }
+    return total;
+  }
+
+  private synchronized double getPriority(CFANode pEntry) {
+    Double priority = priorities.get(pEntry);
+    if (priority == null) {
+      long predicted = predictMillis(pEntry);
+      // without measurement, static costs are still comparable with each other
+      priority = (double) (predicted >= 0 ? predicted : getStaticCost(pEntry));
+      priorities.put(pEntry, priority);
+    }
+    return priority;
+  }
+
+  /**
+   * The order of entries that analyzes the most expensive entry first. The priority of an entry
+   * is fixed once it is compared, thus it is safe to use the order in sorted collections.
+   */
+  public Comparator<CFANode> longestFirst() {
+    return new Comparator<CFANode>() {
+      @Override
+      public int compare(CFANode pEntry1, CFANode pEntry2) {
+        int result = Double.compare(getPriority(pEntry2), getPriority(pEntry1));
+        return result != 0 ? result : pEntry1.compareTo(pEntry2);
+      }
+    };
+  }
+
+}
@@ -68,7 +68,10 @@ public final class StaticEntryFactory {
     }
   }
 
-  private int guessCallDepthLimit() {
+  /**
+   * Get the call depth limit of boundary analysis, or 0 if the call depth is unlimited.
+   */
+  public int guessCallDepthLimit() {
     final String key = "cpa.boundary.callDepth";
     int depth = 0;    // default to 0
     if (config.hasProperty(key)) {
@@ -19,6 +19,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
+import com.google.common.base.Throwables;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Multimap;
@@ -55,7 +56,9 @@ import org.eclipse.cdt.core.parser.ScannerInfo;
 import org.eclipse.cdt.internal.core.dom.parser.c.CASTKnRFunctionDeclarator;
 import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -93,6 +96,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
@@ -106,6 +114,12 @@ public class IntegerFixApplicationPhase extends CPAPhase {
   @Option(secure = true, description = "whether the program repair runs under benchmark mode")
   private boolean forBenchmark = false;
 
+  @Option(secure = true, name = "applyThreads", description = "the number of files fixed "
+      + "concurrently, 0 for the number of available processors (files are fixed one by one by "
+      + "default)")
+  @IntegerOption(min = 0)
+  private int applyThreads = 1;
+
   private static final String renamePrefix = "_";
   // [1] signedness of input value
   // [2] the sanitized type of input value
@@ -164,11 +178,8 @@ public class IntegerFixApplicationPhase extends CPAPhase {
     for (FileLocation loc : loc2Fix.keySet()) {
       file2Loc.put(loc.getFileName(), loc);
     }
-    // we visit each file containing generated fixes and then apply fixes sequentially
-    for (String fileName : file2Loc.keySet()) {
-      Collection<FileLocation> locations = file2Loc.get(fileName);
-      runFix(fileName, locations, loc2Fix);
-    }
+    // files are fixed independently, thus we visit them concurrently
+    fixFiles(file2Loc, loc2Fix, info);
     System.out.println("FIXES: " + fixCounter.getTotal());
     System.out.println("CAST: " + fixCounter.castFix);
     System.out.println("CHECK: " + fixCounter.checkFix);
@@ -184,19 +195,70 @@ public class IntegerFixApplicationPhase extends CPAPhase {
     return CPAPhaseStatus.SUCCESS;
   }
 
+  /**
+   * Apply fixes to all program files, on a pool of workers if several threads are configured, and
+   * merge the fix statistics of the files in the order of files.
+   */
+  private void fixFiles(
+      Multimap<String, FileLocation> file2Loc,
+      final Multimap<FileLocation, IntegerFix> loc2Fix,
+      final IntegerFixInfo info) throws Exception {
+    List<String> fileNames = new ArrayList<>(file2Loc.keySet());
+    if (fileNames.isEmpty()) {
+      return;
+    }
+    int threads = applyThreads == 0 ? Runtime.getRuntime().availableProcessors() : applyThreads;
+    threads = Math.min(threads, fileNames.size());
+    if (threads == 1) {
+      for (String fileName : fileNames) {
+        fixCounter.addAll(runFix(fileName, file2Loc.get(fileName), loc2Fix, info));
+      }
+      return;
+    }
+    // library declarations are lazily initialized, thus we do this before workers start
+    getLibraryDeclarations();
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads,
+        Threads.threadFactoryBuilder().setNameFormat("fix-worker-%d").setDaemon(true).build());
+    try {
+      List<Future<FixCounter>> futures = new ArrayList<>(fileNames.size());
+      for (final String fileName : fileNames) {
+        final List<FileLocation> locations = new ArrayList<>(file2Loc.get(fileName));
+        futures.add(executor.submit(new Callable<FixCounter>() {
+          @Override
+          public FixCounter call() throws Exception {
+            return runFix(fileName, locations, loc2Fix, info);
+          }
+        }));
+      }
+      for (Future<FixCounter> future : futures) {
+        try {
+          fixCounter.addAll(future.get());
+        } catch (ExecutionException e) {
+          Throwables.propagateIfPossible(e.getCause(), Exception.class);
+          throw new AssertionError(e.getCause());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   /**
    * Apply fixes to the specified program file.
    *
    * @param fileName program file
+   * @return the counter of fixes applied to this file
    */
-  private void runFix(
+  private FixCounter runFix(
       String fileName, Collection<FileLocation> locations, Multimap<FileLocation, IntegerFix>
-      loc2Fix) throws Exception {
+      loc2Fix, IntegerFixInfo intInfo) throws Exception {
+    FixCounter counter = new FixCounter();
     // STEP 1: check if the specified file exists
     File programFile = new File(fileName);
     if (!programFile.exists()) {
       logger.log(Level.SEVERE, "Cannot locate the program file: " + fileName);
-      return;
+      return counter;
     }
     // STEP 2: load the translation unit and create a mutable AST for code refactoring
     FileContent content = FileContent.createForExternalFileLocation(fileName);
@@ -239,8 +301,6 @@ public class IntegerFixApplicationPhase extends CPAPhase {
     Map<MutableASTForFix, CSimpleType> newCasts = new HashMap<>();
     // variables the type of which change after applying (specifier) fixes
     Map<String, CSimpleType> newDecls = new HashMap<>();
-    IntegerFixInfo intInfo = (IntegerFixInfo) FixProvider.getFixInfo(BugCategory.INTEGER);
-    assert (intInfo != null);
     for (Entry<FileLocation, IntegerFix> entry : specFix.entrySet()) {
       FileLocation loc = entry.getKey();
       String name = intInfo.getQualifiedName(loc);
@@ -255,12 +315,12 @@ public class IntegerFixApplicationPhase extends CPAPhase {
       FileLocation location = entry.getKey();
       MutableASTForFix astNode = loc2Ast.get(location);
       if (astNode != null) {
-        long oldCastFix = fixCounter.castFix;
-        long oldCheckFix = fixCounter.checkFix;
-        long oldSpecFix = fixCounter.specFix;
-        applyFix(astNode, entry.getValue(), newCasts, newDecls);
-        if (oldCastFix != fixCounter.castFix || oldCheckFix != fixCounter.checkFix || oldSpecFix
-            != fixCounter.specFix) {
+        long oldCastFix = counter.castFix;
+        long oldCheckFix = counter.checkFix;
+        long oldSpecFix = counter.specFix;
+        applyFix(astNode, entry.getValue(), newCasts, newDecls, counter);
+        if (oldCastFix != counter.castFix || oldCheckFix != counter.checkFix || oldSpecFix
+            != counter.specFix) {
           isChanged = true;
         }
       }
@@ -280,6 +340,7 @@ public class IntegerFixApplicationPhase extends CPAPhase {
       writer.flush();
       writer.close();
     }
+    return counter;
   }
 
   private String getLibraryDeclarations() {
@@ -330,7 +391,7 @@ public class IntegerFixApplicationPhase extends CPAPhase {
 
   private void applyFix(
       MutableASTForFix pAstNode, IntegerFix pFix, Map<MutableASTForFix,
-      CSimpleType> pNewCasts, Map<String, CSimpleType> pNewDecls) {
+      CSimpleType> pNewCasts, Map<String, CSimpleType> pNewDecls, FixCounter pCounter) {
     CSimpleType newType = pFix.getTargetType();
     if (newType == null || newType.getType() == CBasicType.BOOL) {
       // it is unnecessary to sanitize boolean value
@@ -406,7 +467,7 @@ public class IntegerFixApplicationPhase extends CPAPhase {
                     lastDeclarator.setSuccessorText(successorText);
                   }
                 }
-                fixCounter.specInc(forBenchmark, pAstNode);
+                pCounter.specInc(forBenchmark, pAstNode);
               }
             } else if (wrappedNode instanceof CASTKnRFunctionDeclarator) {
               // case 2.1
@@ -458,7 +519,7 @@ public class IntegerFixApplicationPhase extends CPAPhase {
                   oldName, newName);
               marginalText = insertString(marginalText, spacePrefix.concat(paramElevate), 1);
               funcBody.writeToMarginalText(marginalText);
-              fixCounter.specInc(forBenchmark, pAstNode);
+              pCounter.specInc(forBenchmark, pAstNode);
             }
           }
         } else if (node instanceof IASTParameterDeclaration) {
@@ -497,7 +558,7 @@ public class IntegerFixApplicationPhase extends CPAPhase {
               oldName, newName);
           marginalText = insertString(marginalText, spacePrefix.concat(paramElevate), 1);
           funcBody.writeToMarginalText(marginalText);
-          fixCounter.specInc(forBenchmark, pAstNode);
+          pCounter.specInc(forBenchmark, pAstNode);
         }
         break;
       }
@@ -511,7 +572,7 @@ public class IntegerFixApplicationPhase extends CPAPhase {
             Range oldTypeRange = Ranges.getTypeRange(type, machineModel);
             Range newTypeRange = Ranges.getTypeRange(newType, machineModel);
             if (newTypeRange.contains(oldTypeRange) && !newTypeRange.equals(oldTypeRange)) {
-              addArithmeticCheck(pAstNode, type, pNewCasts, pNewDecls);
+              addArithmeticCheck(pAstNode, type, pNewCasts, pNewDecls, pCounter);
             }
           } else {
             if (!Types.isIntegralType(newType)) {
@@ -523,13 +584,13 @@ public class IntegerFixApplicationPhase extends CPAPhase {
             if (newTypeRange.equals(oldTypeRange)) {
               // then we need to further check if the sanitized expression contains binary/negate
               // operation
-              addArithmeticCheck(pAstNode, type, pNewCasts, pNewDecls);
+              addArithmeticCheck(pAstNode, type, pNewCasts, pNewDecls, pCounter);
             } else if (newTypeRange.contains(oldTypeRange)) {
               break;
             } else {
               // ensure that the inner operation does not overflow
-              addArithmeticCheck(pAstNode, type, pNewCasts, pNewDecls);
-              addSanityCheck(pAstNode, type, newType);
+              addArithmeticCheck(pAstNode, type, pNewCasts, pNewDecls, pCounter);
+              addSanityCheck(pAstNode, type, newType, pCounter);
             }
           }
         }
@@ -560,7 +621,7 @@ public class IntegerFixApplicationPhase extends CPAPhase {
               typeIdNode.writeToMarginalText(newType.toString());
               pNewCasts.put(pAstNode, newType);
             }
-            fixCounter.castInc(forBenchmark, pAstNode);
+            pCounter.castInc(forBenchmark, pAstNode);
             break;
           }
         }
@@ -579,7 +640,7 @@ public class IntegerFixApplicationPhase extends CPAPhase {
             pAstNode.writeToTailText(finalCode);
           }
           pNewCasts.put(pAstNode, newType);
-          fixCounter.castInc(forBenchmark, pAstNode);
+          pCounter.castInc(forBenchmark, pAstNode);
         }
         break;
       }
@@ -600,7 +661,7 @@ public class IntegerFixApplicationPhase extends CPAPhase {
 
   private void addArithmeticCheck(MutableASTForFix pASTNode, CSimpleType pNewType,
                                   Map<MutableASTForFix, CSimpleType> pNewCasts,
-                                  Map<String, CSimpleType> pNewDecls) {
+                                  Map<String, CSimpleType> pNewDecls, FixCounter pCounter) {
     if (machineModel.needPromotion(pNewType)) {
       // binary expression has integer-promotion principle
       return;
@@ -611,7 +672,7 @@ public class IntegerFixApplicationPhase extends CPAPhase {
       if (unaryOperator == IASTUnaryExpression.op_bracketedPrimary) {
         List<MutableASTForFix> children = pASTNode.getChildren();
         if (children.size() == 1) {
-          addArithmeticCheck(children.get(0), pNewType, pNewCasts, pNewDecls);
+          addArithmeticCheck(children.get(0), pNewType, pNewCasts, pNewDecls, pCounter);
         }
       }
     } else if (wrappedNode instanceof IASTBinaryExpression) {
@@ -644,7 +705,7 @@ public class IntegerFixApplicationPhase extends CPAPhase {
           op1.setSuccessorText(", ");
           pASTNode.writeToMarginalText(firstCode);
           pASTNode.writeToTailText(finalCode);
-          fixCounter.checkInc(forBenchmark, pASTNode);
+          pCounter.checkInc(forBenchmark, pASTNode);
         }
       }
     }
@@ -656,8 +717,11 @@ public class IntegerFixApplicationPhase extends CPAPhase {
    * @param pAstNode the AST node
    * @param oldType the old type of AST node (though it can be derived given the AST node)
    * @param newType the target type
+   * @param pCounter the counter of fixes in the current file
    */
-  private void addSanityCheck(MutableASTForFix pAstNode, CSimpleType oldType, CSimpleType newType) {
+  private void addSanityCheck(
+      MutableASTForFix pAstNode, CSimpleType oldType, CSimpleType newType,
+      FixCounter pCounter) {
     String checkName = String.format(checkTemplate,
         machineModel.isSigned(oldType.getCanonicalType()) ? "s" : "u",
         checkNotNull(IntegerTypeConstraint.toMethodString(newType)));
@@ -673,7 +737,7 @@ public class IntegerFixApplicationPhase extends CPAPhase {
       pAstNode.writeToMarginalText(firstCode);
       pAstNode.writeToTailText(finalCode);
     }
-    fixCounter.checkInc(forBenchmark, pAstNode);
+    pCounter.checkInc(forBenchmark, pAstNode);
   }
 
   static MutableASTForFix skipPrimaryBrackets(MutableASTForFix pASTNode) {
@@ -856,6 +920,20 @@ public class IntegerFixApplicationPhase extends CPAPhase {
       triageOnFunction(pForBenchmark, getContainingFunctionName(pASTNode));
     }
 
+    /**
+     * Merge the counters of another file into this one.
+     */
+    void addAll(FixCounter pOther) {
+      checkFix += pOther.checkFix;
+      castFix += pOther.castFix;
+      specFix += pOther.specFix;
+      fixOnGood += pOther.fixOnGood;
+      fixOnBad += pOther.fixOnBad;
+      goodFuncSet.addAll(pOther.goodFuncSet);
+      badFuncSet.addAll(pOther.badFuncSet);
+      criticalSites.addAll(pOther.criticalSites);
+    }
+
     long getTotal() {
       return checkFix + castFix + specFix;
     }
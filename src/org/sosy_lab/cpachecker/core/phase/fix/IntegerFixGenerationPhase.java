@@ -14,14 +14,19 @@
  */
 package org.sosy_lab.cpachecker.core.phase.fix;
 
-import com.google.common.base.Joiner;
+import com.google.common.base.Throwables;
 
 import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.FileOption.Type;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
@@ -33,7 +38,11 @@ import org.sosy_lab.cpachecker.core.bugfix.FixProvider.BugCategory;
 import org.sosy_lab.cpachecker.core.bugfix.instance.integer.IntegerFix.IntegerFixMode;
 import org.sosy_lab.cpachecker.core.bugfix.instance.integer.IntegerFixInfo;
 import org.sosy_lab.cpachecker.core.bugfix.instance.integer.IntegerTypeConstraint;
+import org.sosy_lab.cpachecker.core.bugfix.instance.integer.TypeConstraintCache;
+import org.sosy_lab.cpachecker.core.bugfix.instance.integer.TypeConstraintCache.Solution;
+import org.sosy_lab.cpachecker.core.bugfix.instance.integer.TypeConstraintComponents;
 import org.sosy_lab.cpachecker.core.phase.CPAPhase;
+import org.sosy_lab.cpachecker.core.phase.fix.util.SExpressionReader;
 import org.sosy_lab.cpachecker.core.phase.result.CPAPhaseStatus;
 import org.sosy_lab.cpachecker.util.Types;
 import org.sosy_lab.cpachecker.util.globalinfo.CFAInfo;
@@ -44,13 +53,20 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * A phase to generate fixes for integer errors.
@@ -73,6 +89,35 @@ public class IntegerFixGenerationPhase extends CPAPhase {
   @Option(secure = true, name = "equal", description = "weight for equal relation")
   private int equalWeight = 1;
 
+  @Option(secure = true, name = "decompose", description = "split type constraints into "
+      + "independent components and solve them as separate MAX-SMT instances")
+  private boolean decompose = true;
+
+  @Option(secure = true, name = "solverThreads", description = "the maximum number of solver "
+      + "processes running simultaneously, 0 for the number of available processors")
+  @IntegerOption(min = 0)
+  private int solverThreads = 0;
+
+  @Option(secure = true, name = "minBatchSize", description = "small components of type "
+      + "constraints are packed into one MAX-SMT instance until it has this many constraints")
+  @IntegerOption(min = 1)
+  private int minBatchSize = 200;
+
+  @Option(secure = true, name = "persistentSolver", description = "reuse long-running solver "
+      + "processes for MAX-SMT instances, which are fed through standard input instead of "
+      + "temporary files (only supported by z3)")
+  private boolean persistentSolver = false;
+
+  // the cache is read and written, it is resolved like an input file to be independent of the
+  // output directory
+  @Option(secure = true, name = "cacheFile", description = "file for caching solutions of type "
+      + "constraint components across runs, such that unchanged components are not solved again "
+      + "(no caching if not specified). A relative path is resolved against rootDirectory "
+      + "instead of output.path, thus the cache is shared by runs with different output "
+      + "directories, such as the tasks of TsmartAnalyze --jobs.")
+  @FileOption(Type.OPTIONAL_INPUT_FILE)
+  private Path cacheFile = null;
+
   private final MachineModel machineModel;
 
   // accumulate total punishment for ITC (integer type constraint)
@@ -114,7 +159,9 @@ public class IntegerFixGenerationPhase extends CPAPhase {
     IntegerFixInfo intFixInfo = (IntegerFixInfo) fixInfo;
 
     // STEP 1: solve type constraint
+    logger.log(Level.INFO, "Z3 starts working");
     Map<String, CSimpleType> solveResult = solveTypeConstraint(intFixInfo);
+    logger.log(Level.INFO, "Z3 finished working");
     // add punishment to overlong types
     // totalPunishment = totalPunishment + ((IntegerFixInfo) fixInfo).getPunishCount() *
     // coverWeight;
@@ -158,7 +205,166 @@ public class IntegerFixGenerationPhase extends CPAPhase {
     return totalPunishment;
   }
 
-  private Map<String, CSimpleType> solveTypeConstraint(IntegerFixInfo pFixInfo) throws IOException {
+  private Map<String, CSimpleType> solveTypeConstraint(IntegerFixInfo pFixInfo)
+      throws IOException, InterruptedException {
+    if (cacheFile != null) {
+      return solveTypeConstraintIncrementally(pFixInfo);
+    }
+    if (!decompose) {
+      return solveTypeConstraintAsWhole(pFixInfo);
+    }
+    List<Set<IntegerTypeConstraint>> batches = TypeConstraintComponents.batch(
+        pFixInfo.partitionTypeConstraint(), minBatchSize);
+    if (batches.size() <= 1) {
+      return solveTypeConstraintAsWhole(pFixInfo);
+    }
+    return solveBatches(batches);
+  }
+
+  /**
+   * Solve type constraints with the solutions of components cached by previous runs. Only the
+   * components that are not found in the cache are solved.
+   */
+  private Map<String, CSimpleType> solveTypeConstraintIncrementally(IntegerFixInfo pFixInfo)
+      throws IOException, InterruptedException {
+    TypeConstraintCache cache = new TypeConstraintCache(cacheFile, coverWeight, equalWeight,
+        machineModel);
+    try {
+      cache.load();
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Failed to load cached type constraint solutions");
+    }
+    List<Set<IntegerTypeConstraint>> components = pFixInfo.partitionTypeConstraint();
+    List<Set<IntegerTypeConstraint>> unsolved = new ArrayList<>();
+    Map<String, CSimpleType> typeMap = new HashMap<>();
+    for (Set<IntegerTypeConstraint> component : components) {
+      Solution solution = cache.lookup(component);
+      if (solution == null) {
+        unsolved.add(component);
+      } else {
+        totalPunishment += solution.getObjective();
+        typeMap.putAll(solution.getValuation());
+      }
+    }
+    logger.log(Level.INFO, String.format("%d of %d type constraint components are solved in "
+        + "previous runs", components.size() - unsolved.size(), components.size()));
+
+    if (!unsolved.isEmpty()) {
+      List<Set<IntegerTypeConstraint>> batches;
+      if (decompose) {
+        batches = TypeConstraintComponents.batch(unsolved, minBatchSize);
+      } else {
+        batches = TypeConstraintComponents.batch(unsolved, Integer.MAX_VALUE);
+      }
+      Map<String, CSimpleType> solved = solveBatches(batches);
+      typeMap.putAll(solved);
+      // components have disjoint variables, thus the solution of a component is the projection
+      // of the solution of its MAX-SMT instance
+      for (Set<IntegerTypeConstraint> component : unsolved) {
+        cache.store(component, solved);
+      }
+    }
+    try {
+      cache.save();
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Failed to save type constraint solutions");
+    }
+    return typeMap;
+  }
+
+  /**
+   * Solve MAX-SMT instances in parallel, and merge their models.
+   */
+  private Map<String, CSimpleType> solveBatches(List<Set<IntegerTypeConstraint>> batches)
+      throws IOException, InterruptedException {
+    int threads = solverThreads == 0 ? Runtime.getRuntime().availableProcessors() : solverThreads;
+    logger.log(Level.INFO, String.format("Type constraints are split into %d MAX-SMT instances",
+        batches.size()));
+
+    threads = Math.min(threads, batches.size());
+    final BlockingQueue<MaxSMTSolverSession> sessions = new ArrayBlockingQueue<>(threads);
+    // all the sessions ever started, including the replaced ones
+    final List<MaxSMTSolverSession> started =
+        Collections.synchronizedList(new ArrayList<MaxSMTSolverSession>());
+
+    // solve MAX-SMT instances on a bounded pool of solver processes
+    ExecutorService executor = Executors.newFixedThreadPool(threads,
+        Threads.threadFactoryBuilder().setNameFormat("maxsmt-worker-%d").setDaemon(true).build());
+    List<Future<MaxSMTModel>> futures = new ArrayList<>(batches.size());
+    try {
+      if (usePersistentSolver()) {
+        for (int i = 0; i < threads; i++) {
+          sessions.add(startSession(started));
+        }
+      }
+      for (int i = 0; i < batches.size(); i++) {
+        final Set<IntegerTypeConstraint> batch = batches.get(i);
+        final File smt2File = new File(getInstanceFileName(i));
+        futures.add(executor.submit(new Callable<MaxSMTModel>() {
+          @Override
+          public MaxSMTModel call() throws IOException, InterruptedException {
+            if (usePersistentSolver()) {
+              // each worker holds one session at a time, thus a session is always available
+              MaxSMTSolverSession session = sessions.take();
+              try {
+                if (!session.isInSync()) {
+                  // the leftover output of a failed instance would be read as the response
+                  session.close();
+                  session = startSession(started);
+                }
+                return session.solve(batch);
+              } finally {
+                sessions.put(session);
+              }
+            }
+            IntegerFixInfo.generateTypeConstraint(smt2File.getAbsolutePath(), batch, coverWeight,
+                equalWeight, machineModel);
+            return solveInstance(smt2File);
+          }
+        }));
+      }
+      // merge models in the order of instances
+      Map<String, CSimpleType> typeMap = new HashMap<>();
+      for (Future<MaxSMTModel> future : futures) {
+        MaxSMTModel model;
+        try {
+          model = future.get();
+        } catch (ExecutionException e) {
+          Throwables.propagateIfPossible(e.getCause(), IOException.class,
+              InterruptedException.class);
+          throw new AssertionError(e.getCause());
+        }
+        mergeModel(model, typeMap);
+      }
+      return typeMap;
+    } finally {
+      executor.shutdownNow();
+      // sessions still held by interrupted workers are closed as well
+      synchronized (started) {
+        for (MaxSMTSolverSession session : started) {
+          session.close();
+        }
+      }
+    }
+  }
+
+  private MaxSMTSolverSession startSession(List<MaxSMTSolverSession> pStarted)
+      throws IOException {
+    MaxSMTSolverSession session = MaxSMTSolverSession.start(maxSMTSolver, coverWeight,
+        equalWeight, machineModel, logger);
+    pStarted.add(session);
+    return session;
+  }
+
+  private boolean usePersistentSolver() {
+    return persistentSolver && maxSMTSolver.equals("z3");
+  }
+
+  /**
+   * Solve all the type constraints as a single MAX-SMT instance.
+   */
+  private Map<String, CSimpleType> solveTypeConstraintAsWhole(IntegerFixInfo pFixInfo)
+      throws IOException, InterruptedException {
     Map<String, CSimpleType> typeMap = new HashMap<>();
 
     // check if the constraint file exists
@@ -167,136 +373,60 @@ public class IntegerFixGenerationPhase extends CPAPhase {
     pFixInfo.generateTypeConstraint(smt2File.getAbsolutePath(), coverWeight,
         equalWeight, machineModel);
 
+    mergeModel(solveInstance(smt2File), typeMap);
+    return typeMap;
+  }
+
+  private void mergeModel(MaxSMTModel pModel, Map<String, CSimpleType> pTypeMap) {
+    if (pModel.getSat()) {
+      totalPunishment += pModel.getObjective();
+      Map<String, Object> valuation = pModel.getValuation();
+      for (Entry<String, Object> entry : valuation.entrySet()) {
+        pTypeMap.put(entry.getKey(), (CSimpleType) entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Derive the name of constraint file for the i-th MAX-SMT instance.
+   */
+  private String getInstanceFileName(int index) {
+    int dotIndex = maxSMTFileName.lastIndexOf('.');
+    if (dotIndex <= 0) {
+      return maxSMTFileName + "-" + index;
+    }
+    return maxSMTFileName.substring(0, dotIndex) + "-" + index + maxSMTFileName.substring
+        (dotIndex);
+  }
+
+  /**
+   * Solve one MAX-SMT instance using the external solver.
+   */
+  private MaxSMTModel solveInstance(File smt2File) throws IOException, InterruptedException {
     // now, the SMTLIB2 file should exist
     if (!smt2File.exists()) {
       logger.log(Level.SEVERE, "type constraint not found");
-      return typeMap;
+      return new MaxSMTModel(false, 0);
     }
 
     // solve MAX-SMT constraint using z3 (z3opt)
-    logger.log(Level.INFO, "Z3 starts working");
+    logger.log(Level.FINE, "Z3 starts working on " + smt2File.getName());
     ProcessBuilder process = new ProcessBuilder(maxSMTSolver, smt2File.getAbsolutePath());
     process.redirectErrorStream(true);
     Process proc = process.start();
-    InputStreamReader isr = new InputStreamReader(proc.getInputStream());
-    BufferedReader br = new BufferedReader(isr);
-    String readLine;
-    List<String> outputByLine = new ArrayList<>();
-    while ((readLine = br.readLine()) != null) {
-      outputByLine.add(readLine);
-    }
-    try {
-      br.close();
-      isr.close();
+    MaxSMTModel model;
+    try (BufferedReader br = new BufferedReader(new InputStreamReader(proc.getInputStream()))) {
+      // parse result while it is produced by MAX-SMT solver
+      model = new MaxSMTModelReader(new SExpressionReader(br), logger).read(false);
       proc.waitFor();
-      proc.destroy();
-    } catch (InterruptedException ex) {
-      logger.log(Level.SEVERE, "MAX-SMT solver is interrupted unexpectedly");
     } finally {
+      proc.destroy();
       // constraint file is no longer needed
       if (smt2File.exists()) {
         smt2File.deleteOnExit();
       }
     }
-    logger.log(Level.INFO, "Z3 finished working");
-
-    // parse result produced by MAX-SMT solver
-    String output = Joiner.on("").join(outputByLine);
-    MaxSMTModel model = parseMaxSMTModel(output);
-
-    if (model.getSat()) {
-      Map<String, Object> valuation = model.getValuation();
-      for (Entry<String, Object> entry : valuation.entrySet()) {
-        typeMap.put(entry.getKey(), (CSimpleType) entry.getValue());
-      }
-    }
-    return typeMap;
-
-  }
-
-  private final Pattern objectivePattern =
-      Pattern.compile("\\(objectives\\s+\\(\\s*(\\d+)\\s*\\)\\s*\\)");
-  private final Pattern definePattern =
-      Pattern.compile("\\(define-fun\\s+(\\S+)\\s+\\(\\)\\s+I\\s+(\\S+)\\s*\\)");
-
-  /**
-   * Parse string as MAX-SMT model.
-   * It is worth noting that the format of MAX-SMT model is not unified forcibly. Here the
-   * parsing method is based on Z3 with the version newer than 4.4.2.
-   */
-  private MaxSMTModel parseMaxSMTModel(String modelString) {
-    if (!modelString.startsWith("sat")) {
-      // If isSat is false, the result can be UNSAT or UNKNOWN.
-      return new MaxSMTModel(false, 0);
-    }
-    modelString = modelString.substring(3);
-    // Extract the first S-expression to extract the objective value.
-    MaxSMTModel model;
-    String objectiveStr = "";
-    int bracketLevel = 0;
-    for (int i = 0; i < modelString.length(); i++) {
-      char c = modelString.charAt(i);
-      if (c == '(') {
-        bracketLevel++;
-      } else if (c == ')') {
-        bracketLevel--;
-        if (bracketLevel == 0) {
-          objectiveStr = modelString.substring(0, i + 1);
-          modelString = modelString.substring(i + 1);
-          break;
-        }
-      }
-    }
-    Matcher objectiveMatch = objectivePattern.matcher(objectiveStr);
-    if (objectiveMatch.find()) {
-      int value = Integer.valueOf(objectiveMatch.group(1));
-      model = new MaxSMTModel(true, value);
-      totalPunishment += model.getObjective();
-    } else {
-      // in most cases, we reach here because no constraints are generated
-      logger.log(Level.WARNING, "Failed to find the objective");
-      return new MaxSMTModel(false, 0);
-    }
-    // Extract valuation from the remaining S-expression
-    if (!modelString.startsWith("(model")) {
-      logger.log(Level.SEVERE, "Failed to parse model assignment");
-      return model;
-    }
-    modelString = modelString.substring(7, modelString.length() - 1).trim();
-    List<String> defineList = new ArrayList<>();
-    bracketLevel = 0;
-    int startIndex = 0, endIndex;
-    for (int i = 0; i < modelString.length(); i++) {
-      char c = modelString.charAt(i);
-      if (c == '(') {
-        if (bracketLevel == 0) {
-          startIndex = i;
-        }
-        bracketLevel++;
-      } else if (c == ')') {
-        bracketLevel--;
-        if (bracketLevel == 0) {
-          endIndex = i;
-          defineList.add(modelString.substring(startIndex, endIndex + 1));
-        }
-      }
-    }
-    for (String defineStr : defineList) {
-      Matcher defineMatch = definePattern.matcher(defineStr);
-      if (defineMatch.find()) {
-        String varName = defineMatch.group(1);
-        // restore identifier
-        if (varName.startsWith("!!")) {
-          varName = varName.substring(2);
-        }
-        varName = varName.replace("!!", "::");
-        String typeStr = defineMatch.group(2);
-        CSimpleType type = IntegerTypeConstraint.fromTypeString(typeStr);
-        if (type != null) {
-          model.addValuation(varName, type);
-        }
-      }
-    }
+    logger.log(Level.FINE, "Z3 finished working on " + smt2File.getName());
     return model;
   }
 
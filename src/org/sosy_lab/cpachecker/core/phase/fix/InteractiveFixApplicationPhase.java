@@ -21,15 +21,11 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Iterables;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.io.Files;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 
 import org.eclipse.cdt.core.dom.ast.IASTBinaryExpression;
 import org.eclipse.cdt.core.dom.ast.IASTCastExpression;
@@ -53,6 +49,7 @@ import org.eclipse.cdt.internal.core.dom.parser.c.CASTKnRFunctionDeclarator;
 import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -78,26 +75,23 @@ import org.sosy_lab.cpachecker.core.phase.fix.IntegerFixApplicationPhase.FixCoun
 import org.sosy_lab.cpachecker.core.phase.fix.util.ArithFixMetaInfo;
 import org.sosy_lab.cpachecker.core.phase.fix.util.CastFixMetaInfo;
 import org.sosy_lab.cpachecker.core.phase.fix.util.ConvFixMetaInfo;
+import org.sosy_lab.cpachecker.core.phase.fix.util.FixReviewServer;
 import org.sosy_lab.cpachecker.core.phase.fix.util.IntegerFixDisplayInfo;
 import org.sosy_lab.cpachecker.core.phase.fix.util.SpecifierFixMetaInfo;
 import org.sosy_lab.cpachecker.core.phase.result.CPAPhaseStatus;
 import org.sosy_lab.cpachecker.cpa.range.Range;
 import org.sosy_lab.cpachecker.cpa.range.util.Ranges;
 import org.sosy_lab.cpachecker.util.Types;
-import org.sosy_lab.cpachecker.util.collections.preliminary.Presence;
-import org.sosy_lab.cpachecker.util.collections.tree.PathCopyingPersistentTree;
-import org.sosy_lab.cpachecker.util.collections.tree.PathCopyingPersistentTree.PersistentTreeNode;
 import org.sosy_lab.cpachecker.util.globalinfo.CFAInfo;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 
-import java.io.BufferedReader;
+import java.awt.Desktop;
+import java.awt.Desktop.Action;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.file.Path;
+import java.net.URI;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -111,6 +105,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Stack;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
@@ -128,13 +123,22 @@ public class InteractiveFixApplicationPhase extends CPAPhase {
   @Option(secure = true, description = "whether the web interface is enabled")
   private boolean enableWebInterface = true;
 
-  // metadata persistence
+  @Option(secure = true, description = "port of the web interface, 0 for an arbitrary free port")
+  @IntegerOption(min = 0, max = 65535)
+  private int webPort = 9026;
+
+  @Option(secure = true, description = "the maximum number of fixes sent to the web interface "
+      + "in one response")
+  @IntegerOption(min = 1)
+  private int webPageSize = 500;
+
+  // resources of the web interface
   // they are fixed and should not be configured
   private static final String metaPath =
       "src/org/sosy_lab/cpachecker/core/phase/fix/display";
-  private static final String fixMetaFile = "from_java/fixInfo.json";
-  private static final String fileMetaFile = "from_java/fileInfo.json";
-  private static final String fixSelectFile = "from_server/fix.json";
+
+  // in milliseconds, how often a pending review checks for shutdown requests
+  private static final long reviewPollingInterval = 500;
 
   private FixCounter fixCounter = new FixCounter();
 
@@ -175,6 +179,27 @@ public class InteractiveFixApplicationPhase extends CPAPhase {
     return CPAPhaseStatus.SUCCESS;
   }
 
+  /**
+   * Wait until the user ends the review, while checking for shutdown requests periodically.
+   *
+   * @return whether the user has ended the review, otherwise the review is aborted
+   */
+  private boolean awaitSelection(FixReviewServer pServer) {
+    try {
+      while (!pServer.awaitSelection(reviewPollingInterval, TimeUnit.MILLISECONDS)) {
+        if (shutdownNotifier.shouldShutdown()) {
+          logger.log(Level.WARNING, "Review of fixes is aborted by shutdown, applying all fixes");
+          return false;
+        }
+      }
+      return true;
+    } catch (InterruptedException e) {
+      // the fixes are still applied, thus the interruption ends the review only
+      logger.log(Level.WARNING, "Review of fixes is interrupted, applying all fixes");
+      return false;
+    }
+  }
+
   @Override
   protected CPAPhaseStatus postAction() throws Exception {
     if (!enableWebInterface) {
@@ -203,7 +228,9 @@ public class InteractiveFixApplicationPhase extends CPAPhase {
     Map<String, List<IntegerFixDisplayInfo>> totalFixDisplay = new HashMap<>();
     Map<String, MutableASTForFix> file2AST = new HashMap<>();
 
-    List<String> fixJSON = new ArrayList<>();
+    FixReviewServer server = new FixReviewServer(
+        Paths.get(GlobalInfo.getInstance().getIoManager().getRootDirectory(), metaPath),
+        webPageSize, logger);
     for (String fileName : file2Loc.keySet()) {
       Collection<FileLocation> locations = file2Loc.get(fileName);
       List<IntegerFixDisplayInfo> displayInfo = new ArrayList<>();
@@ -213,7 +240,7 @@ public class InteractiveFixApplicationPhase extends CPAPhase {
       // summarize the results
       totalFixDisplay.put(fileName, displayInfo);
       if (enableWebInterface) {
-        // STEP 2: output display info into the JSON
+        // STEP 2: register display info to the server
         // Note: fixes are organized in a hierarchical manner
         // sorting the display info by the starting offsets
         List<IntegerFixDisplayInfo> ascend = new ArrayList<>(displayInfo);
@@ -304,69 +331,29 @@ public class InteractiveFixApplicationPhase extends CPAPhase {
           int endOffset = nodeTail - columnByLine.get(endLine - 1);
           singleInfo.setStartAndEnd(startOffset, endOffset);
         }
-        StringBuilder sb = new StringBuilder();
-        sb.append("\"");
-        sb.append(fileName);
-        sb.append("\":[");
-        List<String> singleJSON = new ArrayList<>();
-        for (IntegerFixDisplayInfo pFixInfo : hierInfo) {
-          singleJSON.add(pFixInfo.toString());
-        }
-        sb.append(Joiner.on(',').join(singleJSON));
-        sb.append("]");
-        fixJSON.add(sb.toString());
+        server.addFile(fileName, source, hierInfo);
       }
     }
     if (enableWebInterface) {
-      writeFixToJSON(fixJSON);
-      // STEP 3: generate file explore guide
-      // Note: only files to be analyzed are displayed in the trees, while other irrelevant files
-      // should not be shown
-      writeFileToJSON(file2Loc.keySet());
-      // STEP 4: startup the python server
+      // STEP 3: serve fixes in the web interface until the user ends the review
+      // Note: only files to be analyzed are displayed in the file tree
+      // all the fixes are applied if the review does not end normally
+      String modeValue = FixReviewServer.GLOBAL_MODE;
+      Multimap<String, String> selectedFixMap = ImmutableListMultimap.of();
       try {
-        ProcessBuilder pb = new ProcessBuilder("python", "server.py");
-        pb.directory(Paths.get(GlobalInfo.getInstance().getIoManager().getRootDirectory(),
-            metaPath).toFile());
-        Process proc = pb.start();
-        // redirect output of sub-process to the output of this program
-        BufferedReader bread = new BufferedReader(new InputStreamReader(proc.getErrorStream()));
-        StringBuilder bout = new StringBuilder();
-        String outline;
-        while ((outline = bread.readLine()) != null) {
-          bout.append(outline);
-          bout.append(System.getProperty("line.separator"));
+        String address = server.start(webPort);
+        openBrowser(address);
+        if (awaitSelection(server)) {
+          // STEP 4: filter out some fixes by the selection of the user
+          modeValue = server.getMode();
+          selectedFixMap = server.getSelectedFixes();
         }
-        System.out.println(bout.toString());
       } catch (IOException e) {
-        throw new IllegalStateException("Fatal: error in setting up the server");
+        throw new IllegalStateException("Fatal: error in setting up the server", e);
+      } finally {
+        server.stop();
       }
-      // STEP 5: check the output of server and filter out some fixes
-      Multimap<String, String> selectedFixMap = HashMultimap.create();
-      // global mode is by default (and we apply all the generated fixes)
-      String modeValue = "Global";
-      try {
-        JsonParser parser = new JsonParser();
-        Path selectedFixPath = Paths.get(metaPath, fixSelectFile);
-        JsonObject fixDict = (JsonObject) parser.parse(new FileReader(selectedFixPath.toFile()));
-        for (Entry<String, JsonElement> entry : fixDict.entrySet()) {
-          String key = entry.getKey();
-          JsonElement value = entry.getValue();
-          if (key.equals("_mode_")) {
-            assert (value.isJsonPrimitive());
-            modeValue = value.getAsString();
-          } else {
-            assert (value.isJsonArray());
-            JsonArray idArray = (JsonArray) value;
-            for (JsonElement id : idArray) {
-              selectedFixMap.put(key, id.getAsString());
-            }
-          }
-        }
-      } catch (IOException e) {
-        logger.log(Level.SEVERE, "fix.json not found");
-      }
-      // STEP 6: actually apply the fixes
+      // STEP 5: actually apply the fixes
       for (String fileName : totalFixDisplay.keySet()) {
         List<IntegerFixDisplayInfo> currentFixInfo = totalFixDisplay.get(fileName);
         MutableASTForFix currentTotalAST = file2AST.get(fileName);
@@ -374,7 +361,7 @@ public class InteractiveFixApplicationPhase extends CPAPhase {
           continue;
         }
         Set<UUID> selectedUUID = null;
-        if (modeValue.equals("Manual")) {
+        if (modeValue.equals(FixReviewServer.MANUAL_MODE)) {
           Collection<String> currentSelectedID = selectedFixMap.get(fileName);
           selectedUUID = FluentIterable.from(currentSelectedID).transform(
               new Function<String, UUID>() {
@@ -762,116 +749,16 @@ public class InteractiveFixApplicationPhase extends CPAPhase {
     }
   }
 
-  private void writeFixToJSON(List<String> pFixJSON) {
-    Path infoPath = Paths.get(GlobalInfo.getInstance().getIoManager().getRootDirectory(), metaPath,
-        fixMetaFile);
-    File infoFile = infoPath.toFile();
-    if (infoFile.exists()) {
-      if (!infoFile.delete()) {
-        throw new IllegalStateException("Failed to clear the previous file: permission denied");
-      }
-    }
-    StringBuilder sb = new StringBuilder();
-    sb.append("{");
-    sb.append(Joiner.on(',').join(pFixJSON));
-    sb.append("}");
-    // write to the specified file
-    try {
-      BufferedWriter bout = new BufferedWriter(new FileWriter(infoFile.getAbsolutePath()));
-      bout.write(sb.toString());
-      bout.flush();
-    } catch (IOException e) {
-      throw new IllegalStateException("IO Error: permission denied");
-    }
-  }
-
-  private void writeFileToJSON(Set<String> pFileNames) {
-    // STEP 1: find the common prefix of paths
-    PathCopyingPersistentTree<String, Presence> fileTree = PathCopyingPersistentTree.of();
-    for (String fileName : pFileNames) {
-      Path filePath = new File(fileName).toPath();
-      List<String> fileSegments = new ArrayList<>();
-      // no NPE will be thrown because the input file names are all absolute
-      fileSegments.add(filePath.getRoot().toString());
-      for (int i = 0; i < filePath.getNameCount(); i++) {
-        fileSegments.add(filePath.getName(i).toString());
-      }
-      fileTree = fileTree.setElementAndCopy(fileSegments, Presence.INSTANCE);
-    }
-    // the file list must be non-empty, otherwise there is no files for analysis
-    assert (!fileTree.isEmpty());
-    PersistentTreeNode<String, Presence> node = fileTree.getRoot();
-    List<String> commonPrefix = new ArrayList<>();
-    do {
-      Set<String> keys = node.branches();
-      if (keys.size() != 1) {
-        break;
-      }
-      String onlyKey = Iterables.getOnlyElement(keys);
-      commonPrefix.add(onlyKey);
-      node = node.getChild(onlyKey);
-    } while (node != null);
-    // STEP 2: compute hierarchy of paths
-    StringBuilder sb = new StringBuilder();
-    if (!commonPrefix.isEmpty()) {
-      // prefix exists
-      PersistentTreeNode<String, Presence> subNode = fileTree.getSubtreeRoot(commonPrefix);
-      String rootDir = commonPrefix.get(0);
-      commonPrefix.remove(0);
-      String[] prefixArray = commonPrefix.toArray(new String[commonPrefix.size()]);
-      Path commonPath = Paths.get(rootDir, prefixArray);
-      sb.append("[");
-      sb.append("{");
-      sb.append("\"name\":").append("\"").append(commonPath).append("\"").append(",");
-      sb.append("\"children\":").append(writeFileToJSON0(subNode));
-      sb.append("}");
-      sb.append("]");
-    } else {
-      // in some systems such as Windows, there is no unified root directory, thus it is possible
-      // that two files in C:\ and D:| respectively have no common prefix path
-      // root node must be non-null because the file tree is non-empty
-      sb.append(writeFileToJSON0(fileTree.getRoot()));
-    }
-    // STEP 3: write the JSON to the file
-    Path filePath = Paths.get(GlobalInfo.getInstance().getIoManager().getRootDirectory(),
-        metaPath, fileMetaFile);
-    File fileFile = filePath.toFile();
-    if (fileFile.exists()) {
-      if (!fileFile.delete()) {
-        throw new IllegalStateException("Failed to clear the previous file: permission denied");
-      }
-    }
-    try {
-      BufferedWriter bout = new BufferedWriter(new FileWriter(fileFile.getAbsolutePath()));
-      bout.write(sb.toString());
-      bout.flush();
-    } catch (IOException e) {
-      throw new IllegalStateException("IO Error: permission denied");
-    }
-  }
-
-  private String writeFileToJSON0(@Nullable PersistentTreeNode<String, Presence> pNode) {
-    if (pNode == null) {
-      return "[]";
-    } else {
-      Set<String> keys = pNode.branches();
-      int keySize = keys.size();
-      if (keySize == 0) {
-        return "[]";
-      } else {
-        List<String> subJSON = new ArrayList<>(keySize);
-        for (String key : keys) {
-          StringBuilder subSb = new StringBuilder();
-          subSb.append("{");
-          subSb.append("\"name\":").append("\"").append(key).append("\"").append(",");
-          PersistentTreeNode<String, Presence> child = pNode.getChild(key);
-          subSb.append("\"children\":").append(writeFileToJSON0(child));
-          subSb.append("}");
-          subJSON.add(subSb.toString());
-        }
-        return "[" + Joiner.on(',').join(subJSON) + "]";
+  private void openBrowser(String pAddress) {
+    if (Desktop.isDesktopSupported() && Desktop.getDesktop().isSupported(Action.BROWSE)) {
+      try {
+        Desktop.getDesktop().browse(URI.create(pAddress));
+        return;
+      } catch (IOException e) {
+        logger.logUserException(Level.FINE, e, "Could not open the browser");
       }
     }
+    logger.log(Level.INFO, "Open", pAddress, "in the browser to review fixes");
   }
 
   /**
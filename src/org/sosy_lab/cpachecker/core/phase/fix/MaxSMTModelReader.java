@@ -0,0 +1,181 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.phase.fix;
+
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.types.c.CSimpleType;
+import org.sosy_lab.cpachecker.core.bugfix.instance.integer.IntegerTypeConstraint;
+import org.sosy_lab.cpachecker.core.phase.fix.IntegerFixGenerationPhase.MaxSMTModel;
+import org.sosy_lab.cpachecker.core.phase.fix.util.SExpressionReader;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+/**
+ * Read MAX-SMT model from the output of solver in a streaming manner. Each `define-fun` entry is
+ * added to the model as soon as it is read, thus the solver output is never buffered as a whole.
+ *
+ * It is worth noting that the format of MAX-SMT model is not unified forcibly. Here the parsing
+ * method is based on Z3 with the version newer than 4.4.2, and the model with or without the
+ * leading `model` keyword is accepted.
+ */
+final class MaxSMTModelReader {
+
+  private final SExpressionReader reader;
+  private final LogManager logger;
+
+  MaxSMTModelReader(SExpressionReader pReader, LogManager pLogger) {
+    reader = pReader;
+    logger = pLogger;
+  }
+
+  /**
+   * Read the response of `(check-sat)` and `(get-model)`.
+   *
+   * @param consumeAll whether the response to `(get-model)` should be consumed even if the
+   *                   problem is not satisfiable. This is necessary when the solver process is
+   *                   reused for other problems.
+   */
+  MaxSMTModel read(boolean consumeAll) throws IOException {
+    if (reader.atEnd()) {
+      return new MaxSMTModel(false, 0);
+    }
+    String status = reader.readAtom();
+    if (!"sat".equals(status)) {
+      // If isSat is false, the result can be UNSAT or UNKNOWN.
+      if (status == null) {
+        logger.log(Level.SEVERE, "Unexpected response of MAX-SMT solver: " + reader.read());
+      } else if (consumeAll) {
+        // the error message for (get-model)
+        reader.read();
+      }
+      return new MaxSMTModel(false, 0);
+    }
+    // the first S-expression contains the objective value
+    Object objectives = reader.read();
+    if (!isList(objectives, "objectives")) {
+      // in most cases, we reach here because no constraints are generated, then the first
+      // S-expression is the model itself
+      logger.log(Level.WARNING, "Failed to find the objective");
+      return new MaxSMTModel(false, 0);
+    }
+    MaxSMTModel model;
+    Integer objective = findNumber(objectives);
+    if (objective != null) {
+      model = new MaxSMTModel(true, objective);
+    } else {
+      logger.log(Level.WARNING, "Failed to find the objective");
+      model = new MaxSMTModel(false, 0);
+    }
+    // extract valuation from the remaining S-expression, which is in the form of `(model
+    // (define-fun ...) ...)` or `((define-fun ...) ...)` depending on the version of solver
+    if (!reader.enterList()) {
+      logger.log(Level.SEVERE, "Failed to parse model assignment");
+      return model;
+    }
+    boolean entered = reader.enterList();
+    if (!entered && !"model".equals(reader.readAtom())) {
+      logger.log(Level.SEVERE, "Failed to parse model assignment");
+      reader.skipListRest();
+      return model;
+    }
+    readDefinitions(model, entered);
+    return model;
+  }
+
+  /**
+   * Read `define-fun` entries until the end of model. The valuations are discarded if the model
+   * is not satisfiable.
+   *
+   * @param entered whether the opening parenthesis of the first entry has been consumed
+   */
+  private void readDefinitions(MaxSMTModel pModel, boolean entered) throws IOException {
+    boolean inEntry = entered;
+    while (inEntry || reader.enterList()) {
+      inEntry = false;
+      List<Object> definition = reader.readListRest();
+      if (pModel.getSat()) {
+        addValuation(pModel, definition);
+      }
+    }
+    if (!reader.exitList()) {
+      throw new IOException("Unbalanced parenthesis in MAX-SMT model");
+    }
+  }
+
+  private static boolean isList(@Nullable Object pExpression, String pHead) {
+    if (!(pExpression instanceof List)) {
+      return false;
+    }
+    List<?> elements = (List<?>) pExpression;
+    return !elements.isEmpty() && pHead.equals(elements.get(0));
+  }
+
+  /**
+   * Add the valuation of the form `(define-fun name () I value)` to the model.
+   */
+  private static void addValuation(MaxSMTModel pModel, List<Object> pDefinition) {
+    if (pDefinition.size() != 5 || !"define-fun".equals(pDefinition.get(0))) {
+      return;
+    }
+    Object name = pDefinition.get(1);
+    Object args = pDefinition.get(2);
+    Object sort = pDefinition.get(3);
+    Object value = pDefinition.get(4);
+    if (!(name instanceof String) || !(args instanceof List) || !((List<?>) args).isEmpty() ||
+        !"I".equals(sort) || !(value instanceof String)) {
+      return;
+    }
+    String varName = (String) name;
+    // restore identifier
+    if (varName.startsWith("!!")) {
+      varName = varName.substring(2);
+    }
+    varName = varName.replace("!!", "::");
+    CSimpleType type = IntegerTypeConstraint.fromTypeString((String) value);
+    if (type != null) {
+      pModel.addValuation(varName, type);
+    }
+  }
+
+  /**
+   * Find the first numeral in the given S-expression.
+   */
+  @Nullable
+  private static Integer findNumber(Object pExpression) {
+    if (pExpression instanceof String) {
+      String atom = (String) pExpression;
+      if (!atom.isEmpty() && Character.isDigit(atom.charAt(0))) {
+        try {
+          return Integer.valueOf(atom);
+        } catch (NumberFormatException ex) {
+          return null;
+        }
+      }
+      return null;
+    }
+    for (Object element : (List<?>) pExpression) {
+      Integer number = findNumber(element);
+      if (number != null) {
+        return number;
+      }
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.phase.fix;
+
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.core.bugfix.instance.integer.IntegerFixInfo;
+import org.sosy_lab.cpachecker.core.bugfix.instance.integer.IntegerTypeConstraint;
+import org.sosy_lab.cpachecker.core.phase.fix.IntegerFixGenerationPhase.MaxSMTModel;
+import org.sosy_lab.cpachecker.core.phase.fix.util.SExpressionReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * A long-running solver process which solves multiple MAX-SMT instances. Instances are sent
+ * through the standard input of the solver, and each of them is wrapped in its own assertion
+ * scope by `(push)` and `(pop)`. Integer types and type relations are declared only once when the
+ * session starts.
+ *
+ * The solver is asked to echo a marker after each instance, and the output is consumed up to the
+ * marker, thus the leftover of an instance (e.g. error messages) is never read as the response of
+ * the next one. If the marker is not reached, the session is out of sync and should be replaced.
+ *
+ * A session is not thread-safe, it should be used by one thread at a time.
+ */
+final class MaxSMTSolverSession implements AutoCloseable {
+
+  private static final String SYNC_MARKER = "maxsmt-instance-done";
+
+  private final Process process;
+  private final Writer in;
+  private final SExpressionReader out;
+  private final MaxSMTModelReader modelReader;
+  private final LogManager logger;
+
+  private final int coverWeight;
+  private final int equalWeight;
+  private final MachineModel machineModel;
+
+  private boolean inSync = true;
+  private boolean closed = false;
+
+  private MaxSMTSolverSession(
+      Process pProcess, int pCoverWeight, int pEqualWeight, MachineModel pMachineModel,
+      LogManager pLogger) {
+    process = pProcess;
+    in = new BufferedWriter(new OutputStreamWriter(pProcess.getOutputStream()));
+    out = new SExpressionReader(new BufferedReader(new InputStreamReader(
+        pProcess.getInputStream())));
+    modelReader = new MaxSMTModelReader(out, pLogger);
+    logger = pLogger;
+    coverWeight = pCoverWeight;
+    equalWeight = pEqualWeight;
+    machineModel = pMachineModel;
+  }
+
+  /**
+   * Launch a solver process which reads commands from the standard input.
+   */
+  static MaxSMTSolverSession start(
+      String pSolver, int pCoverWeight, int pEqualWeight, MachineModel pMachineModel,
+      LogManager pLogger) throws IOException {
+    ProcessBuilder builder = new ProcessBuilder(pSolver, "-in");
+    builder.redirectErrorStream(true);
+    Process process = builder.start();
+    MaxSMTSolverSession session = new MaxSMTSolverSession(process, pCoverWeight, pEqualWeight,
+        pMachineModel, pLogger);
+    try {
+      IntegerFixInfo.writeTypeConstraintPrelude(session.in, pMachineModel);
+      session.in.flush();
+    } catch (IOException e) {
+      process.destroy();
+      throw e;
+    }
+    return session;
+  }
+
+  /**
+   * Solve the given type constraints as a MAX-SMT instance.
+   *
+   * @throws IOException if the response is incomplete, then the session is out of sync
+   */
+  MaxSMTModel solve(Set<IntegerTypeConstraint> pConstraints) throws IOException {
+    if (!inSync) {
+      throw new IOException("MAX-SMT solver session is out of sync");
+    }
+    inSync = false;
+    in.write("(push)\n");
+    IntegerFixInfo.writeTypeConstraint(in, pConstraints, coverWeight, equalWeight, machineModel);
+    in.write("(check-sat)\n(get-model)\n(pop)\n");
+    in.write("(echo \"" + SYNC_MARKER + "\")\n");
+    in.flush();
+    MaxSMTModel model = modelReader.read(true);
+    skipToMarker();
+    inSync = true;
+    return model;
+  }
+
+  /**
+   * Check whether all the responses of solved instances have been consumed. A session which is out
+   * of sync cannot solve further instances.
+   */
+  boolean isInSync() {
+    return inSync;
+  }
+
+  /**
+   * Consume the remaining output of the current instance, including the marker.
+   */
+  private void skipToMarker() throws IOException {
+    while (true) {
+      Object response = out.read();
+      if (response == null) {
+        throw new EOFException("MAX-SMT solver terminated unexpectedly");
+      }
+      // depending on the version, the solver may or may not quote the echoed string
+      if (SYNC_MARKER.equals(response) || ('"' + SYNC_MARKER + '"').equals(response)) {
+        return;
+      }
+      logger.log(Level.WARNING, "Unexpected response of MAX-SMT solver:", response);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    inSync = false;
+    try {
+      in.write("(exit)\n");
+      in.close();
+      process.waitFor();
+    } catch (IOException e) {
+      logger.logDebugException(e, "Failed to terminate MAX-SMT solver");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      process.destroy();
+    }
+    logger.log(Level.FINE, "MAX-SMT solver session terminated");
+  }
+
+}
@@ -20,6 +20,6 @@ function selectDropItem() {
     } else if (selected === 'Manual') {
         // manual mode: current fix items are set to inactive, then send a POST request to the server to reset the selected fixes
         $('.circular.ui.button').removeClass('active');
-        $.post("http://localhost:9026", { op: 'clear' });
+        $.post('/clear');
     }
 }
\ No newline at end of file
@@ -11,18 +11,28 @@ var _marker_set = [];
 var Range = ace.require('ace/range').Range;
 // the flag shows whether page close-down is normal
 var _normal_exit = false;
+// the number of fixes requested in one page, the server may send fewer
+var _page_size = 500;
 
 function initAll() {
     initEditor();
     initFileTree();
+    initFixList();
 }
 
 function initFileTree() {
-    $('#file_tree').fileTree({ root: '', script: 'http://localhost:9026' }, function(file) {
+    $('#file_tree').fileTree({ root: '', script: '/tree' }, function(file) {
         loadFile(file);
     });
 }
 
+function initFixList() {
+    // fix items are loaded page by page, thus handlers are delegated to the list
+    var l = $('#fix_list');
+    l.on('click', '.item.intfix', selectFix);
+    l.on('click', '.circular.ui.button', toggleFix);
+}
+
 function initEditor() {
     _ace_editor = ace.edit("editor");
     _ace_editor.renderer.setHScrollBarAlwaysVisible(false);
@@ -52,75 +62,124 @@ function loadFile(file) {
     removeMarker();
     // remove existing fix details
     removeDetail();
-    // cache the selected fixes for this file
+    // cache the selected fixes for the previous file
     var mode_text = $('#mode_selected').text();
     if (typeof _current_file !== 'undefined' && mode_text === 'Manual') {
-        var selected = [];
-        $('.circular.button.active').parent().parent().each(function () {
-            selected.push(this.id);
-        });
-        $.post("http://localhost:9026", { op: 'cache', file: file, list: String(selected) });
+        cacheSelection(_current_file);
     }
+    _current_file = file;
     // load source code
-    $.get("http://localhost:9026", { file: file }, function(content) {
-       _current_file = file;
-       _ace_editor.session.setValue(unescape(content));
+    $.get('/source', { file: file }, function(content) {
+       if (file === _current_file) {
+           _ace_editor.session.setValue(content);
+       }
     });
     // load fix list
-    $.post("http://localhost:9026", { req: 'fixList', file: file, mode: mode_text }).done(function (content) {
-        var l = $('#fix_list');
-        l.find('*').remove();
-        l.append(content);
-        $('.item.intfix').click(selectFix);
-        $('.circular.ui.button').on('click', function(event) {
-            event.stopPropagation();
-            var item, indent, new_indent, button;
-            if ($(this).hasClass('active') && $('#mode_selected').text() === 'Manual') {
-                $(this).removeClass('active');
-                // we also remove the active status of depending fixes
-                item = $(this).parent().parent();
-                indent = Number($(item).attr("data-indent"));
-                if (indent > 0) {
-                    item = $(item).prev();
-                    while ($(item).hasClass("item intfix")) {
-                        new_indent = Number($(item).attr("data-indent"));
-                        if (new_indent < indent) {
-                            indent = new_indent;
-                            button = $(item).children().children('button');
-                            $(button).removeClass('active');
-                        }
-                        if (indent === 0) {
-                            break;
-                        }
-                        item = $(item).prev();
-                    }
+    $('#fix_list').find('*').remove();
+    loadFixPage(file, mode_text, 0);
+}
+
+function loadFixPage(file, mode_text, offset) {
+    $.getJSON('/fixes', { file: file, mode: mode_text, offset: offset, limit: _page_size }, function (page) {
+        // the user may have chosen another file in the meantime
+        if (file !== _current_file) {
+            return;
+        }
+        var items = [];
+        $.each(page.fixes, function (i, entry) {
+            items.push(fixItem(entry.fix, entry.indent, entry.active));
+        });
+        $('#fix_list').append(items.join(''));
+        var next = page.offset + page.fixes.length;
+        if (next < page.total && page.fixes.length > 0) {
+            loadFixPage(file, mode_text, next);
+        }
+    });
+}
+
+function fixItem(fix, indent, active) {
+    var r = [];
+    r.push('<div class="item intfix" id="' + fix.UUID + '" data-indent="' + indent +
+        '" style="margin-left: ' + (indent * 5) + '%">');
+    r.push('<div class="left floated content">');
+    // in the manual mode, only selected fixes are active
+    r.push('<button class="circular ui icon toggle button' + (active ? ' active' : '') + '">');
+    r.push('<i class="bug icon"></i>');
+    r.push('</button>');
+    r.push('</div>');
+    r.push('<div class="content">');
+    r.push('<div class="header">');
+    if (fix.startLine === fix.endLine) {
+        r.push('Line ' + fix.startLine);
+    } else {
+        r.push('Line ' + fix.startLine + '-' + fix.endLine);
+    }
+    r.push('</div>');
+    r.push('<div class="description">');
+    if (fix.mode === 'CAST') {
+        r.push('explicit cast');
+    } else if (fix.mode === 'SPECIFIER') {
+        r.push('declared type change');
+    } else {
+        r.push('sanity check');
+    }
+    r.push('</div></div></div>');
+    return r.join('');
+}
+
+function toggleFix(event) {
+    event.stopPropagation();
+    var item, indent, new_indent, button;
+    if ($(this).hasClass('active') && $('#mode_selected').text() === 'Manual') {
+        $(this).removeClass('active');
+        // we also remove the active status of depending fixes
+        item = $(this).parent().parent();
+        indent = Number($(item).attr("data-indent"));
+        if (indent > 0) {
+            item = $(item).prev();
+            while ($(item).hasClass("item intfix")) {
+                new_indent = Number($(item).attr("data-indent"));
+                if (new_indent < indent) {
+                    indent = new_indent;
+                    button = $(item).children().children('button');
+                    $(button).removeClass('active');
                 }
-            } else {
-                $(this).addClass('active');
-                // we also set the depended fixes as active
-                item = $(this).parent().parent();
-                indent = Number($(item).attr("data-indent"));
-                item = $(item).next();
-                while ($(item).hasClass("item intfix")) {
-                    new_indent = Number($(item).attr("data-indent"));
-                    if (new_indent > indent) {
-                        button = $(item).children().children('button');
-                        $(button).addClass('active');
-                    } else {
-                        break;
-                    }
-                    item = $(item).next();
+                if (indent === 0) {
+                    break;
                 }
+                item = $(item).prev();
             }
-        });
+        }
+    } else {
+        $(this).addClass('active');
+        // we also set the depended fixes as active
+        item = $(this).parent().parent();
+        indent = Number($(item).attr("data-indent"));
+        item = $(item).next();
+        while ($(item).hasClass("item intfix")) {
+            new_indent = Number($(item).attr("data-indent"));
+            if (new_indent > indent) {
+                button = $(item).children().children('button');
+                $(button).addClass('active');
+            } else {
+                break;
+            }
+            item = $(item).next();
+        }
+    }
+}
+
+function cacheSelection(file) {
+    var selected = [];
+    $('.circular.button.active').parent().parent().each(function () {
+        selected.push(this.id);
     });
+    return $.post('/select', { file: file, list: String(selected) });
 }
 
 function selectFix() {
     var fix_id = $(this).attr('id');
-    $.post("http://localhost:9026", { req: 'fixDraw', id: fix_id }).done(function (content) {
-        // the response is in JSON format
-        var info_json = JSON.parse(content);
+    $.getJSON('/fix', { id: fix_id }, function (info_json) {
         var start_line = Number(info_json.startLine);
         var end_line = Number(info_json.endLine);
         var start_offset = Number(info_json.startOffset);
@@ -234,15 +293,18 @@ function endSession0(chosen_mode) {
     if (chosen_mode === 'Manual') {
         // cache the current selected fixes in the list
         if (typeof _current_file !== 'undefined') {
-            var selected = [];
-            $('.circular.button.active').parent().parent().each(function () {
-                selected.push(this.id);
+            cacheSelection(_current_file).always(function () {
+                closeSession(chosen_mode);
             });
-            $.post("http://localhost:9026", { op: 'cache', file: _current_file, list: String(selected) });
+            return;
         }
     }
+    closeSession(chosen_mode);
+}
+
+function closeSession(chosen_mode) {
     // end the server session and then close the browser window
-    $.post("http://localhost:9026", { op: 'close', mode: chosen_mode }).done(function () {
+    $.post('/close', { mode: chosen_mode }).always(function () {
         window.close();
     });
 }
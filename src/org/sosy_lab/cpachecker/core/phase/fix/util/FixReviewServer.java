@@ -0,0 +1,501 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.phase.fix.util;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.SortedSetMultimap;
+import com.google.common.collect.TreeMultimap;
+import com.google.common.html.HtmlEscapers;
+import com.google.common.io.ByteStreams;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.sosy_lab.common.concurrency.Threads;
+import org.sosy_lab.common.log.LogManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * The embedded HTTP server of the web interface for reviewing integer fixes.
+ *
+ * All fixes are kept in memory. For each file, the fix hierarchy is flattened in pre-order (a fix
+ * is followed by its depending fixes) and served page by page, such that the browser does not
+ * load all the fixes of a large file at once. The selection of fixes is posted back by the
+ * browser and {@link #awaitSelection(long, TimeUnit)} returns when the user ends the review
+ * session.
+ *
+ * Requests:
+ * <ul>
+ *   <li>{@code POST /tree} with {@code dir}: the file tree in the format of jQueryFileTree</li>
+ *   <li>{@code GET /source?file=}: the source code of a file</li>
+ *   <li>{@code GET /fixes?file=&mode=&offset=&limit=}: a page of the fixes of a file</li>
+ *   <li>{@code GET /fix?id=}: the detail of a fix</li>
+ *   <li>{@code POST /select} with {@code file} and {@code list}: the selected fixes of a file</li>
+ *   <li>{@code POST /clear}: drop all selected fixes</li>
+ *   <li>{@code POST /close} with {@code mode}: end the review session</li>
+ * </ul>
+ * Other {@code GET} requests are served from the resource directory of the web interface.
+ * Requests that change the selection are only accepted by {@code POST} from the pages of this
+ * server, such that other web sites opened in the browser cannot post a selection.
+ */
+public final class FixReviewServer {
+
+  public static final String GLOBAL_MODE = "Global";
+  public static final String MANUAL_MODE = "Manual";
+
+  private static final String TREE_KEY_ROOT = "";
+  private static final String ORIGIN_SCHEME = "http://";
+
+  private final Path resourceDirectory;
+  private final int pageSize;
+  private final LogManager logger;
+
+  private final Map<String, String> fileSources = new HashMap<>();
+  private final Map<String, List<FlatFix>> fileFixes = new HashMap<>();
+  private final Map<UUID, IntegerFixDisplayInfo> idFixes = new HashMap<>();
+  // directory --> its children (directories or files) in the file tree
+  private final SortedSetMultimap<String, String> fileTree = TreeMultimap.create();
+
+  private final Map<String, List<String>> selectedFixes = new ConcurrentHashMap<>();
+  private volatile String mode = GLOBAL_MODE;
+  private final CountDownLatch closed = new CountDownLatch(1);
+
+  private HttpServer server = null;
+  private ExecutorService executor = null;
+
+  /**
+   * A fix together with its depth in the fix hierarchy.
+   */
+  private static final class FlatFix {
+
+    private final IntegerFixDisplayInfo info;
+    private final int indent;
+
+    private FlatFix(IntegerFixDisplayInfo pInfo, int pIndent) {
+      info = pInfo;
+      indent = pIndent;
+    }
+  }
+
+  public FixReviewServer(Path pResourceDirectory, int pPageSize, LogManager pLogger) {
+    resourceDirectory = pResourceDirectory.toAbsolutePath().normalize();
+    pageSize = pPageSize;
+    logger = pLogger;
+  }
+
+  /**
+   * Register a source file and its fixes. All files should be added before the server starts.
+   *
+   * @param pFileName the absolute name of the source file
+   * @param pSource   the source code on which the fix locations are computed
+   * @param pFixes    the top-level fixes of the hierarchy
+   */
+  public void addFile(String pFileName, String pSource, List<IntegerFixDisplayInfo> pFixes) {
+    checkState(server == null, "files should be added before the server starts");
+    fileSources.put(pFileName, pSource);
+    List<FlatFix> flatFixes = new ArrayList<>();
+    flatten(pFixes, 0, flatFixes);
+    fileFixes.put(pFileName, flatFixes);
+  }
+
+  private void flatten(
+      List<IntegerFixDisplayInfo> pFixes, int pIndent, List<FlatFix> pFlatFixes) {
+    for (IntegerFixDisplayInfo fix : pFixes) {
+      pFlatFixes.add(new FlatFix(fix, pIndent));
+      idFixes.put(fix.getID(), fix);
+      flatten(fix.getChildren(), pIndent + 1, pFlatFixes);
+    }
+  }
+
+  /**
+   * Start the server on the loopback interface.
+   *
+   * @param pPort the port, 0 for an arbitrary free port
+   * @return the address of the index page
+   */
+  public String start(int pPort) throws IOException {
+    checkState(server == null, "server is already started");
+    buildFileTree();
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), pPort), 0);
+    server.createContext("/", new ReviewHandler());
+    executor = Executors.newCachedThreadPool(
+        Threads.threadFactoryBuilder().setNameFormat("fix-review-%d").setDaemon(true).build());
+    server.setExecutor(executor);
+    server.start();
+    return "http://localhost:" + server.getAddress().getPort() + "/index.html";
+  }
+
+  /**
+   * Wait until the user ends the review session, or the specified waiting time elapses.
+   *
+   * @return whether the user has ended the review session
+   */
+  public boolean awaitSelection(long pTimeout, TimeUnit pUnit) throws InterruptedException {
+    return closed.await(pTimeout, pUnit);
+  }
+
+  public void stop() {
+    if (server != null) {
+      server.stop(0);
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Return the selection mode chosen by the user: {@link #MANUAL_MODE} if only the selected fixes
+   * should be applied, or {@link #GLOBAL_MODE} if all fixes should be applied.
+   */
+  public String getMode() {
+    return mode;
+  }
+
+  /**
+   * Return the identifiers of selected fixes by file names.
+   */
+  public ImmutableListMultimap<String, String> getSelectedFixes() {
+    ImmutableListMultimap.Builder<String, String> builder = ImmutableListMultimap.builder();
+    for (Map.Entry<String, List<String>> entry : selectedFixes.entrySet()) {
+      builder.putAll(entry.getKey(), entry.getValue());
+    }
+    return builder.build();
+  }
+
+  private void buildFileTree() {
+    // only files to be analyzed are displayed in the tree, under their common directory
+    Path base = null;
+    boolean first = true;
+    for (String fileName : fileSources.keySet()) {
+      Path parent = Paths.get(fileName).getParent();
+      if (first) {
+        base = parent;
+        first = false;
+      }
+      while (base != null && (parent == null || !parent.startsWith(base))) {
+        base = base.getParent();
+      }
+    }
+    if (base != null) {
+      fileTree.put(TREE_KEY_ROOT, base.toString());
+    }
+    for (String fileName : fileSources.keySet()) {
+      Path child = Paths.get(fileName);
+      while (!child.equals(base)) {
+        // in some systems such as Windows, files may have no common directory, then the roots of
+        // file systems are displayed at the top level
+        Path parent = child.getParent();
+        String key = (parent == null) ? TREE_KEY_ROOT : parent.toString();
+        if (!fileTree.put(key, child.toString()) || parent == null) {
+          break;
+        }
+        child = parent;
+      }
+    }
+  }
+
+  private final class ReviewHandler implements HttpHandler {
+
+    @Override
+    public void handle(HttpExchange pExchange) throws IOException {
+      try {
+        String path = pExchange.getRequestURI().getPath();
+        Map<String, String> parameters = parseParameters(pExchange);
+        switch (path) {
+          case "/tree":
+            respondText(pExchange, "text/html", fileTreeToHTML(parameters.get("dir")));
+            break;
+          case "/source":
+            String source = fileSources.get(parameters.get("file"));
+            if (source == null) {
+              respondError(pExchange, 404);
+            } else {
+              respondText(pExchange, "text/plain", source);
+            }
+            break;
+          case "/fixes":
+            respondFixPage(pExchange, parameters);
+            break;
+          case "/fix":
+            respondFix(pExchange, parameters.get("id"));
+            break;
+          case "/select":
+            if (!checkSameOrigin(pExchange)) {
+              break;
+            }
+            String fileName = parameters.get("file");
+            String list = parameters.get("list");
+            if (fileName != null && list != null) {
+              selectedFixes.put(fileName,
+                  Splitter.on(',').trimResults().omitEmptyStrings().splitToList(list));
+            }
+            respondText(pExchange, "text/plain", "");
+            break;
+          case "/clear":
+            if (!checkSameOrigin(pExchange)) {
+              break;
+            }
+            selectedFixes.clear();
+            respondText(pExchange, "text/plain", "");
+            break;
+          case "/close":
+            if (!checkSameOrigin(pExchange)) {
+              break;
+            }
+            String selectedMode = parameters.get("mode");
+            if (!MANUAL_MODE.equals(selectedMode)) {
+              selectedFixes.clear();
+            }
+            mode = MANUAL_MODE.equals(selectedMode) ? MANUAL_MODE : GLOBAL_MODE;
+            // the session ends before the response, such that the selection is final once the
+            // browser is notified
+            closed.countDown();
+            respondText(pExchange, "text/plain", "");
+            break;
+          default:
+            respondResource(pExchange, path);
+        }
+      } catch (IOException | RuntimeException e) {
+        logger.logUserException(Level.WARNING, e, "Error in handling request of web interface");
+        throw e;
+      } finally {
+        pExchange.close();
+      }
+    }
+  }
+
+  /**
+   * Check that the request is posted by a page of this server, which is identified by the
+   * {@code Host} and the optional {@code Origin} header. Otherwise, the request is rejected.
+   */
+  private boolean checkSameOrigin(HttpExchange pExchange) throws IOException {
+    if (!"POST".equals(pExchange.getRequestMethod())) {
+      respondError(pExchange, 405);
+      return false;
+    }
+    String host = pExchange.getRequestHeaders().getFirst("Host");
+    String origin = pExchange.getRequestHeaders().getFirst("Origin");
+    if (!isOwnAuthority(host)
+        || (origin != null && !(origin.startsWith(ORIGIN_SCHEME)
+        && isOwnAuthority(origin.substring(ORIGIN_SCHEME.length()))))) {
+      respondError(pExchange, 403);
+      return false;
+    }
+    return true;
+  }
+
+  private boolean isOwnAuthority(String pAuthority) {
+    if (pAuthority == null) {
+      return false;
+    }
+    String port = ":" + server.getAddress().getPort();
+    if (!pAuthority.endsWith(port)) {
+      return false;
+    }
+    String host = pAuthority.substring(0, pAuthority.length() - port.length());
+    InetAddress address = server.getAddress().getAddress();
+    String hostAddress = address.getHostAddress();
+    return host.equals("localhost") || host.equals(hostAddress)
+        || host.equals("[" + hostAddress + "]");
+  }
+
+  private static Map<String, String> parseParameters(HttpExchange pExchange)
+      throws IOException {
+    Map<String, String> parameters = new HashMap<>();
+    parseQuery(pExchange.getRequestURI().getRawQuery(), parameters);
+    if ("POST".equals(pExchange.getRequestMethod())) {
+      InputStream in = pExchange.getRequestBody();
+      parseQuery(new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8), parameters);
+    }
+    return parameters;
+  }
+
+  private static void parseQuery(String pQuery, Map<String, String> pParameters)
+      throws UnsupportedEncodingException {
+    if (pQuery == null) {
+      return;
+    }
+    for (String pair : Splitter.on('&').omitEmptyStrings().split(pQuery)) {
+      int index = pair.indexOf('=');
+      String key = (index < 0) ? pair : pair.substring(0, index);
+      String value = (index < 0) ? "" : pair.substring(index + 1);
+      pParameters.put(URLDecoder.decode(key, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+    }
+  }
+
+  private String fileTreeToHTML(String pDirectory) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("<ul class=\"jqueryFileTree\" style=\"display: none;\">");
+    Set<String> children = fileTree.get(pDirectory == null ? TREE_KEY_ROOT : pDirectory);
+    List<String> files = new ArrayList<>();
+    for (String child : children) {
+      if (fileSources.containsKey(child)) {
+        files.add(child);
+      } else {
+        appendTreeItem(sb, "directory collapsed", child);
+      }
+    }
+    // folders are listed before files
+    for (String file : files) {
+      appendTreeItem(sb, "file ext_c", file);
+    }
+    sb.append("</ul>");
+    return sb.toString();
+  }
+
+  private static void appendTreeItem(StringBuilder sb, String pClass, String pPath) {
+    Path name = Paths.get(pPath).getFileName();
+    String escapedPath = HtmlEscapers.htmlEscaper().escape(pPath);
+    String escapedName = (name == null) ? escapedPath :
+                         HtmlEscapers.htmlEscaper().escape(name.toString());
+    sb.append("<li class=\"").append(pClass).append("\"><a rel=\"").append(escapedPath)
+        .append("\">").append(escapedName).append("</a></li>");
+  }
+
+  /**
+   * Stream a page of fixes of a file as JSON:
+   * {@code {"total":..,"offset":..,"fixes":[{"indent":..,"active":..,"fix":{..}},..]}}.
+   * A fix is active if all the fixes are applied, or it has been selected in the manual mode.
+   */
+  private void respondFixPage(HttpExchange pExchange, Map<String, String> pParameters)
+      throws IOException {
+    String fileName = pParameters.get("file");
+    List<FlatFix> fixes = fileFixes.get(fileName);
+    if (fixes == null) {
+      fixes = Collections.emptyList();
+    }
+    int offset = parseInt(pParameters.get("offset"), 0);
+    int limit = parseInt(pParameters.get("limit"), pageSize);
+    offset = Math.min(Math.max(offset, 0), fixes.size());
+    int end = Math.min(fixes.size(), offset + Math.max(Math.min(limit, pageSize), 1));
+    boolean manual = MANUAL_MODE.equals(pParameters.get("mode"));
+    List<String> selected = selectedFixes.get(fileName);
+    Set<String> selectedSet = (selected == null) ? Collections.<String>emptySet() :
+                              new HashSet<>(selected);
+
+    pExchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    // the length is unknown, thus the response is sent in chunks while being written
+    pExchange.sendResponseHeaders(200, 0);
+    Writer writer = new OutputStreamWriter(pExchange.getResponseBody(), StandardCharsets.UTF_8);
+    JsonWriter json = new JsonWriter(writer);
+    json.beginObject();
+    json.name("total").value(fixes.size());
+    json.name("offset").value(offset);
+    json.name("fixes").beginArray();
+    for (FlatFix fix : fixes.subList(offset, end)) {
+      String id = fix.info.getID().toString();
+      json.beginObject();
+      json.name("indent").value(fix.indent);
+      json.name("active").value(!manual || selectedSet.contains(id));
+      json.name("fix").jsonValue(fix.info.toJSON(false));
+      json.endObject();
+    }
+    json.endArray();
+    json.endObject();
+    json.flush();
+  }
+
+  private void respondFix(HttpExchange pExchange, String pID) throws IOException {
+    IntegerFixDisplayInfo fix = null;
+    if (pID != null) {
+      try {
+        fix = idFixes.get(UUID.fromString(pID));
+      } catch (IllegalArgumentException e) {
+        // malformed identifier, no such fix
+      }
+    }
+    if (fix == null) {
+      respondError(pExchange, 404);
+    } else {
+      respondText(pExchange, "application/json", fix.toJSON(false));
+    }
+  }
+
+  private void respondResource(HttpExchange pExchange, String pPath) throws IOException {
+    String relative = pPath.equals("/") ? "index.html" : pPath.substring(1);
+    Path resource = resourceDirectory.resolve(relative).normalize();
+    // requests are not allowed to escape the resource directory
+    if (!"GET".equals(pExchange.getRequestMethod()) || !resource.startsWith(resourceDirectory)
+        || !Files.isRegularFile(resource)) {
+      respondError(pExchange, 404);
+      return;
+    }
+    String contentType = Files.probeContentType(resource);
+    if (contentType != null) {
+      pExchange.getResponseHeaders().set("Content-Type", contentType);
+    }
+    pExchange.sendResponseHeaders(200, Files.size(resource));
+    OutputStream out = pExchange.getResponseBody();
+    Files.copy(resource, out);
+    out.flush();
+  }
+
+  private static void respondText(HttpExchange pExchange, String pContentType, String pContent)
+      throws IOException {
+    byte[] content = pContent.getBytes(StandardCharsets.UTF_8);
+    pExchange.getResponseHeaders().set("Content-Type", pContentType + "; charset=utf-8");
+    // zero-length responses are indicated by -1
+    pExchange.sendResponseHeaders(200, content.length == 0 ? -1 : content.length);
+    if (content.length > 0) {
+      OutputStream out = pExchange.getResponseBody();
+      out.write(content);
+      out.flush();
+    }
+  }
+
+  private static void respondError(HttpExchange pExchange, int pCode) throws IOException {
+    pExchange.sendResponseHeaders(pCode, -1);
+  }
+
+  private static int parseInt(String pValue, int pDefault) {
+    if (pValue == null) {
+      return pDefault;
+    }
+    try {
+      return Integer.parseInt(pValue);
+    } catch (NumberFormatException e) {
+      return pDefault;
+    }
+  }
+}
@@ -0,0 +1,301 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.phase.fix.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.io.ByteStreams;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.eclipse.cdt.core.dom.ast.IASTFileLocation;
+import org.eclipse.cdt.core.dom.ast.IASTNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.core.bugfix.MutableASTForFix;
+import org.sosy_lab.cpachecker.core.bugfix.instance.integer.IntegerFix;
+import org.sosy_lab.cpachecker.core.bugfix.instance.integer.IntegerFix.IntegerFixMode;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+public class FixReviewServerTest {
+
+  private static final String FILE = "/project/src/a.c";
+  private static final int PAGE_SIZE = 2;
+  private static final int TIMEOUT_MS = 10000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private FixReviewServer server;
+  private int port;
+
+  // the fixes in pre-order: a, a1, a11, b
+  private IntegerFixDisplayInfo a;
+  private IntegerFixDisplayInfo a1;
+  private IntegerFixDisplayInfo a11;
+  private IntegerFixDisplayInfo b;
+
+  @Before
+  public void setUp() throws Exception {
+    File resources = folder.newFolder("web");
+    Files.write(new File(resources, "index.html").toPath(),
+        "<html></html>".getBytes(StandardCharsets.UTF_8));
+    Files.write(folder.newFile("secret.txt").toPath(), "secret".getBytes(StandardCharsets.UTF_8));
+
+    a = createFix("a");
+    a1 = createFix("a1");
+    a11 = createFix("a11");
+    b = createFix("b");
+    a.addChild(a1);
+    a1.addChild(a11);
+
+    server = new FixReviewServer(resources.toPath(), PAGE_SIZE, TestLogManager.getInstance());
+    server.addFile(FILE, "int a, a1, a11, b;", ImmutableList.of(a, b));
+    port = URI.create(server.start(0)).getPort();
+  }
+
+  @After
+  public void tearDown() {
+    server.stop();
+  }
+
+  private static IntegerFixDisplayInfo createFix(String pName) {
+    IASTFileLocation location = mock(IASTFileLocation.class);
+    when(location.getStartingLineNumber()).thenReturn(1);
+    when(location.getEndingLineNumber()).thenReturn(1);
+    IASTNode node = mock(IASTNode.class);
+    when(node.getChildren()).thenReturn(new IASTNode[0]);
+    when(node.getFileLocation()).thenReturn(location);
+    when(node.getRawSignature()).thenReturn(pName);
+    return IntegerFixDisplayInfo.of(UUID.randomUUID(),
+        new IntegerFix(IntegerFixMode.SPECIFIER, CNumericTypes.INT),
+        MutableASTForFix.createMutableASTFromTranslationUnit(node),
+        SpecifierFixMetaInfo.of(pName));
+  }
+
+  @Test
+  public void testPageBoundaries() throws Exception {
+    // the limit is bounded by the page size
+    JsonObject page = getFixPage(FILE, "Global", 0, 10);
+    assertEquals(4, page.get("total").getAsInt());
+    assertEquals(0, page.get("offset").getAsInt());
+    assertEquals(2, page.getAsJsonArray("fixes").size());
+
+    page = getFixPage(FILE, "Global", 3, 2);
+    assertEquals(3, page.get("offset").getAsInt());
+    assertEquals(1, page.getAsJsonArray("fixes").size());
+
+    // the offset is clamped to the list of fixes
+    page = getFixPage(FILE, "Global", -5, 2);
+    assertEquals(0, page.get("offset").getAsInt());
+    assertEquals(2, page.getAsJsonArray("fixes").size());
+    page = getFixPage(FILE, "Global", 100, 2);
+    assertEquals(4, page.get("offset").getAsInt());
+    assertEquals(0, page.getAsJsonArray("fixes").size());
+
+    // at least one fix is returned for non-positive limits
+    page = getFixPage(FILE, "Global", 1, 0);
+    assertEquals(1, page.getAsJsonArray("fixes").size());
+
+    page = getFixPage("/project/src/unknown.c", "Global", 0, 2);
+    assertEquals(0, page.get("total").getAsInt());
+    assertEquals(0, page.getAsJsonArray("fixes").size());
+  }
+
+  @Test
+  public void testPreOrderIndent() throws Exception {
+    List<JsonObject> fixes = new ArrayList<>();
+    for (int offset = 0; offset < 4; offset += PAGE_SIZE) {
+      for (Object fix : getFixPage(FILE, "Global", offset, PAGE_SIZE).getAsJsonArray("fixes")) {
+        fixes.add((JsonObject) fix);
+      }
+    }
+    List<IntegerFixDisplayInfo> expected = ImmutableList.of(a, a1, a11, b);
+    List<Integer> expectedIndents = ImmutableList.of(0, 1, 2, 0);
+    assertEquals(expected.size(), fixes.size());
+    for (int i = 0; i < fixes.size(); i++) {
+      assertEquals(expectedIndents.get(i).intValue(), fixes.get(i).get("indent").getAsInt());
+      assertEquals(expected.get(i).getID().toString(),
+          fixes.get(i).getAsJsonObject("fix").get("UUID").getAsString());
+    }
+  }
+
+  @Test
+  public void testActiveFlags() throws Exception {
+    Response response = post("/select", "file=" + encode(FILE) + "&list=" + a1.getID() + ","
+        + b.getID());
+    assertEquals(200, response.status);
+
+    assertEquals(ImmutableList.of(false, true), getActiveFlags("Manual", 0));
+    assertEquals(ImmutableList.of(false, true), getActiveFlags("Manual", 2));
+    // all fixes are active in the global mode
+    assertEquals(ImmutableList.of(true, true), getActiveFlags("Global", 0));
+    assertEquals(ImmutableList.of(true, true), getActiveFlags("Global", 2));
+
+    assertEquals(200, post("/clear", "").status);
+    assertEquals(ImmutableList.of(false, false), getActiveFlags("Manual", 2));
+  }
+
+  @Test
+  public void testResources() throws Exception {
+    Response response = send("GET /index.html HTTP/1.0\r\nHost: localhost:" + port + "\r\n\r\n");
+    assertEquals(200, response.status);
+    assertEquals("<html></html>", response.body);
+
+    for (String path : ImmutableList.of("/../secret.txt", "/%2e%2e/secret.txt",
+        "/css/../../secret.txt", "/missing.html")) {
+      response = send("GET " + path + " HTTP/1.0\r\nHost: localhost:" + port + "\r\n\r\n");
+      assertEquals(path, 404, response.status);
+    }
+  }
+
+  @Test
+  public void testSelectAndClose() throws Exception {
+    assertFalse(server.awaitSelection(0, TimeUnit.MILLISECONDS));
+    assertEquals(FixReviewServer.GLOBAL_MODE, server.getMode());
+
+    post("/select", "file=" + encode(FILE) + "&list=" + a.getID() + ", " + a11.getID());
+    assertEquals(200, post("/close", "mode=Manual").status);
+
+    assertTrue(server.awaitSelection(0, TimeUnit.MILLISECONDS));
+    assertEquals(FixReviewServer.MANUAL_MODE, server.getMode());
+    assertEquals(
+        ImmutableListMultimap.of(FILE, a.getID().toString(), FILE, a11.getID().toString()),
+        server.getSelectedFixes());
+  }
+
+  @Test
+  public void testCloseInGlobalMode() throws Exception {
+    post("/select", "file=" + encode(FILE) + "&list=" + a.getID());
+    assertEquals(200, post("/close", "mode=Global").status);
+
+    assertTrue(server.awaitSelection(0, TimeUnit.MILLISECONDS));
+    assertEquals(FixReviewServer.GLOBAL_MODE, server.getMode());
+    assertTrue(server.getSelectedFixes().isEmpty());
+  }
+
+  @Test
+  public void testRejectForeignRequests() throws Exception {
+    String body = "file=" + encode(FILE) + "&list=" + a.getID();
+    assertEquals(403,
+        post("/select", body, "Origin: http://example.com").status);
+    assertEquals(403,
+        post("/select", body, "Origin: http://localhost:" + (port + 1)).status);
+    assertEquals(405,
+        send("GET /select?" + body + " HTTP/1.0\r\nHost: localhost:" + port + "\r\n\r\n").status);
+    assertTrue(server.getSelectedFixes().isEmpty());
+
+    // a site whose host name is rebound to the loopback address still sends its own host name
+    assertEquals(403, send("POST /close HTTP/1.0\r\nHost: example.com:" + port
+        + "\r\nContent-Length: 0\r\n\r\n").status);
+    assertFalse(server.awaitSelection(0, TimeUnit.MILLISECONDS));
+
+    // requests from the pages of the server are accepted
+    assertEquals(200,
+        post("/select", body, "Origin: http://127.0.0.1:" + port).status);
+    assertEquals(ImmutableList.of(a.getID().toString()), server.getSelectedFixes().get(FILE));
+  }
+
+  private JsonObject getFixPage(String pFile, String pMode, int pOffset, int pLimit)
+      throws IOException {
+    Response response = send("GET /fixes?file=" + encode(pFile) + "&mode=" + pMode + "&offset="
+        + pOffset + "&limit=" + pLimit + " HTTP/1.0\r\nHost: localhost:" + port + "\r\n\r\n");
+    assertEquals(200, response.status);
+    return new JsonParser().parse(response.body).getAsJsonObject();
+  }
+
+  private List<Boolean> getActiveFlags(String pMode, int pOffset) throws IOException {
+    JsonArray fixes = getFixPage(FILE, pMode, pOffset, PAGE_SIZE).getAsJsonArray("fixes");
+    List<Boolean> flags = new ArrayList<>();
+    for (Object fix : fixes) {
+      flags.add(((JsonObject) fix).get("active").getAsBoolean());
+    }
+    return flags;
+  }
+
+  private Response post(String pPath, String pBody, String... pHeaders) throws IOException {
+    byte[] body = pBody.getBytes(StandardCharsets.UTF_8);
+    StringBuilder request = new StringBuilder();
+    request.append("POST ").append(pPath).append(" HTTP/1.0\r\n");
+    request.append("Host: localhost:").append(port).append("\r\n");
+    for (String header : pHeaders) {
+      request.append(header).append("\r\n");
+    }
+    request.append("Content-Type: application/x-www-form-urlencoded\r\n");
+    request.append("Content-Length: ").append(body.length).append("\r\n\r\n");
+    request.append(pBody);
+    return send(request.toString());
+  }
+
+  /**
+   * Send a raw HTTP/1.0 request, such that the path and the headers are not rewritten by the
+   * client.
+   */
+  private Response send(String pRequest) throws IOException {
+    try (Socket socket = new Socket("localhost", port)) {
+      socket.setSoTimeout(TIMEOUT_MS);
+      OutputStream out = socket.getOutputStream();
+      out.write(pRequest.getBytes(StandardCharsets.UTF_8));
+      out.flush();
+      InputStream in = socket.getInputStream();
+      String response = new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+      int statusStart = response.indexOf(' ') + 1;
+      int status = Integer.parseInt(response.substring(statusStart, statusStart + 3));
+      int bodyStart = response.indexOf("\r\n\r\n");
+      String body = (bodyStart < 0) ? "" : response.substring(bodyStart + 4);
+      return new Response(status, body);
+    }
+  }
+
+  private static String encode(String pValue) throws IOException {
+    return URLEncoder.encode(pValue, "UTF-8");
+  }
+
+  private static final class Response {
+
+    private final int status;
+    private final String body;
+
+    private Response(int pStatus, String pBody) {
+      status = pStatus;
+      body = pBody;
+    }
+  }
+}
@@ -23,6 +23,7 @@ import org.sosy_lab.cpachecker.core.bugfix.instance.integer.IntegerFix;
 import org.sosy_lab.cpachecker.core.bugfix.instance.integer.IntegerFix.IntegerFixMode;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -79,8 +80,21 @@ public final class IntegerFixDisplayInfo {
     return ast;
   }
 
+  public List<IntegerFixDisplayInfo> getChildren() {
+    return Collections.unmodifiableList(children);
+  }
+
   @Override
   public String toString() {
+    return toJSON(true);
+  }
+
+  /**
+   * Derive the JSON representation of this fix.
+   *
+   * @param pWithChildren whether the depending fixes are nested in the representation
+   */
+  public String toJSON(boolean pWithChildren) {
     StringBuilder sb = new StringBuilder();
     sb.append("{");
     sb.append("\"UUID\":").append("\"").append(id.toString()).append("\"").append(",");
@@ -99,7 +113,12 @@ public final class IntegerFixDisplayInfo {
     assert (meta != null);
     assert (fix.getFixMode() == meta.getMode());
     // the persistence of meta-info should be under JSON format
-    sb.append(meta.toString()).append(",");
+    sb.append(meta.toString());
+    if (!pWithChildren) {
+      sb.append("}");
+      return sb.toString();
+    }
+    sb.append(",");
     // add children
     sb.append("\"children\":");
     if (children.isEmpty()) {
@@ -0,0 +1,215 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.phase.fix.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * A streaming reader of S-expressions, such as the output of SMT solvers. Tokens are consumed
+ * directly from the underlying reader, thus the reader could process the output of a solver
+ * process while the solver is still producing it.
+ *
+ * An S-expression is represented as an atom (a {@link String}) or a list of S-expressions (a
+ * {@link List}).
+ */
+public final class SExpressionReader {
+
+  private static final int NONE = -2;
+
+  private final Reader in;
+  // one character of look-ahead, NONE if no character is buffered
+  private int lookahead = NONE;
+  private final StringBuilder buffer = new StringBuilder();
+
+  public SExpressionReader(Reader pIn) {
+    in = pIn;
+  }
+
+  /**
+   * Check whether the next token is an opening parenthesis. If so, the parenthesis is consumed.
+   */
+  public boolean enterList() throws IOException {
+    if (peekNonSpace() == '(') {
+      lookahead = NONE;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Check whether the next token is a closing parenthesis. If so, the parenthesis is consumed.
+   */
+  public boolean exitList() throws IOException {
+    if (peekNonSpace() == ')') {
+      lookahead = NONE;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Check whether there are no more tokens.
+   */
+  public boolean atEnd() throws IOException {
+    return peekNonSpace() < 0;
+  }
+
+  /**
+   * Read the next atom.
+   *
+   * @return the next atom, or {@code null} if the next token is a parenthesis
+   * @throws EOFException if the stream ends
+   */
+  @Nullable
+  public String readAtom() throws IOException {
+    int c = peekNonSpace();
+    if (c < 0) {
+      throw new EOFException("Unexpected end of S-expression stream");
+    }
+    if (c == '(' || c == ')') {
+      return null;
+    }
+    lookahead = NONE;
+    buffer.setLength(0);
+    if (c == '"' || c == '|') {
+      // string literal or quoted symbol
+      int quote = c;
+      buffer.append((char) c);
+      while (true) {
+        c = next();
+        if (c < 0) {
+          throw new EOFException("Unterminated literal in S-expression stream");
+        }
+        buffer.append((char) c);
+        if (c == quote) {
+          if (quote == '"' && peek() == '"') {
+            // escaped double quote in SMT-LIB2 string
+            buffer.append((char) next());
+            continue;
+          }
+          break;
+        }
+      }
+      return buffer.toString();
+    }
+    buffer.append((char) c);
+    while (true) {
+      c = peek();
+      if (c < 0 || c == '(' || c == ')' || c == ';' || Character.isWhitespace(c)) {
+        break;
+      }
+      buffer.append((char) next());
+    }
+    return buffer.toString();
+  }
+
+  /**
+   * Read the next S-expression completely.
+   *
+   * @return an atom or a list of S-expressions, {@code null} if the stream ends
+   */
+  @Nullable
+  public Object read() throws IOException {
+    if (atEnd()) {
+      return null;
+    }
+    if (enterList()) {
+      return readListRest();
+    }
+    if (exitList()) {
+      throw new IOException("Unbalanced parenthesis in S-expression stream");
+    }
+    return readAtom();
+  }
+
+  /**
+   * Read the remaining elements of a list whose opening parenthesis has been consumed. The closing
+   * parenthesis is consumed as well.
+   */
+  public List<Object> readListRest() throws IOException {
+    List<Object> elements = new ArrayList<>();
+    while (!exitList()) {
+      if (enterList()) {
+        elements.add(readListRest());
+      } else {
+        elements.add(readAtom());
+      }
+    }
+    return elements;
+  }
+
+  /**
+   * Skip the remaining elements of a list whose opening parenthesis has been consumed.
+   */
+  public void skipListRest() throws IOException {
+    int level = 1;
+    while (level > 0) {
+      if (enterList()) {
+        level++;
+      } else if (exitList()) {
+        level--;
+      } else {
+        readAtom();
+      }
+    }
+  }
+
+  /* ****************** */
+  /* character handling */
+  /* ****************** */
+
+  private int next() throws IOException {
+    if (lookahead != NONE) {
+      int c = lookahead;
+      lookahead = NONE;
+      return c;
+    }
+    return in.read();
+  }
+
+  private int peek() throws IOException {
+    if (lookahead == NONE) {
+      lookahead = in.read();
+    }
+    return lookahead;
+  }
+
+  /**
+   * Skip white spaces and comments, and peek the next character.
+   */
+  private int peekNonSpace() throws IOException {
+    while (true) {
+      int c = peek();
+      if (c == ';') {
+        // comment till the end of line
+        while (c >= 0 && c != '\n') {
+          next();
+          c = peek();
+        }
+      } else if (c >= 0 && Character.isWhitespace(c)) {
+        next();
+      } else {
+        return c;
+      }
+    }
+  }
+
+}
@@ -19,6 +19,7 @@ import static org.sosy_lab.cpachecker.core.phase.util.CPAPhaseManager.ExecutionT
 import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -68,6 +69,11 @@ public class CPAPhaseManager {
   @Option(secure = true, description = "the execution strategy of phases")
   private ExecutionType executionType = SEQUENTIAL;
 
+  @Option(secure = true, description = "the maximum number of phases running simultaneously in "
+      + "parallel execution, 0 for the number of available processors")
+  @IntegerOption(min = 0)
+  private int threads = 0;
+
   public CPAPhaseManager(
       Configuration pConfig, LogManager pLogger, ShutdownManager
       pShutdownManager, ShutdownNotifier pShutdownNotifier, MainStatistics pStats)
@@ -105,7 +111,8 @@ public class CPAPhaseManager {
       case SEQUENTIAL:
         return new SequentialExecStrategy();
       case PARALLEL:
-        throw new InvalidConfigurationException("Unimplemented method");
+        int numThreads = threads == 0 ? Runtime.getRuntime().availableProcessors() : threads;
+        return new ParallelExecStrategy(numThreads, logger);
       default:
         throw new InvalidConfigurationException("Invalid execution strategy chosen");
     }
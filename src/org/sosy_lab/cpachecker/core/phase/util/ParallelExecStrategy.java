@@ -0,0 +1,179 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.core.phase.util;
+
+import com.google.common.collect.Maps;
+
+import org.sosy_lab.common.concurrency.Threads;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.phase.CPAPhase;
+import org.sosy_lab.cpachecker.core.phase.result.CPAPhaseStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+/**
+ * Execute phases in parallel on a bounded worker pool. A phase is scheduled as soon as all of its
+ * ancestors have finished successfully. Once some phase fails, no more phases are scheduled and the
+ * running ones are awaited.
+ *
+ * The resultant status is merged in the order of the phase list (rather than the order of
+ * completion), thus the result is independent of thread scheduling.
+ */
+public class ParallelExecStrategy implements CPAPhaseExecStrategy {
+
+  private final int numThreads;
+  private final LogManager logger;
+
+  public ParallelExecStrategy(int pNumThreads, LogManager pLogger) {
+    numThreads = Math.max(1, pNumThreads);
+    logger = pLogger;
+  }
+
+  @Override
+  public CPAPhaseStatus exec(List<CPAPhase> pPhase) throws Exception {
+    if (pPhase.isEmpty()) {
+      return CPAPhaseStatus.SUCCESS;
+    }
+    // number of unfinished ancestors
+    Map<CPAPhase, Integer> blocking = Maps.newHashMap();
+    for (CPAPhase p : pPhase) {
+      int count = 0;
+      for (CPAPhase q : p.getAncestors()) {
+        if (!q.isProcessed()) {
+          count++;
+        }
+      }
+      blocking.put(p, count);
+    }
+    // the status of each finished phase, merged in the order of phase list at last
+    Map<CPAPhase, CPAPhaseStatus> results = Maps.newHashMap();
+    Exception firstException = null;
+
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads,
+        Threads.threadFactoryBuilder().setNameFormat("phase-worker-%d").setDaemon(true).build());
+    CompletionService<PhaseOutcome> completion = new ExecutorCompletionService<>(executor);
+    int running = 0;
+    try {
+      for (CPAPhase p : pPhase) {
+        if (!p.isProcessed() && blocking.get(p) == 0) {
+          submit(completion, p);
+          running++;
+        }
+      }
+      if (running == 0) {
+        throw new InvalidConfigurationException("Invalid phase topology: no entry");
+      }
+      boolean failed = false;
+      while (running > 0) {
+        Future<PhaseOutcome> future = completion.take();
+        running--;
+        PhaseOutcome outcome;
+        try {
+          outcome = future.get();
+        } catch (ExecutionException e) {
+          // PhaseTask captures all exceptions, so this should not happen
+          throw new AssertionError(e.getCause());
+        }
+        CPAPhase finished = outcome.phase;
+        if (outcome.exception != null) {
+          logger.logUserException(Level.WARNING, outcome.exception,
+              "Phase " + finished.getIdentifier() + " terminated abnormally");
+          if (firstException == null) {
+            firstException = outcome.exception;
+          }
+          results.put(finished, CPAPhaseStatus.FAIL);
+          failed = true;
+          continue;
+        }
+        results.put(finished, outcome.status);
+        if (outcome.status != CPAPhaseStatus.SUCCESS) {
+          failed = true;
+        }
+        if (failed) {
+          // drain the running phases, but do not schedule new ones
+          continue;
+        }
+        for (CPAPhase q : finished.getSuccessors()) {
+          Integer count = blocking.get(q);
+          if (count == null) {
+            // the successor is not managed by this strategy
+            continue;
+          }
+          blocking.put(q, count - 1);
+          if (count - 1 == 0 && !q.isProcessed()) {
+            submit(completion, q);
+            running++;
+          }
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    if (firstException != null) {
+      throw firstException;
+    }
+    CPAPhaseStatus status = CPAPhaseStatus.SUCCESS;
+    for (CPAPhase p : pPhase) {
+      CPAPhaseStatus r = results.get(p);
+      if (r != null) {
+        status = CPAPhaseStatus.mergeResult(status, r);
+      }
+    }
+    return status;
+  }
+
+  private void submit(CompletionService<PhaseOutcome> pCompletion, final CPAPhase pPhase) {
+    pCompletion.submit(new Callable<PhaseOutcome>() {
+      @Override
+      public PhaseOutcome call() {
+        try {
+          return new PhaseOutcome(pPhase, pPhase.run(), null);
+        } catch (Exception e) {
+          return new PhaseOutcome(pPhase, CPAPhaseStatus.FAIL, e);
+        }
+      }
+    });
+  }
+
+  @Override
+  public String getName() {
+    return "Parallel Execution";
+  }
+
+  private static class PhaseOutcome {
+
+    private final CPAPhase phase;
+    private final CPAPhaseStatus status;
+    private final Exception exception;
+
+    private PhaseOutcome(CPAPhase pPhase, CPAPhaseStatus pStatus, Exception pException) {
+      phase = pPhase;
+      status = pStatus;
+      exception = pException;
+    }
+  }
+
+}
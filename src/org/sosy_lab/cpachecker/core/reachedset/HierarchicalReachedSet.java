@@ -29,10 +29,13 @@ import org.sosy_lab.cpachecker.util.Pair;
 import java.util.AbstractCollection;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.TreeSet;
 
 import javax.annotation.Nullable;
 
@@ -57,14 +60,15 @@ public class HierarchicalReachedSet implements ReachedSet {
   /* hierarchical fields */
   /* ******************* */
 
-  private final HashSet<CFANode> waitEntry;
+  // entries are taken in the order of pushing, unless an order is specified
+  private Set<CFANode> waitEntry;
   private final HashSet<CFANode> usedEntry;
 
   HierarchicalReachedSet(WaitlistFactory pWaitlistFactory) {
     workingReached = new LinkedHashMap<>();
     unmodifiableReached = Collections.unmodifiableSet(workingReached.keySet());
     waitlist = pWaitlistFactory.createWaitlistInstance();
-    waitEntry = new HashSet<>();
+    waitEntry = new LinkedHashSet<>();
     usedEntry = new HashSet<>();
   }
 
@@ -293,6 +297,19 @@ public class HierarchicalReachedSet implements ReachedSet {
     }
   }
 
+  /**
+   * Take the waiting entries in the given order, including those pushed later.
+   */
+  public void orderEntries(Comparator<? super CFANode> pOrder) {
+    Set<CFANode> ordered = new TreeSet<>(pOrder);
+    ordered.addAll(waitEntry);
+    waitEntry = ordered;
+  }
+
+  public Collection<CFANode> getWaitingEntries() {
+    return Collections.unmodifiableCollection(waitEntry);
+  }
+
   public boolean hasWaitingEntry() {
     return !waitEntry.isEmpty();
   }
@@ -14,12 +14,29 @@
  */
 package org.sosy_lab.cpachecker.core.summary.instance.access;
 
+import com.google.common.base.Splitter;
+
 import org.sosy_lab.cpachecker.core.summary.apply.AbstractFunctionSummaryInstance;
 import org.sosy_lab.cpachecker.core.summary.manage.SummaryInstance;
 import org.sosy_lab.cpachecker.util.collections.preliminary.Presence;
 import org.sosy_lab.cpachecker.util.collections.tree.PathCopyingPersistentTree;
+import org.sosy_lab.cpachecker.util.collections.tree.TreeVisitor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Stack;
+
+import javax.annotation.Nullable;
 
 public class AccessFunctionInstance extends AbstractFunctionSummaryInstance<AccessResult> {
+
+  private static final char READ = 'R';
+  private static final char WRITE = 'W';
+  private static final char SEGMENT_SEPARATOR = '\u001f';
+  private static final Splitter lineSplitter = Splitter.on('\n').omitEmptyStrings();
+  private static final Splitter segmentSplitter = Splitter.on(SEGMENT_SEPARATOR);
+
   PathCopyingPersistentTree<String, Presence> readTree = null;
   PathCopyingPersistentTree<String, Presence> writeTree = null;
 
@@ -68,6 +85,63 @@ public class AccessFunctionInstance extends AbstractFunctionSummaryInstance<Acce
     return writeTree;
   }
 
+  /**
+   * Encode the access trees as text, one accessed path per line. Each line starts with the kind
+   * of access, followed by the segments of the path.
+   */
+  public String encode() {
+    StringBuilder sb = new StringBuilder();
+    encodeTree(READ, readTree, sb);
+    encodeTree(WRITE, writeTree, sb);
+    return sb.toString();
+  }
+
+  private static void encodeTree(
+      final char pKind, PathCopyingPersistentTree<String, Presence> pTree,
+      final StringBuilder pBuilder) {
+    pTree.traverse(new TreeVisitor<String, Presence>() {
+      @Override
+      public TreeVisitStrategy visit(Stack<String> path, Presence element, boolean isLeaf) {
+        if (element != null) {
+          pBuilder.append(pKind);
+          for (String segment : path) {
+            pBuilder.append(SEGMENT_SEPARATOR).append(segment);
+          }
+          pBuilder.append('\n');
+        }
+        return TreeVisitStrategy.CONTINUE;
+      }
+    });
+  }
+
+  /**
+   * Restore the summary from the encoding produced by {@link #encode()}.
+   *
+   * @return the summary, or {@code null} if the encoding is malformed
+   */
+  @Nullable
+  public static AccessFunctionInstance decode(String pFunction, String pEncoded) {
+    PathCopyingPersistentTree<String, Presence> r = new PathCopyingPersistentTree<>();
+    PathCopyingPersistentTree<String, Presence> w = new PathCopyingPersistentTree<>();
+    for (String line : lineSplitter.split(pEncoded)) {
+      Iterator<String> fields = segmentSplitter.split(line).iterator();
+      String kind = fields.next();
+      List<String> path = new ArrayList<>();
+      while (fields.hasNext()) {
+        path.add(fields.next());
+      }
+      // paths are encoded in pre-order, thus the element of a node does not remove its subtree
+      if (kind.equals(String.valueOf(READ))) {
+        r = r.setElementAndCopy(path, Presence.INSTANCE);
+      } else if (kind.equals(String.valueOf(WRITE))) {
+        w = w.setElementAndCopy(path, Presence.INSTANCE);
+      } else {
+        return null;
+      }
+    }
+    return new AccessFunctionInstance(pFunction, r, w);
+  }
+
   /* (non-Javadoc)
    * @see java.lang.Object#toString()
    */
@@ -21,7 +21,7 @@ import static org.sosy_lab.cpachecker.core.summary.manage.SummaryProvider.Summar
 import static org.sosy_lab.cpachecker.core.summary.manage.SummaryProvider.SummaryName.RANGE_LOOP_INTERNAL;
 import static org.sosy_lab.cpachecker.core.summary.manage.SummaryProvider.SummaryName.RANGE_SUMMARY;
 
-import com.google.common.base.Function;
+import com.google.common.base.Functions;
 import com.google.common.base.Predicates;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
@@ -34,6 +34,7 @@ import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.cpachecker.core.algorithm.summary.SummaryType;
+import org.sosy_lab.cpachecker.util.globalinfo.AnalysisContext;
 
 import java.util.List;
 import java.util.Map;
@@ -104,97 +105,97 @@ public final class SummaryProvider {
 
   }
 
-  private static Map<SummaryName, LoopSummaryStore<?>> loopSummary = Maps.newHashMap();
-  private static Map<SummaryName, FunctionSummaryStore<?>> functionSummary = Maps.newHashMap();
+  /**
+   * Summary stores of one analysis. Each {@link AnalysisContext} owns a registry, thus several
+   * analyses could run in one process without sharing summaries.
+   */
+  public static final class SummaryRegistry {
 
-  /* ***************************************** */
-  /* summary cache for activated summary names */
-  /* ***************************************** */
+    private final Map<SummaryName, LoopSummaryStore<?>> loopSummary = Maps.newHashMap();
+    private final Map<SummaryName, FunctionSummaryStore<?>> functionSummary = Maps.newHashMap();
 
-  private static SummaryProviderOptions options = null;
-  private static List<LoopSummaryStore<?>> activeInternalLoopSummary = Lists.newArrayList();
-  private static List<LoopSummaryStore<?>> activeExternalLoopSummary = Lists.newArrayList();
-  private static List<FunctionSummaryStore<?>> activeFunctionSummary = Lists.newArrayList();
+    /* ***************************************** */
+    /* summary cache for activated summary names */
+    /* ***************************************** */
 
-  /**
-   * This method should be invoked only once at the very first of summary computation phase.
-   */
-  public static void initialize(Configuration pConfig) throws InvalidConfigurationException {
-    if (options == null) {
-      options = new SummaryProviderOptions(pConfig);
+    private SummaryProviderOptions options = null;
+    private volatile List<LoopSummaryStore<?>> activeInternalLoopSummary = Lists.newArrayList();
+    private volatile List<LoopSummaryStore<?>> activeExternalLoopSummary = Lists.newArrayList();
+    private volatile List<FunctionSummaryStore<?>> activeFunctionSummary = Lists.newArrayList();
+
+    private SummaryRegistry() {
+    }
+
+    private synchronized void initialize(Configuration pConfig)
+        throws InvalidConfigurationException {
+      if (options == null) {
+        options = new SummaryProviderOptions(pConfig);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void registerSummary(
+        SummaryType type,
+        SummaryName summaryName,
+        SummaryStore summary) {
+      if (type == SummaryType.FUNCTION_SUMMARY) {
+        functionSummary.put(summaryName,
+            (FunctionSummaryStore<? extends SummaryInstance>) summary);
+        // update active function summary list
+        activeFunctionSummary = FluentIterable.from(options.externalSummary)
+            .transform(Functions.forMap(functionSummary, null))
+            .filter(Predicates.notNull()).toList();
+      } else if (type == SummaryType.LOOP_SUMMARY) {
+        loopSummary.put(summaryName, (LoopSummaryStore<? extends SummaryInstance>) summary);
+        // update active loop summary list
+        activeExternalLoopSummary = FluentIterable.from(options.externalSummary)
+            .transform(Functions.forMap(loopSummary, null))
+            .filter(Predicates.notNull()).toList();
+        activeInternalLoopSummary = FluentIterable.from(options.internalSummary)
+            .transform(Functions.forMap(loopSummary, null))
+            .filter(Predicates.notNull()).toList();
+      } else {
+        throw new IllegalArgumentException("Unknown summary type: " + type);
+      }
     }
+
+  }
+
+  private SummaryProvider() {
+  }
+
+  public static SummaryRegistry createRegistry() {
+    return new SummaryRegistry();
   }
 
-  public static void registerFunctionSummary(
-      SummaryName name,
-      FunctionSummaryStore<? extends SummaryInstance> summary) {
-    functionSummary.put(name, summary);
+  private static SummaryRegistry registry() {
+    return AnalysisContext.current().getSummaryRegistry();
   }
 
-  public static void registerLoopSummary(
-      SummaryName name,
-      LoopSummaryStore<? extends SummaryInstance> summary) {
-    loopSummary.put(name, summary);
+  /**
+   * This method should be invoked only once at the very first of summary computation phase.
+   */
+  public static void initialize(Configuration pConfig) throws InvalidConfigurationException {
+    registry().initialize(pConfig);
   }
 
   public static List<LoopSummaryStore<?>> getExternalLoopSummary() {
-    return activeExternalLoopSummary;
+    return registry().activeExternalLoopSummary;
   }
 
   public static List<LoopSummaryStore<?>> getInternalLoopSummary() {
-    return activeInternalLoopSummary;
+    return registry().activeInternalLoopSummary;
   }
 
   public static List<FunctionSummaryStore<?>> getFunctionSummary() {
-    if (activeFunctionSummary == null) {
-      activeFunctionSummary = FluentIterable.from(options.externalSummary)
-          .transform(new Function<SummaryName, FunctionSummaryStore<?>>() {
-            @Override
-            public FunctionSummaryStore<?> apply(SummaryName name) {
-              return functionSummary.get(name);
-            }
-          }).filter(Predicates.notNull()).toList();
-    }
-    return activeFunctionSummary;
+    return registry().activeFunctionSummary;
   }
 
-  @SuppressWarnings("unchecked")
   public static void registerSummary(
       SummaryType type,
       SummaryName summaryName,
       SummaryStore summary) {
-    if (type == SummaryType.FUNCTION_SUMMARY) {
-      SummaryProvider.registerFunctionSummary(summaryName,
-          (FunctionSummaryStore<? extends SummaryInstance>) summary);
-      // update active function summary list
-      activeFunctionSummary = FluentIterable.from(options.externalSummary)
-          .transform(new Function<SummaryName, FunctionSummaryStore<?>>() {
-            @Override
-            public FunctionSummaryStore<?> apply(SummaryName pSummaryName) {
-              return functionSummary.get(pSummaryName);
-            }
-          }).filter(Predicates.notNull()).toList();
-    } else if (type == SummaryType.LOOP_SUMMARY) {
-      SummaryProvider
-          .registerLoopSummary(summaryName, (LoopSummaryStore<? extends SummaryInstance>) summary);
-      // update active loop summary list
-      activeExternalLoopSummary = FluentIterable.from(options.externalSummary)
-          .transform(new Function<SummaryName, LoopSummaryStore<?>>() {
-            @Override
-            public LoopSummaryStore<?> apply(SummaryName pSummaryName) {
-              return loopSummary.get(pSummaryName);
-            }
-          }).filter(Predicates.notNull()).toList();
-      activeInternalLoopSummary = FluentIterable.from(options.internalSummary)
-          .transform(new Function<SummaryName, LoopSummaryStore<?>>() {
-            @Override
-            public LoopSummaryStore<?> apply(SummaryName pSummaryName) {
-              return loopSummary.get(pSummaryName);
-            }
-          }).filter(Predicates.notNull()).toList();
-    } else {
-      throw new IllegalArgumentException("Unknown summary type: " + type);
-    }
+    registry().registerSummary(type, summaryName, summary);
   }
 
 }
@@ -78,6 +78,20 @@ public class AndersenState implements LatticeAbstractState<AndersenState> {
     return this.localConstraintSystem.getPointsToSets();
   }
 
+  /**
+   * Checks whether the pointer may point to the target in the local constraint system.
+   */
+  public boolean mayPointTo(String pPointer, String pTarget) {
+    return this.localConstraintSystem.getSolver().mayPointTo(pPointer, pTarget);
+  }
+
+  /**
+   * Checks whether the two pointers may point to a common target in the local constraint system.
+   */
+  public boolean mayAlias(String pPointer1, String pPointer2) {
+    return this.localConstraintSystem.getSolver().mayAlias(pPointer1, pPointer2);
+  }
+
   @Override
   public boolean equals(Object pO) {
     if (this == pO) {
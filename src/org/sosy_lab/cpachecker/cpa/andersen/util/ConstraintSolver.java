@@ -0,0 +1,542 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cpa.andersen.util;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.sosy_lab.cpachecker.util.collections.set.SparseBitSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * Solver of Andersen-style constraint systems on integer identifiers.
+ *
+ * Variables are numbered densely, and points-to sets, successors and complex constraints of the
+ * constraint graph are stored as {@link SparseBitSet}s of these numbers. The dynamic transitive
+ * closure is computed by a worklist with difference propagation: a node only propagates the
+ * targets added since it was processed last, unless a new edge requires its whole points-to set.
+ *
+ * Cycles are collapsed by hybrid cycle detection: cycles through dereferenced variables are found
+ * on the offline graph before solving (HCD), and the remaining cycles are detected lazily when an
+ * edge connects two nodes with equal points-to sets (LCD). Collapsed variables share one node,
+ * which is found by union-find.
+ *
+ * A solver is immutable once constructed, and its queries do not allocate except for
+ * {@link #getPointsToMap()}.
+ */
+public final class ConstraintSolver {
+
+  private static final int NONE = -1;
+
+  private final ImmutableMap<String, Integer> ids;
+  private final String[] names;
+
+  // union-find of collapsed nodes
+  private final int[] parent;
+
+  private final SparseBitSet[] pointsTo;
+  // targets added to the points-to set since the node was processed last
+  private final SparseBitSet[] delta;
+  private final SparseBitSet[] successors;
+  // {b | *n \subseteq b}
+  private final SparseBitSet[] loads;
+  // {a | a \subseteq *n}
+  private final SparseBitSet[] stores;
+  // HCD: the variables all targets of n are collapsed with, or null
+  private final int[][] hcdMembers;
+
+  private final Deque<Integer> worklist = new ArrayDeque<>();
+  private final boolean[] inWorklist;
+  // LCD: edges (encoded as pairs of node ids) that have been checked for cycles
+  private final Set<Long> testedEdges = new HashSet<>();
+
+  public ConstraintSolver(
+      Collection<BaseConstraint> pBaseConstraints,
+      Collection<SimpleConstraint> pSimpleConstraints,
+      Collection<ComplexConstraint> pComplexConstraints) {
+    Map<String, Integer> idMap = new LinkedHashMap<>();
+    for (BaseConstraint bc : pBaseConstraints) {
+      intern(idMap, bc.getSuperVar());
+    }
+    for (SimpleConstraint sc : pSimpleConstraints) {
+      intern(idMap, sc.getSubVar());
+      intern(idMap, sc.getSuperVar());
+    }
+    for (ComplexConstraint cc : pComplexConstraints) {
+      intern(idMap, cc.getSubVar());
+      intern(idMap, cc.getSuperVar());
+    }
+    int graphSize = idMap.size();
+    for (BaseConstraint bc : pBaseConstraints) {
+      intern(idMap, bc.getSubVar());
+    }
+    ids = ImmutableMap.copyOf(idMap);
+    int n = ids.size();
+    names = ids.keySet().toArray(new String[n]);
+
+    parent = new int[n];
+    pointsTo = new SparseBitSet[n];
+    delta = new SparseBitSet[n];
+    successors = new SparseBitSet[n];
+    loads = new SparseBitSet[n];
+    stores = new SparseBitSet[n];
+    hcdMembers = new int[n][];
+    inWorklist = new boolean[n];
+    for (int i = 0; i < n; i++) {
+      parent[i] = i;
+      pointsTo[i] = new SparseBitSet();
+      delta[i] = new SparseBitSet();
+      successors[i] = new SparseBitSet();
+      loads[i] = new SparseBitSet();
+      stores[i] = new SparseBitSet();
+    }
+
+    for (BaseConstraint bc : pBaseConstraints) {
+      pointsTo[ids.get(bc.getSuperVar())].add(ids.get(bc.getSubVar()));
+    }
+    for (SimpleConstraint sc : pSimpleConstraints) {
+      int src = ids.get(sc.getSubVar());
+      int dest = ids.get(sc.getSuperVar());
+      if (src != dest) {
+        successors[src].add(dest);
+      }
+    }
+    for (ComplexConstraint cc : pComplexConstraints) {
+      if (cc.isSubDerefed()) {
+        loads[ids.get(cc.getSubVar())].add(ids.get(cc.getSuperVar()));
+      } else {
+        stores[ids.get(cc.getSuperVar())].add(ids.get(cc.getSubVar()));
+      }
+    }
+
+    detectOfflineCycles(graphSize, pSimpleConstraints, pComplexConstraints);
+    solve();
+  }
+
+  private static void intern(Map<String, Integer> pIds, String pName) {
+    if (!pIds.containsKey(pName)) {
+      pIds.put(pName, pIds.size());
+    }
+  }
+
+  /* ********** */
+  /* union-find */
+  /* ********** */
+
+  private int find(int v) {
+    int root = v;
+    while (parent[root] != root) {
+      root = parent[root];
+    }
+    // path compression
+    while (parent[v] != root) {
+      int next = parent[v];
+      parent[v] = root;
+      v = next;
+    }
+    return root;
+  }
+
+  /**
+   * Collapse the nodes of the two variables, and schedule the merged node for propagating its
+   * whole points-to set.
+   *
+   * @return the merged node
+   */
+  private int collapse(int a, int b) {
+    int ra = find(a);
+    int rb = find(b);
+    if (ra == rb) {
+      return ra;
+    }
+    // keep the node with more successors to move fewer data
+    if (successors[ra].cardinality() > successors[rb].cardinality()) {
+      int tmp = ra;
+      ra = rb;
+      rb = tmp;
+    }
+    parent[ra] = rb;
+    pointsTo[rb].addAll(pointsTo[ra]);
+    successors[rb].addAll(successors[ra]);
+    loads[rb].addAll(loads[ra]);
+    stores[rb].addAll(stores[ra]);
+    // the collapsed variables have the same targets, thus both HCD cycles go through them
+    hcdMembers[rb] = mergeMembers(hcdMembers[rb], hcdMembers[ra]);
+    hcdMembers[ra] = null;
+    pointsTo[ra] = null;
+    delta[ra] = null;
+    successors[ra] = null;
+    loads[ra] = null;
+    stores[ra] = null;
+    // new successors and complex constraints require all targets
+    delta[rb] = pointsTo[rb].copy();
+    schedule(rb);
+    return rb;
+  }
+
+  private int[] mergeMembers(@Nullable int[] pMembers1, @Nullable int[] pMembers2) {
+    if (pMembers1 == null) {
+      return pMembers2;
+    }
+    if (pMembers2 == null) {
+      return pMembers1;
+    }
+    SparseBitSet members = new SparseBitSet();
+    for (int m : pMembers1) {
+      members.add(find(m));
+    }
+    for (int m : pMembers2) {
+      members.add(find(m));
+    }
+    return members.toArray();
+  }
+
+  private void schedule(int v) {
+    if (!inWorklist[v]) {
+      inWorklist[v] = true;
+      worklist.add(v);
+    }
+  }
+
+  /* ************* */
+  /* offline (HCD) */
+  /* ************* */
+
+  /**
+   * Find cycles of the offline graph, where a variable v is node v and its dereference *v is node
+   * v + size. Cycles of simple constraints are cycles of the online graph, thus their variables are
+   * collapsed at once. If a cycle contains exactly one dereferenced variable *a, all targets of a
+   * are on a cycle with its other variables, and they are collapsed when the targets are known.
+   * Cycles through several dereferenced variables are left to LCD, since they only exist online if
+   * all these variables point somewhere.
+   */
+  private void detectOfflineCycles(
+      int pSize, Collection<SimpleConstraint> pSimpleConstraints,
+      Collection<ComplexConstraint> pComplexConstraints) {
+    List<List<Integer>> offlineEdges = new ArrayList<>(2 * pSize);
+    for (int i = 0; i < 2 * pSize; i++) {
+      offlineEdges.add(new ArrayList<Integer>());
+    }
+    for (SimpleConstraint sc : pSimpleConstraints) {
+      offlineEdges.get(ids.get(sc.getSubVar())).add(ids.get(sc.getSuperVar()));
+    }
+    for (List<Integer> component : findComponents(offlineEdges)) {
+      if (component.size() < 2) {
+        continue;
+      }
+      int merged = component.get(0);
+      for (int v : component) {
+        merged = collapse(merged, v);
+      }
+    }
+
+    for (ComplexConstraint cc : pComplexConstraints) {
+      int sub = ids.get(cc.getSubVar());
+      int sup = ids.get(cc.getSuperVar());
+      if (cc.isSubDerefed()) {
+        offlineEdges.get(sub + pSize).add(sup);
+      } else {
+        offlineEdges.get(sub).add(sup + pSize);
+      }
+    }
+    for (List<Integer> component : findComponents(offlineEdges)) {
+      int dereferenced = NONE;
+      int numDereferenced = 0;
+      List<Integer> variables = new ArrayList<>(component.size());
+      for (int v : component) {
+        if (v < pSize) {
+          variables.add(v);
+        } else {
+          dereferenced = v - pSize;
+          numDereferenced++;
+        }
+      }
+      if (numDereferenced == 1 && !variables.isEmpty()) {
+        // variables may have been collapsed by the first pass, and solve() only reads the HCD
+        // members of representative nodes
+        SparseBitSet members = new SparseBitSet();
+        for (int v : variables) {
+          members.add(find(v));
+        }
+        int node = find(dereferenced);
+        hcdMembers[node] = mergeMembers(hcdMembers[node], members.toArray());
+      }
+    }
+    // collapsing during the offline phase should not schedule nodes
+    worklist.clear();
+    Arrays.fill(inWorklist, false);
+  }
+
+  /**
+   * Tarjan's algorithm without recursion.
+   */
+  private static List<List<Integer>> findComponents(List<List<Integer>> pEdges) {
+    int n = pEdges.size();
+    int[] index = new int[n];
+    int[] lowLink = new int[n];
+    int[] next = new int[n];
+    boolean[] onStack = new boolean[n];
+    Arrays.fill(index, NONE);
+    Deque<Integer> stack = new ArrayDeque<>();
+    Deque<Integer> callStack = new ArrayDeque<>();
+    List<List<Integer>> components = new ArrayList<>();
+    int counter = 0;
+    for (int root = 0; root < n; root++) {
+      if (index[root] != NONE) {
+        continue;
+      }
+      index[root] = lowLink[root] = counter++;
+      stack.push(root);
+      onStack[root] = true;
+      callStack.push(root);
+      while (!callStack.isEmpty()) {
+        int v = callStack.peek();
+        List<Integer> out = pEdges.get(v);
+        if (next[v] < out.size()) {
+          int w = out.get(next[v]++);
+          if (index[w] == NONE) {
+            index[w] = lowLink[w] = counter++;
+            stack.push(w);
+            onStack[w] = true;
+            callStack.push(w);
+          } else if (onStack[w]) {
+            lowLink[v] = Math.min(lowLink[v], index[w]);
+          }
+          continue;
+        }
+        callStack.pop();
+        if (!callStack.isEmpty()) {
+          int caller = callStack.peek();
+          lowLink[caller] = Math.min(lowLink[caller], lowLink[v]);
+        }
+        if (lowLink[v] == index[v]) {
+          List<Integer> component = new ArrayList<>();
+          int w;
+          do {
+            w = stack.pop();
+            onStack[w] = false;
+            component.add(w);
+          } while (w != v);
+          components.add(component);
+        }
+      }
+    }
+    return components;
+  }
+
+  /* ************** */
+  /* online solving */
+  /* ************** */
+
+  private void solve() {
+    for (int v = 0; v < names.length; v++) {
+      if (find(v) == v && !pointsTo[v].isEmpty()) {
+        delta[v] = pointsTo[v].copy();
+        schedule(v);
+      }
+    }
+    while (!worklist.isEmpty()) {
+      int n = worklist.poll();
+      inWorklist[n] = false;
+      if (find(n) != n) {
+        // collapsed into another node, which has been scheduled
+        continue;
+      }
+      SparseBitSet newTargets = delta[n];
+      delta[n] = new SparseBitSet();
+      if (newTargets.isEmpty()) {
+        continue;
+      }
+
+      if (hcdMembers[n] != null) {
+        int[] members = hcdMembers[n];
+        int target = members[0];
+        for (int m : members) {
+          target = collapse(target, m);
+        }
+        for (int v : newTargets.toArray()) {
+          target = collapse(target, v);
+        }
+        if (find(n) != n) {
+          // the merged node propagates the whole points-to set of n
+          continue;
+        }
+      }
+
+      // complex constraints introduce edges from or to the new targets
+      if (!loads[n].isEmpty() || !stores[n].isEmpty()) {
+        int[] nodeLoads = loads[n].toArray();
+        int[] nodeStores = stores[n].toArray();
+        for (int v : newTargets.toArray()) {
+          for (int b : nodeLoads) {
+            addEdge(v, b);
+          }
+          for (int a : nodeStores) {
+            addEdge(a, v);
+          }
+        }
+      }
+
+      // propagate the new targets along the edges
+      for (int z : successors[n].toArray()) {
+        int rz = find(z);
+        if (rz == n) {
+          continue;
+        }
+        if (pointsTo[rz].equals(pointsTo[n]) && testedEdges.add(edgeKey(n, rz))) {
+          if (collapseCycle(n, rz) != NONE) {
+            // the merged node propagates its whole points-to set later
+            break;
+          }
+        }
+        propagate(newTargets, rz);
+      }
+    }
+  }
+
+  private static long edgeKey(int from, int to) {
+    return ((long) from << 32) | (to & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Add an edge between the nodes of two variables. A new edge propagates the whole points-to set
+   * of its source.
+   */
+  private void addEdge(int from, int to) {
+    int rf = find(from);
+    int rt = find(to);
+    if (rf == rt || !successors[rf].add(rt)) {
+      return;
+    }
+    propagate(pointsTo[rf], rt);
+  }
+
+  private void propagate(SparseBitSet pTargets, int pNode) {
+    SparseBitSet added = pTargets.andNot(pointsTo[pNode]);
+    if (!added.isEmpty()) {
+      pointsTo[pNode].addAll(added);
+      delta[pNode].addAll(added);
+      schedule(pNode);
+    }
+  }
+
+  /**
+   * LCD: check whether the edge (from, to) closes a cycle, i.e., from is reachable from to, and
+   * collapse the nodes on the cycle.
+   *
+   * @return the merged node, or NONE if there is no cycle
+   */
+  private int collapseCycle(int from, int to) {
+    Map<Integer, Integer> previous = new HashMap<>();
+    Deque<Integer> queue = new ArrayDeque<>();
+    previous.put(to, NONE);
+    queue.add(to);
+    while (!queue.isEmpty()) {
+      int v = queue.poll();
+      if (v == from) {
+        int merged = from;
+        for (int u = previous.get(from); u != NONE; u = previous.get(u)) {
+          merged = collapse(merged, u);
+        }
+        return merged;
+      }
+      for (int w : successors[v].toArray()) {
+        int rw = find(w);
+        if (!previous.containsKey(rw)) {
+          previous.put(rw, v);
+          queue.add(rw);
+        }
+      }
+    }
+    return NONE;
+  }
+
+  /* ******* */
+  /* queries */
+  /* ******* */
+
+  /**
+   * Get the identifier of the given variable, or -1 if the variable does not occur in the
+   * constraints.
+   */
+  public int getId(String pVariable) {
+    Integer id = ids.get(pVariable);
+    return (id == null) ? NONE : id;
+  }
+
+  public String getName(int pId) {
+    return names[pId];
+  }
+
+  public int getNumberOfVariables() {
+    return names.length;
+  }
+
+  /**
+   * Get the identifiers of the targets the given variable may point to. The returned set must not
+   * be modified.
+   */
+  public SparseBitSet getPointsToSet(int pId) {
+    return pointsTo[find(pId)];
+  }
+
+  /**
+   * Check whether the pointer may point to the target.
+   */
+  public boolean mayPointTo(String pPointer, String pTarget) {
+    int pointer = getId(pPointer);
+    int target = getId(pTarget);
+    return pointer != NONE && target != NONE && pointsTo[find(pointer)].contains(target);
+  }
+
+  /**
+   * Check whether the two pointers may point to a common target.
+   */
+  public boolean mayAlias(String pPointer1, String pPointer2) {
+    int pointer1 = getId(pPointer1);
+    int pointer2 = getId(pPointer2);
+    return pointer1 != NONE && pointer2 != NONE
+        && pointsTo[find(pointer1)].intersects(pointsTo[find(pointer2)]);
+  }
+
+  /**
+   * Get the points-to sets of all variables by their names.
+   */
+  public Map<String, String[]> getPointsToMap() {
+    Map<String, String[]> result = new LinkedHashMap<>();
+    for (int v = 0; v < names.length; v++) {
+      int[] targets = pointsTo[find(v)].toArray();
+      String[] targetNames = new String[targets.length];
+      for (int k = 0; k < targets.length; k++) {
+        targetNames[k] = names[targets[k]];
+      }
+      result.put(names[v], targetNames);
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cpa.andersen.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+public class ConstraintSolverTest {
+
+  // p = &a
+  private static BaseConstraint addressOf(String pointer, String target) {
+    return new BaseConstraint(target, pointer);
+  }
+
+  // p = q
+  private static SimpleConstraint copy(String left, String right) {
+    return new SimpleConstraint(right, left);
+  }
+
+  // p = *q
+  private static ComplexConstraint load(String left, String right) {
+    return new ComplexConstraint(right, left, true);
+  }
+
+  // *p = q
+  private static ComplexConstraint store(String left, String right) {
+    return new ComplexConstraint(right, left, false);
+  }
+
+  private static void assertPointsTo(
+      Map<String, String[]> pointsTo, String pointer, String... targets) {
+    String[] actual = pointsTo.get(pointer).clone();
+    String[] expected = targets.clone();
+    Arrays.sort(actual);
+    Arrays.sort(expected);
+    assertArrayEquals(pointer, expected, actual);
+  }
+
+  @Test
+  public void testCopyCycle() {
+    ConstraintSystem system = new ConstraintSystem()
+        .addConstraint(addressOf("p", "a"))
+        .addConstraint(addressOf("r", "b"))
+        .addConstraint(copy("q", "p"))
+        .addConstraint(copy("r", "q"))
+        .addConstraint(copy("p", "r"))
+        .addConstraint(copy("s", "r"));
+    Map<String, String[]> pointsTo = system.getPointsToSets();
+    assertPointsTo(pointsTo, "p", "a", "b");
+    assertPointsTo(pointsTo, "q", "a", "b");
+    assertPointsTo(pointsTo, "r", "a", "b");
+    assertPointsTo(pointsTo, "s", "a", "b");
+    // the cycle is collapsed into one node
+    ConstraintSolver solver = system.getSolver();
+    assertSame(solver.getPointsToSet(solver.getId("p")),
+        solver.getPointsToSet(solver.getId("r")));
+  }
+
+  @Test
+  public void testLoadAndStore() {
+    ConstraintSystem system = new ConstraintSystem()
+        .addConstraint(addressOf("p", "a"))
+        .addConstraint(addressOf("q", "b"))
+        .addConstraint(store("p", "q"))
+        .addConstraint(load("r", "p"))
+        .addConstraint(load("s", "r"));
+    Map<String, String[]> pointsTo = system.getPointsToSets();
+    assertPointsTo(pointsTo, "p", "a");
+    assertPointsTo(pointsTo, "q", "b");
+    assertPointsTo(pointsTo, "a", "b");
+    assertPointsTo(pointsTo, "r", "b");
+    assertPointsTo(pointsTo, "s");
+    ConstraintSolver solver = system.getSolver();
+    assertTrue(solver.mayPointTo("a", "b"));
+    assertFalse(solver.mayPointTo("r", "a"));
+    assertTrue(solver.mayAlias("q", "r"));
+    assertFalse(solver.mayAlias("p", "q"));
+  }
+
+  @Test
+  public void testOfflineCycle() {
+    // q = *p and *p = q form an offline cycle through *p, thus q is collapsed with the targets of p
+    ConstraintSystem system = new ConstraintSystem()
+        .addConstraint(addressOf("p", "x"))
+        .addConstraint(addressOf("p", "y"))
+        .addConstraint(addressOf("x", "a"))
+        .addConstraint(addressOf("y", "b"))
+        .addConstraint(load("q", "p"))
+        .addConstraint(store("p", "q"));
+    Map<String, String[]> pointsTo = system.getPointsToSets();
+    assertPointsTo(pointsTo, "p", "x", "y");
+    assertPointsTo(pointsTo, "q", "a", "b");
+    assertPointsTo(pointsTo, "x", "a", "b");
+    assertPointsTo(pointsTo, "y", "a", "b");
+    ConstraintSolver solver = system.getSolver();
+    assertSame(solver.getPointsToSet(solver.getId("q")),
+        solver.getPointsToSet(solver.getId("x")));
+    assertSame(solver.getPointsToSet(solver.getId("x")),
+        solver.getPointsToSet(solver.getId("y")));
+  }
+
+  @Test
+  public void testOfflineCycleOnCollapsedVariable() {
+    // p and p2 are collapsed by the copy cycle, the offline cycle goes through *p2
+    ConstraintSystem system = new ConstraintSystem()
+        .addConstraint(addressOf("p", "x"))
+        .addConstraint(addressOf("p2", "y"))
+        .addConstraint(copy("p", "p2"))
+        .addConstraint(copy("p2", "p"))
+        .addConstraint(copy("p", "t"))
+        .addConstraint(addressOf("x", "a"))
+        .addConstraint(addressOf("y", "b"))
+        .addConstraint(load("q", "p2"))
+        .addConstraint(store("p2", "q"))
+        .addConstraint(load("r", "p"))
+        .addConstraint(store("p", "r"));
+    Map<String, String[]> pointsTo = system.getPointsToSets();
+    assertPointsTo(pointsTo, "p", "x", "y");
+    assertPointsTo(pointsTo, "p2", "x", "y");
+    assertPointsTo(pointsTo, "q", "a", "b");
+    assertPointsTo(pointsTo, "r", "a", "b");
+    assertPointsTo(pointsTo, "x", "a", "b");
+    assertPointsTo(pointsTo, "y", "a", "b");
+    ConstraintSolver solver = system.getSolver();
+    assertSame(solver.getPointsToSet(solver.getId("q")),
+        solver.getPointsToSet(solver.getId("r")));
+    assertSame(solver.getPointsToSet(solver.getId("q")),
+        solver.getPointsToSet(solver.getId("y")));
+  }
+
+  @Test
+  public void testLazyCycle() {
+    // the cycle a -> b -> a only exists online: *s = a and *p = b with p = &a and s = &b
+    ConstraintSystem system = new ConstraintSystem()
+        .addConstraint(addressOf("p", "a"))
+        .addConstraint(addressOf("s", "b"))
+        .addConstraint(store("s", "a"))
+        .addConstraint(store("p", "b"))
+        .addConstraint(addressOf("a", "c"))
+        .addConstraint(addressOf("b", "d"));
+    Map<String, String[]> pointsTo = system.getPointsToSets();
+    assertPointsTo(pointsTo, "a", "c", "d");
+    assertPointsTo(pointsTo, "b", "c", "d");
+    assertPointsTo(pointsTo, "p", "a");
+    assertPointsTo(pointsTo, "s", "b");
+    ConstraintSolver solver = system.getSolver();
+    assertSame(solver.getPointsToSet(solver.getId("a")),
+        solver.getPointsToSet(solver.getId("b")));
+  }
+
+  @Test
+  public void testTargetOnlyVariables() {
+    ConstraintSystem system = new ConstraintSystem()
+        .addConstraint(addressOf("p", "a"))
+        .addConstraint(copy("q", "p"));
+    Map<String, String[]> pointsTo = system.getPointsToSets();
+    assertEquals(3, pointsTo.size());
+    assertPointsTo(pointsTo, "p", "a");
+    assertPointsTo(pointsTo, "q", "a");
+    // variables only occurring as targets have empty points-to sets
+    assertPointsTo(pointsTo, "a");
+    assertEquals(-1, system.getSolver().getId("unknown"));
+  }
+}
@@ -21,25 +21,35 @@ import javax.annotation.Nullable;
 
 public final class ARGPathCounter {
 
-  private static long counter = 0;
+  /**
+   * The path counter is maintained per thread, since several entries could be analyzed
+   * concurrently. The counter is stored in a one-element array to avoid boxing.
+   */
+  private static final ThreadLocal<long[]> counterHolder = new ThreadLocal<long[]>() {
+    @Override
+    protected long[] initialValue() {
+      return new long[1];
+    }
+  };
 
   public static void inc() {
-    counter++;
+    counterHolder.get()[0]++;
   }
 
   public static void dec(int delta) {
-    counter -= delta;
-    if (counter < 0) {
-      counter = 0;
+    long[] counter = counterHolder.get();
+    counter[0] -= delta;
+    if (counter[0] < 0) {
+      counter[0] = 0;
     }
   }
 
   public static void reset() {
-    counter = 0;
+    counterHolder.get()[0] = 0;
   }
 
   public static long getCounter() {
-    return counter;
+    return counterHolder.get()[0];
   }
 
   /**
@@ -48,16 +58,17 @@ public final class ARGPathCounter {
    */
   @Nullable
   static List<Integer> getTrimmedIndex(int successorSize, long maxSize) {
-    if (maxSize <= 0 || counter <= maxSize || successorSize <= 1) {
+    long[] counter = counterHolder.get();
+    if (maxSize <= 0 || counter[0] <= maxSize || successorSize <= 1) {
       return null;
     }
-    long delta = counter - maxSize;
+    long delta = counter[0] - maxSize;
     int kept;
     if (delta < successorSize) {
-      counter -= delta;
+      counter[0] -= delta;
       kept = (int) (successorSize - delta);
     } else {
-      counter -= (successorSize - 1);
+      counter[0] -= (successorSize - 1);
       kept = 1;
     }
     List<Integer> indexList = new ArrayList<>();
@@ -20,13 +20,16 @@ import com.google.common.collect.Table;
 import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 
 import javax.annotation.Nullable;
 
-public class PreprocessInfoManager {
+public class PreprocessInfoManager implements Serializable {
+
+  private static final long serialVersionUID = -3547126004921138265L;
 
   // the dead code and always true or false expressions detected in preprocess stage are stored
   // for further reporting
@@ -35,6 +38,8 @@ public class PreprocessInfoManager {
   private Collection<CFAEdge> alwaysTrue;
   private Collection<CFAEdge> alwaysFalse;
   private HashSet<CFunctionDeclaration> cStaticFunctionDeclarations;
+  // the functions declared as no-return, which are also registered as stop functions
+  private HashSet<String> stopFunctions;
 
   // Since static function has transformed name in the CFA, we store
   //   file name, function name -> transformed name
@@ -48,6 +53,7 @@ public class PreprocessInfoManager {
     alwaysTrue = new ArrayList<>();
     alwaysFalse = new ArrayList<>();
     cStaticFunctionDeclarations = new HashSet<>();
+    stopFunctions = new HashSet<>();
   }
 
   public void addDeadCode(CFAEdge edge) {
@@ -82,6 +88,26 @@ public class PreprocessInfoManager {
     cStaticFunctionNameMapping.put(fileName, funcName, transformedName);
   }
 
+  public void addStopFunction(String funcName) {
+    stopFunctions.add(funcName);
+  }
+
+  public Collection<String> getStopFunctions() {
+    return stopFunctions;
+  }
+
+  /**
+   * Add the information of another manager, e.g., the one stored in a CFA snapshot.
+   */
+  public void addAll(PreprocessInfoManager pOther) {
+    deadCode.addAll(pOther.deadCode);
+    alwaysTrue.addAll(pOther.alwaysTrue);
+    alwaysFalse.addAll(pOther.alwaysFalse);
+    cStaticFunctionDeclarations.addAll(pOther.cStaticFunctionDeclarations);
+    cStaticFunctionNameMapping.putAll(pOther.cStaticFunctionNameMapping);
+    stopFunctions.addAll(pOther.stopFunctions);
+  }
+
   @Nullable
   public String getTransformedName(String fileName, String funcName) {
     return cStaticFunctionNameMapping.get(fileName, funcName);
@@ -103,7 +103,7 @@ public class Pointer2State implements AbstractState, SwitchableGraphable, Summar
   Pointer2State addPointsToInformation(MemoryLocation pSource, MemoryLocation pTarget) {
     LocationSet prevPTSet = getPointsToSet(pSource);
     LocationSet newPTSet = prevPTSet.addElement(pTarget);
-    return new Pointer2State(pointsToMap.putAndCopy(pSource, newPTSet));
+    return updatePointsToSet(pSource, prevPTSet, newPTSet);
   }
 
   Pointer2State addPointsToInformation(
@@ -111,7 +111,7 @@ public class Pointer2State implements AbstractState, SwitchableGraphable, Summar
       pTargets) {
     LocationSet prevPTSet = getPointsToSet(pSource);
     LocationSet newPTSet = prevPTSet.addElements(pTargets);
-    return new Pointer2State(pointsToMap.putAndCopy(pSource, newPTSet));
+    return updatePointsToSet(pSource, prevPTSet, newPTSet);
   }
 
   Pointer2State addPointsToInformation(MemoryLocation pSource, LocationSet pTargets) {
@@ -122,7 +122,7 @@ public class Pointer2State implements AbstractState, SwitchableGraphable, Summar
       return new Pointer2State(pointsToMap.putAndCopy(pSource, LocationSetTop.INSTANCE));
     }
     LocationSet prevPTSet = getPointsToSet(pSource);
-    return new Pointer2State(pointsToMap.putAndCopy(pSource, prevPTSet.addElements(pTargets)));
+    return updatePointsToSet(pSource, prevPTSet, prevPTSet.addElements(pTargets));
   }
 
   // this method is designed for state merge only
@@ -136,10 +136,28 @@ public class Pointer2State implements AbstractState, SwitchableGraphable, Summar
     assert (pTargets instanceof ExplicitLocationSet);
     LocationSet prevPTSet = getPointsToSet(pSource);
     boolean tainted = !pTargets.equals(prevPTSet);
+    if (prevPTSet instanceof ExplicitLocationSet
+        && ((ExplicitLocationSet) prevPTSet).isTainted() == tainted
+        && prevPTSet.containsAll(pTargets)) {
+      return this;
+    }
     LocationSet newPTSet = ((ExplicitLocationSet) pTargets).addElements(prevPTSet, tainted);
     return new Pointer2State(pointsToMap.putAndCopy(pSource, newPTSet));
   }
 
+  /**
+   * Location sets are immutable, thus an unchanged set is returned as it is and the state need
+   * not be copied.
+   */
+  private Pointer2State updatePointsToSet(
+      MemoryLocation pSource, LocationSet pPrevPTSet,
+      LocationSet pNewPTSet) {
+    if (pNewPTSet == pPrevPTSet) {
+      return this;
+    }
+    return new Pointer2State(pointsToMap.putAndCopy(pSource, pNewPTSet));
+  }
+
   public Pointer2State setPointsToInformation(MemoryLocation pSource, LocationSet pTargets) {
     if (pTargets.isBot()) {
       return new Pointer2State(pointsToMap.removeAndCopy(pSource));
@@ -17,7 +17,6 @@ package org.sosy_lab.cpachecker.cpa.pointer2;
 import com.google.common.base.Optional;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Sets;
 
 import org.sosy_lab.cpachecker.cfa.ast.AVariableDeclaration;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAddressOfLabelExpression;
@@ -549,9 +548,7 @@ public class Pointer2TransferRelation extends SingleEdgeTransferRelation {
     if (ls2.isTop()) {
       return ls1;
     }
-    Set<MemoryLocation> set1 = ((ExplicitLocationSet) ls1).getExplicitSet();
-    Set<MemoryLocation> set2 = ((ExplicitLocationSet) ls2).getExplicitSet();
-    return ExplicitLocationSet.from(Sets.intersection(set1, set2));
+    return ((ExplicitLocationSet) ls1).intersect((ExplicitLocationSet) ls2);
   }
 
   private Pointer2State handleStatementEdge(
@@ -14,16 +14,28 @@
  */
 package org.sosy_lab.cpachecker.cpa.pointer2.util;
 
-import com.google.common.collect.ImmutableSet;
-
+import org.sosy_lab.cpachecker.util.collections.set.SparseBitSet;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 
+import java.util.AbstractSet;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
+/**
+ * A non-empty set of memory locations, stored as a bit vector over the indexes assigned by
+ * {@link LocationIndex}. The bit vector is never modified once the set is created, thus union,
+ * containment and intersection are computed word by word without copying unchanged sets.
+ * Untainted singleton sets are shared by the location index. Sets of different location indexes
+ * should not be combined.
+ */
 public class ExplicitLocationSet implements LocationSet, Iterable<MemoryLocation> {
 
-  private final Set<MemoryLocation> explicitSet;
+  private final LocationIndex index;
+
+  // never modified
+  private final SparseBitSet locations;
+  private final int size;
 
   /**
    * This flag indicates whether the current location set is tainted.
@@ -31,43 +43,62 @@ public class ExplicitLocationSet implements LocationSet, Iterable<MemoryLocation
    */
   private final boolean isTainted;
 
-  private ExplicitLocationSet(ImmutableSet<MemoryLocation> pLocations, boolean pTainted) {
-    assert pLocations.size() >= 1;
-    this.explicitSet = pLocations;
+  ExplicitLocationSet(LocationIndex pIndex, SparseBitSet pLocations, boolean pTainted) {
+    index = pIndex;
+    this.locations = pLocations;
+    size = pLocations.cardinality();
+    assert size >= 1;
     isTainted = pTainted;
   }
 
+  private static ExplicitLocationSet of(
+      LocationIndex pIndex, SparseBitSet pLocations,
+      boolean pTainted) {
+    if (!pTainted) {
+      int first = pLocations.nextSetBit(0);
+      if (pLocations.nextSetBit(first + 1) < 0) {
+        return pIndex.singleton(first);
+      }
+    }
+    return new ExplicitLocationSet(pIndex, pLocations, pTainted);
+  }
+
+  private ExplicitLocationSet derive(SparseBitSet pLocations, boolean pTainted) {
+    return new ExplicitLocationSet(index, pLocations, pTainted);
+  }
+
   @Override
   public boolean mayPointTo(MemoryLocation pLocation) {
-    return this.explicitSet.contains(pLocation);
+    return locations.contains(index.lookup(pLocation));
   }
 
   @Override
   public LocationSet addElement(MemoryLocation pLocation) {
-    if (explicitSet.contains(pLocation)) {
+    int location = index.indexOf(pLocation);
+    if (locations.contains(location)) {
       return this;
     }
-    ImmutableSet.Builder<MemoryLocation> builder = ImmutableSet.builder();
-    builder.addAll(explicitSet).add(pLocation);
-    return new ExplicitLocationSet(builder.build(), false);
+    SparseBitSet newLocations = locations.copy();
+    newLocations.add(location);
+    return derive(newLocations, false);
   }
 
   @Override
   public LocationSet addElements(Iterable<MemoryLocation> pLocations) {
-    ImmutableSet.Builder<MemoryLocation> builder = null;
+    SparseBitSet newLocations = null;
     for (MemoryLocation target : pLocations) {
-      if (!explicitSet.contains(target)) {
-        if (builder == null) {
-          builder = ImmutableSet.builder();
-          builder.addAll(explicitSet);
+      int location = index.indexOf(target);
+      if (!locations.contains(location)) {
+        if (newLocations == null) {
+          newLocations = locations.copy();
         }
-        builder.add(target);
+        newLocations.add(location);
       }
     }
-    if (builder == null) {
+    if (newLocations == null) {
       return this;
     }
-    return new ExplicitLocationSet(builder.build(), isTainted);
+    return derive(newLocations, isTainted);
   }
 
   // for state-merge purpose only
@@ -78,18 +109,11 @@ public class ExplicitLocationSet implements LocationSet, Iterable<MemoryLocation
     if (pLocationSet.isTop()) {
       return LocationSetTop.INSTANCE;
     }
-    ImmutableSet.Builder<MemoryLocation> builder = null;
-    for (MemoryLocation target : (ExplicitLocationSet) pLocationSet) {
-      if (builder == null) {
-        builder = ImmutableSet.builder();
-        builder.addAll(explicitSet);
-      }
-      builder.add(target);
-    }
-    if (builder == null) {
-      return this;
+    SparseBitSet other = sameIndex((ExplicitLocationSet) pLocationSet).locations;
+    if (locations.containsAll(other)) {
+      return isTainted == pTainted ? this : derive(locations, pTainted);
     }
-    return new ExplicitLocationSet(builder.build(), pTainted);
+    return derive(locations.or(other), pTainted);
   }
 
   public boolean isTainted() {
@@ -98,24 +122,36 @@ public class ExplicitLocationSet implements LocationSet, Iterable<MemoryLocation
 
   @Override
   public LocationSet removeElement(MemoryLocation pLocation) {
-    if (!explicitSet.contains(pLocation)) {
+    int location = index.lookup(pLocation);
+    if (!locations.contains(location)) {
       return this;
     }
     if (getSize() == 1) {
       return LocationSetBot.INSTANCE;
     }
-    ImmutableSet.Builder<MemoryLocation> builder = ImmutableSet.builder();
-    for (MemoryLocation location : this.explicitSet) {
-      if (!location.equals(pLocation)) {
-        builder.add(location);
-      }
+    SparseBitSet newLocations = locations.copy();
+    newLocations.remove(location);
+    return of(index, newLocations, isTainted);
+  }
+
+  /**
+   * Compute the locations in both this set and the given set.
+   */
+  public LocationSet intersect(ExplicitLocationSet pOther) {
+    if (!isTainted && sameIndex(pOther).locations.containsAll(locations)) {
+      return this;
+    }
+    SparseBitSet common = locations.and(pOther.locations);
+    if (common.isEmpty()) {
+      return LocationSetBot.INSTANCE;
     }
-    return new ExplicitLocationSet(builder.build(), isTainted);
+    return of(index, common, false);
   }
 
   public static LocationSet from(MemoryLocation pLocation) {
     // a fresh location set from the given memory location
-    return new ExplicitLocationSet(ImmutableSet.of(pLocation), false);
+    LocationIndex index = LocationIndex.current();
+    return index.singleton(index.indexOf(pLocation));
   }
 
   public static LocationSet from(Iterable<? extends MemoryLocation> pLocations) {
@@ -123,17 +159,22 @@ public class ExplicitLocationSet implements LocationSet, Iterable<MemoryLocation
     if (!elementIterator.hasNext()) {
       return LocationSetBot.INSTANCE;
     }
-    ImmutableSet.Builder<MemoryLocation> builder = ImmutableSet.builder();
+    LocationIndex index = LocationIndex.current();
+    SparseBitSet newLocations = new SparseBitSet();
     while (elementIterator.hasNext()) {
-      MemoryLocation location = elementIterator.next();
-      builder.add(location);
+      newLocations.add(index.indexOf(elementIterator.next()));
     }
-    return new ExplicitLocationSet(builder.build(), false);
+    return of(index, newLocations, false);
+  }
+
+  private ExplicitLocationSet sameIndex(ExplicitLocationSet pOther) {
+    assert index == pOther.index : "location sets of different analyses are combined";
+    return pOther;
   }
 
   @Override
   public boolean isBot() {
-    return explicitSet.isEmpty();
+    return size == 0;
   }
 
   @Override
@@ -147,8 +188,11 @@ public class ExplicitLocationSet implements LocationSet, Iterable<MemoryLocation
       return this;
     }
     if (pElements instanceof ExplicitLocationSet) {
-      ExplicitLocationSet explicitLocationSet = (ExplicitLocationSet) pElements;
-      return addElements(explicitLocationSet.explicitSet);
+      SparseBitSet other = sameIndex((ExplicitLocationSet) pElements).locations;
+      if (locations.containsAll(other)) {
+        return this;
+      }
+      return derive(locations.or(other), isTainted);
     }
     return pElements.addElements((Iterable<MemoryLocation>) this);
   }
@@ -160,14 +204,14 @@ public class ExplicitLocationSet implements LocationSet, Iterable<MemoryLocation
     }
     if (pElements instanceof ExplicitLocationSet) {
       ExplicitLocationSet explicitLocationSet = (ExplicitLocationSet) pElements;
-      return explicitSet.containsAll(explicitLocationSet.explicitSet);
+      return locations.containsAll(sameIndex(explicitLocationSet).locations);
     }
     return pElements.containsAll(this);
   }
 
   @Override
   public String toString() {
-    return explicitSet.toString();
+    return getExplicitSet().toString();
   }
 
   @Override
@@ -181,11 +225,11 @@ public class ExplicitLocationSet implements LocationSet, Iterable<MemoryLocation
         return false;
       }
       if (o.isBot()) {
-        return explicitSet.isEmpty();
+        return isBot();
       }
       if (o instanceof ExplicitLocationSet) {
         ExplicitLocationSet other = (ExplicitLocationSet) o;
-        return explicitSet.equals(other.explicitSet);
+        return size == other.size && index == other.index && locations.equals(other.locations);
       }
     }
     return false;
@@ -196,16 +240,38 @@ public class ExplicitLocationSet implements LocationSet, Iterable<MemoryLocation
     if (isBot()) {
       return LocationSetBot.INSTANCE.hashCode();
     }
-    if (isTop()) {
-      assert false;
-      return LocationSetTop.INSTANCE.hashCode();
-    }
-    return explicitSet.hashCode();
+    return locations.hashCode();
   }
 
+  /**
+   * Iterate the locations in the order of their indexes.
+   */
   @Override
   public Iterator<MemoryLocation> iterator() {
-    return explicitSet.iterator();
+    return new Iterator<MemoryLocation>() {
+
+      private int next = locations.nextSetBit(0);
+
+      @Override
+      public boolean hasNext() {
+        return next >= 0;
+      }
+
+      @Override
+      public MemoryLocation next() {
+        if (next < 0) {
+          throw new NoSuchElementException();
+        }
+        MemoryLocation location = index.get(next);
+        next = locations.nextSetBit(next + 1);
+        return location;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
   }
 
   /**
@@ -214,11 +280,30 @@ public class ExplicitLocationSet implements LocationSet, Iterable<MemoryLocation
    * @return the size of the explicit location set.
    */
   public int getSize() {
-    return explicitSet.size();
+    return size;
   }
 
+  /**
+   * Get an unmodifiable view of the locations in this set.
+   */
   public Set<MemoryLocation> getExplicitSet() {
-    return explicitSet;
+    return new AbstractSet<MemoryLocation>() {
+
+      @Override
+      public boolean contains(Object pO) {
+        return pO instanceof MemoryLocation && mayPointTo((MemoryLocation) pO);
+      }
+
+      @Override
+      public Iterator<MemoryLocation> iterator() {
+        return ExplicitLocationSet.this.iterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
   }
 
 }
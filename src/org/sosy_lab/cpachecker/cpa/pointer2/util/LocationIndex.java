@@ -0,0 +1,111 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cpa.pointer2.util;
+
+import org.sosy_lab.cpachecker.util.collections.set.SparseBitSet;
+import org.sosy_lab.cpachecker.util.globalinfo.AnalysisContext;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Memory locations are interned to dense indexes, such that location sets can be stored as bit
+ * vectors. Indexes are assigned in the order of first occurrence and never change in an analysis.
+ *
+ * Each analysis has its own index, which is kept in its {@link AnalysisContext}. Thus the
+ * interned locations are released together with the analysis, and analyses running in one JVM
+ * do not share indexes.
+ */
+public final class LocationIndex {
+
+  private final ConcurrentMap<MemoryLocation, Integer> indexes = new ConcurrentHashMap<>();
+
+  // guarded by this on writing, its length may exceed the number of locations
+  private volatile MemoryLocation[] locations = new MemoryLocation[1024];
+
+  // guarded by this on writing, the shared untainted singleton sets indexed by location indexes
+  private volatile ExplicitLocationSet[] singletons = new ExplicitLocationSet[1024];
+
+  /**
+   * Get the location index of the analysis running in the current thread.
+   */
+  public static LocationIndex current() {
+    return AnalysisContext.current().getLocationIndex();
+  }
+
+  /**
+   * Get the index of the given location, which is assigned on the first query.
+   */
+  public int indexOf(MemoryLocation pLocation) {
+    Integer index = indexes.get(pLocation);
+    if (index == null) {
+      index = intern(pLocation);
+    }
+    return index;
+  }
+
+  /**
+   * Get the index of the given location, or -1 if the location has never been interned.
+   */
+  public int lookup(MemoryLocation pLocation) {
+    Integer index = indexes.get(pLocation);
+    return (index == null) ? -1 : index;
+  }
+
+  private synchronized int intern(MemoryLocation pLocation) {
+    Integer index = indexes.get(pLocation);
+    if (index != null) {
+      return index;
+    }
+    int next = indexes.size();
+    MemoryLocation[] current = locations;
+    if (next == current.length) {
+      current = Arrays.copyOf(current, current.length * 2);
+    }
+    current[next] = pLocation;
+    // publish the location before its index
+    locations = current;
+    indexes.put(pLocation, next);
+    return next;
+  }
+
+  public MemoryLocation get(int pIndex) {
+    return locations[pIndex];
+  }
+
+  /**
+   * Get the shared untainted set containing only the location of the given index.
+   */
+  ExplicitLocationSet singleton(int pIndex) {
+    ExplicitLocationSet[] current = singletons;
+    if (pIndex < current.length && current[pIndex] != null) {
+      return current[pIndex];
+    }
+    synchronized (this) {
+      current = singletons;
+      if (pIndex >= current.length) {
+        current = Arrays.copyOf(current, Math.max(current.length * 2, pIndex + 1));
+      }
+      if (current[pIndex] == null) {
+        current[pIndex] = new ExplicitLocationSet(this, SparseBitSet.of(pIndex), false);
+      }
+      singletons = current;
+      return current[pIndex];
+    }
+  }
+
+}
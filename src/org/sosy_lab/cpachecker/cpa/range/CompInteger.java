@@ -19,8 +19,6 @@ import static org.sosy_lab.cpachecker.cpa.range.CompInteger.IntegerStatus.NINF;
 import static org.sosy_lab.cpachecker.cpa.range.CompInteger.IntegerStatus.NORM;
 import static org.sosy_lab.cpachecker.cpa.range.CompInteger.IntegerStatus.PINF;
 
-import com.google.common.base.Objects;
-
 import org.sosy_lab.cpachecker.cpa.range.util.CompIntegers;
 
 import java.math.BigDecimal;
@@ -52,6 +50,15 @@ public final class CompInteger implements Comparable<CompInteger> {
     NAN
   }
 
+  /**
+   * The integral part. Since almost all the integers in C programs fit in a long, the integral
+   * part is stored as a long if possible (then {@link #compact} is set), and the big integer is
+   * created on demand. An integer is compact if and only if its integral part fits in a long.
+   */
+  private long compactValue = 0;
+
+  private boolean compact = true;
+
   private BigInteger value;
 
   private IntegerStatus status;
@@ -62,7 +69,20 @@ public final class CompInteger implements Comparable<CompInteger> {
    * Note: originally we use BigDecimal to represent the fractional part. Since the fractional
    * part ranges in (-1,1), double is sufficiently precise for these numbers.
    */
-  private Double fraction = 0.0;
+  private double fraction = 0.0;
+
+  /**
+   * Cache of small integers, which are shared instead of being allocated repeatedly.
+   */
+  private static final long CACHE_LOW = -128;
+  private static final long CACHE_HIGH = 1024;
+  private static final CompInteger[] cache = new CompInteger[(int) (CACHE_HIGH - CACHE_LOW + 1)];
+
+  static {
+    for (int i = 0; i < cache.length; i++) {
+      cache[i] = new CompInteger(CACHE_LOW + i);
+    }
+  }
 
   /**
    * Some basic settings of floating point precision.
@@ -71,39 +91,34 @@ public final class CompInteger implements Comparable<CompInteger> {
   private static final int SCALE = 12;
 
   public CompInteger() {
-    this.value = BigInteger.ZERO;
     this.status = NORM;
   }
 
   public CompInteger(IntegerStatus pStatus) {
-    this.value = BigInteger.ZERO;
     this.status = pStatus;
   }
 
   public CompInteger(BigInteger val) {
-    this.value = val;
+    setValue(val);
     this.status = NORM;
   }
 
   public CompInteger(long val) {
-    this.value = BigInteger.valueOf(val);
+    this.compactValue = val;
     this.status = NORM;
   }
 
   public CompInteger(Double dValue) {
     if (dValue.equals(Double.POSITIVE_INFINITY)) {
-      this.value = BigInteger.ZERO;
       this.status = PINF;
     } else if (dValue.equals(Double.NEGATIVE_INFINITY)) {
-      this.value = BigInteger.ZERO;
       this.status = NINF;
     } else if (dValue.equals(Double.NaN)) {
-      this.value = BigInteger.ZERO;
       this.status = NAN;
     } else {
       this.status = NORM;
       BigDecimal decimal = BigDecimal.valueOf(dValue);
-      this.value = decimal.toBigInteger();
+      setValue(decimal.toBigInteger());
       this.fraction = CompIntegers.getFraction(decimal);
       if (!CompIntegers.isAlmostZero(this.fraction)) {
         this.isFloat = true;
@@ -113,7 +128,7 @@ public final class CompInteger implements Comparable<CompInteger> {
 
   public CompInteger(BigDecimal decimal) {
     this.status = NORM;
-    this.value = decimal.toBigInteger();
+    setValue(decimal.toBigInteger());
     this.fraction = CompIntegers.getFraction(decimal);
     if (!CompIntegers.isAlmostZero(this.fraction)) {
       this.isFloat = true;
@@ -123,26 +138,59 @@ public final class CompInteger implements Comparable<CompInteger> {
   public CompInteger(BigInteger integer, Double fractional) {
     this.status = NORM;
     BigDecimal decimal = BigDecimal.valueOf(fractional);
-    this.value = integer.add(decimal.toBigInteger());
+    BigInteger integral = integer.add(decimal.toBigInteger());
     this.fraction = CompIntegers.getFraction(decimal);
     switch (CompIntegers.signum(this.fraction)) {
       case 1:
         isFloat = true;
-        if (this.value.signum() < 0) {
-          this.value = this.value.add(BigInteger.ONE);
+        if (integral.signum() < 0) {
+          integral = integral.add(BigInteger.ONE);
           this.fraction = this.fraction - 1.0;
         }
         break;
       case -1:
         isFloat = true;
-        if (this.value.signum() > 0) {
-          this.value = this.value.subtract(BigInteger.ONE);
+        if (integral.signum() > 0) {
+          integral = integral.subtract(BigInteger.ONE);
           this.fraction = this.fraction + 1.0;
         }
         break;
       default:
         isFloat = false;
     }
+    setValue(integral);
+  }
+
+  private void setValue(BigInteger pValue) {
+    this.value = pValue;
+    if (pValue.bitLength() < Long.SIZE) {
+      this.compact = true;
+      this.compactValue = pValue.longValue();
+    } else {
+      this.compact = false;
+    }
+  }
+
+  public static CompInteger valueOf(long val) {
+    if (val >= CACHE_LOW && val <= CACHE_HIGH) {
+      return cache[(int) (val - CACHE_LOW)];
+    }
+    return new CompInteger(val);
+  }
+
+  public static CompInteger valueOf(BigInteger val) {
+    if (val.bitLength() < Long.SIZE) {
+      return valueOf(val.longValue());
+    }
+    return new CompInteger(val);
+  }
+
+  /**
+   * Whether this is a normal integer whose value fits in a long and has no fractional part.
+   * Arithmetic on such integers is performed on longs.
+   */
+  private boolean isCompactInteger() {
+    return status == NORM && compact && fraction == 0.0;
   }
 
   public IntegerStatus getStatus() {
@@ -150,7 +198,13 @@ public final class CompInteger implements Comparable<CompInteger> {
   }
 
   public BigInteger getValue() {
-    return value;
+    BigInteger v = value;
+    if (v == null) {
+      // the integral part is compact, benign data race here since BigInteger is immutable
+      v = BigInteger.valueOf(compactValue);
+      value = v;
+    }
+    return v;
   }
 
   public boolean isFloating() {
@@ -160,8 +214,8 @@ public final class CompInteger implements Comparable<CompInteger> {
   public static final CompInteger POSITIVE_INF = new CompInteger(PINF);
   public static final CompInteger NEGATIVE_INF = new CompInteger(NINF);
   public static final CompInteger NaN = new CompInteger(NAN);
-  public static final CompInteger ZERO = new CompInteger(BigInteger.ZERO);
-  public static final CompInteger ONE = new CompInteger(BigInteger.ONE);
+  public static final CompInteger ZERO = valueOf(0);
+  public static final CompInteger ONE = valueOf(1);
 
   /**
    * Approximation of \pi is used in trigonometric arithmetic
@@ -171,7 +225,16 @@ public final class CompInteger implements Comparable<CompInteger> {
   public CompInteger add(CompInteger that) {
     if (this.status == NORM) {
       if (that.status == NORM) {
-        return new CompInteger(this.value.add(that.value), this.fraction + that.fraction);
+        if (this.isCompactInteger() && that.isCompactInteger()) {
+          long x = this.compactValue;
+          long y = that.compactValue;
+          long r = x + y;
+          // overflow iff both operands have the same sign which differs from the result
+          if (((x ^ r) & (y ^ r)) >= 0) {
+            return valueOf(r);
+          }
+        }
+        return new CompInteger(this.getValue().add(that.getValue()), this.fraction + that.fraction);
       } else {
         return new CompInteger(that.status);
       }
@@ -194,7 +257,10 @@ public final class CompInteger implements Comparable<CompInteger> {
 
   public CompInteger abs() {
     if (this.status == NORM) {
-      return new CompInteger(this.value.abs(), Math.abs(this.fraction));
+      if (isCompactInteger() && compactValue != Long.MIN_VALUE) {
+        return compactValue >= 0 ? this : valueOf(-compactValue);
+      }
+      return new CompInteger(this.getValue().abs(), Math.abs(this.fraction));
     } else if (this.status == PINF || this.status == NINF) {
       return POSITIVE_INF;
     } else {
@@ -204,7 +270,7 @@ public final class CompInteger implements Comparable<CompInteger> {
 
   public int signum() {
     if (this.status == NORM) {
-      int intSig = this.value.signum();
+      int intSig = compact ? Long.signum(this.compactValue) : this.value.signum();
       if (intSig != 0) {
         return intSig;
       }
@@ -228,6 +294,14 @@ public final class CompInteger implements Comparable<CompInteger> {
         if (that.signum() == 0) {
           return NaN;
         } else {
+          if (this.isCompactInteger() && that.isCompactInteger()) {
+            long x = this.compactValue;
+            long y = that.compactValue;
+            if (x % y == 0 && !(x == Long.MIN_VALUE && y == -1)) {
+              // the quotient is exact
+              return valueOf(x / y);
+            }
+          }
           BigDecimal x = this.decimalValue();
           BigDecimal y = that.decimalValue();
           return new CompInteger(x.divide(y, SCALE, BigDecimal.ROUND_HALF_UP));
@@ -268,7 +342,7 @@ public final class CompInteger implements Comparable<CompInteger> {
   public CompInteger max(CompInteger that) {
     if (this.status == NORM) {
       if (that.status == NORM) {
-        switch (this.value.compareTo(that.value)) {
+        switch (compareIntegral(that)) {
           case 1:
             return this;
           case -1:
@@ -307,7 +381,7 @@ public final class CompInteger implements Comparable<CompInteger> {
   public CompInteger min(CompInteger that) {
     if (this.status == NORM) {
       if (that.status == NORM) {
-        switch (this.value.compareTo(that.value)) {
+        switch (compareIntegral(that)) {
           case 1:
             return that;
           case -1:
@@ -347,6 +421,17 @@ public final class CompInteger implements Comparable<CompInteger> {
         if (that.signum() == 0) {
           return NaN;
         } else {
+          if (this.isCompactInteger() && that.isCompactInteger()) {
+            long y = that.compactValue;
+            long r = this.compactValue % y;
+            if (r >= 0) {
+              return valueOf(r);
+            }
+            long sum = r + y;
+            if (((r ^ sum) & (y ^ sum)) >= 0) {
+              return valueOf(sum);
+            }
+          }
           BigDecimal x = this.decimalValue();
           BigDecimal y = that.decimalValue();
           BigDecimal remainder = x.remainder(y);
@@ -370,7 +455,19 @@ public final class CompInteger implements Comparable<CompInteger> {
       int sign = this.signum();
       if (that.status == NORM) {
         if (!this.isFloat && !that.isFloat) {
-          BigInteger integer = this.value.multiply(that.value);
+          if (this.compact && that.compact) {
+            long x = this.compactValue;
+            long y = that.compactValue;
+            long r = x * y;
+            long ax = Math.abs(x);
+            long ay = Math.abs(y);
+            // the same overflow check as Math.multiplyExact()
+            if (((ax | ay) >>> 31 == 0) || ((y == 0 || r / y == x) && !(x == Long.MIN_VALUE
+                && y == -1))) {
+              return valueOf(r);
+            }
+          }
+          BigInteger integer = this.getValue().multiply(that.getValue());
           return new CompInteger(integer);
         }
         BigDecimal x = this.decimalValue();
@@ -446,7 +543,10 @@ public final class CompInteger implements Comparable<CompInteger> {
 
   public CompInteger negate() {
     if (this.status == NORM) {
-      return new CompInteger(this.value.negate(), -this.fraction);
+      if (isCompactInteger() && compactValue != Long.MIN_VALUE) {
+        return valueOf(-compactValue);
+      }
+      return new CompInteger(this.getValue().negate(), -this.fraction);
     } else if (this.status == NINF) {
       return POSITIVE_INF;
     } else if (this.status == PINF) {
@@ -469,6 +569,9 @@ public final class CompInteger implements Comparable<CompInteger> {
         if (that.signum() == 0) {
           return NaN;
         } else {
+          if (this.isCompactInteger() && that.isCompactInteger()) {
+            return valueOf(this.compactValue % that.compactValue);
+          }
           BigDecimal x = this.decimalValue();
           BigDecimal y = that.decimalValue();
           return new CompInteger(x.remainder(y));
@@ -488,7 +591,17 @@ public final class CompInteger implements Comparable<CompInteger> {
   public CompInteger subtract(CompInteger that) {
     if (this.status == NORM) {
       if (that.status == NORM) {
-        return new CompInteger(this.value.subtract(that.value), this.fraction - that.fraction);
+        if (this.isCompactInteger() && that.isCompactInteger()) {
+          long x = this.compactValue;
+          long y = that.compactValue;
+          long r = x - y;
+          // overflow iff the operands have different signs and the sign of result differs from x
+          if (((x ^ y) & (x ^ r)) >= 0) {
+            return valueOf(r);
+          }
+        }
+        return new CompInteger(this.getValue().subtract(that.getValue()), this.fraction - that
+            .fraction);
       } else if (that.status == NINF) {
         return POSITIVE_INF;
       } else if (that.status == PINF) {
@@ -523,9 +636,9 @@ public final class CompInteger implements Comparable<CompInteger> {
         } else if (n > 64) {
           n = 64;
         }
-        return new CompInteger(round().value.shiftLeft(n));
+        return valueOf(round().getValue().shiftLeft(n));
       } catch (ArithmeticException e) {
-        if (this.value.signum() > 0) {
+        if (this.signum() > 0) {
           return POSITIVE_INF;
         } else {
           return NEGATIVE_INF;
@@ -540,10 +653,10 @@ public final class CompInteger implements Comparable<CompInteger> {
   public CompInteger shiftRight(int n) {
     if (this.status == NORM) {
       try {
-        return new CompInteger(round().value.shiftRight(n));
+        return valueOf(round().getValue().shiftRight(n));
       } catch (ArithmeticException e) {
         // this is because n is negative
-        if (this.value.signum() > 0) {
+        if (this.signum() > 0) {
           return POSITIVE_INF;
         } else {
           return NEGATIVE_INF;
@@ -556,33 +669,50 @@ public final class CompInteger implements Comparable<CompInteger> {
 
   public CompInteger floor() {
     if (!isFloat) {
-      return new CompInteger(this.value);
+      return integralPart();
     }
-    return new CompInteger(this.value.subtract(BigInteger.ONE));
+    return valueOf(this.getValue().subtract(BigInteger.ONE));
   }
 
   public CompInteger ceil() {
     if (!isFloat) {
-      return new CompInteger(this.value);
+      return integralPart();
     }
-    return new CompInteger(this.value.add(BigInteger.ONE));
+    return valueOf(this.getValue().add(BigInteger.ONE));
   }
 
   public CompInteger round() {
     if (!CompIntegers.overHalf(this.fraction)) {
-      return new CompInteger(this.value);
+      return integralPart();
     }
     if (CompIntegers.signum(this.fraction) > 0) {
-      return new CompInteger(this.value.add(BigInteger.ONE));
+      return valueOf(this.getValue().add(BigInteger.ONE));
     } else {
-      return new CompInteger(this.value.subtract(BigInteger.ONE));
+      return valueOf(this.getValue().subtract(BigInteger.ONE));
     }
   }
 
   public CompInteger trunc() {
+    return integralPart();
+  }
+
+  private CompInteger integralPart() {
+    if (compact) {
+      return valueOf(this.compactValue);
+    }
     return new CompInteger(this.value);
   }
 
+  /**
+   * Compare the integral parts of two integers.
+   */
+  private int compareIntegral(CompInteger that) {
+    if (this.compact && that.compact) {
+      return Long.compare(this.compactValue, that.compactValue);
+    }
+    return this.getValue().compareTo(that.getValue());
+  }
+
   /**
    * This function only extract the integer part as output.
    *
@@ -590,6 +720,12 @@ public final class CompInteger implements Comparable<CompInteger> {
    */
   public Integer intValue() {
     if (this.status == NORM) {
+      if (compact) {
+        if (compactValue <= Integer.MAX_VALUE && compactValue >= Integer.MIN_VALUE) {
+          return (int) compactValue;
+        }
+        return null;
+      }
       BigInteger val = this.value;
       BigInteger int_max = BigInteger.valueOf(Integer.MAX_VALUE);
       BigInteger int_min = BigInteger.valueOf(Integer.MIN_VALUE);
@@ -605,6 +741,9 @@ public final class CompInteger implements Comparable<CompInteger> {
 
   public Long longValue() {
     if (this.status == NORM) {
+      if (compact) {
+        return compactValue;
+      }
       BigInteger val = this.value;
       BigInteger long_min = BigInteger.valueOf(Long.MIN_VALUE);
       BigInteger long_max = BigInteger.valueOf(Long.MAX_VALUE);
@@ -621,6 +760,9 @@ public final class CompInteger implements Comparable<CompInteger> {
   @Nonnull
   public Double doubleValue() {
     if (this.status == NORM) {
+      if (isCompactInteger()) {
+        return (double) compactValue;
+      }
       BigDecimal val = this.decimalValue();
       return val.doubleValue();
     } else if (this.status == PINF) {
@@ -640,7 +782,8 @@ public final class CompInteger implements Comparable<CompInteger> {
    */
   private BigDecimal decimalValue() {
     if (this.status == NORM) {
-      BigDecimal integral = new BigDecimal(this.value);
+      BigDecimal integral = compact ? BigDecimal.valueOf(compactValue) : new BigDecimal(this
+          .value);
       BigDecimal fractional = BigDecimal.valueOf(this.fraction);
       return integral.add(fractional);
     } else if (this.status == NINF) {
@@ -656,7 +799,7 @@ public final class CompInteger implements Comparable<CompInteger> {
   public String toString() {
     if (this.status == NORM) {
       if (!isFloat) {
-        return this.value.toString();
+        return compact ? Long.toString(compactValue) : this.value.toString();
       }
       return this.decimalValue().toString();
     } else if (this.status == NINF) {
@@ -694,7 +837,7 @@ public final class CompInteger implements Comparable<CompInteger> {
       } else if (that.status == PINF) {
         return -1;
       } else if (that.status == NORM) {
-        int intCompare = this.value.compareTo(that.value);
+        int intCompare = compareIntegral(that);
         if (intCompare == 0) {
           return CompIntegers.signum(this.fraction - that.fraction);
         }
@@ -711,7 +854,7 @@ public final class CompInteger implements Comparable<CompInteger> {
     } else if (this.status == PINF) {
       return 1;
     } else if (this.status == NORM) {
-      int intCompare = this.value.compareTo(biValue);
+      int intCompare = this.getValue().compareTo(biValue);
       if (intCompare == 0) {
         return CompIntegers.signum(this.fraction);
       }
@@ -729,7 +872,7 @@ public final class CompInteger implements Comparable<CompInteger> {
         return false;
       }
       if (this.status == NORM) {
-        return this.value.equals(that.value) && CompIntegers.signum(this.fraction - that
+        return compareIntegral(that) == 0 && CompIntegers.signum(this.fraction - that
             .fraction) == 0;
       }
       return true;
@@ -740,6 +883,16 @@ public final class CompInteger implements Comparable<CompInteger> {
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(value, fraction, isFloat, status);
+    // Fractional part is not hashed, since equal integers could have slightly different
+    // fractional parts. The integral part is hashed in the same way whether it is compact or not.
+    int integralHash;
+    if (status != NORM) {
+      integralHash = 0;
+    } else if (compact) {
+      integralHash = (int) (compactValue ^ (compactValue >>> 32));
+    } else {
+      integralHash = value.hashCode();
+    }
+    return 31 * status.hashCode() + integralHash;
   }
 }
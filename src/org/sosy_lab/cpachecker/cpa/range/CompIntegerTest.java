@@ -0,0 +1,176 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cpa.range;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Check the arithmetic on compact (long) integers against the arithmetic on {@link BigInteger}.
+ */
+public class CompIntegerTest {
+
+  private static final long[] EDGE_VALUES = {
+      Long.MIN_VALUE, Long.MIN_VALUE + 1, Long.MIN_VALUE / 2 - 1, Long.MIN_VALUE / 2,
+      Long.MIN_VALUE / 2 + 1, Integer.MIN_VALUE - 1L, Integer.MIN_VALUE, -1025, -129, -128, -7, -2,
+      -1, 0, 1, 2, 3, 7, 1024, 1025, Integer.MAX_VALUE, Integer.MAX_VALUE + 1L,
+      Long.MAX_VALUE / 2, Long.MAX_VALUE / 2 + 1, Long.MAX_VALUE - 1, Long.MAX_VALUE
+  };
+
+  private static final int RANDOM_PAIRS = 20000;
+
+  private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+  private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+  @Test
+  public void testEdgeValues() {
+    for (long x : EDGE_VALUES) {
+      for (long y : EDGE_VALUES) {
+        checkAll(x, y);
+      }
+    }
+  }
+
+  @Test
+  public void testRandomValues() {
+    Random random = new Random(20171017L);
+    for (int i = 0; i < RANDOM_PAIRS; i++) {
+      checkAll(randomOperand(random), randomOperand(random));
+    }
+  }
+
+  @Test
+  public void testModWithNegativeDivisorNearHalfMinimum() {
+    // the result of mod is r + y for a negative remainder r, which may not fit in a long
+    long y = Long.MIN_VALUE / 2 - 1;
+    for (long x : new long[]{Long.MIN_VALUE, Long.MIN_VALUE + 1, Long.MIN_VALUE / 2,
+        Long.MIN_VALUE / 2 + 1, y + 1, y - 1, -1}) {
+      checkMod(x, y);
+      checkMod(x, y + 1);
+    }
+    // -2^62 mod (-2^62 - 1) = -2^63 - 1
+    CompInteger result = CompInteger.valueOf(Long.MIN_VALUE / 2).mod(CompInteger.valueOf(y));
+    assertEquals(LONG_MIN.subtract(BigInteger.ONE), result.getValue());
+  }
+
+  @Test
+  public void testMinimumByMinusOne() {
+    CompInteger min = CompInteger.valueOf(Long.MIN_VALUE);
+    CompInteger minusOne = CompInteger.valueOf(-1);
+    BigInteger negatedMin = LONG_MIN.negate();
+    assertEquals(negatedMin, min.multiply(minusOne).getValue());
+    assertEquals(negatedMin, min.divide(minusOne).getValue());
+    assertEquals(negatedMin, min.negate().getValue());
+    assertEquals(negatedMin, min.abs().getValue());
+    assertEquals(BigInteger.ZERO, min.remainder(minusOne).getValue());
+    assertEquals(BigInteger.ZERO, min.mod(minusOne).getValue());
+  }
+
+  @Test
+  public void testCompactAndBigForms() {
+    for (long x : EDGE_VALUES) {
+      BigInteger big = BigInteger.valueOf(x);
+      List<CompInteger> forms = new ArrayList<>();
+      forms.add(new CompInteger(x));
+      forms.add(CompInteger.valueOf(x));
+      forms.add(new CompInteger(big));
+      forms.add(CompInteger.valueOf(big));
+      forms.add(new CompInteger(big, 0.0));
+      // computed on BigInteger since the intermediate value does not fit in a long
+      forms.add(new CompInteger(big.add(LONG_MAX)).subtract(new CompInteger(LONG_MAX)));
+      for (CompInteger form : forms) {
+        assertEquals(forms.get(0), form);
+        assertEquals(forms.get(0).hashCode(), form.hashCode());
+        assertEquals(big, form.getValue());
+      }
+    }
+    // the integral part of 2^63 does not fit in a long
+    CompInteger big = CompInteger.valueOf(LONG_MAX).add(CompInteger.ONE);
+    assertEquals(new CompInteger(LONG_MAX.add(BigInteger.ONE)), big);
+    assertEquals(new CompInteger(LONG_MAX.add(BigInteger.ONE)).hashCode(), big.hashCode());
+  }
+
+  private static long randomOperand(Random pRandom) {
+    switch (pRandom.nextInt(4)) {
+      case 0:
+        return pRandom.nextLong();
+      case 1:
+        return pRandom.nextInt();
+      case 2:
+        return pRandom.nextInt(2049) - 1024;
+      default:
+        // close to an edge value
+        return EDGE_VALUES[pRandom.nextInt(EDGE_VALUES.length)] + pRandom.nextInt(5) - 2;
+    }
+  }
+
+  private static void checkAll(long x, long y) {
+    BigInteger bx = BigInteger.valueOf(x);
+    BigInteger by = BigInteger.valueOf(y);
+    CompInteger cx = CompInteger.valueOf(x);
+    CompInteger cy = CompInteger.valueOf(y);
+    String operands = x + ", " + y;
+
+    assertIntegral(operands + ": add", bx.add(by), cx.add(cy));
+    assertIntegral(operands + ": subtract", bx.subtract(by), cx.subtract(cy));
+    assertIntegral(operands + ": multiply", bx.multiply(by), cx.multiply(cy));
+    assertEquals(operands + ": compareTo", bx.compareTo(by), cx.compareTo(cy));
+    assertEquals(operands + ": equals", x == y, cx.equals(cy));
+    if (y == 0) {
+      assertEquals(CompInteger.NaN, cx.divide(cy));
+      assertEquals(CompInteger.NaN, cx.mod(cy));
+      assertEquals(CompInteger.NaN, cx.remainder(cy));
+      return;
+    }
+    BigInteger[] quotientAndRemainder = bx.divideAndRemainder(by);
+    if (quotientAndRemainder[1].signum() == 0) {
+      assertIntegral(operands + ": divide", quotientAndRemainder[0], cx.divide(cy));
+    } else {
+      CompInteger expected = new CompInteger(new BigDecimal(bx).divide(new BigDecimal(by), 12,
+          RoundingMode.HALF_UP));
+      assertEquals(operands + ": divide", expected, cx.divide(cy));
+    }
+    assertIntegral(operands + ": remainder", quotientAndRemainder[1], cx.remainder(cy));
+    checkMod(x, y);
+  }
+
+  /**
+   * The result of mod is the remainder, plus the divisor if the remainder is negative.
+   */
+  private static void checkMod(long x, long y) {
+    BigInteger expected = BigInteger.valueOf(x).remainder(BigInteger.valueOf(y));
+    if (expected.signum() < 0) {
+      expected = expected.add(BigInteger.valueOf(y));
+    }
+    assertIntegral(x + ", " + y + ": mod", expected,
+        CompInteger.valueOf(x).mod(CompInteger.valueOf(y)));
+  }
+
+  private static void assertIntegral(String pMessage, BigInteger pExpected, CompInteger pActual) {
+    assertEquals(pMessage, CompInteger.IntegerStatus.NORM, pActual.getStatus());
+    assertEquals(pMessage, pExpected, pActual.getValue());
+    assertEquals(pMessage, pExpected.signum(), pActual.signum());
+    assertEquals(pMessage, new CompInteger(pExpected), pActual);
+    assertEquals(pMessage, new CompInteger(pExpected).hashCode(), pActual.hashCode());
+  }
+}
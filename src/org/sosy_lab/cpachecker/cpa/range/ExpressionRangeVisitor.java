@@ -298,7 +298,7 @@ public final class ExpressionRangeVisitor extends DefaultCExpressionVisitor<Rang
 
   @Override
   public Range visit(CCharLiteralExpression e) throws UnrecognizedCCodeException {
-    return new Range((long) e.getCharacter());
+    return Range.singletonRange((long) e.getCharacter());
   }
 
   @Override
@@ -311,7 +311,7 @@ public final class ExpressionRangeVisitor extends DefaultCExpressionVisitor<Rang
   @Override
   public Range visit(CIntegerLiteralExpression e) throws UnrecognizedCCodeException {
     BigInteger value = e.getValue();
-    return new Range(new CompInteger(value));
+    return Range.singletonRange(value);
   }
 
   @Override
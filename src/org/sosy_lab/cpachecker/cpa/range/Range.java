@@ -32,8 +32,8 @@ public final class Range {
   private final CompInteger high;
 
   public Range(long value) {
-    this.low = new CompInteger(value);
-    this.high = new CompInteger(value);
+    this.low = CompInteger.valueOf(value);
+    this.high = this.low;
   }
 
   public Range(CompInteger value) {
@@ -43,11 +43,11 @@ public final class Range {
 
   public Range(long low, long high) {
     if (low <= high) {
-      this.low = new CompInteger(low);
-      this.high = new CompInteger(high);
+      this.low = CompInteger.valueOf(low);
+      this.high = CompInteger.valueOf(high);
     } else {
-      this.low = new CompInteger(high);
-      this.high = new CompInteger(low);
+      this.low = CompInteger.valueOf(high);
+      this.high = CompInteger.valueOf(low);
     }
   }
 
@@ -85,10 +85,33 @@ public final class Range {
     }
   }
 
+  /**
+   * Singleton ranges of small integers are shared.
+   */
+  private static final long CACHE_LOW = -128;
+  private static final long CACHE_HIGH = 1024;
+  private static final Range[] singletonCache = new Range[(int) (CACHE_HIGH - CACHE_LOW + 1)];
+
+  static {
+    for (int i = 0; i < singletonCache.length; i++) {
+      singletonCache[i] = new Range(CACHE_LOW + i);
+    }
+  }
+
   public static Range singletonRange(long value) {
+    if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+      return singletonCache[(int) (value - CACHE_LOW)];
+    }
     return new Range(value);
   }
 
+  public static Range singletonRange(BigInteger value) {
+    if (value.bitLength() < Long.SIZE) {
+      return singletonRange(value.longValue());
+    }
+    return new Range(new CompInteger(value));
+  }
+
   public static Range upperBoundedRange(CompInteger bound) {
     return new Range(CompInteger.NEGATIVE_INF, bound);
   }
@@ -125,8 +148,8 @@ public final class Range {
     return this.high.floor().subtract(this.low.ceil()).add(CompInteger.ONE);
   }
 
-  public static final Range ZERO = new Range(0L);
-  public static final Range ONE = new Range(1L);
+  public static final Range ZERO = singletonRange(0L);
+  public static final Range ONE = singletonRange(1L);
   public static final Range BOOL = new Range(0L, 1L);
   /**
    * {@link Range#EMPTY} denotes empty set
@@ -471,20 +471,27 @@ public class RangeState implements LatticeAbstractState<RangeState>, SwitchableG
     if (bRoot == null) {
       return new PathCopyingPersistentTree<>(aRoot);
     }
-    Set<String> aKeys = aRoot.getKeys();
-    Set<String> bKeys = bRoot.getKeys();
-    Set<String> totalKeys = Sets.union(aKeys, bKeys);
-    PersistentMap<String, PersistentTreeNode<String, Range>> newChildren =
-        PathCopyingPersistentTreeMap.of();
-    for (String totalKey : totalKeys) {
-      PersistentTreeNode<String, Range> aNode = aRoot.getChild(totalKey);
-      PersistentTreeNode<String, Range> bNode = bRoot.getChild(totalKey);
+    // the declarations only in the left tree are preserved, thus we start from the left tree and
+    // only update the declarations that are different in the right tree
+    PersistentTreeNode<String, Range> newRoot = aRoot;
+    if (newRoot.getElement() != null) {
+      newRoot = newRoot.setElementAndCopy(null);
+    }
+    for (String bKey : bRoot.getKeys()) {
+      PersistentTreeNode<String, Range> aNode = aRoot.getChild(bKey);
+      PersistentTreeNode<String, Range> bNode = bRoot.getChild(bKey);
+      if (aNode == bNode) {
+        // unchanged subtree shared by two trees
+        continue;
+      }
       PersistentTreeNode<String, Range> merged = mergeTreeNode(aNode, bNode);
-      if (merged != null) {
-        newChildren = newChildren.putAndCopy(totalKey, merged);
+      if (merged != aNode) {
+        newRoot = newRoot.setChildAndCopy(bKey, merged);
       }
     }
-    PersistentTreeNode<String, Range> newRoot = new PersistentTreeNode<>(null, newChildren);
+    if (newRoot == aRoot) {
+      return a;
+    }
     return new PathCopyingPersistentTree<>(newRoot);
   }
 
@@ -494,10 +501,11 @@ public class RangeState implements LatticeAbstractState<RangeState>, SwitchableG
   private static PersistentTreeNode<String, Range> mergeTreeNode(
       PersistentTreeNode<String, Range> a, PersistentTreeNode<String, Range> b) {
     assert (a != null || b != null);
-    if (a == null) {
-      return b;
-    } else if (b == null) {
+    if (a == b || b == null) {
+      // union is idempotent
       return a;
+    } else if (a == null) {
+      return b;
     }
     // merge element
     Range aElement = a.getElement();
@@ -666,84 +674,59 @@ public class RangeState implements LatticeAbstractState<RangeState>, SwitchableG
 
   @Override
   public boolean isLessOrEqual(RangeState other) {
-    TreeUndefCompareVisitor undefVisitor = new TreeUndefCompareVisitor(other.ranges);
-    ranges.traverse(undefVisitor);
-    if (!undefVisitor.getIsLessOrEqual()) {
-      return false;
-    }
-    TreeCompareVisitor compVisitor = new TreeCompareVisitor(ranges);
-    other.ranges.traverse(compVisitor);
-    return compVisitor.getIsLessOrEqual();
-
-  }
-
-  /**
-   * Compare the definedness of declarations.
-   */
-  private class TreeUndefCompareVisitor implements TreeVisitor<String, Range> {
-
-    private final PathCopyingPersistentTree<String, Range> rightSide;
-    private boolean isLessOrEqual = true;
-
-    TreeUndefCompareVisitor(PathCopyingPersistentTree<String, Range> pRight) {
-      rightSide = pRight;
-    }
-
-    public boolean getIsLessOrEqual() {
-      return isLessOrEqual;
+    PersistentTreeNode<String, Range> thisRoot = ranges.getRoot();
+    PersistentTreeNode<String, Range> otherRoot = other.ranges.getRoot();
+    if (thisRoot == otherRoot) {
+      return true;
     }
-
-    @Override
-    public TreeVisitStrategy visit(Stack<String> path, Range element, boolean isLeaf) {
-      if (path.size() == 1) {
-        if (rightSide.getSubtreeRoot(path) == null) {
+    // compare the definedness of declarations
+    if (thisRoot != null) {
+      for (String key : thisRoot.getKeys()) {
+        if (otherRoot == null || otherRoot.getChild(key) == null) {
           // the right state has an undeclared variable
-          isLessOrEqual = false;
-          return TreeVisitStrategy.ABORT;
+          return false;
         }
-        return TreeVisitStrategy.SKIP;
       }
-      // this should NOT be reached
-      return TreeVisitStrategy.CONTINUE;
     }
+    return otherRoot == null || isLessOrEqual(thisRoot, otherRoot, 0);
   }
 
   /**
-   * Compare ranges of access paths.
+   * Compare ranges of access paths in two subtrees at the same position. Only the leaves of the
+   * right subtree are compared.
+   *
+   * @param depth the length of access path of the subtrees
    */
-  private class TreeCompareVisitor implements TreeVisitor<String, Range> {
-
-    private final PathCopyingPersistentTree<String, Range> leftSide;
-    private boolean isLessOrEqual = true;
-
-    TreeCompareVisitor(PathCopyingPersistentTree<String, Range> pLeft) {
-      leftSide = pLeft;
-    }
-
-    public boolean getIsLessOrEqual() {
-      return isLessOrEqual;
+  private static boolean isLessOrEqual(
+      @Nullable PersistentTreeNode<String, Range> left,
+      PersistentTreeNode<String, Range> right, int depth) {
+    if (left == right) {
+      // a range always contains itself
+      return true;
     }
-
-    @Override
-    public TreeVisitStrategy visit(Stack<String> path, Range element, boolean isLeaf) {
-      if (isLeaf && element != null) {
-        Range leftRange = leftSide.get(path);
-        if (leftRange == null) {
-          if (path.size() == 1) {
-            leftRange = Range.EMPTY;
-          } else {
-            leftRange = Range.UNBOUND;
-          }
-        }
-        if (!element.contains(leftRange)) {
-          // 1. the left range is unbounded but the right one is not
-          // 2. the right range does not contain the corresponding left range
-          isLessOrEqual = false;
-          return TreeVisitStrategy.ABORT;
+    Range element = right.getElement();
+    if (right.isLeaf() && element != null) {
+      Range leftRange = (left == null) ? null : left.getElement();
+      if (leftRange == null) {
+        if (depth == 1) {
+          leftRange = Range.EMPTY;
+        } else {
+          leftRange = Range.UNBOUND;
         }
       }
-      return TreeVisitStrategy.CONTINUE;
+      if (!element.contains(leftRange)) {
+        // 1. the left range is unbounded but the right one is not
+        // 2. the right range does not contain the corresponding left range
+        return false;
+      }
+    }
+    for (String key : right.getKeys()) {
+      PersistentTreeNode<String, Range> leftChild = (left == null) ? null : left.getChild(key);
+      if (!isLessOrEqual(leftChild, right.getChild(key), depth + 1)) {
+        return false;
+      }
     }
+    return true;
   }
 
   /**
@@ -753,55 +736,54 @@ public class RangeState implements LatticeAbstractState<RangeState>, SwitchableG
    * @return widening result
    */
   public RangeState widening(RangeState r) {
-    RangeTreeWideningVisitor wVisitor = new RangeTreeWideningVisitor(ranges);
-    r.ranges.traverse(wVisitor);
-    return wVisitor.getWidenedState();
-  }
-
-  private class RangeTreeWideningVisitor implements TreeVisitor<String, Range> {
-
-    private final PathCopyingPersistentTree<String, Range> older;
-    private RangeState newState = new RangeState();
-
-    RangeTreeWideningVisitor(PathCopyingPersistentTree<String, Range> pOlder) {
-      older = pOlder;
+    RangeState newState = new RangeState();
+    PersistentTreeNode<String, Range> newRoot = r.ranges.getRoot();
+    if (newRoot != null) {
+      widening(ranges.getRoot(), newRoot, new Stack<String>(), newState);
     }
+    return newState;
+  }
 
-    @Override
-    public TreeVisitStrategy visit(Stack<String> path, Range element, boolean isLeaf) {
-      if (isLeaf && element != null) {
-        Range oldRange;
-        if (path.size() == 1 && older.getSubtreeRoot(path) == null) {
-          oldRange = Range.EMPTY;
-        } else {
-          oldRange = older.get(path);
-          if (oldRange == null) {
-            oldRange = Range.UNBOUND;
-          }
-        }
-        Range result;
-        if (oldRange.isEmpty()) {
-          result = Range.UNBOUND;
-        } else if (element.isEmpty()) {
-          result = Range.EMPTY;
-        } else {
-          CompInteger min, max;
-          CompInteger oldMin = oldRange.getLow();
-          CompInteger newMin = element.getLow();
-          min = oldMin.compareTo(newMin) > 0 ? CompInteger.NEGATIVE_INF : oldMin;
-          CompInteger oldMax = oldRange.getHigh();
-          CompInteger newMax = element.getHigh();
-          max = oldMax.compareTo(newMax) < 0 ? CompInteger.POSITIVE_INF : oldMax;
-          result = new Range(min, max);
+  /**
+   * Widen the leaves of the newer subtree. Two trees are traversed simultaneously, thus the older
+   * range is found without looking up the access path from the root.
+   */
+  private static void widening(
+      @Nullable PersistentTreeNode<String, Range> older,
+      PersistentTreeNode<String, Range> newer, Stack<String> path, RangeState newState) {
+    Range element = newer.getElement();
+    if (newer.isLeaf() && element != null) {
+      Range oldRange;
+      if (path.size() == 1 && older == null) {
+        oldRange = Range.EMPTY;
+      } else {
+        oldRange = (older == null) ? null : older.getElement();
+        if (oldRange == null) {
+          oldRange = Range.UNBOUND;
         }
-        // widening fixes the values for global variables
-        newState.addRange(path, result, true);
       }
-      return TreeVisitStrategy.CONTINUE;
+      Range result;
+      if (oldRange.isEmpty()) {
+        result = Range.UNBOUND;
+      } else if (element.isEmpty()) {
+        result = Range.EMPTY;
+      } else {
+        CompInteger min, max;
+        CompInteger oldMin = oldRange.getLow();
+        CompInteger newMin = element.getLow();
+        min = oldMin.compareTo(newMin) > 0 ? CompInteger.NEGATIVE_INF : oldMin;
+        CompInteger oldMax = oldRange.getHigh();
+        CompInteger newMax = element.getHigh();
+        max = oldMax.compareTo(newMax) < 0 ? CompInteger.POSITIVE_INF : oldMax;
+        result = new Range(min, max);
+      }
+      // widening fixes the values for global variables
+      newState.addRange(path, result, true);
     }
-
-    RangeState getWidenedState() {
-      return newState;
+    for (String key : newer.getKeys()) {
+      path.push(key);
+      widening((older == null) ? null : older.getChild(key), newer.getChild(key), path, newState);
+      path.pop();
     }
   }
 
@@ -821,26 +803,35 @@ public class RangeState implements LatticeAbstractState<RangeState>, SwitchableG
                                  PathCopyingPersistentTree<String, Range> b) {
     PersistentTreeNode<String, Range> aRoot = a.getRoot();
     PersistentTreeNode<String, Range> bRoot = b.getRoot();
-    if (aRoot == null && bRoot == null) {
+    if (aRoot == bRoot) {
       return true;
     }
     if (aRoot == null || bRoot == null) {
       return false;
     }
     // it is unnecessary to compare the element at the root
-    Set<String> aKeys = aRoot.getKeys();
-    Set<String> bKeys = bRoot.getKeys();
-    for (String key : Sets.union(aKeys, bKeys)) {
+    for (String key : aRoot.getKeys()) {
       if (!isEqualDeclare(aRoot.getChild(key), bRoot.getChild(key))) {
         return false;
       }
     }
+    for (String key : bRoot.getKeys()) {
+      if (aRoot.getChild(key) == null && !isEqualDeclare(null, bRoot.getChild(key))) {
+        return false;
+      }
+    }
     return true;
   }
 
+  /**
+   * Compare two subtrees of declarations, where a missing declaration has empty range.
+   */
   private static boolean isEqualDeclare(@Nullable PersistentTreeNode<String, Range> aNode,
                                         @Nullable PersistentTreeNode<String, Range> bNode) {
     assert (aNode != null || bNode != null);
+    if (aNode == bNode) {
+      return true;
+    }
     // compare the element
     Range aVal, bVal;
     aVal = (aNode == null) ? Range.EMPTY : aNode.getElement();
@@ -854,33 +845,18 @@ public class RangeState implements LatticeAbstractState<RangeState>, SwitchableG
     if (!aVal.equals(bVal)) {
       return false;
     }
-    // compare the children
-    if (aNode == null) {
-      // bNode != null
-      for (String bKey : bNode.getKeys()) {
-        if (!isEqual(null, bNode.getChild(bKey))) {
-          return false;
-        }
-      }
-    } else if (bNode == null) {
-      for (String aKey : aNode.getKeys()) {
-        if (!isEqual(aNode.getChild(aKey), null)) {
-          return false;
-        }
-      }
-    } else {
-      for (String key : Sets.union(aNode.getKeys(), bNode.getKeys())) {
-        if (!isEqual(aNode.getChild(key), bNode.getChild(key))) {
-          return false;
-        }
-      }
-    }
-    return true;
+    return isEqualChildren(aNode, bNode);
   }
 
+  /**
+   * Compare two subtrees, where a missing element has unbounded range.
+   */
   private static boolean isEqual(@Nullable PersistentTreeNode<String, Range> aNode,
                                  @Nullable PersistentTreeNode<String, Range> bNode) {
     assert (aNode != null || bNode != null);
+    if (aNode == bNode) {
+      return true;
+    }
     // compare the element
     Range aVal, bVal;
     aVal = (aNode == null) ? Range.UNBOUND : aNode.getElement();
@@ -894,7 +870,11 @@ public class RangeState implements LatticeAbstractState<RangeState>, SwitchableG
     if (!aVal.equals(bVal)) {
       return false;
     }
-    // compare the children
+    return isEqualChildren(aNode, bNode);
+  }
+
+  private static boolean isEqualChildren(@Nullable PersistentTreeNode<String, Range> aNode,
+                                         @Nullable PersistentTreeNode<String, Range> bNode) {
     if (aNode == null) {
       // bNode != null
       for (String bKey : bNode.getKeys()) {
@@ -909,11 +889,16 @@ public class RangeState implements LatticeAbstractState<RangeState>, SwitchableG
         }
       }
     } else {
-      for (String key : Sets.union(aNode.getKeys(), bNode.getKeys())) {
+      for (String key : aNode.getKeys()) {
         if (!isEqual(aNode.getChild(key), bNode.getChild(key))) {
           return false;
         }
       }
+      for (String key : bNode.getKeys()) {
+        if (aNode.getChild(key) == null && !isEqual(null, bNode.getChild(key))) {
+          return false;
+        }
+      }
     }
     return true;
   }
@@ -1575,7 +1575,7 @@ public final class RangeTransferRelation
     public ExpressionCell<RangeState, Range> visit(CIntegerLiteralExpression pIastIntegerLiteralExpression)
         throws CPATransferException {
       BigInteger value = pIastIntegerLiteralExpression.getValue();
-      Range resultRange = new Range(new CompInteger(value));
+      Range resultRange = Range.singletonRange(value);
       ExpressionCell<RangeState, Range> totalCell = new ExpressionCell<>(internalState,
           otherStates, new ArrayList<Range>(), resultRange);
       return checkerManager
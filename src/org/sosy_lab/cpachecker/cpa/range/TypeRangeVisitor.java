@@ -35,13 +35,13 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cfa.types.c.CTypedefType;
 import org.sosy_lab.cpachecker.cfa.types.c.CVoidType;
 import org.sosy_lab.cpachecker.cfa.types.c.DefaultCTypeVisitor;
+import org.sosy_lab.cpachecker.cpa.range.util.Ranges;
 import org.sosy_lab.cpachecker.exceptions.UnrecognizedCCodeException;
 import org.sosy_lab.cpachecker.util.access.AccessPath;
 import org.sosy_lab.cpachecker.util.access.ArrayConstIndexSegment;
 import org.sosy_lab.cpachecker.util.access.FieldAccessSegment;
 import org.sosy_lab.cpachecker.util.collections.tree.PathCopyingPersistentTree;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -164,9 +164,7 @@ public final class TypeRangeVisitor
     if (zeroInit) {
       generatedMap = generatedMap.setElementAndCopy(prefix, Range.ZERO);
     } else {
-      BigInteger min = model.getMinimalIntegerValue(t);
-      BigInteger max = model.getMaximalIntegerValue(t);
-      Range newRange = new Range(new CompInteger(min), new CompInteger(max));
+      Range newRange = Ranges.getTypeRange(t, model);
       generatedMap = generatedMap.setElementAndCopy(prefix, newRange);
     }
     return generatedMap;
@@ -63,7 +63,7 @@ public final class CompIntegers {
     return false;
   }
 
-  public static int signum(Double value) {
+  public static int signum(double value) {
     if (value > ALMOST_ZERO_DBL) {
       return 1;
     } else if (value < -ALMOST_ZERO_DBL) {
@@ -96,8 +96,8 @@ public final class CompIntegers {
     }
   };
 
-  public static boolean overHalf(Double value) {
-    Double absValue = Math.abs(value);
+  public static boolean overHalf(double value) {
+    double absValue = Math.abs(value);
     if (absValue < 0.5) {
       return false;
     }
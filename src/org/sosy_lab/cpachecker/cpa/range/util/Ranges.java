@@ -42,6 +42,7 @@ import org.sosy_lab.cpachecker.cpa.range.LeftHandAccessPathVisitor;
 import org.sosy_lab.cpachecker.cpa.range.Range;
 import org.sosy_lab.cpachecker.cpa.range.RangeState;
 import org.sosy_lab.cpachecker.exceptions.UnrecognizedCCodeException;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.Types;
 import org.sosy_lab.cpachecker.util.access.AccessPath;
 import org.sosy_lab.cpachecker.util.access.ArrayConstIndexSegment;
@@ -49,20 +50,41 @@ import org.sosy_lab.cpachecker.util.access.ArrayConstIndexSegment;
 import java.math.BigInteger;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public final class Ranges {
 
   private Ranges() {
   }
 
+  /**
+   * Ranges of numerical types are interned, since they are frequently queried.
+   */
+  private static final ConcurrentMap<Pair<CSimpleType, MachineModel>, Range> typeRanges =
+      new ConcurrentHashMap<>();
+
+  private static Range getSimpleTypeRange(CSimpleType type, MachineModel model) {
+    Pair<CSimpleType, MachineModel> key = Pair.of(type, model);
+    Range range = typeRanges.get(key);
+    if (range == null) {
+      BigInteger min = model.getMinimalIntegerValue(type);
+      BigInteger max = model.getMaximalIntegerValue(type);
+      range = new Range(CompInteger.valueOf(min), CompInteger.valueOf(max));
+      Range existing = typeRanges.putIfAbsent(key, range);
+      if (existing != null) {
+        range = existing;
+      }
+    }
+    return range;
+  }
+
   public static Range getTypeRange(CType type, MachineModel model) {
     while (type instanceof CTypedefType) {
       type = ((CTypedefType) type).getRealType();
     }
     if (type instanceof CSimpleType) {
-      BigInteger min = model.getMinimalIntegerValue((CSimpleType) type);
-      BigInteger max = model.getMaximalIntegerValue((CSimpleType) type);
-      return new Range(new CompInteger(min), new CompInteger(max));
+      return getSimpleTypeRange((CSimpleType) type, model);
     } else {
       return Range.UNBOUND;
     }
@@ -80,9 +102,7 @@ public final class Ranges {
     }
     // given a numerical type, the type range must be bounded
     if (type instanceof CSimpleType) {
-      BigInteger min = model.getMinimalIntegerValue((CSimpleType) type);
-      BigInteger max = model.getMaximalIntegerValue((CSimpleType) type);
-      return new Range(new CompInteger(min), new CompInteger(max));
+      return getSimpleTypeRange((CSimpleType) type, model);
     } else {
       return Range.UNBOUND;
     }
@@ -294,9 +294,10 @@ public class ShapeState implements LatticeAbstractState<ShapeState>, SummaryAcce
       return false;
     }
     ShapeState that = (ShapeState) obj;
+    // the shape graph is compared first since it rejects most unequal states quickly
     return
-        Objects.equal(explicitValues, that.explicitValues) &&
-            Objects.equal(memory, that.memory) &&
+        Objects.equal(memory, that.memory) &&
+            Objects.equal(explicitValues, that.explicitValues) &&
             Objects.equal(invalidRead, that.invalidRead) &&
             Objects.equal(invalidWrite, that.invalidWrite) &&
             Objects.equal(invalidFree, that.invalidFree) &&
@@ -253,6 +253,8 @@ public class FormulaCreator {
    */
   private static class DummyEdge implements CFAEdge {
 
+    private static final long serialVersionUID = 8738879957730754476L;
+
     private static final String UNKNOWN = "<unknown>";
     private static final FileLocation DUMMY_LOCATION = new FileLocation(0, UNKNOWN, 0, 0, 0);
 
@@ -17,6 +17,8 @@ package org.sosy_lab.cpachecker.cpa.shape.graphs;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
 
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentSortedMap;
 import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
 import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
@@ -54,6 +56,8 @@ import org.sosy_lab.cpachecker.util.access.ArrayConstIndexSegment;
 import org.sosy_lab.cpachecker.util.access.FieldAccessSegment;
 import org.sosy_lab.cpachecker.util.access.PathSegment;
 import org.sosy_lab.cpachecker.util.access.PointerDereferenceSegment;
+import org.sosy_lab.cpachecker.util.collections.set.PathCopyingPersistentSet;
+import org.sosy_lab.cpachecker.util.collections.set.PersistentSortedSet;
 import org.sosy_lab.cpachecker.util.globalinfo.CFAInfo;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
@@ -62,7 +66,6 @@ import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -80,16 +83,18 @@ public class CShapeGraph extends ShapeGraph {
 
   private final Deque<CStackFrame> stackObjects = new ArrayDeque<>();
 
-  private final Map<String, SGObject> heapObjects = new HashMap<>();
-  private final Map<SGObject, CFAEdge> heapLocations = new HashMap<>();
+  private PersistentSortedMap<String, SGObject> heapObjects = PathCopyingPersistentTreeMap.of();
+  private PersistentSortedMap<SGObject, CFAEdge> heapLocations =
+      PathCopyingPersistentTreeMap.of();
 
-  private final Map<String, SGRegion> globalObjects = new HashMap<>();
+  private PersistentSortedMap<String, SGRegion> globalObjects =
+      PathCopyingPersistentTreeMap.of();
 
   /**
    * All the VLAs allocated in the stack space are not removed instantly. They are removed only
    * when a stack allocation of a VLA or stack frame is encountered.
    */
-  private final Set<SGObject> danglingSet = new HashSet<>();
+  private PersistentSortedSet<SGObject> danglingSet = PathCopyingPersistentSet.of();
   private boolean hasLeak = false;
   private Set<CFAEdge> leakEdges = new HashSet<>();
 
@@ -97,7 +102,8 @@ public class CShapeGraph extends ShapeGraph {
    * mapping memory location to its abstract value.
    * NOTE: this should be consistent with have-value edges.
    */
-  private final Map<MemoryLocation, Long> memoryValue = new HashMap<>();
+  private PersistentSortedMap<MemoryLocation, Long> memoryValue =
+      PathCopyingPersistentTreeMap.of();
 
   /**
    * Abstraction information, including:
@@ -110,7 +116,7 @@ public class CShapeGraph extends ShapeGraph {
   public CShapeGraph(MachineModel pMachineModel) {
     super(pMachineModel);
     SGObject nullObject = getNullObject();
-    heapObjects.put(nullObject.getLabel(), nullObject);
+    heapObjects = heapObjects.putAndCopy(nullObject.getLabel(), nullObject);
   }
 
   public CShapeGraph(CShapeGraph pMemory) {
@@ -119,11 +125,11 @@ public class CShapeGraph extends ShapeGraph {
       CStackFrame newFrame = new CStackFrame(frame);
       stackObjects.add(newFrame);
     }
-    heapObjects.putAll(pMemory.heapObjects);
-    heapLocations.putAll(pMemory.heapLocations);
-    globalObjects.putAll(pMemory.globalObjects);
-    memoryValue.putAll(pMemory.memoryValue);
-    danglingSet.addAll(pMemory.danglingSet);
+    heapObjects = pMemory.heapObjects;
+    heapLocations = pMemory.heapLocations;
+    globalObjects = pMemory.globalObjects;
+    memoryValue = pMemory.memoryValue;
+    danglingSet = pMemory.danglingSet;
 
     hasLeak = pMemory.hasLeak;
     leakEdges.addAll(pMemory.leakEdges);
@@ -147,7 +153,7 @@ public class CShapeGraph extends ShapeGraph {
     }
     MemoryLocation location = getMemoryLocationFromObject(object, offset);
     if (location != null) {
-      memoryValue.put(location, value);
+      memoryValue = memoryValue.putAndCopy(location, value);
     }
   }
 
@@ -160,32 +166,20 @@ public class CShapeGraph extends ShapeGraph {
     }
     MemoryLocation location = getMemoryLocationFromObject(pEdge.getObject(), pEdge.getOffset());
     if (location != null) {
-      memoryValue.remove(location);
+      memoryValue = memoryValue.removeAndCopy(location);
     }
   }
 
   @Override
   public void removeObjectAndEdges(SGObject pObject) {
     super.removeObjectAndEdges(pObject);
-    String label = pObject.getLabel();
-    Iterator<MemoryLocation> locIter = memoryValue.keySet().iterator();
-    while (locIter.hasNext()) {
-      if (locIter.next().getIdentifier().equals(label)) {
-        locIter.remove();
-      }
-    }
+    removeMemoryValues(pObject);
   }
 
   @Override
   public void removeObjectAndEdges(SGObject pObject, Set<SGObject> pObserved) {
     super.removeObjectAndEdges(pObject, pObserved);
-    String label = pObject.getLabel();
-    Iterator<MemoryLocation> locIter = memoryValue.keySet().iterator();
-    while (locIter.hasNext()) {
-      if (locIter.next().getIdentifier().equals(label)) {
-        locIter.remove();
-      }
-    }
+    removeMemoryValues(pObject);
   }
 
   @Override
@@ -193,11 +187,14 @@ public class CShapeGraph extends ShapeGraph {
       final SGObject pObject, final Set<SGHasValueEdge> pHVEdges,
       final Set<SGPointToEdge> pPTEdges) {
     super.removeObjectAndEdges(pObject, pHVEdges, pPTEdges);
+    removeMemoryValues(pObject);
+  }
+
+  private void removeMemoryValues(SGObject pObject) {
     String label = pObject.getLabel();
-    Iterator<MemoryLocation> locIter = memoryValue.keySet().iterator();
-    while (locIter.hasNext()) {
-      if (locIter.next().getIdentifier().equals(label)) {
-        locIter.remove();
+    for (MemoryLocation location : memoryValue.keySet()) {
+      if (location.getIdentifier().equals(label)) {
+        memoryValue = memoryValue.removeAndCopy(location);
       }
     }
   }
@@ -205,7 +202,7 @@ public class CShapeGraph extends ShapeGraph {
   @Override
   public void replaceHVSet(Set<SGHasValueEdge> pNewHV) {
     super.replaceHVSet(pNewHV);
-    memoryValue.clear();
+    memoryValue = PathCopyingPersistentTreeMap.of();
     // re-construct memory value mapping
     for (SGHasValueEdge edge : pNewHV) {
       SGObject object = edge.getObject();
@@ -213,7 +210,7 @@ public class CShapeGraph extends ShapeGraph {
       Long value = edge.getValue();
       MemoryLocation location = getMemoryLocationFromObject(object, offset);
       if (location != null) {
-        memoryValue.put(location, value);
+        memoryValue = memoryValue.putAndCopy(location, value);
       }
     }
   }
@@ -252,27 +249,16 @@ public class CShapeGraph extends ShapeGraph {
     neq.mergeValues(newValue, oldValue);
     abstraction.mergeValues(newValue, oldValue, newMerges);
     removeValue(oldValue);
-    Set<SGHasValueEdge> newHVEdges = new HashSet<>();
-    Map<MemoryLocation, Long> newMemoryValues = new HashMap<>();
-    for (SGHasValueEdge edge : HVEdges) {
+    HasValueEdgeSet newHVEdges = HVEdges;
+    for (SGHasValueEdge edge : HVEdges.getEdgesHavingValue(oldValue)) {
+      newHVEdges = newHVEdges.removeAndCopy(edge).addAndCopy(new SGHasValueEdge(edge.getType(),
+          edge.getOffset(), edge.getObject(), newValue));
       MemoryLocation loc = getMemoryLocationFromObject(edge.getObject(), edge.getOffset());
-      if (edge.getValue() != oldValue) {
-        newHVEdges.add(edge);
-        if (loc != null) {
-          newMemoryValues.put(loc, edge.getValue());
-        }
-      } else {
-        newHVEdges.add(new SGHasValueEdge(edge.getType(), edge.getOffset(), edge.getObject(),
-            newValue));
-        if (loc != null) {
-          newMemoryValues.put(loc, newValue);
-        }
+      if (loc != null) {
+        memoryValue = memoryValue.putAndCopy(loc, newValue);
       }
     }
-    HVEdges.clear();
-    HVEdges.addAll(newHVEdges);
-    memoryValue.clear();
-    memoryValue.putAll(newMemoryValues);
+    HVEdges = newHVEdges;
   }
 
   /**
@@ -289,14 +275,14 @@ public class CShapeGraph extends ShapeGraph {
   public void addHeapObject(SGObject pObject, CFAEdge pCFAEdge) {
     // though it is possible that the requested object has already existed, this is not erroneous
     // because it cannot cause any problem
-    heapObjects.put(pObject.getLabel(), pObject);
-    heapLocations.put(pObject, pCFAEdge);
-    refCounts.put(pObject, 0L);
+    heapObjects = heapObjects.putAndCopy(pObject.getLabel(), pObject);
+    heapLocations = heapLocations.putAndCopy(pObject, pCFAEdge);
+    putRefCount(pObject, 0L);
     super.addObject(pObject);
   }
 
   public void addGlobalObject(SGRegion pObject) {
-    globalObjects.put(pObject.getLabel(), pObject);
+    globalObjects = globalObjects.putAndCopy(pObject.getLabel(), pObject);
     super.addObject(pObject);
   }
 
@@ -332,7 +318,7 @@ public class CShapeGraph extends ShapeGraph {
     for (SGObject object : forRemoval) {
       removeObjectAndEdges(object);
     }
-    danglingSet.addAll(forDangle);
+    danglingSet = danglingSet.addAllAndCopy(forDangle);
   }
 
   public void removeStackObject(SGObject pObject) {
@@ -346,7 +332,7 @@ public class CShapeGraph extends ShapeGraph {
     for (SGObject object : danglingSet) {
       removeObjectAndEdges(object);
     }
-    danglingSet.clear();
+    danglingSet = danglingSet.empty();
   }
 
   /**
@@ -356,7 +342,7 @@ public class CShapeGraph extends ShapeGraph {
    */
   public void setDanglingSet(Set<SGObject> pDanglingSet) {
     if (danglingSet.isEmpty()) {
-      danglingSet.addAll(pDanglingSet);
+      danglingSet = danglingSet.addAllAndCopy(pDanglingSet);
     }
   }
 
@@ -371,14 +357,14 @@ public class CShapeGraph extends ShapeGraph {
     for (SGObject object : globalObjects.values()) {
       removeObjectAndEdges(object);
     }
-    globalObjects.clear();
+    globalObjects = globalObjects.empty();
   }
 
   public void dropHeapObject(SGObject pObject) {
     String name = pObject.getLabel();
     if (heapObjects.containsKey(name)) {
-      heapObjects.remove(name);
-      heapLocations.remove(pObject);
+      heapObjects = heapObjects.removeAndCopy(name);
+      heapLocations = heapLocations.removeAndCopy(pObject);
     }
   }
 
@@ -390,17 +376,16 @@ public class CShapeGraph extends ShapeGraph {
    */
   public boolean pruneUnreachable(Set<Long> pValuesHasExplicit) {
     // STEP 1: remove leaked objects and restore leak edges for the purpose of error reporting
-    Iterator<SGObject> heapIt = heapObjects.values().iterator();
     Set<SGObject> observed = new HashSet<>();
-    while (heapIt.hasNext()) {
-      SGObject heapObject = heapIt.next();
+    for (SGObject heapObject : heapObjects.values()) {
       if (isObjectValid(heapObject)) {
         if (isZeroRef(heapObject)) {
           // this object is not referenced by any other objects
           hasLeak = true;
-          leakEdges.add(heapLocations.remove(heapObject));
+          leakEdges.add(heapLocations.get(heapObject));
+          heapLocations = heapLocations.removeAndCopy(heapObject);
           // remove unreachable object to avoid duplicated error reporting
-          heapIt.remove();
+          heapObjects = heapObjects.removeAndCopy(heapObject.getLabel());
           removeObjectAndEdges(heapObject, observed);
           abstraction.pruneObject(heapObject);
         }
@@ -610,7 +595,7 @@ public class CShapeGraph extends ShapeGraph {
   }
 
   public Set<SGObject> getDanglingSet() {
-    return Collections.unmodifiableSet(danglingSet);
+    return danglingSet.asSet();
   }
 
   @Nullable
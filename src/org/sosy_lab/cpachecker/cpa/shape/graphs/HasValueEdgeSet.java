@@ -0,0 +1,311 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cpa.shape.graphs;
+
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentSortedMap;
+import org.sosy_lab.cpachecker.cpa.shape.graphs.edge.SGHasValueEdge;
+import org.sosy_lab.cpachecker.cpa.shape.graphs.edge.SGHasValueEdgeFilter;
+import org.sosy_lab.cpachecker.cpa.shape.graphs.node.SGObject;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * An immutable set of has-value edges with structural sharing. Edges are organized by their
+ * memory objects and then by their offsets, thus adding or removing an edge copies only one path
+ * of the underlying trees and the other edges are shared with the original set.
+ *
+ * Edges are also indexed by their values. The index is updated together with the edges, thus
+ * queries by object, by (object, offset) or by value do not scan the whole set.
+ *
+ * The hash code, i.e. the sum of hash codes of edges, is maintained on each update.
+ */
+final class HasValueEdgeSet extends AbstractSet<SGHasValueEdge> {
+
+  private static final HasValueEdgeSet EMPTY = new HasValueEdgeSet(
+      PathCopyingPersistentTreeMap.<SGObject, PersistentSortedMap<Integer,
+          ImmutableSet<SGHasValueEdge>>>of(), 0, 0,
+      PathCopyingPersistentTreeMap.<Long, HasValueEdgeSet>of());
+
+  /**
+   * The empty set used in the value index, which has no value index itself.
+   */
+  private static final HasValueEdgeSet EMPTY_UNINDEXED = new HasValueEdgeSet(
+      PathCopyingPersistentTreeMap.<SGObject, PersistentSortedMap<Integer,
+          ImmutableSet<SGHasValueEdge>>>of(), 0, 0, null);
+
+  private static final Function<PersistentSortedMap<Integer, ImmutableSet<SGHasValueEdge>>,
+      Iterable<SGHasValueEdge>> CELLS_OF_OBJECT =
+      new Function<PersistentSortedMap<Integer, ImmutableSet<SGHasValueEdge>>,
+          Iterable<SGHasValueEdge>>() {
+        @Override
+        public Iterable<SGHasValueEdge> apply(
+            PersistentSortedMap<Integer, ImmutableSet<SGHasValueEdge>> pOffsetMap) {
+          return Iterables.concat(pOffsetMap.values());
+        }
+      };
+
+  private final PersistentSortedMap<SGObject, PersistentSortedMap<Integer,
+      ImmutableSet<SGHasValueEdge>>> edges;
+  private final int size;
+  private final int hash;
+
+  // edges having each value, null if this set is a part of value index
+  @Nullable
+  private final PersistentSortedMap<Long, HasValueEdgeSet> valueIndex;
+
+  private HasValueEdgeSet(
+      PersistentSortedMap<SGObject, PersistentSortedMap<Integer, ImmutableSet<SGHasValueEdge>>>
+          pEdges, int pSize, int pHash,
+      @Nullable PersistentSortedMap<Long, HasValueEdgeSet> pValueIndex) {
+    edges = pEdges;
+    size = pSize;
+    hash = pHash;
+    valueIndex = pValueIndex;
+  }
+
+  static HasValueEdgeSet of() {
+    return EMPTY;
+  }
+
+  static HasValueEdgeSet copyOf(Collection<SGHasValueEdge> pEdges) {
+    if (pEdges instanceof HasValueEdgeSet) {
+      return (HasValueEdgeSet) pEdges;
+    }
+    HasValueEdgeSet result = EMPTY;
+    for (SGHasValueEdge edge : pEdges) {
+      result = result.addAndCopy(edge);
+    }
+    return result;
+  }
+
+  HasValueEdgeSet addAndCopy(SGHasValueEdge pEdge) {
+    SGObject object = pEdge.getObject();
+    Integer offset = pEdge.getOffset();
+    PersistentSortedMap<Integer, ImmutableSet<SGHasValueEdge>> offsetMap = edges.get(object);
+    if (offsetMap == null) {
+      offsetMap = PathCopyingPersistentTreeMap.of();
+    }
+    ImmutableSet<SGHasValueEdge> cell = offsetMap.get(offset);
+    if (cell == null) {
+      cell = ImmutableSet.of(pEdge);
+    } else if (cell.contains(pEdge)) {
+      return this;
+    } else {
+      cell = ImmutableSet.<SGHasValueEdge>builder().addAll(cell).add(pEdge).build();
+    }
+    return new HasValueEdgeSet(edges.putAndCopy(object, offsetMap.putAndCopy(offset, cell)),
+        size + 1, hash + pEdge.hashCode(), addToIndex(pEdge));
+  }
+
+  HasValueEdgeSet removeAndCopy(SGHasValueEdge pEdge) {
+    SGObject object = pEdge.getObject();
+    Integer offset = pEdge.getOffset();
+    PersistentSortedMap<Integer, ImmutableSet<SGHasValueEdge>> offsetMap = edges.get(object);
+    if (offsetMap == null) {
+      return this;
+    }
+    ImmutableSet<SGHasValueEdge> cell = offsetMap.get(offset);
+    if (cell == null || !cell.contains(pEdge)) {
+      return this;
+    }
+    if (cell.size() == 1) {
+      offsetMap = offsetMap.removeAndCopy(offset);
+    } else {
+      ImmutableSet.Builder<SGHasValueEdge> builder = ImmutableSet.builder();
+      for (SGHasValueEdge edge : cell) {
+        if (!edge.equals(pEdge)) {
+          builder.add(edge);
+        }
+      }
+      offsetMap = offsetMap.putAndCopy(offset, builder.build());
+    }
+    return new HasValueEdgeSet(offsetMap.isEmpty() ? edges.removeAndCopy(object) :
+                               edges.putAndCopy(object, offsetMap), size - 1,
+        hash - pEdge.hashCode(), removeFromIndex(pEdge));
+  }
+
+  /**
+   * Remove all the has-value edges of the given object.
+   */
+  HasValueEdgeSet removeObjectAndCopy(SGObject pObject) {
+    PersistentSortedMap<Integer, ImmutableSet<SGHasValueEdge>> offsetMap = edges.get(pObject);
+    if (offsetMap == null) {
+      return this;
+    }
+    int removed = 0;
+    int removedHash = 0;
+    PersistentSortedMap<Long, HasValueEdgeSet> newIndex = valueIndex;
+    for (ImmutableSet<SGHasValueEdge> cell : offsetMap.values()) {
+      removed += cell.size();
+      for (SGHasValueEdge edge : cell) {
+        removedHash += edge.hashCode();
+        if (newIndex != null) {
+          newIndex = removeFromIndex(newIndex, edge);
+        }
+      }
+    }
+    return new HasValueEdgeSet(edges.removeAndCopy(pObject), size - removed,
+        hash - removedHash, newIndex);
+  }
+
+  @Nullable
+  private PersistentSortedMap<Long, HasValueEdgeSet> addToIndex(SGHasValueEdge pEdge) {
+    if (valueIndex == null) {
+      return null;
+    }
+    Long value = pEdge.getValue();
+    HasValueEdgeSet valueEdges = valueIndex.get(value);
+    if (valueEdges == null) {
+      valueEdges = EMPTY_UNINDEXED;
+    }
+    return valueIndex.putAndCopy(value, valueEdges.addAndCopy(pEdge));
+  }
+
+  @Nullable
+  private PersistentSortedMap<Long, HasValueEdgeSet> removeFromIndex(SGHasValueEdge pEdge) {
+    if (valueIndex == null) {
+      return null;
+    }
+    return removeFromIndex(valueIndex, pEdge);
+  }
+
+  private static PersistentSortedMap<Long, HasValueEdgeSet> removeFromIndex(
+      PersistentSortedMap<Long, HasValueEdgeSet> pIndex, SGHasValueEdge pEdge) {
+    Long value = pEdge.getValue();
+    HasValueEdgeSet valueEdges = pIndex.get(value);
+    if (valueEdges == null) {
+      return pIndex;
+    }
+    valueEdges = valueEdges.removeAndCopy(pEdge);
+    return valueEdges.isEmpty() ? pIndex.removeAndCopy(value) :
+           pIndex.putAndCopy(value, valueEdges);
+  }
+
+  /**
+   * Get the has-value edges of the given object.
+   */
+  Iterable<SGHasValueEdge> getEdgesOf(SGObject pObject) {
+    PersistentSortedMap<Integer, ImmutableSet<SGHasValueEdge>> offsetMap = edges.get(pObject);
+    if (offsetMap == null) {
+      return ImmutableSet.of();
+    }
+    return Iterables.concat(offsetMap.values());
+  }
+
+  /**
+   * Get the has-value edges of the given object at the given offset.
+   */
+  Set<SGHasValueEdge> getEdgesAt(SGObject pObject, int pOffset) {
+    PersistentSortedMap<Integer, ImmutableSet<SGHasValueEdge>> offsetMap = edges.get(pObject);
+    if (offsetMap == null) {
+      return ImmutableSet.of();
+    }
+    ImmutableSet<SGHasValueEdge> cell = offsetMap.get(pOffset);
+    return (cell == null) ? ImmutableSet.<SGHasValueEdge>of() : cell;
+  }
+
+  /**
+   * Get the has-value edges having the given value.
+   */
+  HasValueEdgeSet getEdgesHavingValue(long pValue) {
+    Preconditions.checkState(valueIndex != null);
+    HasValueEdgeSet valueEdges = valueIndex.get(pValue);
+    return (valueEdges == null) ? EMPTY_UNINDEXED : valueEdges;
+  }
+
+  /**
+   * Get the has-value edges passing the given filter. The candidate edges are looked up in the
+   * indexes according to the object, offset and value specified in the filter.
+   */
+  Set<SGHasValueEdge> filter(SGHasValueEdgeFilter pFilter) {
+    SGObject object = pFilter.getObject();
+    Integer offset = pFilter.getOffset();
+    Long value = pFilter.getValue();
+    Iterable<SGHasValueEdge> candidates;
+    if (object != null && offset != null) {
+      candidates = getEdgesAt(object, offset);
+    } else if (value != null && !pFilter.isValueComplement() && valueIndex != null) {
+      HasValueEdgeSet valueEdges = getEdgesHavingValue(value);
+      candidates = (object != null) ? valueEdges.getEdgesOf(object) : valueEdges;
+    } else if (object != null) {
+      candidates = getEdgesOf(object);
+    } else {
+      candidates = this;
+    }
+    ImmutableSet.Builder<SGHasValueEdge> builder = ImmutableSet.builder();
+    for (SGHasValueEdge edge : candidates) {
+      if (pFilter.holdsFor(edge)) {
+        builder.add(edge);
+      }
+    }
+    return builder.build();
+  }
+
+  @Override
+  public boolean contains(Object pObject) {
+    if (!(pObject instanceof SGHasValueEdge)) {
+      return false;
+    }
+    SGHasValueEdge edge = (SGHasValueEdge) pObject;
+    PersistentSortedMap<Integer, ImmutableSet<SGHasValueEdge>> offsetMap =
+        edges.get(edge.getObject());
+    if (offsetMap == null) {
+      return false;
+    }
+    ImmutableSet<SGHasValueEdge> cell = offsetMap.get(edge.getOffset());
+    return cell != null && cell.contains(edge);
+  }
+
+  @Override
+  public Iterator<SGHasValueEdge> iterator() {
+    return Iterables.concat(Iterables.transform(edges.values(), CELLS_OF_OBJECT)).iterator();
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object pOther) {
+    if (pOther == this) {
+      return true;
+    }
+    if (pOther instanceof HasValueEdgeSet) {
+      HasValueEdgeSet other = (HasValueEdgeSet) pOther;
+      if (size != other.size || hash != other.hash) {
+        return false;
+      }
+    }
+    return super.equals(pOther);
+  }
+
+}
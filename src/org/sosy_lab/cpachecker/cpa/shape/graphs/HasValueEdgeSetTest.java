@@ -0,0 +1,216 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cpa.shape.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cpa.shape.graphs.edge.SGHasValueEdge;
+import org.sosy_lab.cpachecker.cpa.shape.graphs.edge.SGHasValueEdgeFilter;
+import org.sosy_lab.cpachecker.cpa.shape.graphs.node.SGObject;
+import org.sosy_lab.cpachecker.cpa.shape.graphs.node.SGRegion;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class HasValueEdgeSetTest {
+
+  private static final int OFFSETS = 3;
+  private static final long VALUES = 4;
+
+  private SGObject a;
+  private SGObject b;
+  private List<SGObject> objects;
+
+  @Before
+  public void setUp() {
+    a = new SGRegion("a", CNumericTypes.INT, 4 * OFFSETS, false);
+    b = new SGRegion("b", CNumericTypes.INT, 4 * OFFSETS, false);
+    objects = ImmutableList.of(a, b);
+  }
+
+  private static SGHasValueEdge edge(SGObject pObject, int pOffset, long pValue) {
+    return new SGHasValueEdge(CNumericTypes.INT, pOffset, pObject, pValue);
+  }
+
+  /**
+   * Check the set and all its indexes against the expected edges.
+   */
+  private void assertConsistent(Set<SGHasValueEdge> expected, HasValueEdgeSet set) {
+    assertEquals(expected, set);
+    assertEquals(expected.size(), set.size());
+    assertEquals(expected.hashCode(), set.hashCode());
+    assertEquals(expected, ImmutableSet.copyOf(set.iterator()));
+    for (SGObject object : objects) {
+      Set<SGHasValueEdge> ofObject = new HashSet<>();
+      for (int offset = 0; offset < OFFSETS; offset++) {
+        Set<SGHasValueEdge> atOffset = new HashSet<>();
+        for (SGHasValueEdge e : expected) {
+          if (e.getObject() == object && e.getOffset() == offset) {
+            atOffset.add(e);
+          }
+        }
+        assertEquals(atOffset, set.getEdgesAt(object, offset));
+        ofObject.addAll(atOffset);
+      }
+      assertEquals(ofObject, ImmutableSet.copyOf(set.getEdgesOf(object)));
+    }
+    for (long value = 0; value < VALUES; value++) {
+      Set<SGHasValueEdge> withValue = new HashSet<>();
+      for (SGHasValueEdge e : expected) {
+        if (e.getValue() == value) {
+          withValue.add(e);
+        }
+      }
+      HasValueEdgeSet indexed = set.getEdgesHavingValue(value);
+      assertEquals(withValue, indexed);
+      assertEquals(withValue.size(), indexed.size());
+      assertEquals(withValue.hashCode(), indexed.hashCode());
+      assertEquals(withValue, set.filter(new SGHasValueEdgeFilter().filterHavingValue(value)));
+    }
+    for (SGHasValueEdge e : expected) {
+      assertTrue(set.contains(e));
+    }
+  }
+
+  @Test
+  public void testAdd() {
+    Set<SGHasValueEdge> expected = new HashSet<>();
+    HasValueEdgeSet set = HasValueEdgeSet.of();
+    for (SGObject object : objects) {
+      for (int offset = 0; offset < OFFSETS; offset++) {
+        SGHasValueEdge e = edge(object, offset, offset % VALUES);
+        expected.add(e);
+        set = set.addAndCopy(e);
+        assertConsistent(expected, set);
+      }
+    }
+    // two edges in the same cell
+    SGHasValueEdge other = new SGHasValueEdge(CNumericTypes.CHAR, 0, a, 3);
+    expected.add(other);
+    set = set.addAndCopy(other);
+    assertConsistent(expected, set);
+    // adding an edge twice does not change the set
+    assertSame(set, set.addAndCopy(edge(a, 1, 1)));
+  }
+
+  @Test
+  public void testRemove() {
+    Set<SGHasValueEdge> expected = new HashSet<>();
+    HasValueEdgeSet set = HasValueEdgeSet.of();
+    for (int offset = 0; offset < OFFSETS; offset++) {
+      SGHasValueEdge e = edge(a, offset, 1);
+      expected.add(e);
+      set = set.addAndCopy(e);
+    }
+    SGHasValueEdge shared = new SGHasValueEdge(CNumericTypes.CHAR, 0, a, 2);
+    expected.add(shared);
+    set = set.addAndCopy(shared);
+    HasValueEdgeSet original = set;
+
+    expected.remove(edge(a, 0, 1));
+    set = set.removeAndCopy(edge(a, 0, 1));
+    assertConsistent(expected, set);
+    expected.remove(edge(a, 2, 1));
+    set = set.removeAndCopy(edge(a, 2, 1));
+    assertConsistent(expected, set);
+    // removing an absent edge does not change the set
+    assertSame(set, set.removeAndCopy(edge(b, 0, 1)));
+    assertSame(set, set.removeAndCopy(edge(a, 1, 2)));
+
+    // the original set is not modified
+    assertEquals(OFFSETS + 1, original.size());
+    assertTrue(original.contains(edge(a, 0, 1)));
+    assertEquals(OFFSETS, original.getEdgesHavingValue(1).size());
+  }
+
+  @Test
+  public void testRemoveObject() {
+    Set<SGHasValueEdge> expected = new HashSet<>();
+    HasValueEdgeSet set = HasValueEdgeSet.of();
+    for (SGObject object : objects) {
+      for (int offset = 0; offset < OFFSETS; offset++) {
+        SGHasValueEdge e = edge(object, offset, offset);
+        expected.add(e);
+        set = set.addAndCopy(e);
+      }
+    }
+    for (int offset = 0; offset < OFFSETS; offset++) {
+      expected.remove(edge(a, offset, offset));
+    }
+    set = set.removeObjectAndCopy(a);
+    assertConsistent(expected, set);
+    assertFalse(set.getEdgesOf(a).iterator().hasNext());
+    assertSame(set, set.removeObjectAndCopy(a));
+
+    set = set.removeObjectAndCopy(b);
+    assertConsistent(ImmutableSet.<SGHasValueEdge>of(), set);
+    assertEquals(HasValueEdgeSet.of(), set);
+  }
+
+  @Test
+  public void testReplaceValue() {
+    Set<SGHasValueEdge> expected = new HashSet<>();
+    HasValueEdgeSet set = HasValueEdgeSet.of();
+    for (SGObject object : objects) {
+      for (int offset = 0; offset < OFFSETS; offset++) {
+        SGHasValueEdge e = edge(object, offset, offset % 2);
+        expected.add(e);
+        set = set.addAndCopy(e);
+      }
+    }
+    // replace value 1 by 3 in the same way as a shape graph merges values
+    HasValueEdgeSet replaced = set;
+    for (SGHasValueEdge e : set.getEdgesHavingValue(1)) {
+      replaced = replaced.removeAndCopy(e)
+          .addAndCopy(edge(e.getObject(), e.getOffset(), 3));
+      expected.remove(e);
+      expected.add(edge(e.getObject(), e.getOffset(), 3));
+    }
+    assertConsistent(expected, replaced);
+    assertTrue(replaced.getEdgesHavingValue(1).isEmpty());
+
+    // a set built from scratch is equal and has the same hash code
+    HasValueEdgeSet copy = HasValueEdgeSet.copyOf(new HashSet<>(expected));
+    assertEquals(copy, replaced);
+    assertEquals(copy.hashCode(), replaced.hashCode());
+  }
+
+  @Test
+  public void testFilter() {
+    HasValueEdgeSet set = HasValueEdgeSet.of();
+    for (SGObject object : objects) {
+      for (int offset = 0; offset < OFFSETS; offset++) {
+        set = set.addAndCopy(edge(object, offset, offset));
+      }
+    }
+    assertEquals(ImmutableSet.of(edge(b, 1, 1)),
+        set.filter(SGHasValueEdgeFilter.objectFilter(b).filterAtOffset(1)));
+    assertEquals(ImmutableSet.of(edge(a, 2, 2)),
+        set.filter(SGHasValueEdgeFilter.objectFilter(a).filterHavingValue(2L)));
+    assertEquals(ImmutableSet.of(edge(a, 0, 0), edge(a, 1, 1)),
+        set.filter(SGHasValueEdgeFilter.objectFilter(a).filterNotHavingValue(2L)));
+  }
+
+}
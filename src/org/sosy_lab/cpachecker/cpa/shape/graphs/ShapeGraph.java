@@ -16,10 +16,14 @@ package org.sosy_lab.cpachecker.cpa.shape.graphs;
 
 import com.google.common.base.Function;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ForwardingMap;
+import com.google.common.collect.ForwardingSet;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Sets;
 
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentSortedMap;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cpa.shape.constraint.ConstraintRepresentation;
@@ -33,13 +37,11 @@ import org.sosy_lab.cpachecker.cpa.shape.util.EqualityRelation;
 import org.sosy_lab.cpachecker.cpa.shape.util.EquivalenceRelation;
 import org.sosy_lab.cpachecker.cpa.shape.util.InequalityRelation;
 import org.sosy_lab.cpachecker.cpa.shape.util.ObjectSizeInfo;
+import org.sosy_lab.cpachecker.util.collections.set.PathCopyingPersistentSet;
+import org.sosy_lab.cpachecker.util.collections.set.PersistentSortedSet;
 
 import java.util.BitSet;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -48,15 +50,31 @@ import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+/**
+ * The shape graph keeps its objects, values and edges in persistent collections. Copying a shape
+ * graph shares these collections with the original one, and each mutation only copies the
+ * modified path of the underlying trees.
+ *
+ * The hash codes of these collections are updated on each mutation, thus {@link #hashCode()}
+ * takes constant time and {@link #equals(Object)} rejects most unequal graphs before comparing
+ * them structurally.
+ */
 public class ShapeGraph {
 
-  private Set<SGObject> objects = new HashSet<>();
-  protected Set<Long> values = new HashSet<>();
-  Set<SGHasValueEdge> HVEdges = new HashSet<>();
-  Map<Long, SGPointToEdge> PTEdges = new HashMap<>();
+  // the keys are the objects in the shape graph
+  private PersistentSortedMap<SGObject, Boolean> validity = PathCopyingPersistentTreeMap.of();
+  protected PersistentSortedSet<Long> values = PathCopyingPersistentSet.of();
+  HasValueEdgeSet HVEdges = HasValueEdgeSet.of();
+  PersistentSortedMap<Long, SGPointToEdge> PTEdges = PathCopyingPersistentTreeMap.of();
+
+  PersistentSortedMap<SGObject, Long> refCounts = PathCopyingPersistentTreeMap.of();
 
-  private Map<SGObject, Boolean> validity = new HashMap<>();
-  Map<SGObject, Long> refCounts = new HashMap<>();
+  private int objectCount = 0;
+  // order-independent hash codes of the collections above, which equal their hashCode()
+  private int validityHash = 0;
+  private int valueHash = 0;
+  private int ptEdgeHash = 0;
+  private int refCountHash = 0;
 
   protected final MachineModel machineModel;
 
@@ -72,8 +90,7 @@ public class ShapeGraph {
 
   public ShapeGraph(final MachineModel pMachineModel) {
     SGPointToEdge nullPointer = new SGPointToEdge(nullAddress, nullObject, 0);
-    addObject(nullObject);
-    validity.put(nullObject, false);
+    addObject(nullObject, false);
     addValue(nullAddress);
     addPointToEdge(nullPointer);
     machineModel = pMachineModel;
@@ -81,22 +98,29 @@ public class ShapeGraph {
 
   public ShapeGraph(final ShapeGraph pMemory) {
     machineModel = pMemory.machineModel;
-    HVEdges.addAll(pMemory.HVEdges);
+    // persistent collections are shared
+    HVEdges = pMemory.HVEdges;
+    validity = pMemory.validity;
+    refCounts = pMemory.refCounts;
+    PTEdges = pMemory.PTEdges;
+    values = pMemory.values;
+    objectCount = pMemory.objectCount;
+    validityHash = pMemory.validityHash;
+    valueHash = pMemory.valueHash;
+    ptEdgeHash = pMemory.ptEdgeHash;
+    refCountHash = pMemory.refCountHash;
     eq.putAll(pMemory.eq);
     neq.putAll(pMemory.neq);
     constraints.putAll(pMemory.constraints);
-    validity.putAll(pMemory.validity);
-    refCounts.putAll(pMemory.refCounts);
-    objects.addAll(pMemory.objects);
-    PTEdges.putAll(pMemory.PTEdges);
-    values.addAll(pMemory.values);
     sizeInfo.putAll(pMemory.sizeInfo);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(machineModel, HVEdges, eq, neq, constraints, validity, refCounts,
-        objects, PTEdges, values, sizeInfo);
+    // Relations and constraints are not hashed since they are mutable and costly to hash. This
+    // is consistent with equals() because equal graphs have equal collections.
+    return Objects.hash(machineModel, HVEdges.hashCode(), validityHash, valueHash, ptEdgeHash,
+        refCountHash);
   }
 
   @Override
@@ -111,16 +135,26 @@ public class ShapeGraph {
       return false;
     }
     ShapeGraph other = (ShapeGraph) obj;
-    return machineModel == other.machineModel &&
+    // fast check on the sizes and hash codes of objects and edges
+    if (machineModel != other.machineModel ||
+        objectCount != other.objectCount ||
+        HVEdges.size() != other.HVEdges.size() ||
+        validityHash != other.validityHash ||
+        valueHash != other.valueHash ||
+        ptEdgeHash != other.ptEdgeHash ||
+        refCountHash != other.refCountHash ||
+        HVEdges.hashCode() != other.HVEdges.hashCode()) {
+      return false;
+    }
+    return
         Objects.equals(HVEdges, other.HVEdges) &&
         Objects.equals(eq, other.eq) &&
         Objects.equals(neq, other.neq) &&
         Objects.equals(constraints, other.constraints) &&
         Objects.equals(validity, other.validity) &&
         Objects.equals(refCounts, other.refCounts) &&
-        Objects.equals(objects, other.objects) &&
         Objects.equals(PTEdges, other.PTEdges) &&
-        Objects.equals(values, other.values) &&
+        Objects.equals(values.asSet(), other.values.asSet()) &&
         Objects.equals(sizeInfo, other.sizeInfo);
   }
 
@@ -129,8 +163,7 @@ public class ShapeGraph {
   /* ***************** */
 
   public final void addObject(final SGObject pObject, final boolean pValidity) {
-    objects.add(pObject);
-    validity.put(pObject, pValidity);
+    putValidity(pObject, pValidity);
   }
 
   public final void addObject(final SGObject pObject) {
@@ -138,53 +171,64 @@ public class ShapeGraph {
   }
 
   public final void removeObject(final SGObject pObject) {
-    objects.remove(pObject);
-    validity.remove(pObject);
-    refCounts.remove(pObject);
+    Boolean oldValidity = validity.get(pObject);
+    if (oldValidity != null) {
+      objectCount--;
+      validityHash -= entryHash(pObject, oldValidity);
+      validity = validity.removeAndCopy(pObject);
+    }
+    Long oldRefCount = refCounts.get(pObject);
+    if (oldRefCount != null) {
+      refCountHash -= entryHash(pObject, oldRefCount);
+      refCounts = refCounts.removeAndCopy(pObject);
+    }
     sizeInfo.removeObject(pObject);
   }
 
   public final void addValue(final Long pValue) {
-    values.add(pValue);
+    if (!values.contains(pValue)) {
+      valueHash += pValue.hashCode();
+      values = values.addAndCopy(pValue);
+    }
   }
 
   public final void removeValue(final Long pValue) {
-    values.remove(pValue);
+    if (values.contains(pValue)) {
+      valueHash -= pValue.hashCode();
+      values = values.removeAndCopy(pValue);
+    }
   }
 
   public final void addPointToEdge(SGPointToEdge pEdge) {
-    PTEdges.put(pEdge.getValue(), pEdge);
+    Long value = pEdge.getValue();
+    SGPointToEdge oldEdge = PTEdges.get(value);
+    if (oldEdge != null) {
+      ptEdgeHash -= entryHash(value, oldEdge);
+    }
+    ptEdgeHash += entryHash(value, pEdge);
+    PTEdges = PTEdges.putAndCopy(value, pEdge);
   }
 
   public void addHasValueEdge(SGHasValueEdge pEdge) {
-    HVEdges.add(pEdge);
+    HVEdges = HVEdges.addAndCopy(pEdge);
   }
 
   public void removeHasValueEdge(SGHasValueEdge pEdge) {
-    HVEdges.remove(pEdge);
+    HVEdges = HVEdges.removeAndCopy(pEdge);
   }
 
   public void removeObjectAndEdges(final SGObject pObject) {
     removeObject(pObject);
     // then remove relevant edges
-    Iterator<SGHasValueEdge> HViter = HVEdges.iterator();
-    Iterator<SGPointToEdge> PTiter = PTEdges.values().iterator();
-    while (HViter.hasNext()) {
-      SGHasValueEdge hvEdge = HViter.next();
-      if (hvEdge.getObject() == pObject) {
-        Long value = hvEdge.getValue();
-        SGObject target = getObjectPointedBy(value);
-        if (target != null && target != nullObject) {
-          decRef(target);
-        }
-        HViter.remove();
-      }
-    }
-    while (PTiter.hasNext()) {
-      if (PTiter.next().getObject() == pObject) {
-        PTiter.remove();
+    for (SGHasValueEdge hvEdge : HVEdges.getEdgesOf(pObject)) {
+      Long value = hvEdge.getValue();
+      SGObject target = getObjectPointedBy(value);
+      if (target != null && target != nullObject) {
+        decRef(target);
       }
     }
+    HVEdges = HVEdges.removeObjectAndCopy(pObject);
+    removePointToEdges(pObject, null);
   }
 
   /**
@@ -193,26 +237,17 @@ public class ShapeGraph {
    */
   public void removeObjectAndEdges(final SGObject pObject, final Set<SGObject> pObserved) {
     removeObject(pObject);
-    Iterator<SGHasValueEdge> hvIt = HVEdges.iterator();
-    Iterator<SGPointToEdge> ptIt = PTEdges.values().iterator();
-    while (hvIt.hasNext()) {
-      SGHasValueEdge hvEdge = hvIt.next();
-      if (hvEdge.getObject() == pObject) {
-        Long value = hvEdge.getValue();
-        SGObject target = getObjectPointedBy(value);
-        if (target != null && target != nullObject) {
-          decRef(target);
-          // target object may become unreachable after this point
-          pObserved.add(target);
-        }
-        hvIt.remove();
-      }
-    }
-    while (ptIt.hasNext()) {
-      if (ptIt.next().getObject() == pObject) {
-        ptIt.remove();
+    for (SGHasValueEdge hvEdge : HVEdges.getEdgesOf(pObject)) {
+      Long value = hvEdge.getValue();
+      SGObject target = getObjectPointedBy(value);
+      if (target != null && target != nullObject) {
+        decRef(target);
+        // target object may become unreachable after this point
+        pObserved.add(target);
       }
     }
+    HVEdges = HVEdges.removeObjectAndCopy(pObject);
+    removePointToEdges(pObject, null);
   }
 
   /**
@@ -223,44 +258,81 @@ public class ShapeGraph {
       final SGObject pObject, final Set<SGHasValueEdge> pHVEdges,
       final Set<SGPointToEdge> pPTEdges) {
     removeObject(pObject);
-    Iterator<SGHasValueEdge> hvIt = HVEdges.iterator();
-    Iterator<SGPointToEdge> ptIt = PTEdges.values().iterator();
-    while (hvIt.hasNext()) {
-      SGHasValueEdge hvEdge = hvIt.next();
-      if (hvEdge.getObject() == pObject) {
-        Long value = hvEdge.getValue();
-        SGObject target = getObjectPointedBy(value);
-        if (target != null && target != nullObject) {
-          decRef(target);
-        }
-        hvIt.remove();
-        pHVEdges.add(hvEdge);
+    for (SGHasValueEdge hvEdge : HVEdges.getEdgesOf(pObject)) {
+      Long value = hvEdge.getValue();
+      SGObject target = getObjectPointedBy(value);
+      if (target != null && target != nullObject) {
+        decRef(target);
       }
+      pHVEdges.add(hvEdge);
     }
-    while (ptIt.hasNext()) {
-      SGPointToEdge ptEdge = ptIt.next();
+    HVEdges = HVEdges.removeObjectAndCopy(pObject);
+    removePointToEdges(pObject, pPTEdges);
+  }
+
+  /**
+   * Remove the point-to edges targeting the given object.
+   *
+   * @param pRemoved the set which collects the removed edges, can be null
+   */
+  private void removePointToEdges(SGObject pObject, @Nullable Set<SGPointToEdge> pRemoved) {
+    for (SGPointToEdge ptEdge : PTEdges.values()) {
       if (ptEdge.getObject() == pObject) {
-        ptIt.remove();
-        pPTEdges.add(ptEdge);
+        ptEdgeHash -= entryHash(ptEdge.getValue(), ptEdge);
+        PTEdges = PTEdges.removeAndCopy(ptEdge.getValue());
+        if (pRemoved != null) {
+          pRemoved.add(ptEdge);
+        }
       }
     }
   }
 
   public void setValidity(SGObject pObject, boolean pValidity) {
-    if (!objects.contains(pObject)) {
+    if (!validity.containsKey(pObject)) {
       // WARNING: current object is not in the shape graph
       return;
     }
-    validity.put(pObject, pValidity);
+    putValidity(pObject, pValidity);
+  }
+
+  private void putValidity(SGObject pObject, Boolean pValidity) {
+    Boolean oldValidity = validity.get(pObject);
+    if (oldValidity != null) {
+      validityHash -= entryHash(pObject, oldValidity);
+    } else {
+      objectCount++;
+    }
+    validityHash += entryHash(pObject, pValidity);
+    validity = validity.putAndCopy(pObject, pValidity);
+  }
+
+  /**
+   * Set the reference counter of the given object, no matter whether the object has a reference
+   * counter before.
+   */
+  final void putRefCount(SGObject pObject, Long pRefCount) {
+    Long oldRefCount = refCounts.get(pObject);
+    if (oldRefCount != null) {
+      refCountHash -= entryHash(pObject, oldRefCount);
+    }
+    refCountHash += entryHash(pObject, pRefCount);
+    refCounts = refCounts.putAndCopy(pObject, pRefCount);
+  }
+
+  /**
+   * The hash code of a map entry as specified in {@link Map.Entry#hashCode()}.
+   */
+  private static int entryHash(Object pKey, Object pValue) {
+    return pKey.hashCode() ^ pValue.hashCode();
   }
 
   void incRef(SGObject pObject) {
     Long refCount = refCounts.get(pObject);
     if (refCount != null) {
       refCount++;
-      refCounts.put(pObject, refCount);
+      putRefCount(pObject, refCount);
     } else {
-      refCounts.put(pObject, (long) 1);
+      putRefCount(pObject, 1L);
     }
   }
 
@@ -271,7 +343,7 @@ public class ShapeGraph {
       if (refCount < 0) {
         refCount = 0L;
       }
-      refCounts.put(pObject, refCount);
+      putRefCount(pObject, refCount);
     }
   }
 
@@ -281,13 +353,13 @@ public class ShapeGraph {
    */
   public void setRef(SGObject pObject, long newRef) {
     if (refCounts.containsKey(pObject)) {
-      refCounts.put(pObject, (newRef < 0) ? 0 : newRef);
+      putRefCount(pObject, (newRef < 0) ? 0 : newRef);
     }
   }
 
   public void resetRef(SGObject pObject) {
     if (refCounts.containsKey(pObject)) {
-      refCounts.put(pObject, 0L);
+      putRefCount(pObject, 0L);
     }
   }
 
@@ -295,8 +367,7 @@ public class ShapeGraph {
    * Note: this function is only used in join operation
    */
   public void replaceHVSet(Set<SGHasValueEdge> pNewHV) {
-    HVEdges.clear();
-    HVEdges.addAll(pNewHV);
+    HVEdges = HasValueEdgeSet.copyOf(pNewHV);
   }
 
   public void addNeqRelation(Long pV1, Long pV2) {
@@ -374,33 +445,49 @@ public class ShapeGraph {
   }
 
   public final Set<Long> getValues() {
-    return Collections.unmodifiableSet(values);
+    return new ForwardingSet<Long>() {
+      @Override
+      protected Set<Long> delegate() {
+        return values.asSet();
+      }
+    };
   }
 
   @Nullable
   public final CType getTypeForValue(long v) {
-    for (SGHasValueEdge edge : HVEdges) {
-      if (edge.getValue() == v) {
-        return edge.getType();
-      }
-    }
-    return null;
+    SGHasValueEdge edge = Iterables.getFirst(HVEdges.getEdgesHavingValue(v), null);
+    return (edge == null) ? null : edge.getType();
   }
 
   public final Set<SGObject> getObjects() {
-    return Collections.unmodifiableSet(objects);
+    return new ForwardingSet<SGObject>() {
+      @Override
+      protected Set<SGObject> delegate() {
+        return validity.keySet();
+      }
+    };
   }
 
   public final Set<SGHasValueEdge> getHVEdges() {
-    return Collections.unmodifiableSet(HVEdges);
+    return new ForwardingSet<SGHasValueEdge>() {
+      @Override
+      protected Set<SGHasValueEdge> delegate() {
+        return HVEdges;
+      }
+    };
   }
 
   public final Set<SGHasValueEdge> getHVEdges(SGHasValueEdgeFilter pFilter) {
-    return Collections.unmodifiableSet(pFilter.filterSet(HVEdges));
+    return HVEdges.filter(pFilter);
   }
 
   public final Map<Long, SGPointToEdge> getPTEdges() {
-    return Collections.unmodifiableMap(PTEdges);
+    return new ForwardingMap<Long, SGPointToEdge>() {
+      @Override
+      protected Map<Long, SGPointToEdge> delegate() {
+        return PTEdges;
+      }
+    };
   }
 
   @Nullable
@@ -416,7 +503,7 @@ public class ShapeGraph {
   }
 
   public final boolean isObjectValid(SGObject pObject) {
-    if (!objects.contains(pObject)) {
+    if (!validity.containsKey(pObject)) {
       throw new IllegalArgumentException("Object [" + pObject + "] not in shape graph");
     }
     return validity.get(pObject);
@@ -470,16 +557,12 @@ public class ShapeGraph {
   private void replaceValue(long newValue, long oldValue) {
     neq.mergeValues(newValue, oldValue);
     removeValue(oldValue);
-    Set<SGHasValueEdge> newHVEdges = new HashSet<>();
-    for (SGHasValueEdge hv : HVEdges) {
-      if (hv.getValue() != oldValue) {
-        newHVEdges.add(hv);
-      } else {
-        newHVEdges.add(new SGHasValueEdge(hv.getType(), hv.getOffset(), hv.getObject(), newValue));
-      }
+    HasValueEdgeSet newHVEdges = HVEdges;
+    for (SGHasValueEdge hv : HVEdges.getEdgesHavingValue(oldValue)) {
+      newHVEdges = newHVEdges.removeAndCopy(hv).addAndCopy(new SGHasValueEdge(hv.getType(),
+          hv.getOffset(), hv.getObject(), newValue));
     }
-    HVEdges.clear();
-    HVEdges.addAll(newHVEdges);
+    HVEdges = newHVEdges;
   }
 
   public long getRepresentative(long pV) {
@@ -547,14 +630,13 @@ public class ShapeGraph {
             return pSGPointToEdge.getValue();
           }
         }).toSet();
-    Set<Long> hasValues = FluentIterable.from(HVEdges).transform(
-        new Function<SGHasValueEdge, Long>() {
-          @Override
-          public Long apply(SGHasValueEdge pSGHasValueEdge) {
-            return pSGHasValueEdge.getValue();
-          }
-        }).toSet();
-    return Sets.intersection(pointers, hasValues).size();
+    long count = 0;
+    for (Long pointer : pointers) {
+      if (!HVEdges.getEdgesHavingValue(pointer).isEmpty()) {
+        count++;
+      }
+    }
+    return count;
   }
 
   /* ******************* */
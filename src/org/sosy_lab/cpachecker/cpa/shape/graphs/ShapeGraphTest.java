@@ -0,0 +1,171 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.cpa.shape.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cpa.shape.graphs.edge.SGHasValueEdge;
+import org.sosy_lab.cpachecker.cpa.shape.graphs.edge.SGPointToEdge;
+import org.sosy_lab.cpachecker.cpa.shape.graphs.node.SGObject;
+import org.sosy_lab.cpachecker.cpa.shape.graphs.node.SGRegion;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+public class ShapeGraphTest {
+
+  private static final MachineModel MODEL = MachineModel.LINUX64;
+
+  private SGObject a;
+  private SGObject b;
+  private SGObject c;
+
+  @Before
+  public void setUp() {
+    a = new SGRegion("a", CNumericTypes.LONG_INT, 16, false);
+    b = new SGRegion("b", CNumericTypes.LONG_INT, 16, false);
+    c = new SGRegion("c", CNumericTypes.LONG_INT, 16, false);
+  }
+
+  private static SGHasValueEdge edge(SGObject pObject, int pOffset, long pValue) {
+    return new SGHasValueEdge(CNumericTypes.LONG_INT, pOffset, pObject, pValue);
+  }
+
+  /**
+   * Build a graph by a sequence of mutations which add and remove objects, values and edges.
+   */
+  private ShapeGraph buildByMutations() {
+    ShapeGraph graph = new ShapeGraph(MODEL);
+    graph.addObject(a);
+    graph.addObject(b);
+    graph.addObject(c);
+    for (long v = 1; v <= 5; v++) {
+      graph.addValue(v);
+    }
+    graph.addPointToEdge(new SGPointToEdge(1, a, 0));
+    graph.addPointToEdge(new SGPointToEdge(2, b, 0));
+    graph.addPointToEdge(new SGPointToEdge(3, c, 0));
+    graph.incRef(a);
+    graph.incRef(b);
+    graph.incRef(c);
+    // a -> b, c -> a
+    graph.addHasValueEdge(edge(a, 0, 2));
+    graph.addHasValueEdge(edge(c, 0, 1));
+    graph.addHasValueEdge(edge(b, 0, 4));
+    graph.addHasValueEdge(edge(b, 8, 5));
+    graph.addHasValueEdge(edge(c, 8, 5));
+    graph.addHasValueEdge(edge(a, 8, 3));
+    graph.removeHasValueEdge(edge(a, 8, 3));
+    // removing c drops its edges, the pointer to it and the reference from c to a
+    graph.removeObjectAndEdges(c);
+    graph.removeValue(3L);
+    graph.setValidity(b, false);
+    graph.mergeValues(4, 5);
+    return graph;
+  }
+
+  /**
+   * Build the same graph from scratch in another order, with only the final elements. The
+   * equivalence classes of values are compared by identity, thus the equality relation is taken
+   * from the given graph.
+   */
+  private ShapeGraph buildFromScratch(ShapeGraph pMutated) {
+    ShapeGraph graph = new ShapeGraph(MODEL);
+    graph.addEqualities(pMutated.getEq());
+    long merged = graph.getRepresentative(4);
+    long replaced = (merged == 4) ? 5 : 4;
+    graph.addObject(b, false);
+    graph.addObject(a);
+    for (long v = 5; v >= 1; v--) {
+      if (v != 3 && v != replaced) {
+        graph.addValue(v);
+      }
+    }
+    graph.addPointToEdge(new SGPointToEdge(2, b, 0));
+    graph.addPointToEdge(new SGPointToEdge(1, a, 0));
+    graph.putRefCount(b, 1L);
+    graph.putRefCount(a, 0L);
+    graph.addHasValueEdge(edge(b, 8, merged));
+    graph.addHasValueEdge(edge(b, 0, merged));
+    graph.addHasValueEdge(edge(a, 0, 2));
+    return graph;
+  }
+
+  @Test
+  public void testHashAfterMutations() {
+    ShapeGraph mutated = buildByMutations();
+    ShapeGraph fresh = buildFromScratch(mutated);
+    assertEquals(fresh.getObjects(), mutated.getObjects());
+    assertEquals(fresh.getValues(), mutated.getValues());
+    assertEquals(fresh.getHVEdges(), mutated.getHVEdges());
+    assertEquals(new HashMap<>(fresh.getPTEdges()), new HashMap<>(mutated.getPTEdges()));
+    assertEquals(fresh, mutated);
+    assertEquals(fresh.hashCode(), mutated.hashCode());
+    // the incremental hash of edges equals the hash of a plain set of them
+    assertEquals(new HashSet<>(mutated.getHVEdges()).hashCode(), mutated.HVEdges.hashCode());
+  }
+
+  @Test
+  public void testCopyDoesNotAffectOriginal() {
+    ShapeGraph original = buildByMutations();
+    ShapeGraph fresh = buildFromScratch(original);
+    int hash = original.hashCode();
+    ShapeGraph copy = new ShapeGraph(original);
+    assertEquals(original, copy);
+    assertEquals(hash, copy.hashCode());
+
+    copy.setValidity(b, true);
+    copy.addHasValueEdge(edge(a, 8, 1));
+    assertNotEquals(original, copy);
+    assertEquals(hash, original.hashCode());
+    assertEquals(fresh, original);
+
+    // undoing the mutations restores the hash code
+    copy.setValidity(b, false);
+    copy.removeHasValueEdge(edge(a, 8, 1));
+    assertEquals(original, copy);
+    assertEquals(hash, copy.hashCode());
+  }
+
+  @Test
+  public void testReplaceHasValueEdges() {
+    ShapeGraph mutated = buildByMutations();
+    ShapeGraph replaced = new ShapeGraph(mutated);
+    replaced.replaceHVSet(new HashSet<>(mutated.getHVEdges()));
+    assertEquals(mutated, replaced);
+    assertEquals(mutated.hashCode(), replaced.hashCode());
+  }
+
+  @Test
+  public void testDifferentGraphs() {
+    ShapeGraph mutated = buildByMutations();
+    ShapeGraph other = buildFromScratch(mutated);
+    other.setValidity(b, true);
+    assertFalse(mutated.equals(other));
+    other = buildFromScratch(mutated);
+    other.resetRef(b);
+    assertFalse(mutated.equals(other));
+    other = buildFromScratch(mutated);
+    other.addValue(3L);
+    assertFalse(mutated.equals(other));
+  }
+
+}
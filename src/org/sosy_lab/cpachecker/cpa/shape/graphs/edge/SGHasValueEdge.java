@@ -102,7 +102,8 @@ public class SGHasValueEdge extends SGEdge {
 
   @Override
   public int hashCode() {
-    return 31 * super.hashCode() + Objects.hash(type, offset);
+    // consistent with equals(), which compares canonical types
+    return 31 * super.hashCode() + Objects.hash(type.getCanonicalType(), offset);
   }
 
   @Override
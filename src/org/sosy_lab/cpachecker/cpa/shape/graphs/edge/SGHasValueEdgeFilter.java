@@ -22,6 +22,8 @@ import org.sosy_lab.cpachecker.cpa.shape.graphs.node.SGObject;
 
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 public class SGHasValueEdgeFilter {
 
   public static SGHasValueEdgeFilter objectFilter(SGObject pObject) {
@@ -81,6 +83,25 @@ public class SGHasValueEdgeFilter {
     return this;
   }
 
+  @Nullable
+  public SGObject getObject() {
+    return object;
+  }
+
+  @Nullable
+  public Integer getOffset() {
+    return offset;
+  }
+
+  @Nullable
+  public Long getValue() {
+    return value;
+  }
+
+  public boolean isValueComplement() {
+    return valueComplement;
+  }
+
   /**
    * Test if the specified has-value edge can pass current filter
    *
@@ -17,6 +17,8 @@ package org.sosy_lab.cpachecker.cpa.shape.graphs.model;
 import com.google.common.base.Objects;
 import com.google.common.collect.Sets;
 
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentSortedMap;
 import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
@@ -24,9 +26,10 @@ import org.sosy_lab.cpachecker.cfa.types.c.CVoidType;
 import org.sosy_lab.cpachecker.cpa.shape.graphs.node.SGObject;
 import org.sosy_lab.cpachecker.cpa.shape.graphs.node.SGRegion;
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.collections.set.PathCopyingPersistentSet;
+import org.sosy_lab.cpachecker.util.collections.set.PersistentSortedSet;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -39,8 +42,9 @@ public class CStackFrame {
 
   private final CFunctionDeclaration function;
 
-  private final Map<String, SGRegion> stack = new HashMap<>();
-  private final Set<SGRegion> VLASet = new HashSet<>();
+  // persistent collections are shared by the copies of stack frame
+  private PersistentSortedMap<String, SGRegion> stack = PathCopyingPersistentTreeMap.of();
+  private PersistentSortedSet<SGRegion> VLASet = PathCopyingPersistentSet.of();
 
   private final SGRegion returnObject;
 
@@ -57,8 +61,8 @@ public class CStackFrame {
 
   public CStackFrame(CStackFrame pFrame) {
     function = pFrame.function;
-    stack.putAll(pFrame.stack);
-    VLASet.addAll(pFrame.VLASet);
+    stack = pFrame.stack;
+    VLASet = pFrame.VLASet;
     returnObject = pFrame.returnObject;
   }
 
@@ -71,14 +75,14 @@ public class CStackFrame {
     }
     if (size == null) {
       // VLA
-      VLASet.add(pRegion);
+      VLASet = VLASet.addAndCopy(pRegion);
     }
-    stack.put(pVariable, pRegion);
+    stack = stack.putAndCopy(pVariable, pRegion);
   }
 
   public void removeStackVariable(SGRegion pRegion) {
-    stack.remove(pRegion.getLabel());
-    VLASet.remove(pRegion);
+    stack = stack.removeAndCopy(pRegion.getLabel());
+    VLASet = VLASet.removeAndCopy(pRegion);
   }
 
   /* *********************** */
@@ -156,7 +160,7 @@ public class CStackFrame {
     if (returnObject != null) {
       removed.add(returnObject);
     }
-    VLAs.addAll(VLASet);
+    VLAs.addAll(VLASet.asSet());
     removed = Sets.difference(removed, VLAs);
     return Pair.of(removed, VLAs);
   }
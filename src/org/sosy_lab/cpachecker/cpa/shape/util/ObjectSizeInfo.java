@@ -23,7 +23,6 @@ import org.sosy_lab.cpachecker.cpa.shape.constraint.SymbolicExpression;
 import org.sosy_lab.cpachecker.cpa.shape.graphs.node.SGObject;
 import org.sosy_lab.cpachecker.cpa.shape.values.KnownSymbolicValue;
 import org.sosy_lab.cpachecker.cpa.shape.visitors.CoreShapeAdapter;
-import org.sosy_lab.cpachecker.util.collections.map.PersistentMaps;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -47,7 +46,8 @@ public class ObjectSizeInfo {
   }
 
   public void putAll(ObjectSizeInfo info) {
-    objectLength = PersistentMaps.copy(info.objectLength);
+    // the persistent map is shared
+    objectLength = info.objectLength;
   }
 
   public void addObject(SGObject pObject, @Nonnull SymbolicExpression se) {
@@ -68,6 +68,8 @@ public class AccessPath implements Comparable<AccessPath> {
   private final CSimpleDeclaration declaration;
   // access path
   private final LinkedList<PathSegment> path;
+  // names of path segments, computed on demand and reset when the path changes
+  private ImmutableList<String> names = null;
 
   private static Pattern MALLOC_NAME = Pattern.compile("[\\w]+_ID[\\d]+_Line:[\\d]+");
 
@@ -300,10 +302,12 @@ public class AccessPath implements Comparable<AccessPath> {
 
   public void removeLastSegment() {
     path.removeLast();
+    names = null;
   }
 
   public void appendSegment(PathSegment segment) {
     path.addLast(segment);
+    names = null;
   }
 
   /**
@@ -428,8 +432,18 @@ public class AccessPath implements Comparable<AccessPath> {
     }
   }
 
+  /**
+   * Return the names of path segments, which are the keys of this access path in range trees and
+   * taint trees. The list is cached until the path is modified, and its elements are the canonical
+   * instances in {@link PathSegmentNames}.
+   */
   public static List<String> toStrList(AccessPath ap) {
-    return FluentIterable.from(ap.path()).transform(PATH_SEGMENT_TO_NAME).toList();
+    ImmutableList<String> result = ap.names;
+    if (result == null) {
+      result = FluentIterable.from(ap.path).transform(PATH_SEGMENT_TO_NAME).toList();
+      ap.names = result;
+    }
+    return result;
   }
 
   private static final Pattern identifier = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
@@ -0,0 +1,110 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.util.access;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cfa.types.c.CStorageClass;
+
+import java.util.List;
+
+/**
+ * Unit tests for {@link AccessPath} and {@link PathSegmentNames}.
+ */
+public class AccessPathTest {
+
+  private static CVariableDeclaration declaration(String pName) {
+    // fresh strings, thus the names of paths are never the literals of this class
+    return new CVariableDeclaration(FileLocation.DUMMY, false, CStorageClass.AUTO,
+        CNumericTypes.INT, new String(pName), new String(pName), new String("main::" + pName),
+        null);
+  }
+
+  @Test
+  public void testNamesFollowModifications() {
+    AccessPath path = new AccessPath(declaration("s"));
+    List<String> names = AccessPath.toStrList(path);
+    assertEquals(ImmutableList.of("main::s"), names);
+    assertSame(names, AccessPath.toStrList(path));
+    assertSame(PathSegmentNames.intern("main::s"), names.get(0));
+
+    path.appendSegment(new FieldAccessSegment(new String("f")));
+    names = AccessPath.toStrList(path);
+    assertEquals(ImmutableList.of("main::s", "f"), names);
+    assertSame(PathSegmentNames.intern("f"), names.get(1));
+
+    path.appendSegment(new ArrayConstIndexSegment(3));
+    names = AccessPath.toStrList(path);
+    assertEquals(ImmutableList.of("main::s", "f", "[3]"), names);
+    assertSame(PathSegmentNames.ofArrayIndex(3), names.get(2));
+
+    path.removeLastSegment();
+    assertEquals(ImmutableList.of("main::s", "f"), AccessPath.toStrList(path));
+    path.removeLastSegment();
+    assertEquals(ImmutableList.of("main::s"), AccessPath.toStrList(path));
+  }
+
+  @Test
+  public void testNamesOfCopyAreIndependent() {
+    AccessPath path = new AccessPath(declaration("s"));
+    path.appendSegment(new FieldAccessSegment("f"));
+    List<String> names = AccessPath.toStrList(path);
+
+    AccessPath copy = AccessPath.copyOf(path);
+    copy.appendSegment(new FieldAccessSegment("g"));
+    assertEquals(ImmutableList.of("main::s", "f", "g"), AccessPath.toStrList(copy));
+    assertSame(names, AccessPath.toStrList(path));
+  }
+
+  @Test
+  public void testInternedAndFreshPathsAreEqual() {
+    AccessPath interned = new AccessPath(declaration("s"));
+    interned.appendSegment(new FieldAccessSegment(PathSegmentNames.intern("f")));
+    interned.appendSegment(new ArrayConstIndexSegment(5000));
+    AccessPath fresh = new AccessPath(declaration("s"));
+    fresh.appendSegment(new FieldAccessSegment(new String("f")));
+    fresh.appendSegment(new ArrayConstIndexSegment(5000));
+
+    assertEquals(interned, fresh);
+    assertEquals(interned.hashCode(), fresh.hashCode());
+    assertEquals(0, interned.compareTo(fresh));
+    List<String> internedNames = AccessPath.toStrList(interned);
+    List<String> freshNames = AccessPath.toStrList(fresh);
+    for (int i = 0; i < internedNames.size(); i++) {
+      assertSame(internedNames.get(i), freshNames.get(i));
+    }
+
+    fresh.removeLastSegment();
+    fresh.appendSegment(new ArrayConstIndexSegment(5001));
+    assertNotEquals(interned, fresh);
+  }
+
+  @Test
+  public void testArrayIndexNames() {
+    assertEquals("[0]", PathSegmentNames.ofArrayIndex(0));
+    assertSame(PathSegmentNames.ofArrayIndex(1023), PathSegmentNames.ofArrayIndex(1023));
+    assertSame(PathSegmentNames.ofArrayIndex(1024), PathSegmentNames.ofArrayIndex(1024));
+    assertSame(PathSegmentNames.intern(new String("[-1]")), PathSegmentNames.ofArrayIndex(-1));
+  }
+
+}
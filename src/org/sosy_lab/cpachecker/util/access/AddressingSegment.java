@@ -38,4 +38,9 @@ public class AddressingSegment implements PathSegment {
     // by default, two addressing segments must equal
     return true;
   }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode();
+  }
 }
@@ -37,4 +37,9 @@ public class ArrayAccessSegment implements PathSegment {
     // by default, array access segments are all equal
     return true;
   }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode();
+  }
 }
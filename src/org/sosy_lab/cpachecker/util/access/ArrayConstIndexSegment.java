@@ -14,13 +14,17 @@
  */
 package org.sosy_lab.cpachecker.util.access;
 
+import com.google.common.primitives.Longs;
+
 public class ArrayConstIndexSegment implements PathSegment {
 
   private final long index;
+  private final String name;
 
   public ArrayConstIndexSegment(long pIndex) {
     super();
     index = pIndex;
+    name = PathSegmentNames.ofArrayIndex(pIndex);
   }
 
   public long getIndex() {
@@ -29,7 +33,7 @@ public class ArrayConstIndexSegment implements PathSegment {
 
   @Override
   public String getName() {
-    return "[" + index + "]";
+    return name;
   }
 
   @Override
@@ -46,4 +50,9 @@ public class ArrayConstIndexSegment implements PathSegment {
     }
     return true;
   }
+
+  @Override
+  public int hashCode() {
+    return Longs.hashCode(index);
+  }
 }
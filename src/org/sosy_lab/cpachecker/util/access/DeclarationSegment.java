@@ -22,15 +22,17 @@ import java.util.Objects;
 
 public class DeclarationSegment implements PathSegment {
   private final CSimpleDeclaration declaration;
+  private final String name;
 
   public DeclarationSegment(CSimpleDeclaration pDeclaration) {
     super();
     declaration = pDeclaration;
+    name = PathSegmentNames.intern(pDeclaration.getQualifiedName());
   }
 
   @Override
   public String getName() {
-    return declaration.getQualifiedName();
+    return name;
   }
 
   @Override
@@ -20,7 +20,7 @@ public class FieldAccessSegment implements PathSegment {
 
   public FieldAccessSegment(String pField) {
     super();
-    field = pField;
+    field = PathSegmentNames.intern(pField);
   }
 
   @Override
@@ -43,4 +43,8 @@ public class FieldAccessSegment implements PathSegment {
     return true;
   }
 
+  @Override
+  public int hashCode() {
+    return field.hashCode();
+  }
 }
@@ -0,0 +1,61 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.util.access;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Global intern table of path segment names. Names of segments are used as keys of range trees
+ * and taint trees, thus each distinct name should be allocated only once and then shared by all
+ * trees and access paths.
+ */
+public final class PathSegmentNames {
+
+  private PathSegmentNames() {
+  }
+
+  private static final Interner<String> names = Interners.newWeakInterner();
+
+  /**
+   * Names of array index segments for small indexes are pre-computed.
+   */
+  private static final int INDEX_CACHE_SIZE = 1024;
+  private static final String[] indexNames = new String[INDEX_CACHE_SIZE];
+
+  static {
+    for (int i = 0; i < INDEX_CACHE_SIZE; i++) {
+      indexNames[i] = names.intern("[" + i + "]");
+    }
+  }
+
+  /**
+   * Return the canonical instance of the given segment name.
+   */
+  public static String intern(String pName) {
+    return names.intern(pName);
+  }
+
+  /**
+   * Return the canonical name of array index segment with the given index.
+   */
+  public static String ofArrayIndex(long pIndex) {
+    if (pIndex >= 0 && pIndex < INDEX_CACHE_SIZE) {
+      return indexNames[(int) pIndex];
+    }
+    return names.intern("[" + pIndex + "]");
+  }
+
+}
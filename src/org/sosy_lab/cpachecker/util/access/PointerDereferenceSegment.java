@@ -35,4 +35,9 @@ public class PointerDereferenceSegment implements PathSegment {
     // by default, all pointer dereference segments are all equal
     return true;
   }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode();
+  }
 }
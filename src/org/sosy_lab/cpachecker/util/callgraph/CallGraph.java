@@ -14,46 +14,225 @@
  */
 package org.sosy_lab.cpachecker.util.callgraph;
 
-import com.google.common.base.Function;
 import com.google.common.base.Optional;
-import com.google.common.base.Predicates;
-import com.google.common.collect.FluentIterable;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.SetMultimap;
 
-import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
 
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.Nullable;
 
 /**
  * Call Graph
  *
- * Note that undefined function are stil maintained in the call graph
- * -> FIXME tomgu, undefined function does not have functionCall edge, so it will not be maintained.
- * Therefore, the multimap uses String instead of FunctionEntryNode
+ * Functions are numbered and the call relation is stored in compressed sparse rows, i.e., the
+ * callees of function i are {@code calleeTargets[calleeOffsets[i] .. calleeOffsets[i + 1])}.
+ * Lists of callers and callees, both by name and by entry node, are resolved once when the graph
+ * is built, thus queries do not allocate.
+ *
+ * Undefined functions have no entry node, they appear only in the queries by name.
+ * Strongly connected components are computed on construction: components are numbered
+ * bottom-up, i.e., a function never calls a function of a greater component.
  */
-public class CallGraph {
-  private CFA cfa;
-  private final Multimap<String, String> callers;
-  private final Multimap<String, String> callees;
+public class CallGraph implements Serializable {
+
+  private static final long serialVersionUID = 5881229652658506967L;
+
+  private final ImmutableMap<String, Integer> indexOf;
+  private final String[] names;
+  // null for undefined functions
+  private final FunctionEntryNode[] entries;
+
+  private final int[] calleeOffsets;
+  private final int[] calleeTargets;
+  private final int[] callerOffsets;
+  private final int[] callerTargets;
+
+  // pre-resolved lists, defined functions only for the lists of entry nodes
+  private final ImmutableList<String>[] calleeNames;
+  private final ImmutableList<String>[] callerNames;
+  private final ImmutableList<FunctionEntryNode>[] calleeEntries;
+  private final ImmutableList<FunctionEntryNode>[] callerEntries;
+
+  // strongly connected components
+  private final int[] componentOf;
+  private final boolean[] recursive;
+  private final ImmutableList<String> bottomUpOrder;
+
+  /**
+   * @param pFunctions entry nodes of defined functions
+   * @param pCallees   the functions called by each function
+   */
+  @SuppressWarnings("unchecked")
+  CallGraph(Map<String, FunctionEntryNode> pFunctions, SetMultimap<String, String> pCallees) {
+    // number functions in the order of their names, thus the numbering is deterministic
+    Set<String> allNames = new TreeSet<>(pFunctions.keySet());
+    allNames.addAll(pCallees.keySet());
+    allNames.addAll(pCallees.values());
+    int n = allNames.size();
+    names = allNames.toArray(new String[n]);
+    entries = new FunctionEntryNode[n];
+    ImmutableMap.Builder<String, Integer> indexBuilder = ImmutableMap.builder();
+    for (int i = 0; i < n; i++) {
+      indexBuilder.put(names[i], i);
+      entries[i] = pFunctions.get(names[i]);
+    }
+    indexOf = indexBuilder.build();
+
+    // build rows of callees and callers
+    int[] numCallers = new int[n];
+    calleeOffsets = new int[n + 1];
+    calleeTargets = new int[pCallees.size()];
+    int pos = 0;
+    for (int i = 0; i < n; i++) {
+      calleeOffsets[i] = pos;
+      for (String callee : pCallees.get(names[i])) {
+        int j = indexOf.get(callee);
+        calleeTargets[pos++] = j;
+        numCallers[j]++;
+      }
+    }
+    calleeOffsets[n] = pos;
+    callerOffsets = new int[n + 1];
+    for (int i = 0; i < n; i++) {
+      callerOffsets[i + 1] = callerOffsets[i] + numCallers[i];
+    }
+    callerTargets = new int[pos];
+    int[] fill = Arrays.copyOf(callerOffsets, n);
+    for (int i = 0; i < n; i++) {
+      for (int k = calleeOffsets[i]; k < calleeOffsets[i + 1]; k++) {
+        callerTargets[fill[calleeTargets[k]]++] = i;
+      }
+    }
 
-  CallGraph(CFA cfa) {
-    this.cfa = cfa;
-    callers = HashMultimap.create();
-    callees = HashMultimap.create();
+    calleeNames = new ImmutableList[n];
+    callerNames = new ImmutableList[n];
+    calleeEntries = new ImmutableList[n];
+    callerEntries = new ImmutableList[n];
+    for (int i = 0; i < n; i++) {
+      calleeNames[i] = resolveNames(calleeTargets, calleeOffsets[i], calleeOffsets[i + 1]);
+      callerNames[i] = resolveNames(callerTargets, callerOffsets[i], callerOffsets[i + 1]);
+      calleeEntries[i] = resolveEntries(calleeTargets, calleeOffsets[i], calleeOffsets[i + 1]);
+      callerEntries[i] = resolveEntries(callerTargets, callerOffsets[i], callerOffsets[i + 1]);
+    }
+
+    componentOf = new int[n];
+    recursive = new boolean[n];
+    ImmutableList.Builder<String> orderBuilder = ImmutableList.builder();
+    computeComponents(orderBuilder);
+    bottomUpOrder = orderBuilder.build();
+  }
+
+  private ImmutableList<String> resolveNames(int[] pTargets, int pFrom, int pTo) {
+    ImmutableList.Builder<String> builder = ImmutableList.builder();
+    for (int k = pFrom; k < pTo; k++) {
+      builder.add(names[pTargets[k]]);
+    }
+    return builder.build();
   }
 
-  void attach(FunctionEntryNode caller, FunctionEntryNode callee) {
-    callees.put(caller.getFunctionName(), callee.getFunctionName());
-    callers.put(callee.getFunctionName(), caller.getFunctionName());
+  private ImmutableList<FunctionEntryNode> resolveEntries(int[] pTargets, int pFrom, int pTo) {
+    ImmutableList.Builder<FunctionEntryNode> builder = ImmutableList.builder();
+    for (int k = pFrom; k < pTo; k++) {
+      FunctionEntryNode entry = entries[pTargets[k]];
+      if (entry != null) {
+        builder.add(entry);
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Compute strongly connected components by Tarjan's algorithm without recursion. Components
+   * are found in reverse topological order, i.e., callees first.
+   */
+  private void computeComponents(ImmutableList.Builder<String> pOrder) {
+    int n = names.length;
+    int[] index = new int[n];
+    int[] lowLink = new int[n];
+    int[] next = new int[n];
+    boolean[] onStack = new boolean[n];
+    Arrays.fill(index, -1);
+    Deque<Integer> stack = new ArrayDeque<>();
+    Deque<Integer> callStack = new ArrayDeque<>();
+    int counter = 0;
+    int components = 0;
+    for (int root = 0; root < n; root++) {
+      if (index[root] >= 0) {
+        continue;
+      }
+      index[root] = lowLink[root] = counter++;
+      stack.push(root);
+      onStack[root] = true;
+      callStack.push(root);
+      next[root] = calleeOffsets[root];
+      while (!callStack.isEmpty()) {
+        int v = callStack.peek();
+        if (next[v] < calleeOffsets[v + 1]) {
+          int w = calleeTargets[next[v]++];
+          if (w == v) {
+            recursive[v] = true;
+          }
+          if (index[w] < 0) {
+            index[w] = lowLink[w] = counter++;
+            stack.push(w);
+            onStack[w] = true;
+            callStack.push(w);
+            next[w] = calleeOffsets[w];
+          } else if (onStack[w]) {
+            lowLink[v] = Math.min(lowLink[v], index[w]);
+          }
+          continue;
+        }
+        callStack.pop();
+        if (!callStack.isEmpty()) {
+          int parent = callStack.peek();
+          lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+        }
+        if (lowLink[v] == index[v]) {
+          int w;
+          boolean single = true;
+          do {
+            w = stack.pop();
+            onStack[w] = false;
+            componentOf[w] = components;
+            pOrder.add(names[w]);
+            if (w != v) {
+              single = false;
+              recursive[w] = true;
+            }
+          } while (w != v);
+          if (!single) {
+            recursive[v] = true;
+          }
+          components++;
+        }
+      }
+    }
+  }
+
+  private int indexOf(String f) {
+    Integer i = indexOf.get(f);
+    return (i == null) ? -1 : i;
   }
 
   /**
    * Return the set of functions that calls f
    */
   public Collection<String> getCaller(String f) {
-    return callers.get(f);
+    int i = indexOf(f);
+    return (i < 0) ? ImmutableList.<String>of() : callerNames[i];
   }
 
   /**
@@ -61,20 +240,16 @@ public class CallGraph {
    * Remove those without definitions
    */
   public Collection<FunctionEntryNode> getCaller(FunctionEntryNode f) {
-    return FluentIterable.from(getCaller(f.getFunctionName())).transform(
-        new Function<String, FunctionEntryNode>() {
-          @Override
-          public FunctionEntryNode apply(String name) {
-            return cfa.getFunctionHead(name);
-          }
-        }).filter(Predicates.notNull()).toList();
+    int i = indexOf(f.getFunctionName());
+    return (i < 0) ? ImmutableList.<FunctionEntryNode>of() : callerEntries[i];
   }
 
   /**
    * Return the set of functions that are called by f
    */
   public Collection<String> getCallee(String f) {
-    return callees.get(f);
+    int i = indexOf(f);
+    return (i < 0) ? ImmutableList.<String>of() : calleeNames[i];
   }
 
   /**
@@ -82,20 +257,16 @@ public class CallGraph {
    * Remove those without definitions
    */
   public Collection<FunctionEntryNode> getCallee(FunctionEntryNode f) {
-    return FluentIterable.from(getCallee(f.getFunctionName())).transform(
-        new Function<String, FunctionEntryNode>() {
-          @Override
-          public FunctionEntryNode apply(String name) {
-            return cfa.getFunctionHead(name);
-          }
-        }).filter(Predicates.notNull()).toList();
+    int i = indexOf(f.getFunctionName());
+    return (i < 0) ? ImmutableList.<FunctionEntryNode>of() : calleeEntries[i];
   }
 
   /**
    * @return nonnull <=> f is defined
    */
   public Optional<FunctionEntryNode> getFunctionEntryNode(String f) {
-    return Optional.of(cfa.getFunctionHead(f));
+    int i = indexOf(f);
+    return (i < 0) ? Optional.<FunctionEntryNode>absent() : Optional.fromNullable(entries[i]);
   }
 
   public int getNumCaller(FunctionEntryNode f) {
@@ -105,4 +276,78 @@ public class CallGraph {
   public int getNumCallee(FunctionEntryNode f) {
     return getCallee(f).size();
   }
+
+  /**
+   * Return the strongly connected component of f, or -1 if f is unknown. A function never calls
+   * a function whose component is greater than its own.
+   */
+  public int getComponent(String f) {
+    int i = indexOf(f);
+    return (i < 0) ? -1 : componentOf[i];
+  }
+
+  /**
+   * Return whether f calls itself directly or through other functions.
+   */
+  public boolean isRecursive(String f) {
+    int i = indexOf(f);
+    return i >= 0 && recursive[i];
+  }
+
+  /**
+   * Return all functions in reverse topological order, i.e., callees before their callers
+   * unless they are in the same component.
+   */
+  public ImmutableList<String> getReverseTopologicalOrder() {
+    return bottomUpOrder;
+  }
+
+  /**
+   * Collect the defined functions reachable from f within the given call depth, in breadth-first
+   * order. With depth 1 only f itself is reachable; a non-positive depth means no limit.
+   *
+   * @param pFrontier if not null, the defined functions called by the furthest reachable
+   *                  functions but not reachable themselves are added to it
+   */
+  public Set<FunctionEntryNode> getReachable(
+      FunctionEntryNode f, int pDepth,
+      @Nullable Set<FunctionEntryNode> pFrontier) {
+    Set<FunctionEntryNode> reachable = new LinkedHashSet<>();
+    int start = indexOf(f.getFunctionName());
+    if (start < 0) {
+      reachable.add(f);
+      return reachable;
+    }
+    int[] distance = new int[names.length];
+    Arrays.fill(distance, -1);
+    distance[start] = 1;
+    Deque<Integer> queue = new ArrayDeque<>();
+    queue.add(start);
+    while (!queue.isEmpty()) {
+      int v = queue.poll();
+      if (entries[v] != null) {
+        reachable.add(entries[v]);
+      }
+      boolean boundary = pDepth > 0 && distance[v] >= pDepth;
+      for (int k = calleeOffsets[v]; k < calleeOffsets[v + 1]; k++) {
+        int w = calleeTargets[k];
+        if (distance[w] >= 0) {
+          continue;
+        }
+        if (boundary) {
+          if (pFrontier != null && entries[w] != null) {
+            pFrontier.add(entries[w]);
+          }
+        } else {
+          distance[w] = distance[v] + 1;
+          queue.add(w);
+        }
+      }
+    }
+    if (pFrontier != null) {
+      pFrontier.removeAll(reachable);
+    }
+    return reachable;
+  }
+
 }
@@ -14,11 +14,13 @@
  */
 package org.sosy_lab.cpachecker.util.callgraph;
 
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
+
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cfa.model.FunctionCallEdge;
-import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
 
 /**
  * @author tomgu function call graph builder We use this to build function dependencies 1. we need
@@ -43,19 +45,19 @@ public class CallGraphBuilder {
    * Build call graph from CFA
    */
   public CallGraph buildCallGraph(CFA cfa) {
-    CallGraph cg = new CallGraph(cfa);
+    SetMultimap<String, String> callees = LinkedHashMultimap.create();
     for (CFANode node : cfa.getAllNodes()) {
-      FunctionEntryNode caller = cfa.getFunctionHead(node.getFunctionName());
+      String caller = node.getFunctionName();
       int edgeIndex = 0;
       for (edgeIndex = 0; edgeIndex < node.getNumLeavingEdges(); edgeIndex++) {
         CFAEdge edge = node.getLeavingEdge(edgeIndex);
         if (edge instanceof FunctionCallEdge) {
           FunctionCallEdge fce = (FunctionCallEdge) edge;
-          cg.attach(caller, fce.getSuccessor());
+          callees.put(caller, fce.getSuccessor().getFunctionName());
         }
       }
     }
-    return cg;
+    return new CallGraph(cfa.getAllFunctions(), callees);
   }
 
 }
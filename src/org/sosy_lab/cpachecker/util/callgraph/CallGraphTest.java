@@ -0,0 +1,163 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.util.callgraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CParameterDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
+import org.sosy_lab.cpachecker.cfa.model.c.CFunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.types.c.CFunctionType;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+public class CallGraphTest {
+
+  private CallGraph graph;
+  // the same calls with entry nodes for all functions except printf
+  private CallGraph definedGraph;
+
+  @Before
+  public void setUp() {
+    // main -> a <-> b -> c -> d (self-loop), c -> printf
+    SetMultimap<String, String> callees = LinkedHashMultimap.create();
+    callees.put("main", "a");
+    callees.put("a", "b");
+    callees.put("b", "a");
+    callees.put("b", "c");
+    callees.put("c", "d");
+    callees.put("c", "printf");
+    callees.put("d", "d");
+    graph = new CallGraph(ImmutableMap.<String, FunctionEntryNode>of(), callees);
+    ImmutableMap.Builder<String, FunctionEntryNode> functions = ImmutableMap.builder();
+    for (String name : ImmutableList.of("main", "a", "b", "c", "d")) {
+      functions.put(name, dummyFunction(name));
+    }
+    definedGraph = new CallGraph(functions.build(), callees);
+  }
+
+  private static FunctionEntryNode dummyFunction(String name) {
+    CFunctionType functionType = CFunctionType.functionTypeWithReturnType(CNumericTypes.INT);
+    return new CFunctionEntryNode(
+        FileLocation.DUMMY,
+        new CFunctionDeclaration(
+            FileLocation.DUMMY, functionType, name,
+            Collections.<CParameterDeclaration>emptyList()),
+        new FunctionExitNode(name),
+        Collections.<String>emptyList(),
+        Optional.<CVariableDeclaration>absent());
+  }
+
+  private List<String> reachable(String f, int pDepth, @Nullable Set<FunctionEntryNode> pFrontier) {
+    FunctionEntryNode entry = definedGraph.getFunctionEntryNode(f).get();
+    return namesOf(definedGraph.getReachable(entry, pDepth, pFrontier));
+  }
+
+  private static List<String> namesOf(Collection<FunctionEntryNode> pNodes) {
+    List<String> names = new ArrayList<>(pNodes.size());
+    for (FunctionEntryNode node : pNodes) {
+      names.add(node.getFunctionName());
+    }
+    return names;
+  }
+
+  @Test
+  public void testCallersAndCallees() {
+    assertEquals(ImmutableList.of("b", "main"), ImmutableList.copyOf(graph.getCaller("a")));
+    assertEquals(ImmutableList.of("a", "c"), ImmutableList.copyOf(graph.getCallee("b")));
+    assertTrue(graph.getCallee("printf").isEmpty());
+    assertTrue(graph.getCaller("unknown").isEmpty());
+    assertFalse(graph.getFunctionEntryNode("printf").isPresent());
+  }
+
+  @Test
+  public void testComponents() {
+    assertEquals(graph.getComponent("a"), graph.getComponent("b"));
+    assertTrue(graph.getComponent("c") < graph.getComponent("b"));
+    assertTrue(graph.getComponent("b") < graph.getComponent("main"));
+    assertEquals(-1, graph.getComponent("unknown"));
+    assertTrue(graph.isRecursive("a"));
+    assertTrue(graph.isRecursive("d"));
+    assertFalse(graph.isRecursive("c"));
+    assertFalse(graph.isRecursive("main"));
+  }
+
+  @Test
+  public void testReverseTopologicalOrder() {
+    List<String> order = graph.getReverseTopologicalOrder();
+    assertEquals(6, order.size());
+    assertTrue(order.indexOf("d") < order.indexOf("c"));
+    assertTrue(order.indexOf("printf") < order.indexOf("c"));
+    assertTrue(order.indexOf("c") < order.indexOf("b"));
+    assertTrue(order.indexOf("a") < order.indexOf("main"));
+  }
+
+  @Test
+  public void testReachableThroughCycle() {
+    // each function is visited once although a and b call each other and d calls itself
+    assertEquals(ImmutableList.of("main", "a", "b", "c", "d"), reachable("main", 0, null));
+    assertEquals(ImmutableList.of("b", "a", "c", "d"), reachable("b", 0, null));
+    assertEquals(ImmutableList.of("a", "b", "c", "d"), reachable("a", -1, null));
+  }
+
+  @Test
+  public void testReachableSelfRecursion() {
+    Set<FunctionEntryNode> frontier = new LinkedHashSet<>();
+    assertEquals(ImmutableList.of("d"), reachable("d", 0, null));
+    assertEquals(ImmutableList.of("d"), reachable("d", 1, frontier));
+    // the recursive call of d is reachable, thus it is not on the frontier
+    assertTrue(frontier.isEmpty());
+  }
+
+  @Test
+  public void testReachableDepthInCycle() {
+    Set<FunctionEntryNode> frontier = new LinkedHashSet<>();
+    assertEquals(ImmutableList.of("a"), reachable("a", 1, frontier));
+    assertEquals(ImmutableList.of("b"), namesOf(frontier));
+
+    frontier.clear();
+    // b calls back to a, which is already reachable, thus only c is on the frontier
+    assertEquals(ImmutableList.of("a", "b"), reachable("a", 2, frontier));
+    assertEquals(ImmutableList.of("c"), namesOf(frontier));
+
+    frontier.clear();
+    // printf is undefined, thus neither reachable nor on the frontier
+    assertEquals(ImmutableList.of("main", "a", "b", "c"), reachable("main", 4, frontier));
+    assertEquals(ImmutableList.of("d"), namesOf(frontier));
+  }
+
+}
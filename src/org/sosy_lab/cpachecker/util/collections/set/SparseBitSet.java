@@ -0,0 +1,381 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.util.collections.set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * A set of non-negative integers stored as sparse bit vectors.
+ *
+ * Only non-zero 64-bit words are stored, together with their block indexes in ascending order.
+ * Thus the memory is proportional to the number of occupied blocks rather than the largest
+ * element, and union, difference and intersection test are word-parallel merges of two sorted
+ * block lists.
+ *
+ * Elements are enumerated by {@link #nextSetBit(int)} in ascending order:
+ * <pre>
+ *   for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) { ... }
+ * </pre>
+ */
+public final class SparseBitSet {
+
+  private static final int[] EMPTY_BLOCKS = new int[0];
+  private static final long[] EMPTY_WORDS = new long[0];
+
+  // block indexes in ascending order, block i holds the elements [64 * i, 64 * i + 63]
+  private int[] blocks;
+  // non-zero words of the blocks
+  private long[] words;
+  private int size;
+
+  public SparseBitSet() {
+    blocks = EMPTY_BLOCKS;
+    words = EMPTY_WORDS;
+    size = 0;
+  }
+
+  private SparseBitSet(int[] pBlocks, long[] pWords, int pSize) {
+    blocks = pBlocks;
+    words = pWords;
+    size = pSize;
+  }
+
+  public static SparseBitSet of(int... elements) {
+    SparseBitSet set = new SparseBitSet();
+    for (int element : elements) {
+      set.add(element);
+    }
+    return set;
+  }
+
+  public SparseBitSet copy() {
+    return new SparseBitSet(Arrays.copyOf(blocks, size), Arrays.copyOf(words, size), size);
+  }
+
+  private static int blockOf(int element) {
+    return element >>> 6;
+  }
+
+  private int findBlock(int block) {
+    return Arrays.binarySearch(blocks, 0, size, block);
+  }
+
+  /**
+   * Add an element to this set.
+   *
+   * @return whether this set has changed
+   */
+  public boolean add(int element) {
+    checkArgument(element >= 0, "negative element %s", element);
+    int block = blockOf(element);
+    long mask = 1L << element;
+    int pos = findBlock(block);
+    if (pos >= 0) {
+      if ((words[pos] & mask) != 0) {
+        return false;
+      }
+      words[pos] |= mask;
+      return true;
+    }
+    pos = -pos - 1;
+    if (size == blocks.length) {
+      int capacity = Math.max(4, size * 2);
+      blocks = Arrays.copyOf(blocks, capacity);
+      words = Arrays.copyOf(words, capacity);
+    }
+    System.arraycopy(blocks, pos, blocks, pos + 1, size - pos);
+    System.arraycopy(words, pos, words, pos + 1, size - pos);
+    blocks[pos] = block;
+    words[pos] = mask;
+    size++;
+    return true;
+  }
+
+  /**
+   * Remove an element from this set.
+   *
+   * @return whether this set has changed
+   */
+  public boolean remove(int element) {
+    if (element < 0) {
+      return false;
+    }
+    int pos = findBlock(blockOf(element));
+    long mask = 1L << element;
+    if (pos < 0 || (words[pos] & mask) == 0) {
+      return false;
+    }
+    words[pos] &= ~mask;
+    if (words[pos] == 0) {
+      System.arraycopy(blocks, pos + 1, blocks, pos, size - pos - 1);
+      System.arraycopy(words, pos + 1, words, pos, size - pos - 1);
+      size--;
+    }
+    return true;
+  }
+
+  public boolean contains(int element) {
+    if (element < 0) {
+      return false;
+    }
+    int pos = findBlock(blockOf(element));
+    return pos >= 0 && (words[pos] & (1L << element)) != 0;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int cardinality() {
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      count += Long.bitCount(words[i]);
+    }
+    return count;
+  }
+
+  public void clear() {
+    blocks = EMPTY_BLOCKS;
+    words = EMPTY_WORDS;
+    size = 0;
+  }
+
+  /**
+   * Add all elements of the other set to this set.
+   *
+   * @return whether this set has changed
+   */
+  public boolean addAll(SparseBitSet other) {
+    if (other.size == 0 || other == this) {
+      return false;
+    }
+    if (containsAll(other)) {
+      return false;
+    }
+    int[] newBlocks = new int[size + other.size];
+    long[] newWords = new long[size + other.size];
+    int i = 0, j = 0, k = 0;
+    while (i < size && j < other.size) {
+      if (blocks[i] < other.blocks[j]) {
+        newBlocks[k] = blocks[i];
+        newWords[k++] = words[i++];
+      } else if (blocks[i] > other.blocks[j]) {
+        newBlocks[k] = other.blocks[j];
+        newWords[k++] = other.words[j++];
+      } else {
+        newBlocks[k] = blocks[i];
+        newWords[k++] = words[i++] | other.words[j++];
+      }
+    }
+    while (i < size) {
+      newBlocks[k] = blocks[i];
+      newWords[k++] = words[i++];
+    }
+    while (j < other.size) {
+      newBlocks[k] = other.blocks[j];
+      newWords[k++] = other.words[j++];
+    }
+    blocks = newBlocks;
+    words = newWords;
+    size = k;
+    return true;
+  }
+
+  /**
+   * Compute the elements of this set which are not in the other set. Neither set is modified.
+   */
+  public SparseBitSet andNot(SparseBitSet other) {
+    int[] newBlocks = new int[size];
+    long[] newWords = new long[size];
+    int j = 0, k = 0;
+    for (int i = 0; i < size; i++) {
+      while (j < other.size && other.blocks[j] < blocks[i]) {
+        j++;
+      }
+      long word = words[i];
+      if (j < other.size && other.blocks[j] == blocks[i]) {
+        word &= ~other.words[j];
+      }
+      if (word != 0) {
+        newBlocks[k] = blocks[i];
+        newWords[k++] = word;
+      }
+    }
+    return new SparseBitSet(newBlocks, newWords, k);
+  }
+
+  /**
+   * Compute the union of this set and the other set. Neither set is modified.
+   */
+  public SparseBitSet or(SparseBitSet other) {
+    SparseBitSet result = new SparseBitSet(blocks, words, size);
+    if (!result.addAll(other)) {
+      return copy();
+    }
+    return result;
+  }
+
+  /**
+   * Compute the elements of this set which are also in the other set. Neither set is modified.
+   */
+  public SparseBitSet and(SparseBitSet other) {
+    int capacity = Math.min(size, other.size);
+    int[] newBlocks = new int[capacity];
+    long[] newWords = new long[capacity];
+    int i = 0, j = 0, k = 0;
+    while (i < size && j < other.size) {
+      if (blocks[i] < other.blocks[j]) {
+        i++;
+      } else if (blocks[i] > other.blocks[j]) {
+        j++;
+      } else {
+        long word = words[i++] & other.words[j++];
+        if (word != 0) {
+          newBlocks[k] = blocks[i - 1];
+          newWords[k++] = word;
+        }
+      }
+    }
+    return new SparseBitSet(newBlocks, newWords, k);
+  }
+
+  /**
+   * Check whether this set contains all elements of the other set.
+   */
+  public boolean containsAll(SparseBitSet other) {
+    if (other.size > size) {
+      return false;
+    }
+    int i = 0;
+    for (int j = 0; j < other.size; j++) {
+      while (i < size && blocks[i] < other.blocks[j]) {
+        i++;
+      }
+      if (i == size || blocks[i] != other.blocks[j]
+          || (other.words[j] & ~words[i]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Check whether this set and the other set have common elements.
+   */
+  public boolean intersects(SparseBitSet other) {
+    int i = 0, j = 0;
+    while (i < size && j < other.size) {
+      if (blocks[i] < other.blocks[j]) {
+        i++;
+      } else if (blocks[i] > other.blocks[j]) {
+        j++;
+      } else {
+        if ((words[i] & other.words[j]) != 0) {
+          return true;
+        }
+        i++;
+        j++;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Return the smallest element that is greater than or equal to the given one, or -1 if there
+   * is no such element.
+   */
+  public int nextSetBit(int from) {
+    if (from < 0) {
+      from = 0;
+    }
+    int block = blockOf(from);
+    int pos = findBlock(block);
+    if (pos >= 0) {
+      long word = words[pos] & (-1L << from);
+      if (word != 0) {
+        return (block << 6) + Long.numberOfTrailingZeros(word);
+      }
+      pos++;
+    } else {
+      pos = -pos - 1;
+    }
+    if (pos < size) {
+      return (blocks[pos] << 6) + Long.numberOfTrailingZeros(words[pos]);
+    }
+    return -1;
+  }
+
+  /**
+   * Return all elements in ascending order.
+   */
+  public int[] toArray() {
+    int[] result = new int[cardinality()];
+    int k = 0;
+    for (int i = 0; i < size; i++) {
+      int base = blocks[i] << 6;
+      long word = words[i];
+      while (word != 0) {
+        result[k++] = base + Long.numberOfTrailingZeros(word);
+        word &= word - 1;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object pOther) {
+    if (this == pOther) {
+      return true;
+    }
+    if (!(pOther instanceof SparseBitSet)) {
+      return false;
+    }
+    SparseBitSet other = (SparseBitSet) pOther;
+    if (size != other.size) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (blocks[i] != other.blocks[i] || words[i] != other.words[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 1;
+    for (int i = 0; i < size; i++) {
+      hash = 31 * hash + blocks[i];
+      hash = 31 * hash + (int) (words[i] ^ (words[i] >>> 32));
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+      if (sb.length() > 1) {
+        sb.append(", ");
+      }
+      sb.append(i);
+    }
+    return sb.append('}').toString();
+  }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.util.collections.set;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+public class SparseBitSetTest extends TestCase {
+
+  public void testAddAndContains() {
+    SparseBitSet set = new SparseBitSet();
+    assertTrue(set.isEmpty());
+    assertTrue(set.add(3));
+    assertTrue(set.add(1000));
+    assertTrue(set.add(64));
+    assertFalse(set.add(3));
+    assertTrue(set.contains(3));
+    assertTrue(set.contains(64));
+    assertTrue(set.contains(1000));
+    assertFalse(set.contains(4));
+    assertFalse(set.contains(-1));
+    assertEquals(3, set.cardinality());
+    assertTrue(Arrays.equals(new int[]{3, 64, 1000}, set.toArray()));
+  }
+
+  public void testRemove() {
+    SparseBitSet set = SparseBitSet.of(1, 2, 200);
+    assertTrue(set.remove(200));
+    assertFalse(set.remove(200));
+    assertEquals(SparseBitSet.of(1, 2), set);
+    assertTrue(set.remove(1));
+    assertTrue(set.remove(2));
+    assertTrue(set.isEmpty());
+  }
+
+  public void testAddAll() {
+    SparseBitSet set = SparseBitSet.of(1, 130);
+    assertTrue(set.addAll(SparseBitSet.of(2, 130, 5000)));
+    assertFalse(set.addAll(SparseBitSet.of(1, 5000)));
+    assertEquals(SparseBitSet.of(1, 2, 130, 5000), set);
+    assertEquals(SparseBitSet.of(1, 2, 130, 5000).hashCode(), set.hashCode());
+  }
+
+  public void testAndNot() {
+    SparseBitSet set = SparseBitSet.of(1, 2, 130, 5000);
+    SparseBitSet difference = set.andNot(SparseBitSet.of(2, 5000, 7000));
+    assertEquals(SparseBitSet.of(1, 130), difference);
+    assertEquals(4, set.cardinality());
+    assertTrue(set.andNot(set).isEmpty());
+  }
+
+  public void testOrAndAnd() {
+    SparseBitSet set = SparseBitSet.of(1, 130, 5000);
+    SparseBitSet other = SparseBitSet.of(2, 130, 7000);
+    assertEquals(SparseBitSet.of(1, 2, 130, 5000, 7000), set.or(other));
+    assertEquals(SparseBitSet.of(130), set.and(other));
+    assertTrue(set.and(SparseBitSet.of(0, 131)).isEmpty());
+    assertEquals(SparseBitSet.of(1, 130, 5000), set);
+    SparseBitSet union = set.or(SparseBitSet.of(1));
+    union.add(3);
+    assertFalse(set.contains(3));
+  }
+
+  public void testContainsAllAndIntersects() {
+    SparseBitSet set = SparseBitSet.of(1, 2, 130, 5000);
+    assertTrue(set.containsAll(SparseBitSet.of(2, 5000)));
+    assertFalse(set.containsAll(SparseBitSet.of(2, 5001)));
+    assertTrue(set.containsAll(new SparseBitSet()));
+    assertTrue(set.intersects(SparseBitSet.of(0, 130)));
+    assertFalse(set.intersects(SparseBitSet.of(0, 131, 4999)));
+  }
+
+  public void testNextSetBit() {
+    SparseBitSet set = SparseBitSet.of(5, 63, 64, 700);
+    assertEquals(5, set.nextSetBit(0));
+    assertEquals(63, set.nextSetBit(6));
+    assertEquals(64, set.nextSetBit(64));
+    assertEquals(700, set.nextSetBit(65));
+    assertEquals(-1, set.nextSetBit(701));
+  }
+
+}
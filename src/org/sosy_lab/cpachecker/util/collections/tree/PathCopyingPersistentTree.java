@@ -58,6 +58,8 @@ public class PathCopyingPersistentTree<S extends Comparable<? super S>, E> {
   public static class PersistentTreeNode<S extends Comparable<? super S>, E> {
     private final PersistentMap<S, PersistentTreeNode<S, E>> children;
     private final E element;
+    // cached hash code, 0 if not computed yet (nodes are immutable, thus benign data race)
+    private int hash = 0;
 
     public PersistentTreeNode() {
       this.element = null;
@@ -177,18 +179,26 @@ public class PathCopyingPersistentTree<S extends Comparable<? super S>, E> {
 
     @Override
     public boolean equals(Object o) {
-      if (o == null || !(o instanceof PersistentTreeNode<?, ?>)) {
+      if (this == o) {
+        // unchanged subtrees are shared by reference
+        return true;
+      } else if (o == null || !(o instanceof PersistentTreeNode<?, ?>)) {
         return false;
       } else {
         PersistentTreeNode<?, ?> that = (PersistentTreeNode<?, ?>) o;
-        return (Objects.equal(this.element, that.element) && Objects
-            .equal(this.children, that.children));
+        return hashCode() == that.hashCode() && (Objects.equal(this.element, that.element) &&
+            Objects.equal(this.children, that.children));
       }
     }
 
     @Override
     public int hashCode() {
-      return Objects.hashCode(element, children);
+      int h = hash;
+      if (h == 0) {
+        h = Objects.hashCode(element, children);
+        hash = h;
+      }
+      return h;
     }
   }
 
@@ -771,7 +781,8 @@ public class PathCopyingPersistentTree<S extends Comparable<? super S>, E> {
 
   private static <S extends Comparable<? super S>, E> int compareNode(
       PersistentTreeNode<S, E> a, PersistentTreeNode<S, E> b, TreeComparator<S, E> comparator) {
-    if (a == null && b == null) {
+    if (a == b) {
+      // identical subtrees (including the case where both are null)
       return 0;
     } else if (a == null) {
       return comparator.nullValueFirst() ? -1 : 1;  // subtree 'b' is non-empty
@@ -816,7 +827,8 @@ public class PathCopyingPersistentTree<S extends Comparable<? super S>, E> {
       PersistentTreeNode<S, E> a,
       PersistentTreeNode<S, E> b,
       TreeLessEqualComparator<S, E> comparator) {
-    if (a == null && b == null) {
+    if (a == b) {
+      // identical subtrees (including the case where both are null)
       return true;
     } else if (a == null) {
       return comparator.nullValueFirst();   // subtree 'b' is non-empty
@@ -207,4 +207,33 @@ public class PathCopyingPersistentTreeTest extends TestCase {
     assertFalse(t1.hashCode() == tv3.hashCode());
     assertFalse(t1.hashCode() == tv4.hashCode());
   }
+
+  /**
+   * Unchanged subtrees are shared, and structurally equal trees are equal
+   */
+  public void testSharedSubtree() {
+    @SuppressWarnings("unchecked")
+    List<String> prefix1 = Arrays.asList(new String[]{
+        "a", "x"
+    });
+    @SuppressWarnings("unchecked")
+    List<String> path1 = Arrays.asList(new String[]{
+        "a", "x", "->", "b"
+    });
+    @SuppressWarnings("unchecked")
+    List<String> path2 = Arrays.asList(new String[]{
+        "a", "y", "->", "b"
+    });
+
+    PathCopyingPersistentTree<String, String> t0 = PathCopyingPersistentTree.of();
+    PathCopyingPersistentTree<String, String> t1 = t0.setElementAndCopy(path1, "v1")
+        .setElementAndCopy(path2, "v2");
+    PathCopyingPersistentTree<String, String> t2 = t1.setElementAndCopy(path2, "v3");
+    assertSame(t1.getSubtreeRoot(prefix1), t2.getSubtreeRoot(prefix1));
+    PathCopyingPersistentTree<String, String> t3 = t0.setElementAndCopy(path2, "v3")
+        .setElementAndCopy(path1, "v1");
+    assertEquals(t2, t3);
+    assertEquals(t2.hashCode(), t3.hashCode());
+    assertFalse(t1.equals(t2));
+  }
 }
@@ -0,0 +1,153 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.util.globalinfo;
+
+import com.google.common.base.Preconditions;
+
+import org.sosy_lab.cpachecker.core.bugfix.FixProvider;
+import org.sosy_lab.cpachecker.core.bugfix.FixProvider.FixRegistry;
+import org.sosy_lab.cpachecker.core.summary.manage.SummaryProvider;
+import org.sosy_lab.cpachecker.core.summary.manage.SummaryProvider.SummaryRegistry;
+import org.sosy_lab.cpachecker.cpa.pointer2.util.LocationIndex;
+
+import java.util.concurrent.Callable;
+
+import javax.annotation.Nullable;
+
+/**
+ * The context of one analysis, which carries the information formerly kept in process-wide
+ * singletons: CFA information and I/O manager (in {@link GlobalInfo}), summary stores, fix
+ * information and the interned memory locations of pointer analysis.
+ *
+ * A context is bound to the threads running the analysis. Threads created by a bound thread
+ * inherit its context. If no context is bound, the default context is used, which preserves the
+ * behavior of running a single analysis per process. Several analyses could share one JVM by
+ * running each of them in its own context.
+ */
+public final class AnalysisContext {
+
+  private static final AnalysisContext defaultContext = new AnalysisContext();
+
+  private static final InheritableThreadLocal<AnalysisContext> boundContext =
+      new InheritableThreadLocal<>();
+
+  private final GlobalInfo globalInfo;
+  private final SummaryRegistry summaryRegistry;
+  private final FixRegistry fixRegistry;
+  private final LocationIndex locationIndex;
+
+  private AnalysisContext() {
+    this(new GlobalInfo(), SummaryProvider.createRegistry(), FixProvider.createRegistry(),
+        new LocationIndex());
+  }
+
+  private AnalysisContext(
+      GlobalInfo pGlobalInfo, SummaryRegistry pSummaryRegistry,
+      FixRegistry pFixRegistry, LocationIndex pLocationIndex) {
+    globalInfo = pGlobalInfo;
+    summaryRegistry = pSummaryRegistry;
+    fixRegistry = pFixRegistry;
+    locationIndex = pLocationIndex;
+  }
+
+  /**
+   * Create a fresh analysis context. The tool directory is inherited from the current context if
+   * it has been set up.
+   */
+  public static AnalysisContext create() {
+    AnalysisContext context = new AnalysisContext();
+    String toolDirectory = current().globalInfo.getToolDirectory();
+    if (toolDirectory != null) {
+      context.globalInfo.setUpToolDirectory(toolDirectory);
+    }
+    return context;
+  }
+
+  /**
+   * Create the context of a worker that analyzes concurrently with other workers of this context.
+   * The worker shares the CFA, the summaries, the fix information and the memory locations of this
+   * context, while its CPA information, error reports and I/O manager are its own. Error reports
+   * of the worker should be merged by {@link GlobalInfo#mergeBugCollector(GlobalInfo)} when it finishes.
+   */
+  public AnalysisContext createWorkerContext() {
+    return new AnalysisContext(globalInfo.forkForWorker(), summaryRegistry, fixRegistry,
+        locationIndex);
+  }
+
+  /**
+   * Get the context bound to the current thread, or the default context if no one is bound.
+   */
+  public static AnalysisContext current() {
+    AnalysisContext context = boundContext.get();
+    return context != null ? context : defaultContext;
+  }
+
+  /**
+   * Bind the specified context to the current thread.
+   *
+   * @param pContext the context to be bound, {@code null} for the default context
+   * @return the previously bound context (possibly {@code null}), which should be restored by
+   * calling this method again when the analysis in the specified context finishes
+   */
+  @Nullable
+  public static AnalysisContext bind(@Nullable AnalysisContext pContext) {
+    AnalysisContext previous = boundContext.get();
+    if (pContext == null || pContext == defaultContext) {
+      boundContext.remove();
+    } else {
+      boundContext.set(pContext);
+    }
+    return previous;
+  }
+
+  public GlobalInfo getGlobalInfo() {
+    return globalInfo;
+  }
+
+  public SummaryRegistry getSummaryRegistry() {
+    return summaryRegistry;
+  }
+
+  public FixRegistry getFixRegistry() {
+    return fixRegistry;
+  }
+
+  public LocationIndex getLocationIndex() {
+    return locationIndex;
+  }
+
+  public BasicIOManager getIoManager() {
+    return globalInfo.getIoManager();
+  }
+
+  public boolean isDefault() {
+    return this == defaultContext;
+  }
+
+  /**
+   * Run the specified action in this context, and restore the original context of the current
+   * thread after that.
+   */
+  public <T> T callIn(Callable<T> pAction) throws Exception {
+    Preconditions.checkNotNull(pAction);
+    AnalysisContext previous = bind(this);
+    try {
+      return pAction.call();
+    } finally {
+      bind(previous);
+    }
+  }
+
+}
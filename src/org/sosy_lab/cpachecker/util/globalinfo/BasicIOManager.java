@@ -39,6 +39,13 @@ public class BasicIOManager {
     secureMode = true;
   }
 
+  BasicIOManager(BasicIOManager pOrigin) {
+    toolDirectory = pOrigin.toolDirectory;
+    programDenotation = pOrigin.programDenotation;
+    basicOutputDirectory = pOrigin.basicOutputDirectory;
+    secureMode = pOrigin.secureMode;
+  }
+
   void updateProgramNames(String programs) {
     programDenotation = programs;
   }
@@ -66,27 +73,54 @@ public class BasicIOManager {
 
   private static final String OUTPUT_OPTION = "output.path";
 
+  /**
+   * Create a configuration whose output files are resolved in the given directory, and update the
+   * default file type converter accordingly. The default converter is shared by the whole
+   * process, thus concurrent analysis workers should use {@link #createPathConfiguration} instead.
+   */
   public static Configuration setupPaths(
       String newDirectory, Configuration pConfig, boolean
       pSecureMode)
       throws InvalidConfigurationException {
+    Configuration newConfig = withOutputPath(newDirectory, pConfig);
+    FileTypeConverter fileTypeConverter = createConverter(newConfig, pSecureMode);
+    Configuration.getDefaultConverters().put(FileOption.class, fileTypeConverter);
+    return withConverter(newConfig, fileTypeConverter);
+  }
+
+  /**
+   * Create a configuration whose output files are resolved in the given directory, without
+   * changing any state shared by other analyses.
+   */
+  public static Configuration createPathConfiguration(
+      String newDirectory, Configuration pConfig, boolean pSecureMode)
+      throws InvalidConfigurationException {
+    Configuration newConfig = withOutputPath(newDirectory, pConfig);
+    return withConverter(newConfig, createConverter(newConfig, pSecureMode));
+  }
 
+  private static Configuration withOutputPath(String newDirectory, Configuration pConfig)
+      throws InvalidConfigurationException {
     ConfigurationBuilder builder = Configuration.builder();
     builder.copyFrom(pConfig);
     builder.clearOption(OUTPUT_OPTION);
     builder.setOption(OUTPUT_OPTION, newDirectory);
-    Configuration newConfig = builder.build();
+    return builder.build();
+  }
 
-    FileTypeConverter fileTypeConverter = pSecureMode ?
-                                          FileTypeConverter.createWithSafePathsOnly(newConfig) :
-                                          FileTypeConverter.create(newConfig);
+  private static FileTypeConverter createConverter(Configuration pConfig, boolean pSecureMode)
+      throws InvalidConfigurationException {
+    return pSecureMode ?
+           FileTypeConverter.createWithSafePathsOnly(pConfig) :
+           FileTypeConverter.create(pConfig);
+  }
 
+  private static Configuration withConverter(
+      Configuration pConfig,
+      FileTypeConverter pConverter) throws InvalidConfigurationException {
     // update file type converter since output directory may changes
-    Configuration config = Configuration.builder().copyFrom(newConfig).addConverter(FileOption
-        .class, fileTypeConverter).build();
-    Configuration.getDefaultConverters().put(FileOption.class, fileTypeConverter);
-
-    return config;
+    return Configuration.builder().copyFrom(pConfig).addConverter(FileOption.class, pConverter)
+        .build();
   }
 
   public static String getCurrentOutputPath(Configuration pConfig) {
@@ -57,6 +57,10 @@ public class CFAInfo {
   private final Map<String, CType> var2Type;
 
   CFAInfo(CFA cfa) {
+    this(cfa, CallGraphBuilder.getInstance().buildCallGraph(cfa));
+  }
+
+  CFAInfo(CFA cfa, CallGraph pCallGraph) {
     this.cfa = cfa;
     // initialize node number to node map
     HashMap<Integer, CFANode> nodeNumberToNode = new HashMap<>();
@@ -68,8 +72,7 @@ public class CFAInfo {
     name2Fun = Collections.unmodifiableMap(collectFunctionDeclarations(cfa));
     // variable declarations
     var2Type = Collections.unmodifiableMap(collectVariableDeclarations(cfa));
-    // build call graph
-    callGraph = CallGraphBuilder.getInstance().buildCallGraph(cfa);
+    callGraph = pCallGraph;
   }
 
   private Map<String, CFunctionDeclaration> collectFunctionDeclarations(CFA cfa) {
@@ -35,6 +35,7 @@ import org.sosy_lab.cpachecker.cpa.constraints.checker.PreprocessInfoManager;
 import org.sosy_lab.cpachecker.cpa.location.LocationState;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateCPA;
 import org.sosy_lab.cpachecker.util.CPAs;
+import org.sosy_lab.cpachecker.util.callgraph.CallGraph;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.reflect.ClassManager;
@@ -46,10 +47,12 @@ import java.util.Set;
 import javax.annotation.Nullable;
 
 
+/**
+ * Analysis-wide information. Each {@link AnalysisContext} owns an instance of this class, and
+ * {@link #getInstance()} returns the one of the context bound to the current thread.
+ */
 public class GlobalInfo {
 
-  private static GlobalInfo instance;
-
   private CFAInfo cfaInfo;
   private AutomatonInfo automatonInfo = new AutomatonInfo();
   private ConfigurableProgramAnalysis cpa;
@@ -70,21 +73,58 @@ public class GlobalInfo {
   // inserted by CP Wang
   private HashMap<LocationState, ApronState> apronInvariant = new HashMap<>();
 
-  private GlobalInfo() {
+  GlobalInfo() {
 
   }
 
+  /**
+   * Create the information of an analysis worker. The worker shares the CFA and the information
+   * derived from the program with this one, but it has its own CPA information, bug collector
+   * and I/O manager.
+   */
+  GlobalInfo forkForWorker() {
+    GlobalInfo fork = new GlobalInfo();
+    fork.cfaInfo = cfaInfo;
+    fork.functionMapManager = functionMapManager;
+    fork.classManager = classManager;
+    fork.preInfoManager = preInfoManager;
+    fork.apronInvariant = apronInvariant;
+    fork.ioManager = ioManager == null ? null : new BasicIOManager(ioManager);
+    return fork;
+  }
+
   public static GlobalInfo getInstance() {
-    if (instance == null) {
-      instance = new GlobalInfo();
-    }
-    return instance;
+    return AnalysisContext.current().getGlobalInfo();
   }
 
   public PreprocessInfoManager getPreInfoManager() {
     return preInfoManager;
   }
 
+  /**
+   * Replace the manager for the information collected by the parser, e.g., for collecting the
+   * information of a single translation unit.
+   *
+   * @return the previous manager
+   */
+  public PreprocessInfoManager setPreInfoManager(PreprocessInfoManager pPreInfoManager) {
+    PreprocessInfoManager previous = preInfoManager;
+    preInfoManager = Preconditions.checkNotNull(pPreInfoManager);
+    return previous;
+  }
+
+  /**
+   * Add the information collected by the parser that was stored elsewhere, e.g., in a cache.
+   */
+  public void addPreprocessInfo(PreprocessInfoManager pPreInfo) {
+    preInfoManager.addAll(pPreInfo);
+    if (functionMapManager != null) {
+      for (String stopFunction : pPreInfo.getStopFunctions()) {
+        functionMapManager.addStopFunction(stopFunction);
+      }
+    }
+  }
+
   public Set<CFunctionDeclaration> getCStaticFunctions() {
     return preInfoManager.getcStaticFunctionDecls();
   }
@@ -93,6 +133,13 @@ public class GlobalInfo {
     cfaInfo = new CFAInfo(cfa);
   }
 
+  /**
+   * Store the CFA together with its call graph, e.g., when both are loaded from a snapshot.
+   */
+  public void storeCFA(CFA cfa, CallGraph callGraph) {
+    cfaInfo = new CFAInfo(cfa, callGraph);
+  }
+
   public Optional<CFAInfo> getCFAInfo() {
     return Optional.fromNullable(cfaInfo);
   }
@@ -159,6 +206,13 @@ public class GlobalInfo {
   /* bug manager */
   /* *********** */
 
+  /**
+   * Merge the error reports collected by an analysis worker into this one.
+   */
+  public void mergeBugCollector(GlobalInfo pWorkerInfo) {
+    bugCollector.mergeFrom(pWorkerInfo.bugCollector);
+  }
+
   public void updateErrorCollector(ErrorReport error) {
     bugCollector.addErrorRecord(error);
   }
@@ -199,6 +253,11 @@ public class GlobalInfo {
     ioManager.updateProgramNames(programs);
   }
 
+  @Nullable
+  String getToolDirectory() {
+    return ioManager == null ? null : ioManager.getRootDirectory();
+  }
+
   public BasicIOManager getIoManager() {
     Preconditions.checkState(ioManager != null);
     return ioManager;
@@ -0,0 +1,121 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.util.resources;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A limit that measures the heap memory of this JVM that is still in use after garbage
+ * collection, i.e., the sum of the collection usage of all heap memory pools. Garbage that has
+ * not been collected yet does not count.
+ * Note that the heap is shared by all threads, thus this limit is process-wide: it cannot
+ * attribute the usage to one of several tasks running concurrently.
+ * Only pools collected after the creation of the limit are considered, such that the usage
+ * measured at an earlier collection, e.g., of data released since then, does not exceed the limit.
+ */
+public class HeapUsageLimit implements ResourceLimit {
+
+  private static final ImmutableList<MemoryPoolMXBean> heapPools = collectHeapPools();
+  private static final ImmutableList<GarbageCollectorMXBean> collectors =
+      ImmutableList.copyOf(ManagementFactory.getGarbageCollectorMXBeans());
+
+  private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+  private final long limit;
+  // the number of collections of each collector when this limit is created
+  private final long[] initialCollections;
+
+  private HeapUsageLimit(long pLimit) {
+    checkArgument(pLimit > 0);
+    limit = pLimit;
+    initialCollections = new long[collectors.size()];
+    for (int i = 0; i < initialCollections.length; i++) {
+      initialCollections[i] = collectors.get(i).getCollectionCount();
+    }
+  }
+
+  public static HeapUsageLimit ofMegabytes(long megabytes) {
+    return new HeapUsageLimit(megabytes * BYTES_PER_MEGABYTE);
+  }
+
+  private static ImmutableList<MemoryPoolMXBean> collectHeapPools() {
+    ImmutableList.Builder<MemoryPoolMXBean> builder = ImmutableList.builder();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      // the collection usage is null if the pool is not collected
+      if (pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null) {
+        builder.add(pool);
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Get the names of the pools collected since the creation of this limit.
+   */
+  private Set<String> getCollectedPools() {
+    Set<String> collected = new HashSet<>();
+    for (int i = 0; i < initialCollections.length; i++) {
+      GarbageCollectorMXBean collector = collectors.get(i);
+      // the count is -1 if it is undefined for this collector
+      long count = collector.getCollectionCount();
+      if (count < 0 || count > initialCollections[i]) {
+        collected.addAll(Arrays.asList(collector.getMemoryPoolNames()));
+      }
+    }
+    return collected;
+  }
+
+  @Override
+  public long getCurrentValue() {
+    Set<String> collected = getCollectedPools();
+    long used = 0;
+    for (MemoryPoolMXBean pool : heapPools) {
+      if (collected.contains(pool.getName())) {
+        MemoryUsage usage = pool.getCollectionUsage();
+        if (usage != null) {
+          used += usage.getUsed();
+        }
+      }
+    }
+    return used;
+  }
+
+  @Override
+  public boolean isExceeded(long pCurrentValue) {
+    return pCurrentValue >= limit;
+  }
+
+  @Override
+  public long nanoSecondsToNextCheck(long pCurrentValue) {
+    // memory usage cannot be predicted
+    return 0;
+  }
+
+  @Override
+  public String getName() {
+    return "heap limit of " + (limit / BYTES_PER_MEGABYTE) + "MB after garbage collection";
+  }
+}
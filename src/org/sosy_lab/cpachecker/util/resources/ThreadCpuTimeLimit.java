@@ -0,0 +1,97 @@
+/*
+ * IntPTI: integer error fixing by proper-type inference
+ * Copyright (c) 2017.
+ *
+ * Open-source component:
+ *
+ * CPAchecker
+ * Copyright (C) 2007-2014  Dirk Beyer
+ *
+ * Guava: Google Core Libraries for Java
+ * Copyright (C) 2010-2006  Google
+ *
+ *
+ */
+package org.sosy_lab.cpachecker.util.resources;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.sosy_lab.common.time.TimeSpan;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+
+/**
+ * A limit that measures the CPU time used by a single thread
+ * (if available on this JVM).
+ * Unlike {@link ProcessCpuTimeLimit}, this limit is not affected by other threads,
+ * thus it can bound one of several tasks running concurrently.
+ */
+public class ThreadCpuTimeLimit implements ResourceLimit {
+
+  private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+  private final long threadId;
+  private final long duration;
+  private final long endTime;
+
+  private ThreadCpuTimeLimit(long pThreadId, long pStart, long pLimit, TimeUnit pUnit) {
+    checkArgument(pLimit > 0);
+    threadId = pThreadId;
+    duration = TimeUnit.NANOSECONDS.convert(pLimit, pUnit);
+    endTime = pStart + duration;
+  }
+
+  /**
+   * Create a limit for the CPU time used by the given thread from now on.
+   *
+   * @throws JMException If reading the cpu time of threads is unsupported.
+   */
+  public static ThreadCpuTimeLimit fromNowOn(TimeSpan timeSpan, Thread thread)
+      throws JMException {
+    long threadId = thread.getId();
+    return new ThreadCpuTimeLimit(threadId, read(threadId), timeSpan.asNanos(),
+        TimeUnit.NANOSECONDS);
+  }
+
+  private static long read(long pThreadId) throws JMException {
+    if (!threadBean.isThreadCpuTimeSupported() || !threadBean.isThreadCpuTimeEnabled()) {
+      throw new JMException("Current platform does not support reading the thread cpu time");
+    }
+    long time = threadBean.getThreadCpuTime(pThreadId);
+    if (time < 0) {
+      // value is -1 if the thread is not alive
+      throw new JMException("Could not read the cpu time of thread " + pThreadId);
+    }
+    return time;
+  }
+
+  @Override
+  public long getCurrentValue() {
+    // -1 if the thread has terminated in the meantime
+    return threadBean.getThreadCpuTime(threadId);
+  }
+
+  @Override
+  public boolean isExceeded(long pCurrentValue) {
+    return pCurrentValue >= endTime;
+  }
+
+  @Override
+  public long nanoSecondsToNextCheck(long pCurrentValue) {
+    if (pCurrentValue < 0) {
+      // the thread is gone, we disable this limit
+      return Long.MAX_VALUE;
+    }
+    // a single thread cannot use more cpu time than wall time
+    return endTime - pCurrentValue;
+  }
+
+  @Override
+  public String getName() {
+    return "thread CPU-time limit of " + TimeUnit.NANOSECONDS.toSeconds(duration) + "s";
+  }
+}
@@ -69,6 +69,15 @@ public final class BugCollector {
     errorList.add(error);
   }
 
+  /**
+   * Merge error reports from another collector, such as the one of a concurrent analysis worker.
+   * Both the exported and the pending error reports are merged.
+   */
+  public void mergeFrom(BugCollector other) {
+    errorList.addAll(other.errorList);
+    counter += other.counter;
+  }
+
   public static Map<String, Integer> errorIndexes = new HashMap<>();
 
   /**
@@ -129,6 +138,13 @@ public final class BugCollector {
 
   public void printErrorTraces(List<ErrorReport> errors) {
 
+    // error indexes are shared by all collectors
+    synchronized (errorIndexes) {
+      printErrorTraces0(errors);
+    }
+  }
+
+  private void printErrorTraces0(List<ErrorReport> errors) {
     String projectPath = System.getProperty("user.dir");
     String errorTracePath = projectPath + "/ErrorTraces";
     File errorDir = new File(errorTracePath);